@@ -0,0 +1,80 @@
+/*
+ * Copyright (c) 2017 Brocade Communications Systems, Inc. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.jsonrpc.benchmarks;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.ServerSocket;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.opendaylight.mdsal.binding.generator.impl.ModuleInfoBackedContext;
+import org.opendaylight.yangtools.yang.binding.util.BindingReflections;
+import org.opendaylight.yangtools.yang.model.api.SchemaContext;
+
+/**
+ * Helpers shared by benchmarks.
+ */
+final class BenchmarkSupport {
+    /**
+     * In-process transport, measures serialization and dispatch without
+     * network stack.
+     */
+    static final String INPROC = "inproc";
+    /**
+     * TCP transport over loopback interface.
+     */
+    static final String TCP = "tcp";
+    private static final AtomicInteger INPROC_COUNTER = new AtomicInteger();
+    private static SchemaContext schemaContext;
+
+    private BenchmarkSupport() {
+        // no instantiation here
+    }
+
+    /**
+     * Allocate pair of endpoints for given transport.
+     *
+     * @param transport {@link #INPROC} or {@link #TCP}
+     * @return two element array, URI to bind responder to and URI to connect
+     *         requester to
+     */
+    static String[] endpoints(String transport) {
+        if (INPROC.equals(transport)) {
+            final String uri = "inproc://benchmark-" + INPROC_COUNTER.incrementAndGet();
+            return new String[] { uri, uri };
+        }
+        if (TCP.equals(transport)) {
+            final int port = getFreeTcpPort();
+            return new String[] { "tcp://*:" + port, "tcp://127.0.0.1:" + port };
+        }
+        throw new IllegalArgumentException("Unknown transport : " + transport);
+    }
+
+    static int getFreeTcpPort() {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Get {@link SchemaContext} built from all YANG modules on classpath.
+     * Context is created only once per JVM, as it is expensive.
+     *
+     * @return {@link SchemaContext}
+     */
+    static synchronized SchemaContext getSchemaContext() {
+        if (schemaContext == null) {
+            final ModuleInfoBackedContext ctx = ModuleInfoBackedContext.create();
+            ctx.addModuleInfos(BindingReflections.loadModuleInfos());
+            schemaContext = ctx.tryToCreateSchemaContext().get();
+        }
+        return schemaContext;
+    }
+}
@@ -0,0 +1,15 @@
+/*
+ * Copyright (c) 2017 Brocade Communications Systems, Inc. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.jsonrpc.benchmarks;
+
+/**
+ * Minimal service used to measure request/reply round trip.
+ */
+public interface EchoService extends AutoCloseable {
+    String echo(String msg);
+}
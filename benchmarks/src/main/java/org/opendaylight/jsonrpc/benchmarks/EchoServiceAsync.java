@@ -0,0 +1,17 @@
+/*
+ * Copyright (c) 2017 Brocade Communications Systems, Inc. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.jsonrpc.benchmarks;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Asynchronous view of {@link EchoService}, used to pipeline requests.
+ */
+public interface EchoServiceAsync extends AutoCloseable {
+    CompletableFuture<String> echo(String msg);
+}
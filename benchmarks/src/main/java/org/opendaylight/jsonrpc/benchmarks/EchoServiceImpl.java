@@ -0,0 +1,23 @@
+/*
+ * Copyright (c) 2017 Brocade Communications Systems, Inc. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.jsonrpc.benchmarks;
+
+/**
+ * Server side of {@link EchoService}.
+ */
+public class EchoServiceImpl implements EchoService {
+    @Override
+    public String echo(String msg) {
+        return msg;
+    }
+
+    @Override
+    public void close() {
+        // NOOP
+    }
+}
@@ -0,0 +1,71 @@
+/*
+ * Copyright (c) 2017 Brocade Communications Systems, Inc. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.jsonrpc.benchmarks;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import org.opendaylight.jsonrpc.hmap.DataType;
+import org.opendaylight.jsonrpc.hmap.HierarchicalEnumHashMap;
+import org.opendaylight.jsonrpc.hmap.HierarchicalEnumMap;
+import org.opendaylight.jsonrpc.hmap.JsonPathCodec;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParser;
+
+/**
+ * Endpoint lookup, performed for every data operation of mounted peer.
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class HierarchicalEnumHashMapBenchmark {
+    private static final int ENTRIES = 64;
+    private HierarchicalEnumMap<JsonElement, DataType, String> pathMap;
+    private JsonElement shallowPath;
+    private JsonElement deepPath;
+
+    @Setup
+    public void setup() {
+        final JsonParser parser = new JsonParser();
+        pathMap = HierarchicalEnumHashMap.create(DataType.class, JsonPathCodec.create());
+        pathMap.put(parser.parse("{}"), DataType.CONFIGURATION_DATA, "zmq://127.0.0.1:10000");
+        for (int i = 0; i < ENTRIES; i++) {
+            pathMap.put(parser.parse(topologyPath(i)), DataType.CONFIGURATION_DATA, "zmq://127.0.0.1:" + (10001 + i));
+        }
+        shallowPath = parser.parse("{\"network-topology:network-topology\":{}}");
+        deepPath = parser.parse(topologyPath(ENTRIES / 2));
+    }
+
+    private static String topologyPath(int index) {
+        return "{\"network-topology:network-topology\":{\"topology\":[{\"topology-id\":\"topo-" + index + "\"}]}}";
+    }
+
+    @Benchmark
+    public Optional<String> lookupShallow() {
+        return pathMap.lookup(shallowPath, DataType.CONFIGURATION_DATA);
+    }
+
+    @Benchmark
+    public Optional<String> lookupDeep() {
+        return pathMap.lookup(deepPath, DataType.CONFIGURATION_DATA);
+    }
+}
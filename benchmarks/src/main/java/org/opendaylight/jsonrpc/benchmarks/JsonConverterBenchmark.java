@@ -0,0 +1,66 @@
+/*
+ * Copyright (c) 2017 Brocade Communications Systems, Inc. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.jsonrpc.benchmarks;
+
+import java.util.Map.Entry;
+import java.util.concurrent.TimeUnit;
+
+import org.opendaylight.jsonrpc.impl.JsonConverter;
+import org.opendaylight.jsonrpc.impl.TestUtils;
+import org.opendaylight.jsonrpc.model.JSONRPCArg;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
+import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.google.gson.JsonElement;
+
+/**
+ * Conversion between {@link NormalizedNode} and JSON, done by bridge for every
+ * data operation in both directions.
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class JsonConverterBenchmark {
+    private JsonConverter converter;
+    private YangInstanceIdentifier path;
+    private NormalizedNode<?, ?> data;
+    private JsonElement json;
+
+    @Setup
+    public void setup() {
+        converter = new JsonConverter(BenchmarkSupport.getSchemaContext());
+        final Entry<YangInstanceIdentifier, NormalizedNode<?, ?>> topology = TestUtils
+                .getMockTopologyAsDom(BenchmarkSupport.getSchemaContext());
+        path = topology.getKey();
+        data = topology.getValue();
+        json = converter.convert(path, data).data;
+    }
+
+    @Benchmark
+    public JSONRPCArg toJson() {
+        return converter.convert(path, data);
+    }
+
+    @Benchmark
+    public NormalizedNode<?, ?> fromJson() {
+        return converter.jsonElementToNormalizedNode(json, path);
+    }
+}
@@ -0,0 +1,132 @@
+/*
+ * Copyright (c) 2017 Brocade Communications Systems, Inc. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.jsonrpc.benchmarks;
+
+import java.net.URISyntaxException;
+import java.util.Map.Entry;
+import java.util.concurrent.TimeUnit;
+
+import org.opendaylight.controller.md.sal.common.api.data.LogicalDatastoreType;
+import org.opendaylight.controller.md.sal.common.api.data.ReadFailedException;
+import org.opendaylight.controller.md.sal.common.api.data.TransactionCommitFailedException;
+import org.opendaylight.controller.md.sal.dom.api.DOMDataBroker;
+import org.opendaylight.controller.md.sal.dom.api.DOMDataWriteTransaction;
+import org.opendaylight.jsonrpc.bus.messagelib.DefaultTransportFactory;
+import org.opendaylight.jsonrpc.bus.messagelib.ThreadedSession;
+import org.opendaylight.jsonrpc.bus.messagelib.TransportFactory;
+import org.opendaylight.jsonrpc.hmap.DataType;
+import org.opendaylight.jsonrpc.hmap.HierarchicalEnumHashMap;
+import org.opendaylight.jsonrpc.hmap.HierarchicalEnumMap;
+import org.opendaylight.jsonrpc.hmap.JsonPathCodec;
+import org.opendaylight.jsonrpc.impl.DataBrokerTestCustomizer;
+import org.opendaylight.jsonrpc.impl.JsonConverter;
+import org.opendaylight.jsonrpc.impl.JsonRPCTx;
+import org.opendaylight.jsonrpc.impl.NormalizedNodesHelper;
+import org.opendaylight.jsonrpc.impl.RemoteControl;
+import org.opendaylight.jsonrpc.impl.TestUtils;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
+import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNode;
+import org.opendaylight.yangtools.yang.model.api.SchemaContext;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.google.common.base.Optional;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+
+/**
+ * End-to-end data operations of mounted peer: {@link JsonRPCTx} talks over
+ * TCP to {@link RemoteControl} backed by in-memory data broker, so every
+ * operation includes conversion, bus round trip(s) and datastore access.
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class JsonRPCTxBenchmark {
+    private static final String DEVICE_NAME = "benchmark";
+    private SchemaContext schemaContext;
+    private DOMDataBroker domBroker;
+    private RemoteControl remoteControl;
+    private ThreadedSession server;
+    private TransportFactory transportFactory;
+    private HierarchicalEnumMap<JsonElement, DataType, String> pathMap;
+    private JsonConverter converter;
+    private JsonRPCTx readTx;
+    private YangInstanceIdentifier path;
+    private NormalizedNode<?, ?> data;
+
+    @Setup
+    public void setup() throws URISyntaxException, TransactionCommitFailedException {
+        schemaContext = BenchmarkSupport.getSchemaContext();
+        final DataBrokerTestCustomizer customizer = new DataBrokerTestCustomizer();
+        domBroker = customizer.createDOMDataBroker();
+        customizer.updateSchema(schemaContext);
+        NormalizedNodesHelper.init(schemaContext);
+        remoteControl = new RemoteControl(domBroker, schemaContext,
+                NormalizedNodesHelper.getBindingToNormalizedNodeCodec());
+
+        final int port = BenchmarkSupport.getFreeTcpPort();
+        transportFactory = new DefaultTransportFactory();
+        server = transportFactory.createResponder("zmq://0.0.0.0:" + port, remoteControl);
+
+        pathMap = HierarchicalEnumHashMap.create(DataType.class, JsonPathCodec.create());
+        pathMap.put(new JsonObject(), DataType.CONFIGURATION_DATA, "zmq://127.0.0.1:" + port);
+        pathMap.put(new JsonObject(), DataType.OPERATIONAL_DATA, "zmq://127.0.0.1:" + port);
+        converter = new JsonConverter(schemaContext);
+
+        final Entry<YangInstanceIdentifier, NormalizedNode<?, ?>> topology = TestUtils
+                .getMockTopologyAsDom(schemaContext);
+        path = topology.getKey();
+        data = topology.getValue();
+        final DOMDataWriteTransaction wtx = domBroker.newWriteOnlyTransaction();
+        wtx.put(LogicalDatastoreType.OPERATIONAL, path, data);
+        wtx.submit().checkedGet();
+
+        readTx = new JsonRPCTx(transportFactory, DEVICE_NAME, pathMap, converter, schemaContext);
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        readTx.close();
+        server.stop();
+        server.joinAndClose();
+        remoteControl.close();
+    }
+
+    @Benchmark
+    public Optional<NormalizedNode<?, ?>> read() throws ReadFailedException {
+        return readTx.read(LogicalDatastoreType.OPERATIONAL, path).checkedGet();
+    }
+
+    /*
+     * Transaction is created for every invocation, as it is in real life, so
+     * allocation of transaction id is included.
+     */
+    @Benchmark
+    public void putAndSubmit() throws TransactionCommitFailedException {
+        final JsonRPCTx tx = new JsonRPCTx(transportFactory, DEVICE_NAME, pathMap, converter, schemaContext);
+        try {
+            tx.put(LogicalDatastoreType.CONFIGURATION, path, data);
+            tx.submit().checkedGet();
+        } finally {
+            tx.close();
+        }
+    }
+}
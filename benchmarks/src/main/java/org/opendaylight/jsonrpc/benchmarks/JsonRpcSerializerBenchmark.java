@@ -0,0 +1,75 @@
+/*
+ * Copyright (c) 2017 Brocade Communications Systems, Inc. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.jsonrpc.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.opendaylight.jsonrpc.bus.jsonrpc.JsonRpcBaseMessage;
+import org.opendaylight.jsonrpc.bus.jsonrpc.JsonRpcRequestMessage;
+import org.opendaylight.jsonrpc.bus.jsonrpc.JsonRpcSerializer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonPrimitive;
+
+/**
+ * Serialization and parsing of JSON-RPC messages, as done for every message
+ * crossing bus.
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class JsonRpcSerializerBenchmark {
+    /**
+     * Number of messages in batch, 1 means single (non-batch) message.
+     */
+    @Param({ "1", "16" })
+    private int batchSize;
+    private JsonRpcBaseMessage single;
+    private List<JsonRpcBaseMessage> batch;
+    private String json;
+
+    @Setup
+    public void setup() {
+        batch = new ArrayList<>(batchSize);
+        for (int i = 0; i < batchSize; i++) {
+            final JsonObject params = new JsonObject();
+            params.addProperty("store", "config");
+            params.addProperty("entity", "device-" + i);
+            params.add("path", new JsonObject());
+            batch.add(new JsonRpcRequestMessage(new JsonPrimitive(i), "read", params));
+        }
+        single = batch.get(0);
+        json = batchSize == 1 ? JsonRpcSerializer.toJson(single) : JsonRpcSerializer.toJson(batch);
+    }
+
+    @Benchmark
+    public String toJson() {
+        return batchSize == 1 ? JsonRpcSerializer.toJson(single) : JsonRpcSerializer.toJson(batch);
+    }
+
+    @Benchmark
+    public List<JsonRpcBaseMessage> fromJson() {
+        return JsonRpcSerializer.fromJson(json);
+    }
+}
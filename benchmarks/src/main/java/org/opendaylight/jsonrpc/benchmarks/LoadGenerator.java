@@ -0,0 +1,240 @@
+/*
+ * Copyright (c) 2017 Brocade Communications Systems, Inc. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.jsonrpc.benchmarks;
+
+import java.io.FileNotFoundException;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Drives mix of data, RPC and notification traffic against JSON-RPC services
+ * and reports latency percentiles, throughput and error rate of every
+ * {@link Operation}.
+ *
+ * <p>
+ * Load is open-loop: operations are issued at fixed rate no matter how fast
+ * target replies, and latency is measured from time operation was scheduled,
+ * not from time worker got to it. Latency reported under overload therefore
+ * includes queuing delay, as experienced by real clients, instead of being
+ * hidden by slower issue rate (coordinated omission).
+ *
+ * <p>
+ * Run from benchmarks jar, see {@link LoadOptions} for available options:
+ *
+ * <pre>
+ * java -cp benchmarks/target/benchmarks.jar org.opendaylight.jsonrpc.benchmarks.LoadGenerator \
+ *     --rate=5000 --duration=60 --mix=read=70,put=20,commit=10
+ * </pre>
+ */
+public final class LoadGenerator {
+    private static final Logger LOG = LoggerFactory.getLogger(LoadGenerator.class);
+    // 1 hour, with 3 significant digits
+    private static final long MAX_LATENCY_MICROS = TimeUnit.HOURS.toMicros(1);
+    private static final int SIGNIFICANT_DIGITS = 3;
+    private static final Task POISON = new Task(null, 0L);
+    private final LoadOptions options;
+    private final Operation[] operations;
+    private final int[] cumulativeWeights;
+    private final Map<Operation, Recorder> recorders = new EnumMap<>(Operation.class);
+    private final Map<Operation, LongAdder> errors = new EnumMap<>(Operation.class);
+    private final BlockingQueue<Task> queue = new LinkedBlockingQueue<>();
+    private volatile long measurementStart;
+
+    private LoadGenerator(LoadOptions options) {
+        this.options = options;
+        final List<Operation> ops = new ArrayList<>();
+        final List<Integer> weights = new ArrayList<>();
+        int total = 0;
+        for (final Entry<Operation, Integer> e : options.getMix().entrySet()) {
+            if (e.getValue() > 0) {
+                total += e.getValue();
+                ops.add(e.getKey());
+                weights.add(total);
+                recorders.put(e.getKey(), new Recorder(MAX_LATENCY_MICROS, SIGNIFICANT_DIGITS));
+                errors.put(e.getKey(), new LongAdder());
+            }
+        }
+        operations = ops.toArray(new Operation[ops.size()]);
+        cumulativeWeights = weights.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    public static void main(String[] args) throws Exception {
+        final LoadOptions options = LoadOptions.parse(args);
+        LOG.info("Starting load : {}", options);
+        new LoadGenerator(options).run();
+    }
+
+    private void run() throws Exception {
+        try (LoadTarget target = new LoadTarget(options)) {
+            final List<Thread> workers = new ArrayList<>(options.getWorkers());
+            for (int i = 0; i < options.getWorkers(); i++) {
+                final Thread worker = new Thread(new Worker(target.newClient()), "load-worker-" + i);
+                worker.start();
+                workers.add(worker);
+            }
+            final long notificationsBefore = target.getDeliveredNotificationCount();
+            pace();
+            for (int i = 0; i < workers.size(); i++) {
+                queue.add(POISON);
+            }
+            for (final Thread worker : workers) {
+                worker.join();
+            }
+            final long elapsed = System.nanoTime() - measurementStart;
+            if (errors.containsKey(Operation.NOTIFICATION)) {
+                // give subscriber chance to catch up
+                TimeUnit.MILLISECONDS.sleep(options.getTimeout());
+            }
+            report(elapsed, target.getDeliveredNotificationCount() - notificationsBefore);
+        }
+    }
+
+    /*
+     * Issue operations at fixed rate, until warm-up and measurement time
+     * elapses.
+     */
+    private void pace() {
+        final long interval = TimeUnit.SECONDS.toNanos(1) / options.getRate();
+        final long start = System.nanoTime();
+        measurementStart = start + TimeUnit.SECONDS.toNanos(options.getWarmup());
+        final long end = measurementStart + TimeUnit.SECONDS.toNanos(options.getDuration());
+        long nextProgress = measurementStart;
+        for (long i = 0;; i++) {
+            final long intended = start + i * interval;
+            if (intended - end >= 0) {
+                break;
+            }
+            long now;
+            while ((now = System.nanoTime()) - intended < 0) {
+                LockSupport.parkNanos(intended - now);
+            }
+            queue.add(new Task(pickOperation(), intended));
+            if (now - nextProgress >= 0) {
+                LOG.info("{} operations waiting for worker", queue.size());
+                nextProgress += TimeUnit.SECONDS.toNanos(10);
+            }
+        }
+    }
+
+    private Operation pickOperation() {
+        final int value = ThreadLocalRandom.current().nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        int idx = 0;
+        while (value >= cumulativeWeights[idx]) {
+            idx++;
+        }
+        return operations[idx];
+    }
+
+    private void report(long elapsedNanos, long deliveredNotifications) throws FileNotFoundException {
+        final double seconds = elapsedNanos / (double) TimeUnit.SECONDS.toNanos(1);
+        final Histogram all = new Histogram(MAX_LATENCY_MICROS, SIGNIFICANT_DIGITS);
+        long allErrors = 0;
+        final PrintStream out = System.out;
+        out.printf("%-13s %10s %8s %10s %10s %10s %10s %10s %10s%n", "operation", "count", "errors", "ops/s",
+                "p50(us)", "p90(us)", "p99(us)", "p99.9(us)", "max(us)");
+        for (final Operation operation : operations) {
+            final Histogram histogram = recorders.get(operation).getIntervalHistogram();
+            final long errorCount = errors.get(operation).sum();
+            all.add(histogram);
+            allErrors += errorCount;
+            printRow(out, operation.name().toLowerCase(Locale.ROOT), histogram, errorCount, seconds);
+        }
+        printRow(out, "total", all, allErrors, seconds);
+        if (errors.containsKey(Operation.NOTIFICATION)) {
+            out.printf("notifications delivered : %d%n", deliveredNotifications);
+        }
+        if (options.getHistogramFile() != null) {
+            try (PrintStream file = new PrintStream(options.getHistogramFile())) {
+                all.outputPercentileDistribution(file, 1.0);
+            }
+            LOG.info("Latency distribution written to {}", options.getHistogramFile());
+        }
+    }
+
+    private static void printRow(PrintStream out, String name, Histogram histogram, long errorCount,
+            double seconds) {
+        final long total = histogram.getTotalCount() + errorCount;
+        out.printf("%-13s %10d %7.2f%% %10.1f %10d %10d %10d %10d %10d%n", name, total,
+                total == 0 ? 0.0 : 100.0 * errorCount / total, histogram.getTotalCount() / seconds,
+                histogram.getValueAtPercentile(50), histogram.getValueAtPercentile(90),
+                histogram.getValueAtPercentile(99), histogram.getValueAtPercentile(99.9),
+                histogram.getMaxValue());
+    }
+
+    /**
+     * Operation scheduled to start at given time.
+     */
+    private static final class Task {
+        private final Operation operation;
+        private final long intendedStart;
+
+        private Task(Operation operation, long intendedStart) {
+            this.operation = operation;
+            this.intendedStart = intendedStart;
+        }
+    }
+
+    private final class Worker implements Runnable {
+        private final LoadTarget.Client client;
+
+        private Worker(LoadTarget.Client client) {
+            this.client = client;
+        }
+
+        @Override
+        public void run() {
+            try {
+                Task task;
+                while ((task = queue.take()) != POISON) {
+                    execute(task);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                try {
+                    client.close();
+                } catch (Exception e) {
+                    LOG.warn("Failed to close client", e);
+                }
+            }
+        }
+
+        private void execute(Task task) {
+            try {
+                client.execute(task.operation);
+            } catch (Exception e) {
+                if (task.intendedStart - measurementStart >= 0) {
+                    errors.get(task.operation).increment();
+                }
+                LOG.debug("{} failed", task.operation, e);
+                return;
+            }
+            // results of warm-up are discarded
+            if (task.intendedStart - measurementStart >= 0) {
+                final long latency = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - task.intendedStart);
+                recorders.get(task.operation).recordValue(Math.min(latency, MAX_LATENCY_MICROS));
+            }
+        }
+    }
+}
@@ -0,0 +1,179 @@
+/*
+ * Copyright (c) 2017 Brocade Communications Systems, Inc. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.jsonrpc.benchmarks;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import com.google.common.base.Preconditions;
+import com.google.common.base.Splitter;
+
+/**
+ * Options of {@link LoadGenerator}, given on command line as
+ * <code>--name=value</code>.
+ *
+ * <ul>
+ * <li><b>rate</b> - operations per second, regardless of how fast target
+ * replies (default 1000)</li>
+ * <li><b>duration</b> - length of measurement in seconds (default 30)</li>
+ * <li><b>warmup</b> - seconds of load before measurement starts, results are
+ * discarded (default 5)</li>
+ * <li><b>workers</b> - number of concurrent connections to each target
+ * (default 8)</li>
+ * <li><b>mix</b> - relative weights of {@link Operation}s (default
+ * {@value #DEFAULT_MIX})</li>
+ * <li><b>payload</b> - size of RPC and notification payload in bytes (default
+ * 128)</li>
+ * <li><b>timeout</b> - request timeout in milliseconds (default 5000)</li>
+ * <li><b>data-endpoint</b> - URI of remote data shard, such as
+ * <code>zmq://10.0.0.1:10000</code>, embedded <code>RemoteControl</code> backed by
+ * in-memory datastore is used when not set</li>
+ * <li><b>rpc-endpoint</b> - URI of remote {@link EchoService} responder,
+ * embedded one is used when not set</li>
+ * <li><b>histogram</b> - file to write full latency distribution of all
+ * operations to, in HdrHistogram's percentile format suitable for
+ * plotting</li>
+ * </ul>
+ */
+final class LoadOptions {
+    static final String DEFAULT_MIX = "read=40,put=25,commit=10,rpc=20,notification=5";
+    private static final String PREFIX = "--";
+    private int rate = 1000;
+    private int duration = 30;
+    private int warmup = 5;
+    private int workers = 8;
+    private int payload = 128;
+    private int timeout = 5000;
+    private String dataEndpoint;
+    private String rpcEndpoint;
+    private String histogramFile;
+    private final Map<Operation, Integer> mix = new EnumMap<>(Operation.class);
+
+    private LoadOptions() {
+        parseMix(DEFAULT_MIX);
+    }
+
+    /**
+     * Parse command line arguments.
+     *
+     * @param args command line arguments
+     * @return {@link LoadOptions}
+     * @throws IllegalArgumentException if any argument is unknown or invalid
+     */
+    static LoadOptions parse(String[] args) {
+        final LoadOptions options = new LoadOptions();
+        for (final String arg : args) {
+            final int eqIdx = arg.indexOf('=');
+            Preconditions.checkArgument(arg.startsWith(PREFIX) && eqIdx != -1, "Invalid argument : %s", arg);
+            final String name = arg.substring(PREFIX.length(), eqIdx);
+            final String value = arg.substring(eqIdx + 1);
+            switch (name) {
+            case "rate":
+                options.rate = parsePositive(name, value);
+                break;
+            case "duration":
+                options.duration = parsePositive(name, value);
+                break;
+            case "warmup":
+                options.warmup = Integer.parseInt(value);
+                break;
+            case "workers":
+                options.workers = parsePositive(name, value);
+                break;
+            case "payload":
+                options.payload = Integer.parseInt(value);
+                break;
+            case "timeout":
+                options.timeout = parsePositive(name, value);
+                break;
+            case "mix":
+                options.mix.clear();
+                options.parseMix(value);
+                break;
+            case "data-endpoint":
+                options.dataEndpoint = value;
+                break;
+            case "rpc-endpoint":
+                options.rpcEndpoint = value;
+                break;
+            case "histogram":
+                options.histogramFile = value;
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown option : " + name);
+            }
+        }
+        return options;
+    }
+
+    private static int parsePositive(String name, String value) {
+        final int ret = Integer.parseInt(value);
+        Preconditions.checkArgument(ret > 0, "Value of %s must be positive", name);
+        return ret;
+    }
+
+    private void parseMix(String value) {
+        for (final Entry<String, String> e : Splitter.on(',').trimResults().omitEmptyStrings()
+                .withKeyValueSeparator('=').split(value).entrySet()) {
+            final int weight = Integer.parseInt(e.getValue());
+            Preconditions.checkArgument(weight >= 0, "Weight of %s must not be negative", e.getKey());
+            mix.put(Operation.valueOf(e.getKey().toUpperCase(Locale.ROOT)), weight);
+        }
+        Preconditions.checkArgument(mix.values().stream().mapToInt(Integer::intValue).sum() > 0,
+                "At least one operation must have positive weight");
+    }
+
+    int getRate() {
+        return rate;
+    }
+
+    int getDuration() {
+        return duration;
+    }
+
+    int getWarmup() {
+        return warmup;
+    }
+
+    int getWorkers() {
+        return workers;
+    }
+
+    int getPayload() {
+        return payload;
+    }
+
+    int getTimeout() {
+        return timeout;
+    }
+
+    String getDataEndpoint() {
+        return dataEndpoint;
+    }
+
+    String getRpcEndpoint() {
+        return rpcEndpoint;
+    }
+
+    String getHistogramFile() {
+        return histogramFile;
+    }
+
+    Map<Operation, Integer> getMix() {
+        return mix;
+    }
+
+    @Override
+    public String toString() {
+        return "LoadOptions [rate=" + rate + ", duration=" + duration + ", warmup=" + warmup + ", workers=" + workers
+                + ", payload=" + payload + ", timeout=" + timeout + ", dataEndpoint=" + dataEndpoint
+                + ", rpcEndpoint=" + rpcEndpoint + ", mix=" + mix + "]";
+    }
+}
@@ -0,0 +1,203 @@
+/*
+ * Copyright (c) 2017 Brocade Communications Systems, Inc. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.jsonrpc.benchmarks;
+
+import java.net.URISyntaxException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+import org.opendaylight.controller.md.sal.dom.api.DOMDataBroker;
+import org.opendaylight.jsonrpc.bus.messagelib.DefaultTransportFactory;
+import org.opendaylight.jsonrpc.bus.messagelib.EndpointRole;
+import org.opendaylight.jsonrpc.bus.messagelib.ThreadedSession;
+import org.opendaylight.jsonrpc.bus.messagelib.TransportFactory;
+import org.opendaylight.jsonrpc.bus.messagelib.Util;
+import org.opendaylight.jsonrpc.impl.DataBrokerTestCustomizer;
+import org.opendaylight.jsonrpc.impl.NormalizedNodesHelper;
+import org.opendaylight.jsonrpc.impl.RemoteControl;
+import org.opendaylight.jsonrpc.model.RemoteOmShard;
+import org.opendaylight.yangtools.yang.model.api.SchemaContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.base.Strings;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+/**
+ * Services {@link LoadGenerator} talks to. Services which are not given by
+ * {@link LoadOptions} are started in-process and exposed over loopback TCP,
+ * so traffic still crosses bus.
+ */
+final class LoadTarget implements AutoCloseable {
+    private static final Logger LOG = LoggerFactory.getLogger(LoadTarget.class);
+    private static final String ENTITY = "test-model";
+    private static final int OPERATIONAL = 1;
+    private final TransportFactory transportFactory = new DefaultTransportFactory();
+    // closed in reverse order
+    private final Deque<AutoCloseable> resources = new ArrayDeque<>();
+    private final NotificationCounter notificationCounter = new NotificationCounter();
+    private final EchoNotification publisher;
+    private final String dataEndpoint;
+    private final String rpcEndpoint;
+    private final int timeout;
+    private final String payload;
+    private final JsonElement path;
+    private final JsonElement data;
+
+    LoadTarget(LoadOptions options) throws Exception {
+        timeout = options.getTimeout();
+        payload = Strings.repeat("x", options.getPayload());
+        final JsonParser parser = new JsonParser();
+        path = parser.parse("{\"test-model:top-element\":{}}");
+        final JsonObject level2a = new JsonObject();
+        level2a.addProperty("abc", payload);
+        final JsonObject top = new JsonObject();
+        top.add("level2a", level2a);
+        final JsonObject root = new JsonObject();
+        root.add("test-model:top-element", top);
+        data = root;
+
+        dataEndpoint = options.getDataEndpoint() != null ? options.getDataEndpoint() : startRemoteControl();
+        rpcEndpoint = options.getRpcEndpoint() != null ? options.getRpcEndpoint() : startEchoService();
+
+        final int port = BenchmarkSupport.getFreeTcpPort();
+        resources.push(closer(transportFactory.createSubscriber("zmq://127.0.0.1:" + port, notificationCounter)));
+        publisher = Util.createProxy(EchoNotification.class, "zmq://0.0.0.0:" + port + "?role=PUB", timeout);
+        resources.push(publisher);
+
+        // make sure there is something to read
+        try (Client client = newClient()) {
+            client.execute(Operation.PUT);
+            client.execute(Operation.COMMIT);
+        }
+    }
+
+    private String startRemoteControl() throws URISyntaxException {
+        final SchemaContext schemaContext = BenchmarkSupport.getSchemaContext();
+        final DataBrokerTestCustomizer customizer = new DataBrokerTestCustomizer();
+        final DOMDataBroker domBroker = customizer.createDOMDataBroker();
+        customizer.updateSchema(schemaContext);
+        NormalizedNodesHelper.init(schemaContext);
+        final RemoteControl remoteControl = new RemoteControl(domBroker, schemaContext,
+                NormalizedNodesHelper.getBindingToNormalizedNodeCodec());
+        resources.push(remoteControl);
+        final int port = BenchmarkSupport.getFreeTcpPort();
+        resources.push(closer(transportFactory.createResponder("zmq://0.0.0.0:" + port, remoteControl)));
+        LOG.info("Started embedded RemoteControl on port {}", port);
+        return "zmq://127.0.0.1:" + port;
+    }
+
+    private String startEchoService() throws URISyntaxException {
+        final int port = BenchmarkSupport.getFreeTcpPort();
+        resources.push(closer(transportFactory.createResponder("zmq://0.0.0.0:" + port, new EchoServiceImpl())));
+        LOG.info("Started embedded EchoService on port {}", port);
+        return "zmq://127.0.0.1:" + port;
+    }
+
+    private static AutoCloseable closer(ThreadedSession session) {
+        return () -> {
+            session.stop();
+            session.joinAndClose();
+        };
+    }
+
+    private static String requesterUri(String endpoint) throws URISyntaxException {
+        return org.opendaylight.jsonrpc.impl.Util.ensureRole(endpoint, EndpointRole.REQ);
+    }
+
+    /**
+     * Open new set of connections to services. Every worker of
+     * {@link LoadGenerator} has its own client.
+     *
+     * @return {@link Client}
+     * @throws URISyntaxException if any endpoint is invalid
+     */
+    Client newClient() throws URISyntaxException {
+        return new Client();
+    }
+
+    /**
+     * Get number of notifications received by embedded subscriber.
+     *
+     * @return number of notifications
+     */
+    long getDeliveredNotificationCount() {
+        return notificationCounter.getCount();
+    }
+
+    @Override
+    public void close() {
+        while (!resources.isEmpty()) {
+            try {
+                resources.pop().close();
+            } catch (Exception e) {
+                LOG.warn("Failed to close resource", e);
+            }
+        }
+    }
+
+    /**
+     * Connections of single worker. Not thread-safe.
+     */
+    final class Client implements AutoCloseable {
+        private final RemoteOmShard shard;
+        private final EchoService echo;
+        private String txId;
+
+        private Client() throws URISyntaxException {
+            shard = Util.createProxy(RemoteOmShard.class, requesterUri(dataEndpoint), timeout);
+            echo = Util.createProxy(EchoService.class, requesterUri(rpcEndpoint), timeout);
+        }
+
+        /**
+         * Perform operation and wait for its completion.
+         *
+         * @param operation {@link Operation} to perform
+         * @throws Exception if operation failed
+         */
+        void execute(Operation operation) throws Exception {
+            switch (operation) {
+            case READ:
+                shard.read(OPERATIONAL, ENTITY, path);
+                break;
+            case PUT:
+                if (txId == null) {
+                    txId = shard.txid();
+                }
+                shard.put(txId, OPERATIONAL, ENTITY, path, data);
+                break;
+            case COMMIT:
+                final String committed = txId != null ? txId : shard.txid();
+                txId = null;
+                if (!shard.commit(committed)) {
+                    throw new IllegalStateException("Commit failed : " + shard.error(committed));
+                }
+                break;
+            case RPC:
+                if (!payload.equals(echo.echo(payload))) {
+                    throw new IllegalStateException("Unexpected reply");
+                }
+                break;
+            case NOTIFICATION:
+                // shared by all clients, as only one socket can be bound to port
+                publisher.echo(payload);
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown operation " + operation);
+            }
+        }
+
+        @Override
+        public void close() throws Exception {
+            shard.close();
+            echo.close();
+        }
+    }
+}
@@ -0,0 +1,32 @@
+/*
+ * Copyright (c) 2017 Brocade Communications Systems, Inc. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.jsonrpc.benchmarks;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Subscriber side of {@link EchoNotification}, which only counts delivered
+ * notifications.
+ */
+public class NotificationCounter implements EchoNotification {
+    private final LongAdder count = new LongAdder();
+
+    @Override
+    public void echo(String msg) {
+        count.increment();
+    }
+
+    public long getCount() {
+        return count.sum();
+    }
+
+    @Override
+    public void close() {
+        // NOOP
+    }
+}
@@ -0,0 +1,34 @@
+/*
+ * Copyright (c) 2017 Brocade Communications Systems, Inc. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.jsonrpc.benchmarks;
+
+/**
+ * Kinds of traffic driven by {@link LoadGenerator}.
+ */
+enum Operation {
+    /**
+     * Read of data from operational datastore.
+     */
+    READ,
+    /**
+     * Put of data into transaction, without commit.
+     */
+    PUT,
+    /**
+     * Commit of transaction, which is then replaced by new one.
+     */
+    COMMIT,
+    /**
+     * Request/reply call of {@link EchoService}.
+     */
+    RPC,
+    /**
+     * Notification published to {@link EchoNotification} subscriber.
+     */
+    NOTIFICATION
+}
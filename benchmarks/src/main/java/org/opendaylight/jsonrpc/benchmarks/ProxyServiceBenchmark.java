@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) 2017 Brocade Communications Systems, Inc. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.jsonrpc.benchmarks;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.opendaylight.jsonrpc.bus.messagelib.MessageLibrary;
+import org.opendaylight.jsonrpc.bus.messagelib.ProxyServiceImpl;
+import org.opendaylight.jsonrpc.bus.messagelib.ThreadedSession;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Request/reply round trip through requester proxy, which adds argument
+ * encoding and result decoding on top of {@link SessionDispatchBenchmark}.
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ProxyServiceBenchmark {
+    private static final String PAYLOAD = "benchmark";
+    private static final int PIPELINE_DEPTH = 32;
+    @Param({ BenchmarkSupport.INPROC, BenchmarkSupport.TCP })
+    private String transport;
+    private MessageLibrary messaging;
+    private ThreadedSession server;
+    private EchoService proxy;
+    private EchoServiceAsync asyncProxy;
+
+    @Setup
+    public void setup() {
+        final String[] endpoints = BenchmarkSupport.endpoints(transport);
+        messaging = new MessageLibrary("zmq");
+        server = messaging.threadedResponder(endpoints[0], new EchoServiceImpl());
+        final ProxyServiceImpl proxyService = new ProxyServiceImpl(messaging);
+        proxy = proxyService.createRequesterProxy(endpoints[1], EchoService.class);
+        asyncProxy = proxyService.createRequesterProxy(endpoints[1], EchoServiceAsync.class);
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        proxy.close();
+        asyncProxy.close();
+        server.stop();
+        server.joinAndClose();
+        messaging.close();
+    }
+
+    @Benchmark
+    public String echo() {
+        return proxy.echo(PAYLOAD);
+    }
+
+    /*
+     * Keeps PIPELINE_DEPTH requests in flight on single proxy, reported
+     * figures are per request.
+     */
+    @Benchmark
+    @OperationsPerInvocation(PIPELINE_DEPTH)
+    public Object echoPipelined() {
+        final CompletableFuture<?>[] futures = new CompletableFuture<?>[PIPELINE_DEPTH];
+        for (int i = 0; i < PIPELINE_DEPTH; i++) {
+            futures[i] = asyncProxy.echo(PAYLOAD);
+        }
+        return CompletableFuture.allOf(futures).join();
+    }
+}
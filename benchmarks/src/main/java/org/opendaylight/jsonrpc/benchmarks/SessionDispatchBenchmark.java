@@ -0,0 +1,67 @@
+/*
+ * Copyright (c) 2017 Brocade Communications Systems, Inc. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.jsonrpc.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.opendaylight.jsonrpc.bus.messagelib.MessageLibrary;
+import org.opendaylight.jsonrpc.bus.messagelib.MessageLibraryException;
+import org.opendaylight.jsonrpc.bus.messagelib.Session;
+import org.opendaylight.jsonrpc.bus.messagelib.ThreadedSession;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Request/reply round trip on raw {@link Session}, including dispatch of
+ * request to handler method by {@link ThreadedSession} on responder side.
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SessionDispatchBenchmark {
+    private static final String PAYLOAD = "benchmark";
+    @Param({ BenchmarkSupport.INPROC, BenchmarkSupport.TCP })
+    private String transport;
+    private MessageLibrary messaging;
+    private ThreadedSession server;
+    private Session requester;
+
+    @Setup
+    public void setup() {
+        final String[] endpoints = BenchmarkSupport.endpoints(transport);
+        messaging = new MessageLibrary("zmq");
+        server = messaging.threadedResponder(endpoints[0], new EchoServiceImpl());
+        requester = messaging.requester(endpoints[1]);
+    }
+
+    @TearDown
+    public void tearDown() {
+        requester.close();
+        server.stop();
+        server.joinAndClose();
+        messaging.close();
+    }
+
+    @Benchmark
+    public String roundTrip() throws MessageLibraryException {
+        return requester.sendRequestAndReadReply("echo", PAYLOAD);
+    }
+}
@@ -7,6 +7,10 @@
  */
 package org.opendaylight.jsonrpc.bus;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+
 /**
  * This interface defines a session that can be used to send or receive messages
  * over a bus. The messages are treated as Strings. More complex objects may
@@ -41,6 +45,48 @@ public interface BusSession extends AutoCloseable {
      */
     boolean sendMessage(String message);
 
+    /**
+     * Send text message to bus under given topic. Only publisher makes use of
+     * topic, other session types send message as if no topic was given.
+     * Default implementation is for transports without per-message topics,
+     * it sends message under topic of session, same as
+     * {@link #sendMessage(String)}.
+     *
+     * @param topic topic of message
+     * @param message message to send
+     * @return true if and only if transmission of message was successful
+     */
+    default boolean sendMessage(String topic, String message) {
+        return sendMessage(message);
+    }
+
+    /**
+     * Send request and complete returned future once reply to it arrives or
+     * timeout expires. Transport which can correlate replies with requests
+     * allows many requests to be outstanding at same time. Default
+     * implementation performs blocking exchange using
+     * {@link #sendMessage(String)} and {@link #readMessage()}, so returned
+     * future is already complete.
+     *
+     * @param message request to send
+     * @return {@link CompletableFuture} of reply, which fails with
+     *         {@link BusSessionTimeoutException} when request could not be sent
+     *         or reply did not arrive within timeout
+     */
+    default CompletableFuture<String> sendRequestAsync(String message) {
+        final CompletableFuture<String> reply = new CompletableFuture<>();
+        try {
+            if (sendMessage(message)) {
+                reply.complete(readMessage());
+            } else {
+                reply.completeExceptionally(new BusSessionTimeoutException("Unable to send request"));
+            }
+        } catch (BusSessionTimeoutException e) {
+            reply.completeExceptionally(e);
+        }
+        return reply;
+    }
+
     /**
      * Get session type
      * 
@@ -75,6 +121,22 @@ public interface BusSession extends AutoCloseable {
      */
     void startLoop(BusSessionMsgHandler handler);
 
+    /**
+     * Start RX/TX loop without blocking caller. Transport is expected to poll
+     * session together with other sessions and to invoke handler using given
+     * executor, one message at a time. Default implementation runs blocking
+     * {@link #startLoop(BusSessionMsgHandler)} on executor, so it occupies one
+     * of its threads until loop is stopped.
+     *
+     * @param handler message handler used to process messages
+     * @param executor executor used to invoke handler
+     * @return {@link Future} which completes once loop is stopped and session
+     *         is no longer used by transport
+     */
+    default Future<?> startLoop(BusSessionMsgHandler handler, Executor executor) {
+        return CompletableFuture.runAsync(() -> startLoop(handler), executor);
+    }
+
     /**
      * Stop RX/TX loop
      */
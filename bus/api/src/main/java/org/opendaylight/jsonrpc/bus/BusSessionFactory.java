@@ -7,6 +7,8 @@
  */
 package org.opendaylight.jsonrpc.bus;
 
+import java.util.Collection;
+
 /**
  * This factory is used to create different kinds of sessions for a given bus.
  * This interface needs to be implemented by various bus implementations.
@@ -66,6 +68,25 @@ public interface BusSessionFactory<T extends BusSession> extends AutoCloseable {
      */
     T subscriber(String uri, String topic);
 
+    /**
+     * Create {@link SessionType#SUBSCRIBER} session to given URI, which is
+     * subscribed to all of specified topics using single connection. Default
+     * implementation is for transports which can subscribe to single topic
+     * only. Unless there is exactly one topic, it subscribes to default topic
+     * (empty string), so messages not matching any of topics may reach this
+     * session too and caller has to filter them out.
+     *
+     * @param uri URI pointing to remote service
+     * @param topics topics to subscribe to
+     * @return {@link BusSession}
+     */
+    default T subscriber(String uri, Collection<String> topics) {
+        if (topics.size() == 1) {
+            return subscriber(uri, topics.iterator().next());
+        }
+        return subscriber(uri);
+    }
+
     /**
      * Create {@link SessionType#RESPONDER} session to given URI
      * 
@@ -0,0 +1,90 @@
+/*
+ * Copyright (c) 2017 Brocade Communications Systems, Inc. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.jsonrpc.bus;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+
+/**
+ * Logging of message payloads and data on hot paths. Payload is only logged at
+ * TRACE level, it is formatted lazily, so nothing is built unless TRACE is
+ * enabled, and it is truncated to at most {@value #MAX_LENGTH} characters (1024
+ * by default). When system property {@value #SAMPLE} is set to N, only every
+ * N-th payload is logged.
+ */
+public final class PayloadTrace {
+    /**
+     * System property with maximum number of characters of payload logged.
+     */
+    public static final String MAX_LENGTH = "org.opendaylight.jsonrpc.payload-log.max-length";
+    /**
+     * System property with sampling rate, 1 (every payload) by default.
+     */
+    public static final String SAMPLE = "org.opendaylight.jsonrpc.payload-log.sample";
+    private static final int MAX_LENGTH_VALUE = Math.max(16, Integer.getInteger(MAX_LENGTH, 1024));
+    private static final long SAMPLE_VALUE = Math.max(1, Long.getLong(SAMPLE, 1L));
+    private static final AtomicLong SEQUENCE = new AtomicLong();
+
+    private PayloadTrace() {
+        // no instantiation here
+    }
+
+    /**
+     * Log payload.
+     *
+     * @param log logger to use
+     * @param format message format with single placeholder for payload
+     * @param payload payload to log
+     */
+    public static void trace(Logger log, String format, Object payload) {
+        if (log.isTraceEnabled() && sampled()) {
+            log.trace(format, abbreviate(payload, MAX_LENGTH_VALUE));
+        }
+    }
+
+    /**
+     * Log payload along with argument which identifies it.
+     *
+     * @param log logger to use
+     * @param format message format with placeholder for argument followed by
+     *            placeholder for payload
+     * @param arg argument, logged as is
+     * @param payload payload to log
+     */
+    public static void trace(Logger log, String format, Object arg, Object payload) {
+        if (log.isTraceEnabled() && sampled()) {
+            log.trace(format, arg, abbreviate(payload, MAX_LENGTH_VALUE));
+        }
+    }
+
+    private static boolean sampled() {
+        return SAMPLE_VALUE == 1 || SEQUENCE.getAndIncrement() % SAMPLE_VALUE == 0;
+    }
+
+    /**
+     * Wrap payload so that its textual form is computed and truncated only when
+     * it is actually formatted.
+     *
+     * @param payload payload to wrap
+     * @param maxLength maximum number of characters
+     * @return wrapper of payload
+     */
+    static Object abbreviate(Object payload, int maxLength) {
+        return new Object() {
+            @Override
+            public String toString() {
+                final String str = String.valueOf(payload);
+                if (str.length() <= maxLength) {
+                    return str;
+                }
+                return str.substring(0, maxLength) + "...(" + str.length() + " chars)";
+            }
+        };
+    }
+}
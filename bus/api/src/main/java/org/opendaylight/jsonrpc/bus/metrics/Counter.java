@@ -0,0 +1,33 @@
+/*
+ * Copyright (c) 2017 Brocade Communications Systems, Inc. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.jsonrpc.bus.metrics;
+
+/**
+ * Monotonically increasing count of events. Implementations must be
+ * thread-safe and should not block.
+ */
+public interface Counter {
+    /**
+     * Increment count by one.
+     */
+    void increment();
+
+    /**
+     * Increment count by given amount.
+     *
+     * @param delta amount to add
+     */
+    void add(long delta);
+
+    /**
+     * Get current count.
+     *
+     * @return current count
+     */
+    long getCount();
+}
@@ -0,0 +1,377 @@
+/*
+ * Copyright (c) 2017 Brocade Communications Systems, Inc. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.jsonrpc.bus.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+import javax.management.InstanceNotFoundException;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.MalformedObjectNameException;
+import javax.management.ObjectName;
+import javax.management.StandardMBean;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * {@link MetricRegistry} which exposes every metric as MBean named
+ * <code>org.opendaylight.jsonrpc:type=&lt;Counter|Timer|Gauge&gt;,name="&lt;name&gt;"</code>.
+ * Updates of metrics are lock-free, JMX is only involved when metric is
+ * created, removed or read.
+ */
+public class JmxMetricRegistry implements MetricRegistry {
+    /**
+     * JMX domain of all metrics.
+     */
+    public static final String DOMAIN = "org.opendaylight.jsonrpc";
+    private static final Logger LOG = LoggerFactory.getLogger(JmxMetricRegistry.class);
+    private final MBeanServer server;
+    private final ConcurrentMap<String, Metric> metrics = new ConcurrentHashMap<>();
+
+    /**
+     * Create registry using platform {@link MBeanServer}.
+     */
+    public JmxMetricRegistry() {
+        this(ManagementFactory.getPlatformMBeanServer());
+    }
+
+    /**
+     * Create registry using given {@link MBeanServer}.
+     *
+     * @param server {@link MBeanServer} to register metrics with
+     */
+    public JmxMetricRegistry(MBeanServer server) {
+        this.server = Objects.requireNonNull(server);
+    }
+
+    @Override
+    public Counter counter(String name) {
+        return getOrCreate(name, DefaultCounter.class);
+    }
+
+    @Override
+    public Timer timer(String name) {
+        return getOrCreate(name, DefaultTimer.class);
+    }
+
+    @Override
+    public void gauge(String name, LongSupplier value) {
+        Objects.requireNonNull(value);
+        metrics.compute(name, (k, existing) -> {
+            if (existing != null) {
+                checkType(k, existing, DefaultGauge.class);
+                unregister(existing);
+            }
+            return register(new DefaultGauge(k, value));
+        });
+    }
+
+    @Override
+    public void release(String name) {
+        metrics.computeIfPresent(name, (k, metric) -> {
+            if (--metric.users > 0) {
+                return metric;
+            }
+            unregister(metric);
+            return null;
+        });
+    }
+
+    @Override
+    public void remove(String name) {
+        final Metric removed = metrics.remove(name);
+        if (removed != null) {
+            unregister(removed);
+        }
+    }
+
+    /**
+     * Get {@link ObjectName} of metric.
+     *
+     * @param type type of metric, such as "Counter"
+     * @param name name of metric
+     * @return {@link ObjectName}
+     */
+    public static ObjectName objectName(String type, String name) {
+        try {
+            return new ObjectName(DOMAIN + ":type=" + type + ",name=" + ObjectName.quote(name));
+        } catch (MalformedObjectNameException e) {
+            throw new IllegalArgumentException("Invalid name of metric : " + name, e);
+        }
+    }
+
+    private <T extends Metric> T getOrCreate(String name, Class<T> type) {
+        final Metric metric = metrics.compute(name, (k, existing) -> {
+            final Metric ret = existing != null ? existing
+                    : register(type == DefaultCounter.class ? new DefaultCounter(k) : new DefaultTimer(k));
+            checkType(k, ret, type);
+            ret.users++;
+            return ret;
+        });
+        return type.cast(metric);
+    }
+
+    private static void checkType(String name, Metric metric, Class<?> type) {
+        if (!type.isInstance(metric)) {
+            throw new IllegalArgumentException(
+                    String.format("Metric %s is already registered as %s", name, metric.getType()));
+        }
+    }
+
+    private Metric register(Metric metric) {
+        try {
+            server.registerMBean(metric.toMBean(), metric.getObjectName());
+        } catch (JMException e) {
+            // metric still works, it is just not visible
+            LOG.warn("Unable to register metric {}", metric.getObjectName(), e);
+        }
+        return metric;
+    }
+
+    private void unregister(Metric metric) {
+        try {
+            server.unregisterMBean(metric.getObjectName());
+        } catch (InstanceNotFoundException e) {
+            LOG.debug("Metric {} was not registered", metric.getObjectName(), e);
+        } catch (JMException e) {
+            LOG.warn("Unable to unregister metric {}", metric.getObjectName(), e);
+        }
+    }
+
+    /**
+     * Management interface of {@link Counter}.
+     */
+    public interface CounterMBean {
+        long getCount();
+    }
+
+    /**
+     * Management interface of {@link Timer}. Percentiles are accurate to
+     * within 12.5%.
+     */
+    public interface TimerMBean {
+        long getCount();
+
+        double getMeanMicros();
+
+        long getMaxMicros();
+
+        long get50thPercentileMicros();
+
+        long get90thPercentileMicros();
+
+        long get99thPercentileMicros();
+
+        long get999thPercentileMicros();
+    }
+
+    /**
+     * Management interface of gauge.
+     */
+    public interface GaugeMBean {
+        long getValue();
+    }
+
+    private abstract static class Metric {
+        private final ObjectName objectName;
+        // only updated while map entry is locked
+        private int users = 0;
+
+        Metric(String name) {
+            this.objectName = objectName(getType(), name);
+        }
+
+        final ObjectName getObjectName() {
+            return objectName;
+        }
+
+        abstract String getType();
+
+        abstract StandardMBean toMBean();
+    }
+
+    private static final class DefaultCounter extends Metric implements Counter, CounterMBean {
+        private final LongAdder count = new LongAdder();
+
+        DefaultCounter(String name) {
+            super(name);
+        }
+
+        @Override
+        public void increment() {
+            count.increment();
+        }
+
+        @Override
+        public void add(long delta) {
+            count.add(delta);
+        }
+
+        @Override
+        public long getCount() {
+            return count.sum();
+        }
+
+        @Override
+        String getType() {
+            return "Counter";
+        }
+
+        @Override
+        StandardMBean toMBean() {
+            return new StandardMBean(this, CounterMBean.class, false);
+        }
+    }
+
+    /*
+     * Durations are kept in microseconds, in buckets of exponentially growing
+     * width. Every power of two is split into 8 linear sub-buckets, so value
+     * reported for percentile is at most 12.5% above actual one.
+     */
+    private static final class DefaultTimer extends Metric implements Timer, TimerMBean {
+        private static final int SUB_BUCKET_BITS = 3;
+        private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+        private static final int BUCKETS = (64 - SUB_BUCKET_BITS) * SUB_BUCKETS;
+        private final LongAdder count = new LongAdder();
+        private final LongAdder total = new LongAdder();
+        private final AtomicLong max = new AtomicLong();
+        private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+
+        DefaultTimer(String name) {
+            super(name);
+        }
+
+        static int bucketOf(long value) {
+            if (value < SUB_BUCKETS) {
+                return (int) value;
+            }
+            final int exp = 63 - Long.numberOfLeadingZeros(value);
+            final int sub = (int) (value >>> (exp - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+            return (exp - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + sub;
+        }
+
+        static long upperBoundOf(int bucket) {
+            if (bucket < SUB_BUCKETS) {
+                return bucket;
+            }
+            final int exp = bucket / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+            if (exp >= 62) {
+                return Long.MAX_VALUE;
+            }
+            final long sub = bucket % SUB_BUCKETS;
+            return ((SUB_BUCKETS + sub + 1) << (exp - SUB_BUCKET_BITS)) - 1;
+        }
+
+        @Override
+        public void record(long duration, TimeUnit unit) {
+            final long micros = Math.max(0, unit.toMicros(duration));
+            count.increment();
+            total.add(micros);
+            max.accumulateAndGet(micros, Math::max);
+            buckets.incrementAndGet(bucketOf(micros));
+        }
+
+        @Override
+        public long getCount() {
+            return count.sum();
+        }
+
+        @Override
+        public double getMeanMicros() {
+            final long cnt = count.sum();
+            return cnt == 0 ? 0.0 : (double) total.sum() / cnt;
+        }
+
+        @Override
+        public long getMaxMicros() {
+            return max.get();
+        }
+
+        @Override
+        public long get50thPercentileMicros() {
+            return percentile(0.5);
+        }
+
+        @Override
+        public long get90thPercentileMicros() {
+            return percentile(0.9);
+        }
+
+        @Override
+        public long get99thPercentileMicros() {
+            return percentile(0.99);
+        }
+
+        @Override
+        public long get999thPercentileMicros() {
+            return percentile(0.999);
+        }
+
+        long percentile(double quantile) {
+            long cnt = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                cnt += buckets.get(i);
+            }
+            if (cnt == 0) {
+                return 0;
+            }
+            final long rank = (long) Math.ceil(quantile * cnt);
+            long seen = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                seen += buckets.get(i);
+                if (seen >= rank) {
+                    return Math.min(upperBoundOf(i), max.get());
+                }
+            }
+            return max.get();
+        }
+
+        @Override
+        String getType() {
+            return "Timer";
+        }
+
+        @Override
+        StandardMBean toMBean() {
+            return new StandardMBean(this, TimerMBean.class, false);
+        }
+    }
+
+    private static final class DefaultGauge extends Metric implements GaugeMBean {
+        private final LongSupplier value;
+
+        DefaultGauge(String name, LongSupplier value) {
+            super(name);
+            this.value = value;
+        }
+
+        @Override
+        public long getValue() {
+            return value.getAsLong();
+        }
+
+        @Override
+        String getType() {
+            return "Gauge";
+        }
+
+        @Override
+        StandardMBean toMBean() {
+            return new StandardMBean(this, GaugeMBean.class, false);
+        }
+    }
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright (c) 2017 Brocade Communications Systems, Inc. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.jsonrpc.bus.metrics;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Registry of named metrics. Instrumented code obtains metrics from registry
+ * once, when instrumented object is created, and only updates them afterwards.
+ * Asking for same name again returns same metric, so metrics of objects which
+ * share name, such as all sessions connected to same endpoint, are aggregated.
+ * Object which obtained counter or timer releases it using
+ * {@link #release(String)} when it is closed, metric is removed once all its
+ * users released it.
+ *
+ * <p>
+ * Default implementation exposes metrics through JMX, see
+ * {@link JmxMetricRegistry}. Other monitoring systems can be integrated by
+ * implementing this interface and installing it using
+ * {@link Metrics#setRegistry(MetricRegistry)}.
+ */
+public interface MetricRegistry {
+    /**
+     * Registry which does not record anything.
+     */
+    MetricRegistry NOOP = new NoopMetricRegistry();
+
+    /**
+     * Get or create {@link Counter}.
+     *
+     * @param name name of counter
+     * @return {@link Counter}
+     * @throws IllegalArgumentException if name is used by different type of
+     *             metric
+     */
+    Counter counter(String name);
+
+    /**
+     * Get or create {@link Timer}.
+     *
+     * @param name name of timer
+     * @return {@link Timer}
+     * @throws IllegalArgumentException if name is used by different type of
+     *             metric
+     */
+    Timer timer(String name);
+
+    /**
+     * Register gauge, which reports value computed on demand. Gauge replaces
+     * any previously registered gauge of same name.
+     *
+     * @param name name of gauge
+     * @param value supplier of value, must be cheap and thread-safe
+     * @throws IllegalArgumentException if name is used by different type of
+     *             metric
+     */
+    void gauge(String name, LongSupplier value);
+
+    /**
+     * Release {@link Counter} or {@link Timer} previously obtained by
+     * {@link #counter(String)} or {@link #timer(String)}. Metric is removed
+     * once it was released as many times as it was obtained.
+     *
+     * @param name name of metric
+     */
+    void release(String name);
+
+    /**
+     * Remove metric, if it exists, regardless of number of its users.
+     *
+     * @param name name of metric
+     */
+    void remove(String name);
+}
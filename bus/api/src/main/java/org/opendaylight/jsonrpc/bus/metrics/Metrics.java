@@ -0,0 +1,86 @@
+/*
+ * Copyright (c) 2017 Brocade Communications Systems, Inc. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.jsonrpc.bus.metrics;
+
+import java.util.Objects;
+
+/**
+ * Holder of {@link MetricRegistry} used by bus and bridges. Registry is
+ * {@link JmxMetricRegistry} unless metrics are disabled by setting system
+ * property {@value #ENABLED} to false. Custom registry must be installed before
+ * instrumented objects are created, as they obtain their metrics only once.
+ */
+public final class Metrics {
+    /**
+     * System property which enables metrics, true by default.
+     */
+    public static final String ENABLED = "org.opendaylight.jsonrpc.metrics";
+    private static volatile MetricRegistry registry = Boolean.parseBoolean(System.getProperty(ENABLED, "true"))
+            ? new JmxMetricRegistry()
+            : MetricRegistry.NOOP;
+
+    private Metrics() {
+        // no instantiation here
+    }
+
+    /**
+     * Get current {@link MetricRegistry}.
+     *
+     * @return {@link MetricRegistry}
+     */
+    public static MetricRegistry getRegistry() {
+        return registry;
+    }
+
+    /**
+     * Install {@link MetricRegistry}.
+     *
+     * @param registry {@link MetricRegistry} to use, {@link MetricRegistry#NOOP}
+     *            disables metrics
+     */
+    public static void setRegistry(MetricRegistry registry) {
+        Metrics.registry = Objects.requireNonNull(registry);
+    }
+
+    /**
+     * Build name of metric from its parts, separated by dot.
+     *
+     * @param parts parts of name
+     * @return name of metric
+     */
+    public static String name(String... parts) {
+        return String.join(".", parts);
+    }
+
+    /**
+     * Compute number of bytes given string occupies when encoded using UTF-8,
+     * without actually encoding it.
+     *
+     * @param str string to measure
+     * @return length in bytes
+     */
+    public static int utf8Length(String str) {
+        final int len = str.length();
+        int bytes = len;
+        for (int i = 0; i < len; i++) {
+            final char ch = str.charAt(i);
+            if (ch >= 0x80) {
+                if (ch < 0x800) {
+                    bytes++;
+                } else if (Character.isHighSurrogate(ch)) {
+                    // surrogate pair is 4 bytes in total
+                    bytes += 2;
+                    i++;
+                } else {
+                    bytes += 2;
+                }
+            }
+        }
+        return bytes;
+    }
+}
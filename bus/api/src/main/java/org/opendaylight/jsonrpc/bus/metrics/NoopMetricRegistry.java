@@ -0,0 +1,69 @@
+/*
+ * Copyright (c) 2017 Brocade Communications Systems, Inc. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.jsonrpc.bus.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * {@link MetricRegistry} which does not record anything.
+ */
+final class NoopMetricRegistry implements MetricRegistry {
+    private static final Counter COUNTER = new Counter() {
+        @Override
+        public void increment() {
+            // NOOP
+        }
+
+        @Override
+        public void add(long delta) {
+            // NOOP
+        }
+
+        @Override
+        public long getCount() {
+            return 0;
+        }
+    };
+    private static final Timer TIMER = new Timer() {
+        @Override
+        public void record(long duration, TimeUnit unit) {
+            // NOOP
+        }
+
+        @Override
+        public long getCount() {
+            return 0;
+        }
+    };
+
+    @Override
+    public Counter counter(String name) {
+        return COUNTER;
+    }
+
+    @Override
+    public Timer timer(String name) {
+        return TIMER;
+    }
+
+    @Override
+    public void gauge(String name, LongSupplier value) {
+        // NOOP
+    }
+
+    @Override
+    public void release(String name) {
+        // NOOP
+    }
+
+    @Override
+    public void remove(String name) {
+        // NOOP
+    }
+}
@@ -0,0 +1,31 @@
+/*
+ * Copyright (c) 2017 Brocade Communications Systems, Inc. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.jsonrpc.bus.metrics;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Distribution of durations of some operation. Implementations must be
+ * thread-safe and should not block.
+ */
+public interface Timer {
+    /**
+     * Record duration of single operation.
+     *
+     * @param duration duration of operation
+     * @param unit unit of duration
+     */
+    void record(long duration, TimeUnit unit);
+
+    /**
+     * Get number of recorded operations.
+     *
+     * @return number of operations
+     */
+    long getCount();
+}
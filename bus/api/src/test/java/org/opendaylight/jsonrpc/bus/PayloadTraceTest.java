@@ -0,0 +1,44 @@
+/*
+ * Copyright (c) 2017 Brocade Communications Systems, Inc. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.jsonrpc.bus;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Tests for {@link PayloadTrace}.
+ */
+public class PayloadTraceTest {
+    private static final Logger LOG = LoggerFactory.getLogger(PayloadTraceTest.class);
+
+    @Test
+    public void testAbbreviate() {
+        assertEquals("short", PayloadTrace.abbreviate("short", 16).toString());
+        assertEquals("0123456789...(20 chars)",
+                PayloadTrace.abbreviate("01234567890123456789", 10).toString());
+        assertEquals("null", PayloadTrace.abbreviate(null, 10).toString());
+    }
+
+    @Test
+    public void testLazy() {
+        final Object payload = new Object() {
+            @Override
+            public String toString() {
+                fail("Payload formatted while TRACE is disabled");
+                return null;
+            }
+        };
+        // TRACE is not enabled in tests
+        PayloadTrace.trace(LOG, "Payload : {}", payload);
+        PayloadTrace.trace(LOG, "Payload of {} : {}", "test", payload);
+    }
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright (c) 2017 Brocade Communications Systems, Inc. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.jsonrpc.bus.metrics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.management.MBeanServer;
+import javax.management.MBeanServerFactory;
+import javax.management.ObjectName;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests for {@link JmxMetricRegistry}.
+ */
+public class JmxMetricRegistryTest {
+    private MBeanServer server;
+    private JmxMetricRegistry registry;
+
+    @Before
+    public void setUp() {
+        // not tracked by factory, so it is simply garbage collected
+        server = MBeanServerFactory.newMBeanServer();
+        registry = new JmxMetricRegistry(server);
+    }
+
+    @Test
+    public void testCounter() throws Exception {
+        final Counter counter = registry.counter("bus.requester.tcp://localhost:1234.messages-sent");
+        assertSame(counter, registry.counter("bus.requester.tcp://localhost:1234.messages-sent"));
+        counter.increment();
+        counter.add(10);
+        final ObjectName name = JmxMetricRegistry.objectName("Counter",
+                "bus.requester.tcp://localhost:1234.messages-sent");
+        assertEquals(11L, server.getAttribute(name, "Count"));
+        registry.remove("bus.requester.tcp://localhost:1234.messages-sent");
+        assertFalse(server.isRegistered(name));
+    }
+
+    @Test
+    public void testRelease() throws Exception {
+        final Counter counter = registry.counter("bus.requester.tcp://localhost:1234.messages-received");
+        registry.counter("bus.requester.tcp://localhost:1234.messages-received");
+        final ObjectName name = JmxMetricRegistry.objectName("Counter",
+                "bus.requester.tcp://localhost:1234.messages-received");
+        registry.release("bus.requester.tcp://localhost:1234.messages-received");
+        // still used by other session
+        assertTrue(server.isRegistered(name));
+        assertSame(counter, registry.counter("bus.requester.tcp://localhost:1234.messages-received"));
+        registry.release("bus.requester.tcp://localhost:1234.messages-received");
+        registry.release("bus.requester.tcp://localhost:1234.messages-received");
+        assertFalse(server.isRegistered(name));
+        // releasing unknown metric is harmless
+        registry.release("bus.requester.tcp://localhost:1234.messages-received");
+    }
+
+    @Test
+    public void testTimer() throws Exception {
+        final Timer timer = registry.timer("proxy.echo");
+        for (int i = 1; i <= 1000; i++) {
+            timer.record(i, TimeUnit.MICROSECONDS);
+        }
+        final ObjectName name = JmxMetricRegistry.objectName("Timer", "proxy.echo");
+        assertEquals(1000L, server.getAttribute(name, "Count"));
+        assertEquals(500.5, (double) server.getAttribute(name, "MeanMicros"), 0.001);
+        assertEquals(1000L, server.getAttribute(name, "MaxMicros"));
+        assertWithin(500, (long) server.getAttribute(name, "50thPercentileMicros"));
+        assertWithin(990, (long) server.getAttribute(name, "99thPercentileMicros"));
+        assertWithin(999, (long) server.getAttribute(name, "999thPercentileMicros"));
+    }
+
+    @Test
+    public void testGauge() throws Exception {
+        final AtomicLong value = new AtomicLong(5);
+        registry.gauge("bridge.queue-depth", value::get);
+        final ObjectName name = JmxMetricRegistry.objectName("Gauge", "bridge.queue-depth");
+        assertEquals(5L, server.getAttribute(name, "Value"));
+        value.set(7);
+        assertEquals(7L, server.getAttribute(name, "Value"));
+        // replaces previous one
+        registry.gauge("bridge.queue-depth", () -> 42L);
+        assertEquals(42L, server.getAttribute(name, "Value"));
+    }
+
+    @Test
+    public void testTypeMismatch() {
+        registry.counter("some.metric");
+        try {
+            registry.timer("some.metric");
+            fail("Name should be already taken by counter");
+        } catch (IllegalArgumentException e) {
+            assertTrue(e.getMessage().contains("Counter"));
+        }
+    }
+
+    @Test
+    public void testUtf8Length() {
+        for (final String str : new String[] { "", "plain", "\u00e9t\u00e9", "\u20ac100", "\ud83d\ude00!" }) {
+            assertEquals(str, str.getBytes(StandardCharsets.UTF_8).length, Metrics.utf8Length(str));
+        }
+    }
+
+    /*
+     * Reported percentile is never below actual value and at most 12.5% above
+     * it.
+     */
+    private static void assertWithin(long expected, long actual) {
+        assertTrue("Expected ~" + expected + ", got " + actual, actual >= expected && actual <= expected * 1.125);
+    }
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright (c) 2017 Brocade Communications Systems, Inc. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.jsonrpc.bus.messagelib;
+
+import java.util.Set;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableSet;
+
+/**
+ * {@link RetryPolicy} with exponential backoff, which retries only methods
+ * known to be idempotent.
+ */
+public class BackoffRetryPolicy implements RetryPolicy {
+    /**
+     * Methods of data and governance APIs which only read state of remote
+     * peer.
+     */
+    public static final Set<String> DEFAULT_IDEMPOTENT_METHODS = ImmutableSet.of("read", "exists", "governance",
+            "source");
+    private final int maxAttempts;
+    private final long initialBackoff;
+    private final long maxBackoff;
+    private final Set<String> idempotentMethods;
+
+    public BackoffRetryPolicy(int maxAttempts, long initialBackoff, long maxBackoff) {
+        this(maxAttempts, initialBackoff, maxBackoff, DEFAULT_IDEMPOTENT_METHODS);
+    }
+
+    public BackoffRetryPolicy(int maxAttempts, long initialBackoff, long maxBackoff, Set<String> idempotentMethods) {
+        Preconditions.checkArgument(maxAttempts > 0, "Number of attempts must be positive");
+        Preconditions.checkArgument(initialBackoff >= 0 && maxBackoff >= initialBackoff, "Invalid backoff range");
+        this.maxAttempts = maxAttempts;
+        this.initialBackoff = initialBackoff;
+        this.maxBackoff = maxBackoff;
+        this.idempotentMethods = ImmutableSet.copyOf(idempotentMethods);
+    }
+
+    @Override
+    public boolean isRetriable(String method) {
+        return idempotentMethods.contains(method);
+    }
+
+    @Override
+    public int getMaxAttempts() {
+        return maxAttempts;
+    }
+
+    @Override
+    public long getBackoff(int attempt) {
+        // double delay with every attempt, avoid overflow of shift
+        final int shift = Math.min(Math.max(attempt - 1, 0), 30);
+        return Math.min(maxBackoff, initialBackoff << shift);
+    }
+
+    @Override
+    public String toString() {
+        return "BackoffRetryPolicy [maxAttempts=" + maxAttempts + ", initialBackoff=" + initialBackoff
+                + ", maxBackoff=" + maxBackoff + ", idempotentMethods=" + idempotentMethods + "]";
+    }
+}
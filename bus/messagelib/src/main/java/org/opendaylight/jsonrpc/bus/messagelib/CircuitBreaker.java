@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) 2017 Brocade Communications Systems, Inc. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.jsonrpc.bus.messagelib;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.google.common.base.Preconditions;
+
+/**
+ * Circuit breaker shared by all requester sessions connected to same endpoint.
+ * After given number of consecutive failures, circuit opens and requests fail
+ * immediately instead of waiting for timeout. Once open period elapses, single
+ * probe request is let through. Success of probe closes circuit, failure keeps
+ * it open for another period.
+ */
+public final class CircuitBreaker {
+    private static final long CLOSED = Long.MIN_VALUE;
+    private final int failureThreshold;
+    private final long openNanos;
+    private final AtomicInteger failures = new AtomicInteger();
+    private final AtomicLong openedAt = new AtomicLong(CLOSED);
+
+    /**
+     * Create circuit breaker.
+     *
+     * @param failureThreshold number of consecutive failures which opens
+     *            circuit
+     * @param openMillis time in milliseconds for which circuit stays open
+     */
+    public CircuitBreaker(int failureThreshold, long openMillis) {
+        Preconditions.checkArgument(failureThreshold > 0, "Failure threshold must be positive");
+        Preconditions.checkArgument(openMillis >= 0, "Open period can't be negative");
+        this.failureThreshold = failureThreshold;
+        this.openNanos = TimeUnit.MILLISECONDS.toNanos(openMillis);
+    }
+
+    /**
+     * Check if request can be sent.
+     *
+     * @return true if circuit is closed or if this request is chosen as probe
+     */
+    public boolean allowRequest() {
+        final long opened = openedAt.get();
+        if (opened == CLOSED) {
+            return true;
+        }
+        final long now = System.nanoTime();
+        if (now - opened < openNanos) {
+            return false;
+        }
+        // half-open, only single caller wins probe, others wait for another
+        // period
+        return openedAt.compareAndSet(opened, now);
+    }
+
+    public void recordSuccess() {
+        failures.set(0);
+        openedAt.set(CLOSED);
+    }
+
+    public void recordFailure() {
+        if (failures.incrementAndGet() >= failureThreshold) {
+            openedAt.compareAndSet(CLOSED, System.nanoTime());
+        }
+    }
+
+    public boolean isOpen() {
+        return openedAt.get() != CLOSED;
+    }
+
+    @Override
+    public String toString() {
+        return "CircuitBreaker [failureThreshold=" + failureThreshold + ", failures=" + failures.get() + ", open="
+                + isOpen() + "]";
+    }
+}
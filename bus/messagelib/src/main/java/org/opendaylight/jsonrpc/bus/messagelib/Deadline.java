@@ -0,0 +1,168 @@
+/*
+ * Copyright (c) 2017 Brocade Communications Systems, Inc. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.jsonrpc.bus.messagelib;
+
+import java.util.concurrent.TimeUnit;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonPrimitive;
+
+/**
+ * Point in time by which call must complete. Deadline is bound to calling
+ * thread using {@link #enter()}, all requests sent by {@link Session} from
+ * within such scope are bounded by it.
+ *
+ * <p>
+ * Deadline is carried to responder in request metadata as remaining time in
+ * milliseconds, rather than absolute time, so clocks of peers do not need to
+ * be synchronized. Responder uses it to drop requests which already expired
+ * while they were waiting for processing.
+ *
+ * <pre>
+ * try (Deadline.Scope scope = Deadline.after(5, TimeUnit.SECONDS).enter()) {
+ *     proxy.read(...);
+ * }
+ * </pre>
+ */
+public final class Deadline {
+    /**
+     * Name of metadata member which holds remaining time in milliseconds.
+     */
+    public static final String METADATA_KEY = "timeout";
+    private static final ThreadLocal<Deadline> CURRENT = new ThreadLocal<>();
+    private static final Scope NOOP_SCOPE = new Scope(null) {
+        @Override
+        public void close() {
+            // nothing to restore
+        }
+    };
+    // System.nanoTime() based
+    private final long expiresAt;
+
+    private Deadline(long expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+
+    /**
+     * Create deadline which expires after given amount of time from now.
+     *
+     * @param duration amount of time
+     * @param unit unit of duration
+     * @return {@link Deadline}
+     */
+    public static Deadline after(long duration, TimeUnit unit) {
+        return new Deadline(System.nanoTime() + unit.toNanos(duration));
+    }
+
+    /**
+     * Get deadline bound to current thread.
+     *
+     * @return current {@link Deadline} or null if there is none
+     */
+    public static Deadline current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Bind given deadline to current thread. If there is already deadline
+     * bound, earlier of them is used.
+     *
+     * @param deadline {@link Deadline} to bind, can be null
+     * @return {@link Scope} which must be closed to restore previous state
+     */
+    public static Scope enter(Deadline deadline) {
+        if (deadline == null) {
+            return NOOP_SCOPE;
+        }
+        final Deadline previous = CURRENT.get();
+        CURRENT.set(previous == null ? deadline : previous.earliest(deadline));
+        return new Scope(previous);
+    }
+
+    /**
+     * Bind this deadline to current thread.
+     *
+     * @return {@link Scope} which must be closed to restore previous state
+     * @see #enter(Deadline)
+     */
+    public Scope enter() {
+        return enter(this);
+    }
+
+    /**
+     * Get remaining time.
+     *
+     * @param unit time unit of result
+     * @return remaining time, zero or negative if deadline already expired
+     */
+    public long remaining(TimeUnit unit) {
+        return unit.convert(expiresAt - System.nanoTime(), TimeUnit.NANOSECONDS);
+    }
+
+    public boolean isExpired() {
+        return expiresAt - System.nanoTime() <= 0;
+    }
+
+    public Deadline earliest(Deadline other) {
+        return expiresAt - other.expiresAt <= 0 ? this : other;
+    }
+
+    /**
+     * Write this deadline into request metadata.
+     *
+     * @param metadata metadata object to update
+     */
+    public void writeTo(JsonObject metadata) {
+        metadata.add(METADATA_KEY, new JsonPrimitive(Math.max(0L, remaining(TimeUnit.MILLISECONDS))));
+    }
+
+    /**
+     * Read deadline from request metadata.
+     *
+     * @param metadata request metadata, can be null
+     * @param receivedAt time (as given by {@link System#nanoTime()}) when
+     *            request was received
+     * @return {@link Deadline} or null if request does not carry any
+     */
+    public static Deadline readFrom(JsonObject metadata, long receivedAt) {
+        if (metadata == null) {
+            return null;
+        }
+        final JsonElement value = metadata.get(METADATA_KEY);
+        if (value == null || !value.isJsonPrimitive() || !value.getAsJsonPrimitive().isNumber()) {
+            return null;
+        }
+        return new Deadline(receivedAt + TimeUnit.MILLISECONDS.toNanos(value.getAsLong()));
+    }
+
+    @Override
+    public String toString() {
+        return "Deadline [remaining=" + remaining(TimeUnit.MILLISECONDS) + "ms]";
+    }
+
+    /**
+     * Scope of deadline bound to thread.
+     */
+    public static class Scope implements AutoCloseable {
+        private final Deadline previous;
+
+        private Scope(Deadline previous) {
+            this.previous = previous;
+        }
+
+        @Override
+        public void close() {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        }
+    }
+}
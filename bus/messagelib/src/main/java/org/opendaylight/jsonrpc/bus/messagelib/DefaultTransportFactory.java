@@ -8,6 +8,7 @@
 package org.opendaylight.jsonrpc.bus.messagelib;
 
 import java.net.URISyntaxException;
+import java.util.Collection;
 
 /**
  * Default implementation of {@link TransportFactory} normally used in
@@ -42,6 +43,15 @@ public class DefaultTransportFactory implements TransportFactory {
         return Util.createThreadedSubscriberSession(rawUri, handler);
     }
 
+    /**
+     * @see Util#createThreadedSubscriberSession(String, Collection, AutoCloseable)
+     */
+    @Override
+    public <T extends AutoCloseable> ThreadedSession createSubscriber(String rawUri, Collection<String> methods,
+            T handler) throws URISyntaxException {
+        return Util.createThreadedSubscriberSession(rawUri, methods, handler);
+    }
+
     /**
      * @see Util#openSession(String)
      * @see Util#openSession(String, String)
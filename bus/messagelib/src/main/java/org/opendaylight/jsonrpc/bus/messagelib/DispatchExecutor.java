@@ -0,0 +1,324 @@
+/*
+ * Copyright (c) 2017 Brocade Communications Systems, Inc. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.jsonrpc.bus.messagelib;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.base.Preconditions;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * Bounded executor used to invoke handlers of {@link ThreadedSession}s. Number
+ * of threads does not grow with number of sessions, as sessions are polled by
+ * transport's I/O thread(s) and only occupy thread while message is being
+ * handled. When both threads and queue are exhausted, task is rejected with
+ * {@link RejectedExecutionException} and transport retries it later.
+ *
+ * <p>
+ * When running on Java runtime which provides virtual threads, executor can
+ * be created in virtual mode using {@link #virtual(String)}. Every task then
+ * runs on its own virtual thread, so handlers which block on bus calls (such as
+ * requests to other peers) park instead of occupying platform thread. Virtual
+ * mode is used by default when system property {@value #VIRTUAL_THREADS}
+ * is set to true.
+ *
+ * <p>
+ * Requests to other peers which are issued on behalf of callers expecting
+ * future (asynchronous proxy methods, mapped RPCs and reads of mounted peers)
+ * can be moved to virtual threads as well, see {@link #clientCalls()}. This
+ * is enabled separately by system property {@value #VIRTUAL_CLIENT_CALLS}.
+ */
+public class DispatchExecutor implements Executor, AutoCloseable {
+    /**
+     * Default number of threads.
+     */
+    public static final int DEFAULT_THREADS = Math.max(16, 4 * Runtime.getRuntime().availableProcessors());
+    /**
+     * Default capacity of task queue.
+     */
+    public static final int DEFAULT_QUEUE_CAPACITY = 1024;
+    /**
+     * System property which enables virtual mode of default executor.
+     */
+    public static final String VIRTUAL_THREADS = "org.opendaylight.jsonrpc.bus.virtual-threads";
+    /**
+     * System property which enables executor returned by {@link #clientCalls()}.
+     */
+    public static final String VIRTUAL_CLIENT_CALLS = "org.opendaylight.jsonrpc.bus.virtual-client-calls";
+    private static final Logger LOG = LoggerFactory.getLogger(DispatchExecutor.class);
+    private static final long KEEP_ALIVE_SECONDS = 60L;
+    private final ExecutorService executor;
+    // null in virtual mode
+    private final ThreadPoolExecutor pool;
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder completed = new LongAdder();
+    private final AtomicInteger active = new AtomicInteger();
+    private final AtomicInteger largestActive = new AtomicInteger();
+
+    /**
+     * Create executor.
+     *
+     * @param nameFormat thread name format, see
+     *            {@link ThreadFactoryBuilder#setNameFormat(String)}
+     * @param threads maximum number of threads
+     * @param queueCapacity maximum number of tasks waiting for thread
+     */
+    public DispatchExecutor(String nameFormat, int threads, int queueCapacity) {
+        Preconditions.checkArgument(threads > 0, "Number of threads must be positive");
+        Preconditions.checkArgument(queueCapacity > 0, "Queue capacity must be positive");
+        pool = new ThreadPoolExecutor(threads, threads, KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                new ThreadFactoryBuilder().setNameFormat(nameFormat).setDaemon(true).build(), (task, tpe) -> {
+                    rejected.increment();
+                    throw new RejectedExecutionException("Dispatch queue is full");
+                });
+        // idle threads are released, so executor costs nothing when unused
+        pool.allowCoreThreadTimeOut(true);
+        executor = pool;
+    }
+
+    private DispatchExecutor(ExecutorService executor) {
+        this.executor = executor;
+        this.pool = null;
+    }
+
+    /**
+     * Create executor which runs every task on new virtual thread.
+     *
+     * @param namePrefix prefix of virtual thread names
+     * @return {@link DispatchExecutor} in virtual mode
+     * @throws UnsupportedOperationException if Java runtime does not provide
+     *             virtual threads
+     */
+    public static DispatchExecutor virtual(String namePrefix) {
+        return new DispatchExecutor(VirtualThreads.newThreadPerTaskExecutor(namePrefix));
+    }
+
+    /**
+     * Check if Java runtime provides virtual threads.
+     *
+     * @return true if {@link #virtual(String)} can be used
+     */
+    public static boolean isVirtualSupported() {
+        return VirtualThreads.SUPPORTED;
+    }
+
+    /**
+     * Create default executor, which is in virtual mode if enabled by
+     * {@value #VIRTUAL_THREADS} system property and supported by runtime.
+     *
+     * @param nameFormat thread name format of bounded executor, also used as
+     *            prefix of virtual thread names
+     * @return {@link DispatchExecutor}
+     */
+    public static DispatchExecutor createDefault(String nameFormat) {
+        if (Boolean.getBoolean(VIRTUAL_THREADS)) {
+            if (isVirtualSupported()) {
+                return virtual(nameFormat.replace("%d", ""));
+            }
+            LOG.warn("Virtual threads requested, but not supported by Java runtime {}",
+                    System.getProperty("java.version"));
+        }
+        return new DispatchExecutor(nameFormat, DEFAULT_THREADS, DEFAULT_QUEUE_CAPACITY);
+    }
+
+    /**
+     * Get shared executor for blocking requests to other peers, which are
+     * issued on behalf of callers expecting future. Every request then waits
+     * for its reply on own virtual thread instead of on thread of caller or on
+     * single worker thread.
+     *
+     * @return {@link DispatchExecutor} in virtual mode, or null if not enabled
+     *         by {@value #VIRTUAL_CLIENT_CALLS} system property or not
+     *         supported by runtime, in which case requests are issued as
+     *         before
+     */
+    public static DispatchExecutor clientCalls() {
+        return ClientCalls.EXECUTOR;
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        executor.execute(() -> {
+            largestActive.accumulateAndGet(active.incrementAndGet(), Math::max);
+            try {
+                command.run();
+            } finally {
+                active.decrementAndGet();
+                completed.increment();
+            }
+        });
+    }
+
+    /**
+     * Check if this executor runs tasks on virtual threads.
+     *
+     * @return true if in virtual mode
+     */
+    public boolean isVirtual() {
+        return pool == null;
+    }
+
+    /**
+     * Get maximum number of threads.
+     *
+     * @return maximum number of threads
+     */
+    public int getMaxThreadCount() {
+        return pool == null ? Integer.MAX_VALUE : pool.getMaximumPoolSize();
+    }
+
+    /**
+     * Get current number of threads.
+     *
+     * @return number of threads
+     */
+    public int getThreadCount() {
+        return pool == null ? active.get() : pool.getPoolSize();
+    }
+
+    /**
+     * Get number of threads currently executing task.
+     *
+     * @return number of busy threads
+     */
+    public int getActiveThreadCount() {
+        return active.get();
+    }
+
+    /**
+     * Get largest number of threads that ever existed at same time.
+     *
+     * @return largest number of threads
+     */
+    public int getLargestThreadCount() {
+        return pool == null ? largestActive.get() : pool.getLargestPoolSize();
+    }
+
+    /**
+     * Get number of tasks waiting for thread.
+     *
+     * @return queue size
+     */
+    public int getQueueSize() {
+        return pool == null ? 0 : pool.getQueue().size();
+    }
+
+    /**
+     * Get number of tasks which can be queued without rejection.
+     *
+     * @return remaining queue capacity
+     */
+    public int getRemainingQueueCapacity() {
+        return pool == null ? Integer.MAX_VALUE : pool.getQueue().remainingCapacity();
+    }
+
+    /**
+     * Get number of completed tasks.
+     *
+     * @return number of completed tasks
+     */
+    public long getCompletedTaskCount() {
+        return completed.sum();
+    }
+
+    /**
+     * Get number of tasks rejected due to saturation.
+     *
+     * @return number of rejected tasks
+     */
+    public long getRejectedTaskCount() {
+        return rejected.sum();
+    }
+
+    @Override
+    public void close() {
+        executor.shutdown();
+    }
+
+    @Override
+    public String toString() {
+        return "DispatchExecutor [virtual=" + isVirtual() + ", threads=" + getThreadCount() + "/"
+                + getMaxThreadCount() + ", active=" + getActiveThreadCount() + ", queue=" + getQueueSize()
+                + ", completed=" + getCompletedTaskCount() + ", rejected=" + getRejectedTaskCount() + "]";
+    }
+
+    /**
+     * Holder of executor for client calls, created on first use.
+     */
+    private static final class ClientCalls {
+        private static final DispatchExecutor EXECUTOR = create();
+
+        private ClientCalls() {
+            // no instantiation here
+        }
+
+        private static DispatchExecutor create() {
+            if (!Boolean.getBoolean(VIRTUAL_CLIENT_CALLS)) {
+                return null;
+            }
+            if (isVirtualSupported()) {
+                return virtual("Bus-client-");
+            }
+            LOG.warn("Virtual client calls requested, but not supported by Java runtime {}",
+                    System.getProperty("java.version"));
+            return null;
+        }
+    }
+
+    /**
+     * Reflective access to virtual threads, so code remains compatible with
+     * Java 8.
+     */
+    private static final class VirtualThreads {
+        private static final boolean SUPPORTED = probe();
+
+        private VirtualThreads() {
+            // no instantiation here
+        }
+
+        private static boolean probe() {
+            try {
+                Thread.class.getMethod("ofVirtual");
+                return true;
+            } catch (NoSuchMethodException e) {
+                return false;
+            }
+        }
+
+        private static ExecutorService newThreadPerTaskExecutor(String namePrefix) {
+            if (!SUPPORTED) {
+                throw new UnsupportedOperationException("Virtual threads are not supported by this Java runtime");
+            }
+            try {
+                final Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+                Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+                builder = builderClass.getMethod("name", String.class, long.class).invoke(builder, namePrefix, 0L);
+                final ThreadFactory factory = (ThreadFactory) builderClass.getMethod("factory").invoke(builder);
+                return (ExecutorService) Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class)
+                        .invoke(null, factory);
+            } catch (ClassNotFoundException | NoSuchMethodException | IllegalAccessException
+                    | InvocationTargetException e) {
+                throw new UnsupportedOperationException("Unable to create virtual thread executor", e);
+            }
+        }
+    }
+}
@@ -0,0 +1,179 @@
+/*
+ * Copyright (c) 2017 Brocade Communications Systems, Inc. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.jsonrpc.bus.messagelib;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.base.Preconditions;
+
+/**
+ * {@link SpanExporter} which appends spans to file, one JSON object (see
+ * {@link Span#toJson()}) per line.
+ *
+ * <p>
+ * {@link #export(Span)} only puts span into bounded queue, which is drained by
+ * background writer thread. Spans are written in batches and file is flushed
+ * once queue is empty or flush interval elapses, whichever comes first. When
+ * queue is full, span is dropped rather than blocking traced thread.
+ */
+public class FileSpanExporter implements SpanExporter, AutoCloseable {
+    /**
+     * Default capacity of queue of spans waiting to be written.
+     */
+    public static final int DEFAULT_QUEUE_CAPACITY = 8192;
+    /**
+     * Default maximum time between flushes while spans keep coming, in
+     * milliseconds.
+     */
+    public static final long DEFAULT_FLUSH_INTERVAL = 1000L;
+    private static final Logger LOG = LoggerFactory.getLogger(FileSpanExporter.class);
+    private static final long JOIN_TIMEOUT = 5000L;
+    private final Path file;
+    private final Writer writer;
+    private final BlockingQueue<Span> queue;
+    private final long flushIntervalNanos;
+    private final Thread writerThread;
+    private final LongAdder dropped = new LongAdder();
+    private volatile boolean closed = false;
+
+    /**
+     * Create exporter with default queue capacity and flush interval.
+     *
+     * @param file file to append spans to, created if it does not exist
+     * @throws IOException if file can't be opened
+     */
+    public FileSpanExporter(Path file) throws IOException {
+        this(file, DEFAULT_QUEUE_CAPACITY, DEFAULT_FLUSH_INTERVAL);
+    }
+
+    /**
+     * Create exporter.
+     *
+     * @param file file to append spans to, created if it does not exist
+     * @param queueCapacity maximum number of spans waiting to be written
+     * @param flushInterval maximum time between flushes in milliseconds
+     * @throws IOException if file can't be opened
+     */
+    public FileSpanExporter(Path file, int queueCapacity, long flushInterval) throws IOException {
+        Preconditions.checkArgument(queueCapacity > 0, "Queue capacity must be positive");
+        Preconditions.checkArgument(flushInterval > 0, "Flush interval must be positive");
+        this.file = file;
+        this.writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8, StandardOpenOption.CREATE,
+                StandardOpenOption.APPEND);
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(flushInterval);
+        this.writerThread = new Thread(this::run, "span-writer-" + file.getFileName());
+        writerThread.setDaemon(true);
+        writerThread.start();
+    }
+
+    @Override
+    public void export(Span span) {
+        if (closed || !queue.offer(span)) {
+            dropped.increment();
+        }
+    }
+
+    private void run() {
+        final List<Span> batch = new ArrayList<>();
+        long lastFlush = System.nanoTime();
+        boolean dirty = false;
+        try {
+            while (!closed || !queue.isEmpty()) {
+                final Span first = queue.poll(flushIntervalNanos, TimeUnit.NANOSECONDS);
+                if (first != null) {
+                    batch.add(first);
+                    queue.drainTo(batch);
+                    write(batch);
+                    batch.clear();
+                    dirty = true;
+                }
+                final long now = System.nanoTime();
+                // flush once idle, or periodically while spans keep coming
+                if (dirty && (queue.isEmpty() || now - lastFlush >= flushIntervalNanos)) {
+                    flush();
+                    dirty = false;
+                    lastFlush = now;
+                }
+            }
+        } catch (InterruptedException e) {
+            LOG.debug("Span writer of {} interrupted", file, e);
+        } finally {
+            try {
+                writer.close();
+            } catch (IOException e) {
+                LOG.warn("Unable to close {}", file, e);
+            }
+        }
+    }
+
+    private void write(List<Span> batch) {
+        try {
+            for (final Span span : batch) {
+                writer.write(span.toJson().toString());
+                writer.write('\n');
+            }
+        } catch (IOException e) {
+            LOG.warn("Unable to write {} span(s) to {}", batch.size(), file, e);
+        }
+    }
+
+    private void flush() {
+        try {
+            writer.flush();
+        } catch (IOException e) {
+            LOG.warn("Unable to flush {}", file, e);
+        }
+    }
+
+    /**
+     * Get number of spans which were dropped because queue was full or
+     * exporter was already closed.
+     *
+     * @return number of dropped spans
+     */
+    public long getDroppedCount() {
+        return dropped.sum();
+    }
+
+    /**
+     * Write all queued spans and close file.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        try {
+            writerThread.join(JOIN_TIMEOUT);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (writerThread.isAlive()) {
+            LOG.warn("Span writer of {} did not finish in time", file);
+            writerThread.interrupt();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "FileSpanExporter [file=" + file + ", queued=" + queue.size() + "]";
+    }
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright (c) 2017 Brocade Communications Systems, Inc. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.jsonrpc.bus.messagelib;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+import com.google.common.base.Preconditions;
+
+/**
+ * {@link SpanExporter} which keeps most recent spans in memory, oldest spans
+ * are discarded once capacity is reached.
+ */
+public class InMemorySpanExporter implements SpanExporter {
+    /**
+     * Default number of retained spans.
+     */
+    public static final int DEFAULT_CAPACITY = 10000;
+    private final int capacity;
+    private final Deque<Span> spans = new ArrayDeque<>();
+
+    public InMemorySpanExporter() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Create exporter.
+     *
+     * @param capacity maximum number of retained spans
+     */
+    public InMemorySpanExporter(int capacity) {
+        Preconditions.checkArgument(capacity > 0, "Capacity must be positive");
+        this.capacity = capacity;
+    }
+
+    @Override
+    public synchronized void export(Span span) {
+        if (spans.size() == capacity) {
+            spans.removeFirst();
+        }
+        spans.addLast(span);
+    }
+
+    /**
+     * Get retained spans, in order they ended.
+     *
+     * @return list of {@link Span}s
+     */
+    public synchronized List<Span> getSpans() {
+        return new ArrayList<>(spans);
+    }
+
+    /**
+     * Discard all retained spans.
+     */
+    public synchronized void clear() {
+        spans.clear();
+    }
+}
@@ -7,14 +7,21 @@
  */
 package org.opendaylight.jsonrpc.bus.messagelib;
 
-import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.Iterator;
-import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
 
 import org.opendaylight.jsonrpc.bus.BusSession;
 import org.opendaylight.jsonrpc.bus.BusSessionFactory;
 import org.opendaylight.jsonrpc.bus.spi.BusSessionFactoryProvider;
 
+import com.google.common.base.Preconditions;
 import com.google.common.collect.Lists;
 
 /**
@@ -26,8 +33,33 @@ import com.google.common.collect.Lists;
  *
  */
 public class MessageLibrary implements AutoCloseable {
+    /**
+     * Publisher URI parameter, maximum number of notifications in batch.
+     */
+    public static final String BATCH_SIZE = "batch-size";
+    /**
+     * Publisher URI parameter, maximum time notification waits for batch to
+     * fill up.
+     */
+    public static final String LINGER = "linger";
+    public static final long DEFAULT_LINGER = 5;
+    /**
+     * Publisher and subscriber URI parameter, notifications are published
+     * under topic equal to their method name, so subscriber can subscribe
+     * just to notifications it is interested in.
+     */
+    public static final String METHOD_TOPICS = "method-topics";
+    // shared by all libraries, so threads don't multiply with transports
+    private static final DispatchExecutor DEFAULT_DISPATCH_EXECUTOR = DispatchExecutor.createDefault("Bus-session-%d");
     private BusSessionFactory<BusSession> factory;
-    private final List<Session> sessions = new ArrayList<>();
+    // sessions are added and removed concurrently by proxies of many threads
+    private final Set<Session> sessions = ConcurrentHashMap.newKeySet();
+    private final ConcurrentMap<String, CircuitBreaker> circuitBreakers = new ConcurrentHashMap<>();
+    private volatile RetryPolicy retryPolicy = RetryPolicy.NONE;
+    private volatile int circuitBreakerThreshold = 0;
+    private volatile long circuitBreakerOpenTime = 0;
+    private volatile DispatchExecutor dispatchExecutor = DEFAULT_DISPATCH_EXECUTOR;
+    private volatile Executor clientCallExecutor = DispatchExecutor.clientCalls();
 
     /**
      * Default constructor which uses {@link TcclBusSessionFactoryProvider} to
@@ -66,9 +98,7 @@ public class MessageLibrary implements AutoCloseable {
     }
 
     public void remove(Session session) {
-        if (sessions.contains(session)) {
-            sessions.remove(session);
-        }
+        sessions.remove(session);
     }
 
     @Override
@@ -81,12 +111,127 @@ public class MessageLibrary implements AutoCloseable {
         return new Session(this, factory.subscriber(uri, ""));
     }
 
+    /**
+     * Create publisher session. Notifications are coalesced into batches when
+     * URI contains {@value #BATCH_SIZE} query parameter, optionally
+     * accompanied by {@value #LINGER} (in milliseconds, defaults to
+     * {@value #DEFAULT_LINGER}). When URI contains {@value #METHOD_TOPICS}
+     * query parameter, every notification is published under its method name.
+     * Batching can't be combined with per-method topics, as batch may contain
+     * notifications of different methods. These parameters are not passed
+     * down to transport.
+     *
+     * @param uri URI to bind publisher to
+     * @return {@link Session}
+     */
     public Session publisher(String uri) {
-        return new Session(this, factory.publisher(uri, ""));
+        final Map<String, String> params = queryParams(uri);
+        final boolean batching = params.containsKey(BATCH_SIZE);
+        final boolean methodTopics = params.containsKey(METHOD_TOPICS);
+        Preconditions.checkArgument(!(batching && methodTopics), "Parameters '%s' and '%s' are mutually exclusive",
+                BATCH_SIZE, METHOD_TOPICS);
+        final Session session = new Session(this,
+                factory.publisher(removeParams(uri, params, BATCH_SIZE, LINGER, METHOD_TOPICS), ""));
+        if (batching) {
+            session.setBatching(Integer.parseInt(params.get(BATCH_SIZE)),
+                    params.get(LINGER) == null ? DEFAULT_LINGER : Long.parseLong(params.get(LINGER)));
+        }
+        session.setMethodTopics(methodTopics);
+        return session;
+    }
+
+    private static Map<String, String> queryParams(String uri) {
+        final int idx = uri.indexOf('?');
+        return idx == -1 ? Collections.emptyMap() : Util.UriTokenizer.tokenize(uri.substring(idx + 1));
+    }
+
+    private static String removeParams(String uri, Map<String, String> params, String... names) {
+        boolean present = false;
+        for (final String name : names) {
+            present |= params.containsKey(name);
+        }
+        if (!present) {
+            return uri;
+        }
+        final int idx = uri.indexOf('?');
+        final String query = Util.removeParams(uri.substring(idx + 1), names);
+        return query.isEmpty() ? uri.substring(0, idx) : uri.substring(0, idx + 1) + query;
     }
 
     public Session requester(String uri) {
-        return new Session(this, factory.requester(uri));
+        return new Session(this, factory.requester(uri), retryPolicy, getCircuitBreaker(uri));
+    }
+
+    private CircuitBreaker getCircuitBreaker(String uri) {
+        if (circuitBreakerThreshold <= 0) {
+            return null;
+        }
+        return circuitBreakers.computeIfAbsent(uri,
+            k -> new CircuitBreaker(circuitBreakerThreshold, circuitBreakerOpenTime));
+    }
+
+    /**
+     * Set {@link RetryPolicy} used by requester sessions created afterwards.
+     *
+     * @param retryPolicy policy to use
+     */
+    public void setRetryPolicy(RetryPolicy retryPolicy) {
+        this.retryPolicy = Objects.requireNonNull(retryPolicy);
+    }
+
+    /**
+     * Enable circuit breaking for requester sessions created afterwards.
+     * Sessions connected to same endpoint share single {@link CircuitBreaker}.
+     *
+     * @param threshold number of consecutive failures which opens circuit,
+     *            zero to disable circuit breaking
+     * @param openTime time in milliseconds for which circuit stays open
+     */
+    public void setCircuitBreaker(int threshold, long openTime) {
+        this.circuitBreakerThreshold = threshold;
+        this.circuitBreakerOpenTime = openTime;
+        circuitBreakers.clear();
+    }
+
+    /**
+     * Set executor used to invoke handlers of {@link ThreadedSession}s created
+     * afterwards. Caller remains owner of executor.
+     *
+     * @param dispatchExecutor executor to use
+     */
+    public void setDispatchExecutor(DispatchExecutor dispatchExecutor) {
+        this.dispatchExecutor = Objects.requireNonNull(dispatchExecutor);
+    }
+
+    /**
+     * Get executor used to invoke handlers of {@link ThreadedSession}s.
+     *
+     * @return {@link DispatchExecutor}
+     */
+    public DispatchExecutor getDispatchExecutor() {
+        return dispatchExecutor;
+    }
+
+    /**
+     * Set executor used to issue requests of asynchronous proxy methods, so
+     * that caller is not held even if transport can only wait for reply in
+     * blocking manner. Caller remains owner of executor.
+     *
+     * @param clientCallExecutor executor to use, null to issue requests on
+     *            thread of caller
+     * @see DispatchExecutor#clientCalls()
+     */
+    public void setClientCallExecutor(Executor clientCallExecutor) {
+        this.clientCallExecutor = clientCallExecutor;
+    }
+
+    /**
+     * Get executor used to issue requests of asynchronous proxy methods.
+     *
+     * @return executor, null if requests are issued on thread of caller
+     */
+    public Executor getClientCallExecutor() {
+        return clientCallExecutor;
     }
 
     public Session responder(String uri) {
@@ -97,6 +242,29 @@ public class MessageLibrary implements AutoCloseable {
         return new ThreadedSessionImpl<T>(this, factory.subscriber(uri, ""), handler);
     }
 
+    /**
+     * Create subscriber session which receives notifications of given methods
+     * using single connection and single dispatch thread. Transport filters
+     * notifications by method only when URI contains {@value #METHOD_TOPICS}
+     * query parameter (that is, when publisher is known to publish under
+     * per-method topics), otherwise all notifications are received and
+     * handler is expected to ignore those it is not interested in.
+     *
+     * @param uri URI to connect subscriber to
+     * @param methods names of notification methods to subscribe to
+     * @param handler handler of notifications
+     * @return {@link ThreadedSession}
+     */
+    public <T extends AutoCloseable> ThreadedSession threadedSubscriber(String uri, Collection<String> methods,
+            T handler) {
+        Preconditions.checkArgument(!methods.isEmpty(), "No methods to subscribe to");
+        final Map<String, String> params = queryParams(uri);
+        final Collection<String> topics = params.containsKey(METHOD_TOPICS) ? methods
+                : Collections.singletonList("");
+        return new ThreadedSessionImpl<T>(this, factory.subscriber(removeParams(uri, params, METHOD_TOPICS), topics),
+                handler);
+    }
+
     public <T extends AutoCloseable> ThreadedSession threadedResponder(String uri, T handler) {
         return new ThreadedSessionImpl<T>(this, factory.responder(uri), handler);
     }
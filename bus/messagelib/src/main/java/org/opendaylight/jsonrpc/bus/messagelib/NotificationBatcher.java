@@ -0,0 +1,149 @@
+/*
+ * Copyright (c) 2017 Brocade Communications Systems, Inc. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.jsonrpc.bus.messagelib;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+import org.opendaylight.jsonrpc.bus.jsonrpc.JsonRpcBaseMessage;
+
+import com.google.common.base.Preconditions;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * Coalesces notifications sent by publisher session into JSON-RPC batches.
+ * Batch is transmitted once it reaches maximum size or when linger period
+ * since first notification of batch elapses, whichever comes first.
+ */
+public class NotificationBatcher implements AutoCloseable {
+    // one timer thread is enough to flush all batchers, actual transmission
+    // is cheap as publisher never blocks
+    private static final ScheduledExecutorService TIMER = createTimer();
+    private final Consumer<List<JsonRpcBaseMessage>> sink;
+    private final int maxBatchSize;
+    private final long lingerMillis;
+    private final LongAdder notifications = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder sizeFlushes = new LongAdder();
+    // guarded by this
+    private List<JsonRpcBaseMessage> pending;
+    // flushes current batch once linger period elapses, guarded by this
+    private ScheduledFuture<?> lingerTimer;
+
+    /**
+     * Create batcher.
+     *
+     * @param sink consumer which transmits batch
+     * @param maxBatchSize maximum number of notifications in single batch
+     * @param lingerMillis maximum time in milliseconds notification can wait
+     *            for others to join its batch
+     */
+    public NotificationBatcher(Consumer<List<JsonRpcBaseMessage>> sink, int maxBatchSize, long lingerMillis) {
+        Preconditions.checkArgument(maxBatchSize > 0, "Batch size must be positive");
+        Preconditions.checkArgument(lingerMillis >= 0, "Linger period can't be negative");
+        this.sink = sink;
+        this.maxBatchSize = maxBatchSize;
+        this.lingerMillis = lingerMillis;
+        this.pending = new ArrayList<>(maxBatchSize);
+    }
+
+    private static ScheduledExecutorService createTimer() {
+        final ScheduledThreadPoolExecutor timer = new ScheduledThreadPoolExecutor(1,
+                new ThreadFactoryBuilder().setNameFormat("notification-batcher-%d").setDaemon(true).build());
+        // timers of batches flushed due to size are cancelled, don't keep them
+        timer.setRemoveOnCancelPolicy(true);
+        return timer;
+    }
+
+    /**
+     * Add notification to current batch.
+     *
+     * @param notification notification to add
+     */
+    public synchronized void add(JsonRpcBaseMessage notification) {
+        pending.add(notification);
+        notifications.increment();
+        if (pending.size() == 1 && maxBatchSize > 1) {
+            lingerTimer = TIMER.schedule(this::flush, lingerMillis, TimeUnit.MILLISECONDS);
+        }
+        if (pending.size() >= maxBatchSize) {
+            if (maxBatchSize > 1) {
+                sizeFlushes.increment();
+            }
+            transmit();
+        }
+    }
+
+    /**
+     * Transmit current batch, if there is any. Publisher never blocks, so it
+     * is fine to transmit while holding lock, which also keeps batches in
+     * order.
+     */
+    public synchronized void flush() {
+        if (!pending.isEmpty()) {
+            transmit();
+        }
+    }
+
+    private void transmit() {
+        if (lingerTimer != null) {
+            // batch is gone, so is reason to wake up
+            lingerTimer.cancel(false);
+            lingerTimer = null;
+        }
+        final List<JsonRpcBaseMessage> batch = pending;
+        pending = new ArrayList<>(maxBatchSize);
+        batches.increment();
+        sink.accept(batch);
+    }
+
+    /**
+     * Get number of notifications added so far.
+     *
+     * @return number of notifications
+     */
+    public long getNotificationCount() {
+        return notifications.sum();
+    }
+
+    /**
+     * Get number of batches transmitted so far.
+     *
+     * @return number of batches
+     */
+    public long getBatchCount() {
+        return batches.sum();
+    }
+
+    /**
+     * Get number of batches transmitted because they reached maximum size
+     * before linger period elapsed.
+     *
+     * @return number of size-triggered flushes
+     */
+    public long getSizeFlushCount() {
+        return sizeFlushes.sum();
+    }
+
+    @Override
+    public void close() {
+        flush();
+    }
+
+    @Override
+    public String toString() {
+        return "NotificationBatcher [maxBatchSize=" + maxBatchSize + ", lingerMillis=" + lingerMillis
+                + ", notifications=" + notifications + ", batches=" + batches + ", sizeFlushes=" + sizeFlushes + "]";
+    }
+}
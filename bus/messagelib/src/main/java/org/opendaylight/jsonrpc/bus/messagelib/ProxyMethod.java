@@ -0,0 +1,279 @@
+/*
+ * Copyright (c) 2017 Brocade Communications Systems, Inc. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.jsonrpc.bus.messagelib;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.opendaylight.jsonrpc.bus.metrics.Counter;
+import org.opendaylight.jsonrpc.bus.metrics.MetricRegistry;
+import org.opendaylight.jsonrpc.bus.metrics.Metrics;
+import org.opendaylight.jsonrpc.bus.metrics.Timer;
+
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParseException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.reflect.TypeToken;
+
+/**
+ * Everything {@link ProxyServiceImpl} needs to know about method of proxied
+ * interface, computed once per method. Method kind, name and
+ * {@link TypeAdapter} of its return value are resolved when interface is first
+ * used, so invocation itself does no reflection, and result is decoded directly
+ * from JSON tree instead of going through its textual form.
+ *
+ * <p>
+ * Latency and failures of methods sent to bus are recorded in {@link Metrics}
+ * as <code>proxy.&lt;interface&gt;.&lt;method&gt;.latency</code> and
+ * <code>.errors</code>. Metrics are registered while there is at least one
+ * open proxy using method, see {@link #acquireMetrics()}.
+ */
+final class ProxyMethod {
+    private static final Gson GSON = new Gson();
+    private static final String TO_STRING_METHOD_NAME = "toString";
+    private static final String CLOSE_METHOD_NAME = "close";
+    private static final ClassValue<Map<Method, ProxyMethod>> CACHE = new ClassValue<Map<Method, ProxyMethod>>() {
+        @Override
+        protected Map<Method, ProxyMethod> computeValue(Class<?> type) {
+            final Map<Method, ProxyMethod> methods = new HashMap<>();
+            for (final Method method : type.getDeclaredMethods()) {
+                methods.put(method, new ProxyMethod(method));
+            }
+            return methods;
+        }
+    };
+
+    enum Kind {
+        /**
+         * {@link Object#toString()}, never sent to bus.
+         */
+        TO_STRING,
+        /**
+         * {@link AutoCloseable#close()}, closes proxy instead of being sent to
+         * bus.
+         */
+        CLOSE,
+        /**
+         * Blocking method.
+         */
+        SYNC,
+        /**
+         * Method returning {@link CompletableFuture}.
+         */
+        COMPLETABLE,
+        /**
+         * Method returning {@link ListenableFuture}.
+         */
+        LISTENABLE
+    }
+
+    private final String name;
+    private final Kind kind;
+    private final boolean returnsVoid;
+    // null when result is returned as is, or ignored
+    private final TypeAdapter<?> resultAdapter;
+    private final Class<?> resultClass;
+    // only for methods sent to bus
+    private final String latencyMetric;
+    private final String errorsMetric;
+    private volatile Timer latency = MetricRegistry.NOOP.timer(null);
+    private volatile Counter errors = MetricRegistry.NOOP.counter(null);
+
+    private ProxyMethod(Method method) {
+        name = method.getName();
+        final boolean noParams = method.getParameterTypes().length == 0;
+        final Class<?> returnType = method.getReturnType();
+        Type resultType = method.getGenericReturnType();
+        if (TO_STRING_METHOD_NAME.equals(name) && noParams) {
+            kind = Kind.TO_STRING;
+        } else if (CLOSE_METHOD_NAME.equals(name) && noParams) {
+            kind = Kind.CLOSE;
+        } else if (CompletableFuture.class.equals(returnType)) {
+            kind = Kind.COMPLETABLE;
+            resultType = getFutureResultType(resultType);
+        } else if (ListenableFuture.class.equals(returnType)) {
+            kind = Kind.LISTENABLE;
+            resultType = getFutureResultType(resultType);
+        } else {
+            kind = Kind.SYNC;
+        }
+        returnsVoid = void.class.equals(returnType);
+        resultClass = TypeToken.get(resultType).getRawType();
+        if (void.class.equals(resultClass) || Void.class.equals(resultClass)
+                || JsonElement.class.isAssignableFrom(resultClass)) {
+            resultAdapter = null;
+        } else {
+            resultAdapter = GSON.getAdapter(TypeToken.get(resultType));
+        }
+        if (kind == Kind.TO_STRING || kind == Kind.CLOSE) {
+            latencyMetric = null;
+            errorsMetric = null;
+        } else {
+            final String prefix = Metrics.name("proxy", method.getDeclaringClass().getName(), name);
+            latencyMetric = Metrics.name(prefix, "latency");
+            errorsMetric = Metrics.name(prefix, "errors");
+        }
+    }
+
+    /*
+     * Find out type of value future returned by method should be completed
+     * with, such as String in case of CompletableFuture<String>
+     */
+    private static Type getFutureResultType(Type futureType) {
+        if (futureType instanceof ParameterizedType) {
+            final Type arg = ((ParameterizedType) futureType).getActualTypeArguments()[0];
+            if (arg instanceof Class || arg instanceof ParameterizedType) {
+                return arg;
+            }
+        }
+        return JsonElement.class;
+    }
+
+    /**
+     * Get {@link ProxyMethod} of given method.
+     *
+     * @param method method of proxied interface
+     * @return {@link ProxyMethod}
+     */
+    static ProxyMethod of(Method method) {
+        final ProxyMethod ret = CACHE.get(method.getDeclaringClass()).get(method);
+        // only happens for synthetic methods, which proxy never sees
+        return ret != null ? ret : new ProxyMethod(method);
+    }
+
+    /**
+     * Get {@link ProxyMethod}s of all methods of proxied interface.
+     *
+     * @param type proxied interface
+     * @return list of {@link ProxyMethod}
+     */
+    static List<ProxyMethod> allOf(Class<?> type) {
+        final List<ProxyMethod> ret = new ArrayList<>();
+        for (final Method method : type.getMethods()) {
+            ret.add(of(method));
+        }
+        return ret;
+    }
+
+    /**
+     * Obtain metrics of this method from {@link Metrics}, called when proxy is
+     * created. Every call must be paired with {@link #releaseMetrics()}.
+     */
+    synchronized void acquireMetrics() {
+        if (latencyMetric != null) {
+            final MetricRegistry metrics = Metrics.getRegistry();
+            latency = metrics.timer(latencyMetric);
+            errors = metrics.counter(errorsMetric);
+        }
+    }
+
+    /**
+     * Release metrics obtained by {@link #acquireMetrics()}, called when proxy
+     * is closed.
+     */
+    synchronized void releaseMetrics() {
+        if (latencyMetric != null) {
+            final MetricRegistry metrics = Metrics.getRegistry();
+            metrics.release(latencyMetric);
+            metrics.release(errorsMetric);
+        }
+    }
+
+    String getName() {
+        return name;
+    }
+
+    Kind getKind() {
+        return kind;
+    }
+
+    /**
+     * Check if method can be used by publisher proxy.
+     *
+     * @return true if and only if method returns void
+     */
+    boolean returnsVoid() {
+        return returnsVoid;
+    }
+
+    /**
+     * Record completed invocation.
+     *
+     * @param startNanos value of {@link System#nanoTime()} when invocation
+     *            started
+     * @param failed true if invocation failed
+     */
+    void record(long startNanos, boolean failed) {
+        latency.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+        if (failed) {
+            errors.increment();
+        }
+    }
+
+    /**
+     * Convert invocation arguments to JSON-RPC parameters. Single argument is
+     * sent as is, multiple arguments are sent as array.
+     *
+     * @param args invocation arguments, can be null
+     * @return parameters of request or null if there are none
+     */
+    JsonElement encodeParams(Object[] args) {
+        if (args == null) {
+            return null;
+        }
+        if (args.length == 1) {
+            return args[0] == null ? null : GSON.toJsonTree(args[0]);
+        }
+        return GSON.toJsonTree(args);
+    }
+
+    /**
+     * Convert result of reply to return value of method.
+     *
+     * @param result result part of reply
+     * @return return value of method
+     * @throws ProxyServiceGenericException if result does not match return
+     *             type of method
+     */
+    Object decodeResult(JsonElement result) {
+        if (void.class.equals(resultClass) || Void.class.equals(resultClass)) {
+            // We don't care what the reply is since a response is not expected.
+            return null;
+        }
+        if (resultAdapter == null) {
+            // JsonElement or its subclass, no need to convert the result.
+            if (result == null || resultClass.isInstance(result)) {
+                return result;
+            }
+            throw new ProxyServiceGenericException(
+                    String.format("Result %s is not %s", result, resultClass.getSimpleName()));
+        }
+        if (result == null || result.isJsonNull()) {
+            return null;
+        }
+        try {
+            return resultAdapter.fromJsonTree(result);
+        } catch (JsonParseException | IllegalStateException | NumberFormatException e) {
+            throw new ProxyServiceGenericException(e);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "ProxyMethod [name=" + name + ", kind=" + kind + ", result=" + resultClass.getSimpleName() + "]";
+    }
+}
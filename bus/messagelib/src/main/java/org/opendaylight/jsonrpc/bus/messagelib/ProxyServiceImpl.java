@@ -7,23 +7,27 @@
  */
 package org.opendaylight.jsonrpc.bus.messagelib;
 
+import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.Method;
 import java.lang.reflect.Proxy;
-import java.util.IdentityHashMap;
 import java.util.List;
-import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.opendaylight.jsonrpc.bus.SessionType;
 import org.opendaylight.jsonrpc.bus.jsonrpc.JsonRpcBaseMessage;
 import org.opendaylight.jsonrpc.bus.jsonrpc.JsonRpcErrorObject;
-import org.opendaylight.jsonrpc.bus.jsonrpc.JsonRpcException;
 import org.opendaylight.jsonrpc.bus.jsonrpc.JsonRpcMessageError;
 import org.opendaylight.jsonrpc.bus.jsonrpc.JsonRpcReplyMessage;
 import org.opendaylight.jsonrpc.bus.jsonrpc.JsonRpcSerializer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.SettableFuture;
 import com.google.gson.JsonElement;
 
 /**
@@ -32,28 +36,41 @@ import com.google.gson.JsonElement;
  * To define an interface for a notification server (i.e. a publisher), all
  * methods must return void, otherwise a {@link ProxyServiceGenericException} is
  * thrown.
+ *
+ * <p>
+ * Requester proxy methods returning {@link CompletableFuture} or
+ * {@link ListenableFuture} do not block caller. Request is sent immediately
+ * and returned future is completed once reply arrives, so many calls can be
+ * in flight on single proxy. Failures are reported through future, using same
+ * exceptions as synchronous methods would throw.
+ * When transport can only wait for reply in blocking manner, request can be
+ * issued from other thread, see {@link MessageLibrary#setClientCallExecutor}.
+ * Synchronous methods block caller by their nature, when caller runs on
+ * virtual thread it is parked rather than pinned while waiting for reply.
+ *
+ * <p>
+ * Every invocation is recorded as {@link Span} when {@link Tracing} is enabled,
+ * and its trace context is passed to remote peer in request metadata.
+ *
+ * <p>
+ * Every proxy instance has its own {@link InvocationHandler} which holds
+ * reference to session of proxy, so there is no shared state to look up or to
+ * lock when proxies are created, invoked or closed.
  * 
  * @author Shaleen Saxena
  *
  */
 public class ProxyServiceImpl implements ProxyService {
-    private static final String TO_STRING_METHOD_NAME = "toString";
-    private static final String CLOSE_METHOD_NAME = "close";
     private static final Logger LOG = LoggerFactory.getLogger(ProxyServiceImpl.class);
-    private final Map<Object, Session> proxyMap;
     private final MessageLibrary messaging;
 
     public ProxyServiceImpl(MessageLibrary messaging) {
         this.messaging = Objects.requireNonNull(messaging);
-        proxyMap = new IdentityHashMap<>();
     }
 
     @Override
     public <T extends AutoCloseable> T createRequesterProxy(String uri, Class<T> cls) {
-        final Session session = messaging.requester(uri);
-        final T obj = getProxySafe(cls);
-        proxyMap.put(obj, session);
-        return obj;
+        return getProxySafe(cls, new ProxyHandler(messaging.requester(uri), cls));
     }
 
     @Override
@@ -65,10 +82,7 @@ public class ProxyServiceImpl implements ProxyService {
 
     @Override
     public <T extends AutoCloseable> T createPublisherProxy(String uri, Class<T> cls) {
-        final Session session = messaging.publisher(uri);
-        final T obj = getProxySafe(cls);
-        proxyMap.put(obj, session);
-        return obj;
+        return getProxySafe(cls, new ProxyHandler(messaging.publisher(uri), cls));
     }
 
     @Override
@@ -78,75 +92,187 @@ public class ProxyServiceImpl implements ProxyService {
         return proxy;
     }
 
-    private void deleteProxy(Object obj) {
-        if (proxyMap.containsKey(obj)) {
-            try (final Session session = proxyMap.get(obj)) {
-                proxyMap.remove(obj);
+    /*
+     * Get handler of proxy created by this service, or null if given object is
+     * not such proxy
+     */
+    private ProxyHandler handlerOf(Object obj) {
+        if (obj != null && Proxy.isProxyClass(obj.getClass())) {
+            final InvocationHandler handler = Proxy.getInvocationHandler(obj);
+            if (handler instanceof ProxyHandler && ((ProxyHandler) handler).getOwner() == this) {
+                return (ProxyHandler) handler;
             }
         }
+        return null;
     }
 
     public void setTimeout(Object obj, int time) {
-        if (proxyMap.containsKey(obj)) {
-            proxyMap.get(obj).setTimeout(time);
+        final ProxyHandler handler = handlerOf(obj);
+        if (handler != null) {
+            handler.session.setTimeout(time);
         }
     }
 
     public int getTimeout(Object obj) {
-        if (proxyMap.containsKey(obj)) {
-            return proxyMap.get(obj).getTimeout();
+        final ProxyHandler handler = handlerOf(obj);
+        if (handler != null) {
+            return handler.session.getTimeout();
         }
         return 0;
     }
 
     @Override
     public Object invoke(Object obj, Method method, Object[] params) {
-        final String methodName = method.getName();
-        final Session session = proxyMap.get(obj);
+        final ProxyHandler handler = handlerOf(obj);
+        if (handler == null) {
+            throw new ProxyServiceGenericException("Not a proxy created by this service : " + obj);
+        }
+        return invoke(handler, obj, method, params);
+    }
+
+    private Object invoke(ProxyHandler handler, Object obj, Method method, Object[] params) {
+        final ProxyMethod proxyMethod = ProxyMethod.of(method);
+        final Session session = handler.session;
         String msg;
 
-        /*
-         * Special case to handle #toString() method invocation. It is
-         * undesirable to dispatch such method call via JSON-RPC, so we are
-         * providing some hint here about object state.
-         */
-        if (TO_STRING_METHOD_NAME.equals(methodName) && method.getParameterTypes().length == 0) {
-            LOG.debug("Proxy for session {}", proxyMap.get(obj));
+        switch (proxyMethod.getKind()) {
+        case TO_STRING:
+            /*
+             * Special case to handle #toString() method invocation. It is
+             * undesirable to dispatch such method call via JSON-RPC, so we are
+             * providing some hint here about object state.
+             */
+            LOG.debug("Proxy for session {}", session);
             return null;
-        }
-        /*
-         * Special case to handle AutoCloseable#close(). Instead of forwarding
-         * message to bus, proxied object state is cleaned from internal
-         * structures.
-         */
-        if (CLOSE_METHOD_NAME.equals(methodName) && method.getParameterTypes().length == 0) {
+        case CLOSE:
+            /*
+             * Special case to handle AutoCloseable#close(). Instead of
+             * forwarding message to bus, proxied object state is cleaned from
+             * internal structures.
+             */
             LOG.debug("Cleaning up proxy instance {}", obj);
-            deleteProxy(obj);
+            handler.close();
             return null;
+        default:
+            break;
+        }
+        if (handler.isClosed()) {
+            throw new ProxyServiceGenericException("Proxy is already closed");
         }
 
-        if ((session.getSessionType() == SessionType.PUBLISHER) &&
-            (!method.getReturnType().equals(void.class))) {
-                throw new ProxyServiceGenericException("Method expects return value for publisher.");
+        if ((session.getSessionType() == SessionType.PUBLISHER) && !proxyMethod.returnsVoid()) {
+            throw new ProxyServiceGenericException("Method expects return value for publisher.");
         }
 
-        try {
-            if ((params != null) && (params.length == 1)) {
-                msg = session.sendRequestAndReadReply(methodName, params[0]);
-            } else {
-                msg = session.sendRequestAndReadReply(methodName, params);
-            }
+        final long start = System.nanoTime();
+        final Span span = Tracing.startSpan(proxyMethod.getName(),
+                session.getSessionType() == SessionType.PUBLISHER ? Span.Kind.PRODUCER : Span.Kind.CLIENT);
+        final JsonElement args = proxyMethod.encodeParams(params);
+        span.event("encoded");
+        if (proxyMethod.getKind() != ProxyMethod.Kind.SYNC) {
+            return invokeAsync(session, proxyMethod, args, start, span);
+        }
+        boolean failed = true;
+        try (Span.Scope scope = span.enter()) {
+            msg = session.sendRequestAndReadReply(proxyMethod.getName(), args);
+            final Object result = getResultFromRequest(proxyMethod, msg);
+            failed = false;
+            return result;
         } catch (MessageLibraryTimeoutException e) {
+            span.error(e.getMessage());
             throw new ProxyServiceTimeoutException(e);
         } catch (MessageLibraryException e) {
+            span.error(e.getMessage());
             throw new ProxyServiceGenericException(e);
+        } catch (ProxyServiceGenericException e) {
+            span.error(e.getMessage());
+            throw e;
+        } finally {
+            proxyMethod.record(start, failed);
+            span.end();
         }
+    }
 
-        return getResultFromRequest(method, msg);
+    private Object invokeAsync(Session session, ProxyMethod proxyMethod, JsonElement args, long start, Span span) {
+        final Executor clientCalls = messaging.getClientCallExecutor();
+        final CompletableFuture<String> reply;
+        if (clientCalls != null && session.getSessionType() == SessionType.REQUESTER) {
+            reply = sendRequestFrom(clientCalls, session, proxyMethod.getName(), args, span);
+        } else {
+            try (Span.Scope scope = span.enter()) {
+                reply = session.sendRequestAsync(proxyMethod.getName(), args);
+            } catch (MessageLibraryMismatchException e) {
+                proxyMethod.record(start, true);
+                span.error(e.getMessage());
+                span.end();
+                throw new ProxyServiceGenericException(e);
+            }
+        }
+        final CompletableFuture<Object> result = new CompletableFuture<>();
+        result.whenComplete((value, err) -> {
+            proxyMethod.record(start, err != null);
+            if (err != null) {
+                span.error(err.getMessage());
+            }
+            span.end();
+        });
+        reply.whenComplete((msg, err) -> {
+            if (err instanceof MessageLibraryTimeoutException) {
+                result.completeExceptionally(new ProxyServiceTimeoutException((MessageLibraryTimeoutException) err));
+            } else if (err != null) {
+                result.completeExceptionally(new ProxyServiceGenericException(err));
+            } else {
+                try {
+                    result.complete(getResultFromRequest(proxyMethod, msg));
+                } catch (ProxyServiceGenericException e) {
+                    result.completeExceptionally(e);
+                }
+            }
+        });
+        if (proxyMethod.getKind() == ProxyMethod.Kind.COMPLETABLE) {
+            return result;
+        }
+        final SettableFuture<Object> listenable = SettableFuture.create();
+        result.whenComplete((value, err) -> {
+            if (err == null) {
+                listenable.set(value);
+            } else {
+                listenable.setException(err);
+            }
+        });
+        return listenable;
     }
 
+    /*
+     * Request is issued by thread of given executor along with span and
+     * deadline of caller, so caller is not held by transport which waits for
+     * reply in blocking manner.
+     */
+    private static CompletableFuture<String> sendRequestFrom(Executor executor, Session session, String name,
+            JsonElement args, Span span) {
+        final CompletableFuture<String> reply = new CompletableFuture<>();
+        final Deadline deadline = Deadline.current();
+        try {
+            executor.execute(() -> {
+                try (Span.Scope scope = span.enter(); Deadline.Scope deadlineScope = Deadline.enter(deadline)) {
+                    session.sendRequestAsync(name, args).whenComplete((msg, err) -> {
+                        if (err == null) {
+                            reply.complete(msg);
+                        } else {
+                            reply.completeExceptionally(err);
+                        }
+                    });
+                } catch (MessageLibraryMismatchException | RuntimeException e) {
+                    reply.completeExceptionally(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            reply.completeExceptionally(e);
+        }
+        return reply;
+    }
 
-    private Object getResultFromRequest(Method method, String msg) {
+    private Object getResultFromRequest(ProxyMethod proxyMethod, String msg) {
         if (msg == null)
             // nothing to do
             return null;
@@ -161,7 +287,7 @@ public class ProxyServiceImpl implements ProxyService {
         }
 
         if (replyList.get(0) instanceof JsonRpcReplyMessage) {
-            return getReturnFromReplyMessage(method, (JsonRpcReplyMessage) replyList.get(0));
+            return getReturnFromReplyMessage(proxyMethod, (JsonRpcReplyMessage) replyList.get(0));
         } else if (replyList.get(0) instanceof JsonRpcMessageError) {
             JsonRpcMessageError errorMsg = (JsonRpcMessageError) replyList.get(0);
             throw new ProxyServiceGenericException(errorMsg.getMessage(), errorMsg.getCode());
@@ -171,28 +297,13 @@ public class ProxyServiceImpl implements ProxyService {
         throw new ProxyServiceGenericException("Unexpected reply");
     }
 
-    private Object getReturnFromReplyMessage(Method method, JsonRpcReplyMessage replyMsg) {
+    private Object getReturnFromReplyMessage(ProxyMethod proxyMethod, JsonRpcReplyMessage replyMsg) {
         if (replyMsg.isError()) {
             JsonRpcErrorObject error = replyMsg.getError();
             throw new ProxyServiceGenericException(error.getMessage(), error.getCode());
         }
-
-        if (method.getReturnType().equals(void.class)) {
-            // We don't care what the reply is since a response is not expected.
-            return null;
-        } else if (method.getReturnType().equals(JsonElement.class)) {
-            // no need to convert the result.
-            return replyMsg.getResult();
-        } else {
-            // convert result to expected return type.
-            Object result = null;
-            try {
-                result = replyMsg.getResultAsObject(method.getReturnType());
-            } catch (JsonRpcException e) {
-                throw new ProxyServiceGenericException(e);
-            }
-            return result;
-        }
+        // convert result to expected return type, using precomputed adapter
+        return proxyMethod.decodeResult(replyMsg.getResult());
     }
 
     /*
@@ -200,7 +311,44 @@ public class ProxyServiceImpl implements ProxyService {
      * into this method
      */
     @SuppressWarnings("unchecked")
-    private <T extends AutoCloseable> T getProxySafe(Class<T> cls) {
-        return (T) Proxy.newProxyInstance(cls.getClassLoader(), new Class[] { cls }, this);
+    private <T extends AutoCloseable> T getProxySafe(Class<T> cls, ProxyHandler handler) {
+        return (T) Proxy.newProxyInstance(cls.getClassLoader(), new Class[] { cls }, handler);
+    }
+
+    /**
+     * {@link InvocationHandler} of single proxy instance.
+     */
+    private final class ProxyHandler implements InvocationHandler {
+        private final Session session;
+        private final List<ProxyMethod> methods;
+        private final AtomicBoolean closed = new AtomicBoolean(false);
+
+        private ProxyHandler(Session session, Class<?> type) {
+            this.session = session;
+            this.methods = ProxyMethod.allOf(type);
+            methods.forEach(ProxyMethod::acquireMetrics);
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) {
+            return ProxyServiceImpl.this.invoke(this, proxy, method, args);
+        }
+
+        private ProxyServiceImpl getOwner() {
+            return ProxyServiceImpl.this;
+        }
+
+        private boolean isClosed() {
+            return closed.get();
+        }
+
+        private void close() {
+            // session must be closed just once, even if proxy is closed
+            // concurrently from many threads
+            if (closed.compareAndSet(false, true)) {
+                session.close();
+                methods.forEach(ProxyMethod::releaseMetrics);
+            }
+        }
     }
 }
@@ -0,0 +1,58 @@
+/*
+ * Copyright (c) 2017 Brocade Communications Systems, Inc. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.jsonrpc.bus.messagelib;
+
+/**
+ * Policy which decides whether request which timed out can be sent again and
+ * how long to wait before doing so. Only requests which are safe to repeat
+ * (idempotent) should be retried.
+ */
+public interface RetryPolicy {
+    /**
+     * Policy which never retries.
+     */
+    RetryPolicy NONE = new RetryPolicy() {
+        @Override
+        public boolean isRetriable(String method) {
+            return false;
+        }
+
+        @Override
+        public int getMaxAttempts() {
+            return 1;
+        }
+
+        @Override
+        public long getBackoff(int attempt) {
+            return 0;
+        }
+    };
+
+    /**
+     * Check if request for given method can be safely repeated.
+     *
+     * @param method name of JSON-RPC method
+     * @return true if request can be repeated
+     */
+    boolean isRetriable(String method);
+
+    /**
+     * Get maximum number of attempts, including first one.
+     *
+     * @return maximum number of attempts
+     */
+    int getMaxAttempts();
+
+    /**
+     * Get delay before next attempt.
+     *
+     * @param attempt number of attempt which just failed, starting with 1
+     * @return delay in milliseconds
+     */
+    long getBackoff(int attempt);
+}
@@ -9,7 +9,16 @@ package org.opendaylight.jsonrpc.bus.messagelib;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
 
 import org.opendaylight.jsonrpc.bus.BusSession;
 import org.opendaylight.jsonrpc.bus.BusSessionMsgHandler;
@@ -39,17 +48,38 @@ public class Session implements AutoCloseable {
     private final MessageLibrary messaging;
     private final SessionType sessionType;
     private final BusSession busSession;
-    private final Object lock = new Object();
-    private int id;
+    // not a monitor, so virtual thread waiting for reply parks instead of
+    // pinning its carrier thread
+    private final Lock lock = new ReentrantLock();
+    private final RetryPolicy retryPolicy;
+    private final CircuitBreaker circuitBreaker;
+    private volatile NotificationBatcher batcher;
+    private volatile boolean methodTopics;
+    private final AtomicInteger id = new AtomicInteger();
     private RequestMessageHandler requestMessageHandler;
     private ReplyMessageHandler replyMessageHandler;
     private NotificationMessageHandler notificationMessageHandler;
 
     Session(MessageLibrary messaging, BusSession busSession) {
-        this.id = 0; // starting value
+        this(messaging, busSession, RetryPolicy.NONE, null);
+    }
+
+    /**
+     * Create session with resilience settings.
+     *
+     * @param messaging owning {@link MessageLibrary}
+     * @param busSession underlying {@link BusSession}
+     * @param retryPolicy {@link RetryPolicy} applied to requests which timed
+     *            out
+     * @param circuitBreaker {@link CircuitBreaker} of endpoint, can be null
+     */
+    Session(MessageLibrary messaging, BusSession busSession, RetryPolicy retryPolicy,
+            CircuitBreaker circuitBreaker) {
         this.messaging = messaging;
         this.sessionType = Objects.requireNonNull(busSession.getSessionType());
         this.busSession = busSession;
+        this.retryPolicy = Objects.requireNonNull(retryPolicy);
+        this.circuitBreaker = circuitBreaker;
         messaging.add(this);
     }
 
@@ -69,14 +99,70 @@ public class Session implements AutoCloseable {
         busSession.setTimeoutToDefault();
     }
 
+    /**
+     * Enable coalescing of notifications into JSON-RPC batches. Only
+     * applicable to {@link SessionType#PUBLISHER} sessions.
+     *
+     * @param maxBatchSize maximum number of notifications in single batch
+     * @param lingerMillis maximum time in milliseconds notification can wait
+     *            for others to join its batch
+     * @see NotificationBatcher
+     */
+    public void setBatching(int maxBatchSize, long lingerMillis) {
+        if (sessionType != SessionType.PUBLISHER) {
+            throw new IllegalStateException("Batching is only supported by publisher");
+        }
+        final NotificationBatcher previous = batcher;
+        batcher = new NotificationBatcher(this::sendBatch, maxBatchSize, lingerMillis);
+        if (previous != null) {
+            previous.close();
+        }
+    }
+
+    /**
+     * Publish every notification under topic equal to its method name. Only
+     * applicable to {@link SessionType#PUBLISHER} sessions.
+     *
+     * @param methodTopics true to use per-method topics, false to use
+     *            session's default topic
+     */
+    public void setMethodTopics(boolean methodTopics) {
+        if (methodTopics && sessionType != SessionType.PUBLISHER) {
+            throw new IllegalStateException("Per-method topics are only supported by publisher");
+        }
+        this.methodTopics = methodTopics;
+    }
+
+    /**
+     * Get {@link NotificationBatcher} of this session.
+     *
+     * @return {@link NotificationBatcher} or null if batching is not enabled
+     */
+    public NotificationBatcher getBatcher() {
+        return batcher;
+    }
+
+    private void sendBatch(List<JsonRpcBaseMessage> batch) {
+        try {
+            sendMessage(batch);
+        } catch (MessageLibraryMismatchException e) {
+            // impossible, batcher is only created for publisher
+            logger.error("Unable to send batch", e);
+        }
+    }
+
     @Override
     public void close() {
+        final NotificationBatcher toFlush = batcher;
+        if (toFlush != null) {
+            toFlush.close();
+        }
         messaging.remove(this);
         busSession.close();
     }
 
     private int newId() {
-        return ++id;
+        return id.incrementAndGet();
     }
 
     /**
@@ -90,28 +176,9 @@ public class Session implements AutoCloseable {
      *             that does not support sending messges.
      */
     public void sendRequest(String method, Object params) throws MessageLibraryMismatchException {
-        // Check if we have valid session
-        if ((sessionType == SessionType.SUBSCRIBER) || (sessionType == SessionType.RESPONDER)) {
-            throw new MessageLibraryMismatchException("Send not supported for this session.");
-        }
-
-        // Build Request
-        JsonRpcRequestMessage request = new JsonRpcRequestMessage();
-        request.setDefaultJsonrpc();
-        request.setMethod(method);
-
-        if (sessionType != SessionType.PUBLISHER) {
-            request.setIdAsIntValue(newId());
-        }
-
-        if (params != null) {
-            request.setParamsAsObject(params);
-        }
-
-        sendMessage(request);
-
-        return;
+        sendRequest(method, params, null);
     }
+
     /**
      * This method is used to send requests or notification messages. If the
      * channel is PUBLISHER, the message is assumed to be notification. If the
@@ -120,7 +187,9 @@ public class Session implements AutoCloseable {
      * @param method The method to which this request or notification is
      *            directed at.
      * @param params Optional parameters. Can be a single object or an array.
-     * @param metadata Optional metadata. Should be a single object
+     * @param metadata Optional metadata. Should be a single object. When
+     *            {@link Deadline} or recording {@link Span} is bound to
+     *            calling thread, it is added to metadata of request.
      * @throws MessageLibraryMismatchException If this is called for a session
      *             that does not support sending messges.
      */
@@ -130,7 +199,23 @@ public class Session implements AutoCloseable {
             throw new MessageLibraryMismatchException("Send not supported for this session.");
         }
 
-        // Build Request
+        final JsonRpcRequestMessage request = buildRequest(method, params, metadata);
+        final NotificationBatcher currentBatcher = batcher;
+        if (currentBatcher != null) {
+            currentBatcher.add(request);
+            return;
+        }
+        if (methodTopics) {
+            transmit(method, JsonRpcSerializer.toJson(request));
+            return;
+        }
+        sendMessage(request);
+        Span.current().event("sent");
+
+        return;
+    }
+
+    private JsonRpcRequestMessage buildRequest(String method, Object params, JsonObject metadata) {
         JsonRpcRequestMessage request = new JsonRpcRequestMessage();
         request.setDefaultJsonrpc();
         request.setMethod(method);
@@ -143,12 +228,102 @@ public class Session implements AutoCloseable {
             request.setParamsAsObject(params);
         }
 
-        if (metadata != null) {
+        final Deadline deadline = sessionType == SessionType.REQUESTER ? Deadline.current() : null;
+        final TraceContext trace = Span.current().getContext();
+        if (deadline != null || trace != null) {
+            // don't modify metadata owned by caller
+            final JsonObject extended = new JsonObject();
+            if (metadata != null) {
+                for (final Map.Entry<String, JsonElement> entry : metadata.entrySet()) {
+                    extended.add(entry.getKey(), entry.getValue());
+                }
+            }
+            if (deadline != null) {
+                deadline.writeTo(extended);
+            }
+            if (trace != null) {
+                trace.writeTo(extended);
+            }
+            request.setMetadata(extended);
+        } else if (metadata != null) {
             request.setMetadata(metadata);
         }
-        sendMessage(request);
+        return request;
+    }
 
-        return;
+    /**
+     * Send request without waiting for reply. Many requests can be outstanding
+     * at same time, if transport supports it (see
+     * {@link BusSession#sendRequestAsync(String)}). Remaining time of
+     * {@link Deadline} bound to calling thread limits time to wait for reply,
+     * just like in {@link #readMessage()}. {@link RetryPolicy} is not applied,
+     * caller can repeat request itself once returned future fails.
+     *
+     * @param name name of method
+     * @param params parameters of method
+     * @return {@link CompletableFuture} of reply, which fails with
+     *         {@link MessageLibraryTimeoutException} when request could not be
+     *         sent or reply did not arrive in time
+     * @throws MessageLibraryMismatchException if this is not
+     *             {@link SessionType#REQUESTER} session
+     */
+    public CompletableFuture<String> sendRequestAsync(String name, Object params)
+            throws MessageLibraryMismatchException {
+        if (sessionType != SessionType.REQUESTER) {
+            throw new MessageLibraryMismatchException("Asynchronous request not supported for this session.");
+        }
+        final CompletableFuture<String> result = new CompletableFuture<>();
+        final Deadline deadline = Deadline.current();
+        final long remaining = deadline == null ? Long.MAX_VALUE : deadline.remaining(TimeUnit.MILLISECONDS);
+        if (remaining <= 0) {
+            result.completeExceptionally(new MessageLibraryTimeoutException(
+                    String.format("Deadline exceeded, request '%s' not sent", name)));
+            return result;
+        }
+        if (circuitBreaker != null && !circuitBreaker.allowRequest()) {
+            result.completeExceptionally(new MessageLibraryTimeoutException(
+                    String.format("Circuit open, request '%s' not sent via %s", name, busSession)));
+            return result;
+        }
+        final Span span = Span.current();
+        final String request = JsonRpcSerializer.toJson(buildRequest(name, params, null));
+        final CompletableFuture<String> reply;
+        lock.lock();
+        try {
+            final int timeout = busSession.getTimeout();
+            if (remaining < timeout) {
+                busSession.setTimeout((int) remaining);
+            }
+            try {
+                reply = busSession.sendRequestAsync(request);
+            } finally {
+                busSession.setTimeout(timeout);
+            }
+        } finally {
+            lock.unlock();
+        }
+        span.event("sent");
+        reply.whenComplete((msg, err) -> {
+            if (err == null) {
+                span.event("received");
+                if (circuitBreaker != null) {
+                    circuitBreaker.recordSuccess();
+                }
+                result.complete(msg);
+                return;
+            }
+            final Throwable cause = err instanceof CompletionException && err.getCause() != null ? err.getCause()
+                    : err;
+            if (cause instanceof BusSessionTimeoutException) {
+                if (circuitBreaker != null) {
+                    circuitBreaker.recordFailure();
+                }
+                result.completeExceptionally(new MessageLibraryTimeoutException(cause));
+            } else {
+                result.completeExceptionally(new MessageLibraryException(cause));
+            }
+        });
+        return result;
     }
 
     /**
@@ -210,9 +385,19 @@ public class Session implements AutoCloseable {
         if (sessionType == SessionType.SUBSCRIBER) {
             throw new MessageLibraryMismatchException("Send not supported for session.");
         }
+        transmit(null, msg);
+    }
 
-        synchronized (lock) {
-            busSession.sendMessage(msg);
+    private void transmit(String topic, String msg) {
+        lock.lock();
+        try {
+            if (topic == null) {
+                busSession.sendMessage(msg);
+            } else {
+                busSession.sendMessage(topic, msg);
+            }
+        } finally {
+            lock.unlock();
         }
     }
 
@@ -255,7 +440,8 @@ public class Session implements AutoCloseable {
      * @throws MessageLibraryMismatchException If this is called for session that
      *             does not support reads.
      * @throws MessageLibraryTimeoutException If this underlying bus receive time
-     *             out while waiting for a message.
+     *             out while waiting for a message, or if {@link Deadline}
+     *             bound to calling thread expired.
      */
     public String readMessage() throws MessageLibraryException {
         String msg;
@@ -265,24 +451,103 @@ public class Session implements AutoCloseable {
             throw new MessageLibraryMismatchException("Receive not supported for session.");
         }
 
-        synchronized (lock) {
+        final Deadline deadline = Deadline.current();
+        lock.lock();
+        try {
+            final int timeout = busSession.getTimeout();
             try {
+                if (deadline != null) {
+                    final long remaining = deadline.remaining(TimeUnit.MILLISECONDS);
+                    if (remaining <= 0) {
+                        throw new MessageLibraryTimeoutException("Deadline exceeded");
+                    }
+                    if (remaining < timeout) {
+                        busSession.setTimeout((int) remaining);
+                    }
+                }
                 msg = busSession.readMessage();
+                Span.current().event("received");
             } catch (BusSessionTimeoutException e) {
                 throw new MessageLibraryTimeoutException(e);
+            } finally {
+                busSession.setTimeout(timeout);
             }
+        } finally {
+            lock.unlock();
         }
 
         return msg;
     }
 
+    /**
+     * Send request and wait for reply. Request which timed out is repeated
+     * if {@link RetryPolicy} of this session allows it. When circuit of
+     * endpoint is open or {@link Deadline} bound to calling thread already
+     * expired, this method fails immediately without sending anything. Session
+     * is only locked while request is sent and reply is awaited, so other
+     * callers are not stalled during backoff.
+     *
+     * @param name name of method
+     * @param object parameters of method
+     * @return reply or null if this session is publisher
+     * @throws MessageLibraryException when request can't be sent or reply
+     *             did not arrive in time
+     */
     public String sendRequestAndReadReply(String name, Object object) throws MessageLibraryException {
-        synchronized (lock) {
+        if (sessionType == SessionType.PUBLISHER) {
             sendRequest(name, object);
-            if (sessionType == SessionType.PUBLISHER) {
-                return null;
+            return null;
+        }
+        final Deadline deadline = Deadline.current();
+        for (int attempt = 1;; attempt++) {
+            if (deadline != null && deadline.isExpired()) {
+                throw new MessageLibraryTimeoutException(
+                        String.format("Deadline exceeded, request '%s' not sent", name));
+            }
+            if (circuitBreaker != null && !circuitBreaker.allowRequest()) {
+                throw new MessageLibraryTimeoutException(
+                        String.format("Circuit open, request '%s' not sent via %s", name, busSession));
             }
+            try {
+                final String reply = exchange(name, object);
+                if (circuitBreaker != null) {
+                    circuitBreaker.recordSuccess();
+                }
+                return reply;
+            } catch (MessageLibraryTimeoutException e) {
+                if (circuitBreaker != null) {
+                    circuitBreaker.recordFailure();
+                }
+                if (attempt >= retryPolicy.getMaxAttempts() || !retryPolicy.isRetriable(name)) {
+                    throw e;
+                }
+                logger.debug("Request '{}' timed out (attempt {}), retrying", name, attempt);
+                Span.current().event("retry");
+                backoff(retryPolicy.getBackoff(attempt), e);
+            }
+        }
+    }
+
+    /*
+     * Request and its reply must not interleave with other callers.
+     */
+    private String exchange(String name, Object object) throws MessageLibraryException {
+        lock.lock();
+        try {
+            sendRequest(name, object);
             return readMessage();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static void backoff(long millis, MessageLibraryTimeoutException cause)
+            throws MessageLibraryTimeoutException {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw cause;
         }
     }
 
@@ -314,11 +579,24 @@ public class Session implements AutoCloseable {
         busSession.startLoop(handler);
     }
 
+    /**
+     * Start loop without blocking caller.
+     *
+     * @param handler message handler
+     * @param executor executor used to invoke handler
+     * @return {@link Future} which completes once loop is stopped
+     * @see BusSession#startLoop(BusSessionMsgHandler, Executor)
+     */
+    public Future<?> startLoop(BusSessionMsgHandler handler, Executor executor) {
+        return busSession.startLoop(handler, executor);
+    }
+
     public void stopLoop() {
         busSession.stopLoop();
     }
 
     public int processIncomingMessage(String message) throws MessageLibraryMismatchException {
+        final long receivedAt = System.nanoTime();
         List<JsonRpcBaseMessage> incoming = JsonRpcSerializer.fromJson(message);
         List<JsonRpcBaseMessage> outgoing = new ArrayList<>();
 
@@ -332,7 +610,7 @@ public class Session implements AutoCloseable {
                 requesterHandleMessage(msg);
                 break;
             case RESPONDER:
-                outgoing.add(responderHandleMessage(msg));
+                outgoing.add(responderHandleMessage(msg, receivedAt));
                 break;
             case SUBSCRIBER:
                 // Subscriber should get only Notification
@@ -351,7 +629,7 @@ public class Session implements AutoCloseable {
         return incoming.size();
     }
 
-    private JsonRpcBaseMessage responderHandleMessage(JsonRpcBaseMessage msg) {
+    private JsonRpcBaseMessage responderHandleMessage(JsonRpcBaseMessage msg, long receivedAt) {
         if (msg.getType() == JsonRpcMessageType.PARSE_ERROR) {
             return msg;
         }
@@ -366,21 +644,46 @@ public class Session implements AutoCloseable {
             JsonRpcErrorObject error = new JsonRpcErrorObject(-32601, "Method not found", null);
             reply.setError(error);
         } else {
+            final JsonRpcRequestMessage request = (JsonRpcRequestMessage) msg;
+            // span starts when message was received, so it includes parsing
+            final Span span = Tracing.startSpan(request.getMethod(), Span.Kind.SERVER,
+                    TraceContext.readFrom(request.getMetadata()), receivedAt);
             try {
-                requestMessageHandler.handleRequest((JsonRpcRequestMessage) msg, reply);
-                if (!reply.isError() && !reply.isResult()) {
-                    // handler didn't set a result, so set a dummy value.
-                    reply.setResult(new JsonObject());
+                handleRequest(request, reply, receivedAt, span);
+            } finally {
+                if (reply.isError()) {
+                    span.error(reply.getError().getMessage());
                 }
-            } catch (Exception e) {
-                logger.error("Unable to handle request", e);
-                JsonRpcErrorObject error = new JsonRpcErrorObject(-32603, "Internal error", null);
-                reply.setError(error);
+                span.end();
             }
         }
         return reply;
     }
 
+    private void handleRequest(JsonRpcRequestMessage request, JsonRpcReplyMessage reply, long receivedAt,
+            Span span) {
+        final Deadline deadline = Deadline.readFrom(request.getMetadata(), receivedAt);
+        if (deadline != null && deadline.isExpired()) {
+            // requester is no longer waiting for this reply
+            logger.debug("Dropping expired request {}", request.getId());
+            reply.setError(new JsonRpcErrorObject(-32000, "Deadline exceeded", null));
+            return;
+        }
+        span.event("dispatched");
+        // nested requests made by handler inherit deadline and trace
+        try (Deadline.Scope scope = Deadline.enter(deadline); Span.Scope spanScope = span.enter()) {
+            requestMessageHandler.handleRequest(request, reply);
+            if (!reply.isError() && !reply.isResult()) {
+                // handler didn't set a result, so set a dummy value.
+                reply.setResult(new JsonObject());
+            }
+        } catch (Exception e) {
+            logger.error("Unable to handle request", e);
+            JsonRpcErrorObject error = new JsonRpcErrorObject(-32603, "Internal error", null);
+            reply.setError(error);
+        }
+    }
+
     private void subscriberHandleMessage(JsonRpcBaseMessage msg) throws MessageLibraryMismatchException {
         // Subscriber should only receive Notification
         if (msg.getType() != JsonRpcMessageType.NOTIFICATION) {
@@ -391,10 +694,18 @@ public class Session implements AutoCloseable {
             // Looks like higher layers don't care about this message.
             return;
         }
-        try {
-            notificationMessageHandler.handleNotification((JsonRpcRequestMessage) msg);
+        final JsonRpcRequestMessage notification = (JsonRpcRequestMessage) msg;
+        final TraceContext trace = TraceContext.readFrom(notification.getMetadata());
+        // only notifications published within trace are worth a span
+        final Span span = trace == null ? Span.NOOP
+                : Tracing.startSpan(notification.getMethod(), Span.Kind.CONSUMER, trace, System.nanoTime());
+        try (Span.Scope scope = span.enter()) {
+            notificationMessageHandler.handleNotification(notification);
         } catch (Exception e) {
             logger.error("Unable to handle notification", e);
+            span.error(e.getMessage());
+        } finally {
+            span.end();
         }
     }
 
@@ -0,0 +1,356 @@
+/*
+ * Copyright (c) 2017 Brocade Communications Systems, Inc. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.jsonrpc.bus.messagelib;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonPrimitive;
+
+/**
+ * Timed operation which is part of trace. Spans are created by
+ * {@link Tracing}, which gives non-recording {@link #NOOP} span when tracing
+ * is disabled, so instrumented code does not need to check for it.
+ *
+ * <p>
+ * Span is bound to calling thread using {@link #enter()}. Requests sent by
+ * {@link Session} from within such scope carry its {@link TraceContext}, and
+ * spans started within it become its children. Points of interest within
+ * span (such as request being sent or reply being received) are recorded as
+ * events, so time spent in serialization, queueing, network and remote handler
+ * can be told apart.
+ *
+ * <pre>
+ * final Span span = Tracing.startSpan("read", Span.Kind.CLIENT);
+ * try (Span.Scope scope = span.enter()) {
+ *     proxy.read(...);
+ * } finally {
+ *     span.end();
+ * }
+ * </pre>
+ */
+public class Span {
+    /**
+     * Role of span in trace.
+     */
+    public enum Kind {
+        /**
+         * Request sent to remote peer.
+         */
+        CLIENT,
+        /**
+         * Handling of request received from remote peer.
+         */
+        SERVER,
+        /**
+         * Notification published to remote peers.
+         */
+        PRODUCER,
+        /**
+         * Handling of notification received from remote peer.
+         */
+        CONSUMER,
+        /**
+         * Local operation.
+         */
+        INTERNAL
+    }
+
+    /**
+     * Span which records nothing.
+     */
+    public static final Span NOOP = new Span();
+    private static final ThreadLocal<Span> CURRENT = new ThreadLocal<>();
+    private final String name;
+    private final Kind kind;
+    private final TraceContext context;
+    private final String parentSpanId;
+    private final long startEpochMicros;
+    // System.nanoTime() based
+    private final long startNanos;
+    private final List<Event> events;
+    private final Map<String, String> attributes;
+    private final AtomicBoolean ended = new AtomicBoolean();
+    private final SpanExporter exporter;
+    private volatile long durationNanos;
+    private volatile String error;
+
+    private Span() {
+        name = "noop";
+        kind = Kind.INTERNAL;
+        context = null;
+        parentSpanId = null;
+        startEpochMicros = 0L;
+        startNanos = 0L;
+        events = Collections.emptyList();
+        attributes = Collections.emptyMap();
+        exporter = SpanExporter.NOOP;
+        ended.set(true);
+    }
+
+    Span(String name, Kind kind, TraceContext context, String parentSpanId, long startNanos,
+            SpanExporter exporter) {
+        this.name = name;
+        this.kind = kind;
+        this.context = context;
+        this.parentSpanId = parentSpanId;
+        this.startNanos = startNanos;
+        this.startEpochMicros = TimeUnit.MILLISECONDS.toMicros(System.currentTimeMillis())
+                - TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - startNanos);
+        this.events = new ArrayList<>();
+        this.attributes = new LinkedHashMap<>();
+        this.exporter = exporter;
+    }
+
+    /**
+     * Get span bound to current thread.
+     *
+     * @return current {@link Span} or {@link #NOOP} if there is none
+     */
+    public static Span current() {
+        final Span span = CURRENT.get();
+        return span == null ? NOOP : span;
+    }
+
+    /**
+     * Check if this span records anything.
+     *
+     * @return false if this is {@link #NOOP} span
+     */
+    public boolean isRecording() {
+        return context != null;
+    }
+
+    /**
+     * Bind this span to current thread.
+     *
+     * @return {@link Scope} which must be closed to restore previous state
+     */
+    public Scope enter() {
+        final Span previous = CURRENT.get();
+        CURRENT.set(this);
+        return new Scope(previous);
+    }
+
+    /**
+     * Record point of interest within span.
+     *
+     * @param eventName name of event
+     * @return this span
+     */
+    public Span event(String eventName) {
+        if (!ended.get()) {
+            final long offset = System.nanoTime() - startNanos;
+            synchronized (events) {
+                events.add(new Event(eventName, offset));
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Attach attribute to span.
+     *
+     * @param key name of attribute
+     * @param value value of attribute
+     * @return this span
+     */
+    public Span attribute(String key, Object value) {
+        if (!ended.get()) {
+            synchronized (attributes) {
+                attributes.put(key, String.valueOf(value));
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Mark span as failed.
+     *
+     * @param message description of failure
+     * @return this span
+     */
+    public Span error(String message) {
+        if (!ended.get()) {
+            error = String.valueOf(message);
+        }
+        return this;
+    }
+
+    /**
+     * Complete span and pass it to {@link SpanExporter}. Only first call has
+     * any effect.
+     */
+    public void end() {
+        if (ended.compareAndSet(false, true)) {
+            durationNanos = System.nanoTime() - startNanos;
+            exporter.export(this);
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Kind getKind() {
+        return kind;
+    }
+
+    /**
+     * Get identity of this span.
+     *
+     * @return {@link TraceContext} or null if span is not recording
+     */
+    public TraceContext getContext() {
+        return context;
+    }
+
+    /**
+     * Get identifier of parent span.
+     *
+     * @return parent span identifier or null if this is root span
+     */
+    public String getParentSpanId() {
+        return parentSpanId;
+    }
+
+    public long getStartEpochMicros() {
+        return startEpochMicros;
+    }
+
+    /**
+     * Get duration of span.
+     *
+     * @return duration in nanoseconds, zero until span ends
+     */
+    public long getDurationNanos() {
+        return durationNanos;
+    }
+
+    public List<Event> getEvents() {
+        synchronized (events) {
+            return new ArrayList<>(events);
+        }
+    }
+
+    public Map<String, String> getAttributes() {
+        synchronized (attributes) {
+            return new LinkedHashMap<>(attributes);
+        }
+    }
+
+    /**
+     * Get failure of span.
+     *
+     * @return description of failure or null if span did not fail
+     */
+    public String getError() {
+        return error;
+    }
+
+    /**
+     * Convert span to JSON form used by exporters.
+     *
+     * @return {@link JsonObject}
+     */
+    public JsonObject toJson() {
+        final JsonObject obj = new JsonObject();
+        obj.add("name", new JsonPrimitive(name));
+        obj.add("kind", new JsonPrimitive(kind.name()));
+        if (context != null) {
+            obj.add("trace-id", new JsonPrimitive(context.getTraceId()));
+            obj.add("span-id", new JsonPrimitive(context.getSpanId()));
+        }
+        if (parentSpanId != null) {
+            obj.add("parent-id", new JsonPrimitive(parentSpanId));
+        }
+        obj.add("start-us", new JsonPrimitive(startEpochMicros));
+        obj.add("duration-us", new JsonPrimitive(TimeUnit.NANOSECONDS.toMicros(durationNanos)));
+        final JsonArray eventsArray = new JsonArray();
+        for (final Event e : getEvents()) {
+            final JsonObject eventObj = new JsonObject();
+            eventObj.add("name", new JsonPrimitive(e.getName()));
+            eventObj.add("offset-us", new JsonPrimitive(TimeUnit.NANOSECONDS.toMicros(e.getOffsetNanos())));
+            eventsArray.add(eventObj);
+        }
+        obj.add("events", eventsArray);
+        final JsonObject attributesObj = new JsonObject();
+        for (final Map.Entry<String, String> entry : getAttributes().entrySet()) {
+            attributesObj.add(entry.getKey(), new JsonPrimitive(entry.getValue()));
+        }
+        obj.add("attributes", attributesObj);
+        if (error != null) {
+            obj.add("error", new JsonPrimitive(error));
+        }
+        return obj;
+    }
+
+    @Override
+    public String toString() {
+        return "Span [name=" + name + ", kind=" + kind + ", context=" + context + ", parent=" + parentSpanId
+                + ", duration=" + TimeUnit.NANOSECONDS.toMicros(durationNanos) + "us]";
+    }
+
+    /**
+     * Point of interest within span.
+     */
+    public static final class Event {
+        private final String name;
+        private final long offsetNanos;
+
+        private Event(String name, long offsetNanos) {
+            this.name = name;
+            this.offsetNanos = offsetNanos;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * Get time since start of span.
+         *
+         * @return offset in nanoseconds
+         */
+        public long getOffsetNanos() {
+            return offsetNanos;
+        }
+
+        @Override
+        public String toString() {
+            return name + "@" + TimeUnit.NANOSECONDS.toMicros(offsetNanos) + "us";
+        }
+    }
+
+    /**
+     * Scope of span bound to thread.
+     */
+    public static class Scope implements AutoCloseable {
+        private final Span previous;
+
+        private Scope(Span previous) {
+            this.previous = previous;
+        }
+
+        @Override
+        public void close() {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        }
+    }
+}
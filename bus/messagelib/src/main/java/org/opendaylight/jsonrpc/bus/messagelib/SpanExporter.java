@@ -0,0 +1,29 @@
+/*
+ * Copyright (c) 2017 Brocade Communications Systems, Inc. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.jsonrpc.bus.messagelib;
+
+/**
+ * Receiver of completed {@link Span}s.
+ */
+@FunctionalInterface
+public interface SpanExporter {
+    /**
+     * Exporter which discards all spans, tracing is disabled when it is in use.
+     */
+    SpanExporter NOOP = span -> {
+        // discard
+    };
+
+    /**
+     * Export completed span. Called on thread which ended span, so
+     * implementation must be thread-safe and should not block.
+     *
+     * @param span completed {@link Span}
+     */
+    void export(Span span);
+}
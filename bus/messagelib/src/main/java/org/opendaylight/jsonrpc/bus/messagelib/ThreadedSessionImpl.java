@@ -13,8 +13,6 @@ import java.util.Arrays;
 import java.util.Comparator;
 import java.util.List;
 import java.util.concurrent.ExecutionException;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
@@ -30,15 +28,12 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.google.common.base.Preconditions;
-import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.google.gson.JsonArray;
 import com.google.gson.JsonPrimitive;
 
 public class ThreadedSessionImpl<T extends AutoCloseable>
-        implements Runnable, BusSessionMsgHandler, NotificationMessageHandler, RequestMessageHandler, ThreadedSession {
+        implements BusSessionMsgHandler, NotificationMessageHandler, RequestMessageHandler, ThreadedSession {
     private static final Logger logger = LoggerFactory.getLogger(ThreadedSessionImpl.class);
-    private static final ExecutorService THREAD_POOL = Executors
-            .newCachedThreadPool(new ThreadFactoryBuilder().setNameFormat("Bus-session-%d").setDaemon(true).build());
     private final Object handler;
     private final Future<?> future;
     private final Session session;
@@ -48,7 +43,9 @@ public class ThreadedSessionImpl<T extends AutoCloseable>
         session = new Session(messaging, busSession);
         session.setNotificationMessageHandler(this);
         session.setRequestMessageHandler(this);
-        future = THREAD_POOL.submit(this);
+        // session doesn't own any thread, messages are polled by transport
+        // and handled using executor shared with other sessions
+        future = session.startLoop(this, messaging.getDispatchExecutor());
     }
 
     @Override
@@ -211,6 +208,7 @@ public class ThreadedSessionImpl<T extends AutoCloseable>
                 Object[] args = null;
                 try {
                     args = getArgumentsForMethod(m, message);
+                    Span.current().event("decoded");
                     return m.invoke(handler, args);
                 } catch (JsonRpcException e) {
                     if (args == null) {
@@ -278,7 +276,9 @@ public class ThreadedSessionImpl<T extends AutoCloseable>
         }
         try {
             Object response = invokeHandler(request);
+            Span.current().event("invoked");
             reply.setResultAsObject(response);
+            Span.current().event("encoded");
         } catch (IllegalAccessException | NoSuchMethodException e) {
             logger.error("Request method not found: {}", request.getMethod());
             JsonRpcErrorObject error = new JsonRpcErrorObject(-32601, "Method not found", null);
@@ -314,25 +314,15 @@ public class ThreadedSessionImpl<T extends AutoCloseable>
         return Thread.currentThread().isInterrupted() ? -1 : 0;
     }
 
-    @Override
-    public void run() {
-        // decorate thread name so we can identify it in thread dump
-        final String threadName = Thread.currentThread().getName();
-        try {
-            Thread.currentThread().setName(threadName + " [" + session.getSessionType().name() + "]");
-            logger.trace("Thread starting {}", future);
-            session.startLoop(this);
-        } finally {
-            Thread.currentThread().setName(threadName);
-        }
-    }
-
     @Override
     public void joinAndClose() {
         try {
-            future.get();
+            // transport might not have started loop at all
+            if (future != null) {
+                future.get();
+            }
             session.close();
-            logger.trace("Thread stopped");
+            logger.trace("Loop stopped");
         } catch (InterruptedException | ExecutionException e) {
             logger.debug("Thread interrupted", e);
         }
@@ -0,0 +1,134 @@
+/*
+ * Copyright (c) 2017 Brocade Communications Systems, Inc. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.jsonrpc.bus.messagelib;
+
+import java.util.Objects;
+import java.util.concurrent.ThreadLocalRandom;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonPrimitive;
+
+/**
+ * Identity of {@link Span} as seen by other peers. Context is carried in
+ * request metadata under {@value #METADATA_KEY}, using format of W3C trace
+ * context header (<code>00-&lt;trace id&gt;-&lt;span id&gt;-01</code>), so
+ * spans of requester and responder can be joined into single trace. Time spent
+ * on network is then duration of client span less duration of its server
+ * child span.
+ */
+public final class TraceContext {
+    /**
+     * Name of metadata member which holds trace context.
+     */
+    public static final String METADATA_KEY = "traceparent";
+    private static final String VERSION = "00";
+    private static final String FLAGS = "01";
+    private final String traceId;
+    private final String spanId;
+
+    private TraceContext(String traceId, String spanId) {
+        this.traceId = traceId;
+        this.spanId = spanId;
+    }
+
+    /**
+     * Create context of span which starts new trace.
+     *
+     * @return {@link TraceContext}
+     */
+    static TraceContext newRoot() {
+        final ThreadLocalRandom random = ThreadLocalRandom.current();
+        return new TraceContext(toHex(random.nextLong()) + toHex(random.nextLong()), toHex(random.nextLong()));
+    }
+
+    /**
+     * Create context of span which is child of this one.
+     *
+     * @return {@link TraceContext}
+     */
+    TraceContext newChild() {
+        return new TraceContext(traceId, toHex(ThreadLocalRandom.current().nextLong()));
+    }
+
+    private static String toHex(long value) {
+        final String hex = Long.toHexString(value);
+        return hex.length() == 16 ? hex : "0000000000000000".substring(hex.length()) + hex;
+    }
+
+    public String getTraceId() {
+        return traceId;
+    }
+
+    public String getSpanId() {
+        return spanId;
+    }
+
+    /**
+     * Write this context into request metadata.
+     *
+     * @param metadata metadata object to update
+     */
+    public void writeTo(JsonObject metadata) {
+        metadata.add(METADATA_KEY, new JsonPrimitive(String.join("-", VERSION, traceId, spanId, FLAGS)));
+    }
+
+    /**
+     * Read context from request metadata.
+     *
+     * @param metadata request metadata, can be null
+     * @return {@link TraceContext} or null if request does not carry any or it
+     *         is malformed
+     */
+    public static TraceContext readFrom(JsonObject metadata) {
+        if (metadata == null) {
+            return null;
+        }
+        final JsonElement value = metadata.get(METADATA_KEY);
+        if (value == null || !value.isJsonPrimitive() || !value.getAsJsonPrimitive().isString()) {
+            return null;
+        }
+        final String[] parts = value.getAsString().split("-");
+        if (parts.length < 4 || parts[1].length() != 32 || parts[2].length() != 16 || !isHex(parts[1])
+                || !isHex(parts[2])) {
+            return null;
+        }
+        return new TraceContext(parts[1], parts[2]);
+    }
+
+    private static boolean isHex(String str) {
+        for (int i = 0; i < str.length(); i++) {
+            if (Character.digit(str.charAt(i), 16) == -1) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(traceId, spanId);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof TraceContext)) {
+            return false;
+        }
+        final TraceContext other = (TraceContext) obj;
+        return traceId.equals(other.traceId) && spanId.equals(other.spanId);
+    }
+
+    @Override
+    public String toString() {
+        return "TraceContext [traceId=" + traceId + ", spanId=" + spanId + "]";
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright (c) 2017 Brocade Communications Systems, Inc. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.jsonrpc.bus.messagelib;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.Objects;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Holder of {@link SpanExporter} used by bus and bridges. Tracing is disabled
+ * (exporter is {@link SpanExporter#NOOP}) unless system property
+ * {@value #FILE} names file spans should be appended to, or other exporter is
+ * installed using {@link #setExporter(SpanExporter)}.
+ */
+public final class Tracing {
+    /**
+     * System property with path of file to export spans to.
+     */
+    public static final String FILE = "org.opendaylight.jsonrpc.tracing.file";
+    private static final Logger LOG = LoggerFactory.getLogger(Tracing.class);
+    private static volatile SpanExporter exporter = createDefault();
+
+    private Tracing() {
+        // no instantiation here
+    }
+
+    private static SpanExporter createDefault() {
+        final String file = System.getProperty(FILE);
+        if (file == null) {
+            return SpanExporter.NOOP;
+        }
+        try {
+            return new FileSpanExporter(Paths.get(file));
+        } catch (IOException e) {
+            LOG.warn("Unable to export spans to {}, tracing is disabled", file, e);
+            return SpanExporter.NOOP;
+        }
+    }
+
+    public static SpanExporter getExporter() {
+        return exporter;
+    }
+
+    /**
+     * Install {@link SpanExporter}.
+     *
+     * @param exporter {@link SpanExporter} to use, {@link SpanExporter#NOOP}
+     *            disables tracing
+     */
+    public static void setExporter(SpanExporter exporter) {
+        Tracing.exporter = Objects.requireNonNull(exporter);
+    }
+
+    public static boolean isEnabled() {
+        return exporter != SpanExporter.NOOP;
+    }
+
+    /**
+     * Start span which is child of span bound to current thread, or root of new
+     * trace if there is none.
+     *
+     * @param name name of span
+     * @param kind {@link Span.Kind}
+     * @return new {@link Span} or {@link Span#NOOP} if tracing is disabled
+     */
+    public static Span startSpan(String name, Span.Kind kind) {
+        return startSpan(name, kind, Span.current().getContext(), System.nanoTime());
+    }
+
+    /**
+     * Start span which is child of span of other peer.
+     *
+     * @param name name of span
+     * @param kind {@link Span.Kind}
+     * @param parent context of parent span, null to start new trace
+     * @param startNanos value of {@link System#nanoTime()} when operation
+     *            started
+     * @return new {@link Span} or {@link Span#NOOP} if tracing is disabled
+     */
+    public static Span startSpan(String name, Span.Kind kind, TraceContext parent, long startNanos) {
+        final SpanExporter current = exporter;
+        if (current == SpanExporter.NOOP) {
+            return Span.NOOP;
+        }
+        if (parent == null) {
+            return new Span(name, kind, TraceContext.newRoot(), null, startNanos, current);
+        }
+        return new Span(name, kind, parent.newChild(), parent.getSpanId(), startNanos, current);
+    }
+}
@@ -9,6 +9,7 @@ package org.opendaylight.jsonrpc.bus.messagelib;
 
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.util.Collection;
 
 /**
  * Abstraction layer to decouple transport factory implementations
@@ -50,6 +51,24 @@ public interface TransportFactory {
      */
     <T extends AutoCloseable> ThreadedSession createSubscriber(String rawUri, T handler) throws URISyntaxException;
 
+    /**
+     * Create {@link ThreadedSession} to Publisher, which receives
+     * notifications of given methods using single connection. Default
+     * implementation subscribes to all notifications, leaving filtering up to
+     * handler.
+     *
+     * @param rawUri URI pointing to remote service implementing publisher
+     * @param methods names of notification methods to subscribe to
+     * @param handler Handler used to handle notifications
+     * @param <T> an AutoCloseable implementation of ThreadedSession
+     * @return ThreadedSession
+     * @throws URISyntaxException when URI denoted by rawUri has invalid syntax
+     */
+    default <T extends AutoCloseable> ThreadedSession createSubscriber(String rawUri, Collection<String> methods,
+            T handler) throws URISyntaxException {
+        return createSubscriber(rawUri, handler);
+    }
+
     /**
      * Create general session, actual transport and socket type is determined
      * based on URI scheme and query parameter 'role', which is mandatory.
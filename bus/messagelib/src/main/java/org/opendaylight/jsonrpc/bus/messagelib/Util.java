@@ -10,6 +10,7 @@ package org.opendaylight.jsonrpc.bus.messagelib;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Objects;
@@ -201,6 +202,45 @@ public class Util {
         return cache.getUnchecked(uri.getScheme()).threadedSubscriber(prepareUri(uri), handler);
     }
 
+    /**
+     * Create {@link ThreadedSession} of type {@link SessionType#SUBSCRIBER} to
+     * given URI, which receives notifications of given methods.
+     *
+     * @param <T> handler type
+     * @param rawUri URI
+     * @param methods names of notification methods to subscribe to
+     * @param handler used to handle notifications
+     * @return {@link ThreadedSession}
+     * @throws URISyntaxException if URI syntax is incorrect
+     * @see MessageLibrary#threadedSubscriber(String, Collection, AutoCloseable)
+     */
+    public static <T extends AutoCloseable> ThreadedSession createThreadedSubscriberSession(String rawUri,
+            Collection<String> methods, T handler) throws URISyntaxException {
+        return createThreadedSubscriberSession(ML_CACHE, rawUri, methods, handler);
+    }
+
+    /**
+     * <strong>This method is meant to be used by custom
+     * TransportFactory.</strong>
+     * Create {@link ThreadedSession} of type {@link SessionType#SUBSCRIBER} to
+     * given URI, which receives notifications of given methods.
+     *
+     * @param cache {@link LoadingCache} used to get/create instances of
+     *            {@link MessageLibrary}
+     * @param <T> handler type
+     * @param rawUri URI
+     * @param methods names of notification methods to subscribe to
+     * @param handler used to handle notifications
+     * @return {@link ThreadedSession}
+     * @throws URISyntaxException if URI syntax is incorrect
+     */
+    public static <T extends AutoCloseable> ThreadedSession createThreadedSubscriberSession(
+            LoadingCache<String, MessageLibrary> cache, String rawUri, Collection<String> methods, T handler)
+            throws URISyntaxException {
+        final URI uri = new URI(rawUri);
+        return cache.getUnchecked(uri.getScheme()).threadedSubscriber(prepareUri(uri), methods, handler);
+    }
+
     /**
      * Trim schema (protocol) and use "tcp" in URI, remove any recognized
      * parameters and pass result to underlying transport library
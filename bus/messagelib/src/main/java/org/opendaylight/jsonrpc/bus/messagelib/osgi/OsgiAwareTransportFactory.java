@@ -8,14 +8,19 @@
 package org.opendaylight.jsonrpc.bus.messagelib.osgi;
 
 import java.net.URISyntaxException;
+import java.util.Collection;
 import java.util.Objects;
 
+import org.opendaylight.jsonrpc.bus.messagelib.DispatchExecutor;
 import org.opendaylight.jsonrpc.bus.messagelib.MessageLibrary;
+import org.opendaylight.jsonrpc.bus.messagelib.RetryPolicy;
 import org.opendaylight.jsonrpc.bus.messagelib.Session;
 import org.opendaylight.jsonrpc.bus.messagelib.ThreadedSession;
 import org.opendaylight.jsonrpc.bus.messagelib.TransportFactory;
 import org.opendaylight.jsonrpc.bus.messagelib.Util;
 import org.opendaylight.jsonrpc.bus.spi.BusSessionFactoryProvider;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import com.google.common.cache.CacheBuilder;
 import com.google.common.cache.CacheLoader;
@@ -29,16 +34,36 @@ import com.google.common.cache.LoadingCache;
  *
  */
 public class OsgiAwareTransportFactory implements TransportFactory, AutoCloseable {
+    private static final Logger LOG = LoggerFactory.getLogger(OsgiAwareTransportFactory.class);
     private BusSessionFactoryProvider busSessionFactoryProvider;
     // need to use weak-values to allow GC of unloaded instances
     private LoadingCache<String, MessageLibrary> cache;
+    private RetryPolicy retryPolicy = RetryPolicy.NONE;
+    private int circuitBreakerThreshold = 0;
+    private long circuitBreakerOpenTime = 0;
+    private boolean virtualThreads = false;
+    private DispatchExecutor dispatchExecutor;
 
     public void init() {
         Objects.requireNonNull(busSessionFactoryProvider, "BusSessionFactoryProvider was not set");
+        if (virtualThreads) {
+            if (DispatchExecutor.isVirtualSupported()) {
+                dispatchExecutor = DispatchExecutor.virtual("jsonrpc-bus-");
+            } else {
+                LOG.warn("Virtual threads are not supported by Java runtime {}, using platform threads",
+                        System.getProperty("java.version"));
+            }
+        }
         cache = CacheBuilder.newBuilder().weakValues().build(new CacheLoader<String, MessageLibrary>() {
             @Override
             public MessageLibrary load(String key) throws Exception {
-                return new MessageLibrary(busSessionFactoryProvider, key);
+                final MessageLibrary messageLibrary = new MessageLibrary(busSessionFactoryProvider, key);
+                messageLibrary.setRetryPolicy(retryPolicy);
+                messageLibrary.setCircuitBreaker(circuitBreakerThreshold, circuitBreakerOpenTime);
+                if (dispatchExecutor != null) {
+                    messageLibrary.setDispatchExecutor(dispatchExecutor);
+                }
+                return messageLibrary;
             }
         });
     }
@@ -48,6 +73,9 @@ public class OsgiAwareTransportFactory implements TransportFactory, AutoCloseabl
         // All loaded messageLibrary instances will be closed at this point
         cache.asMap().values().stream().forEach(MessageLibrary::close);
         Util.close();
+        if (dispatchExecutor != null) {
+            dispatchExecutor.close();
+        }
     }
 
     @Override
@@ -67,6 +95,12 @@ public class OsgiAwareTransportFactory implements TransportFactory, AutoCloseabl
         return Util.createThreadedSubscriberSession(cache, rawUri, handler);
     }
 
+    @Override
+    public <T extends AutoCloseable> ThreadedSession createSubscriber(String rawUri, Collection<String> methods,
+            T handler) throws URISyntaxException {
+        return Util.createThreadedSubscriberSession(cache, rawUri, methods, handler);
+    }
+
     @Override
     public Session createSession(String rawUri) throws URISyntaxException {
         return Util.openSession(cache, rawUri, null);
@@ -75,4 +109,26 @@ public class OsgiAwareTransportFactory implements TransportFactory, AutoCloseabl
     public void setBusSessionFactoryProvider(BusSessionFactoryProvider busSessionFactoryProvider) {
         this.busSessionFactoryProvider = busSessionFactoryProvider;
     }
+
+    public void setRetryPolicy(RetryPolicy retryPolicy) {
+        this.retryPolicy = retryPolicy;
+    }
+
+    public void setCircuitBreakerThreshold(int circuitBreakerThreshold) {
+        this.circuitBreakerThreshold = circuitBreakerThreshold;
+    }
+
+    public void setCircuitBreakerOpenTime(long circuitBreakerOpenTime) {
+        this.circuitBreakerOpenTime = circuitBreakerOpenTime;
+    }
+
+    /**
+     * Run session handlers on virtual threads, if supported by Java runtime.
+     * Must be set before {@link #init()}.
+     *
+     * @param virtualThreads true to enable virtual threads
+     */
+    public void setVirtualThreads(boolean virtualThreads) {
+        this.virtualThreads = virtualThreads;
+    }
 }
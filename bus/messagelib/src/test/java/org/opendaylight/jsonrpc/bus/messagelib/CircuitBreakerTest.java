@@ -0,0 +1,65 @@
+/*
+ * Copyright (c) 2017 Brocade Communications Systems, Inc. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.jsonrpc.bus.messagelib;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+/**
+ * Tests for {@link CircuitBreaker} and {@link BackoffRetryPolicy}.
+ */
+public class CircuitBreakerTest {
+    @Test
+    public void testOpenAfterThreshold() {
+        final CircuitBreaker cb = new CircuitBreaker(3, 60000);
+        cb.recordFailure();
+        cb.recordFailure();
+        assertTrue(cb.allowRequest());
+        cb.recordFailure();
+        assertTrue(cb.isOpen());
+        assertFalse(cb.allowRequest());
+    }
+
+    @Test
+    public void testSuccessResetsFailures() {
+        final CircuitBreaker cb = new CircuitBreaker(2, 60000);
+        cb.recordFailure();
+        cb.recordSuccess();
+        cb.recordFailure();
+        assertFalse(cb.isOpen());
+        assertTrue(cb.allowRequest());
+    }
+
+    @Test
+    public void testSingleProbeWhenHalfOpen() throws InterruptedException {
+        final CircuitBreaker cb = new CircuitBreaker(1, 50);
+        cb.recordFailure();
+        assertFalse(cb.allowRequest());
+        Thread.sleep(100);
+        // first caller gets to probe, others are still rejected
+        assertTrue(cb.allowRequest());
+        assertFalse(cb.allowRequest());
+        cb.recordSuccess();
+        assertTrue(cb.allowRequest());
+    }
+
+    @Test
+    public void testBackoffRetryPolicy() {
+        final RetryPolicy policy = new BackoffRetryPolicy(4, 100, 300);
+        assertTrue(policy.isRetriable("read"));
+        assertFalse(policy.isRetriable("put"));
+        assertEquals(100, policy.getBackoff(1));
+        assertEquals(200, policy.getBackoff(2));
+        assertEquals(300, policy.getBackoff(3));
+        assertEquals(4, policy.getMaxAttempts());
+        assertFalse(RetryPolicy.NONE.isRetriable("read"));
+    }
+}
@@ -0,0 +1,63 @@
+/*
+ * Copyright (c) 2017 Brocade Communications Systems, Inc. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.jsonrpc.bus.messagelib;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import com.google.gson.JsonObject;
+
+/**
+ * Tests for {@link Deadline}.
+ */
+public class DeadlineTest {
+    @Test
+    public void testNestedScopes() {
+        final Deadline outer = Deadline.after(1, TimeUnit.SECONDS);
+        final Deadline inner = Deadline.after(1, TimeUnit.MINUTES);
+        assertNull(Deadline.current());
+        try (Deadline.Scope s1 = outer.enter()) {
+            assertSame(outer, Deadline.current());
+            // later deadline can't extend earlier one
+            try (Deadline.Scope s2 = inner.enter()) {
+                assertSame(outer, Deadline.current());
+            }
+            assertSame(outer, Deadline.current());
+        }
+        assertNull(Deadline.current());
+        try (Deadline.Scope s = Deadline.enter(null)) {
+            assertNull(Deadline.current());
+        }
+    }
+
+    @Test
+    public void testMetadataRoundTrip() {
+        final JsonObject metadata = new JsonObject();
+        Deadline.after(10, TimeUnit.SECONDS).writeTo(metadata);
+        final Deadline deadline = Deadline.readFrom(metadata, System.nanoTime());
+        assertNotNull(deadline);
+        assertFalse(deadline.isExpired());
+        assertTrue(deadline.remaining(TimeUnit.SECONDS) > 5);
+        assertNull(Deadline.readFrom(new JsonObject(), System.nanoTime()));
+        assertNull(Deadline.readFrom(null, System.nanoTime()));
+    }
+
+    @Test
+    public void testExpired() {
+        final JsonObject metadata = new JsonObject();
+        Deadline.after(-1, TimeUnit.SECONDS).writeTo(metadata);
+        assertTrue(Deadline.readFrom(metadata, System.nanoTime() - 1).isExpired());
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright (c) 2017 Brocade Communications Systems, Inc. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.jsonrpc.bus.messagelib;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Assume;
+import org.junit.Test;
+
+/**
+ * Tests for {@link DispatchExecutor}.
+ */
+public class DispatchExecutorTest {
+    @Test(timeout = 10000)
+    public void testSaturation() throws InterruptedException {
+        try (DispatchExecutor executor = new DispatchExecutor("test-dispatch-%d", 1, 1)) {
+            final CountDownLatch started = new CountDownLatch(1);
+            final CountDownLatch release = new CountDownLatch(1);
+            executor.execute(() -> {
+                started.countDown();
+                awaitQuietly(release);
+            });
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            // occupies queue
+            executor.execute(() -> awaitQuietly(release));
+            assertEquals(1, executor.getActiveThreadCount());
+            assertEquals(1, executor.getQueueSize());
+            assertEquals(0, executor.getRemainingQueueCapacity());
+            try {
+                executor.execute(() -> awaitQuietly(release));
+                fail("Task should be rejected");
+            } catch (RejectedExecutionException e) {
+                assertEquals(1, executor.getRejectedTaskCount());
+            }
+            release.countDown();
+            while (executor.getCompletedTaskCount() < 2) {
+                TimeUnit.MILLISECONDS.sleep(10);
+            }
+            assertEquals(1, executor.getLargestThreadCount());
+        }
+    }
+
+    @Test(timeout = 10000)
+    public void testVirtual() throws InterruptedException {
+        Assume.assumeTrue(DispatchExecutor.isVirtualSupported());
+        final int tasks = 10000;
+        try (DispatchExecutor executor = DispatchExecutor.virtual("test-virtual-")) {
+            assertTrue(executor.isVirtual());
+            final CountDownLatch started = new CountDownLatch(tasks);
+            final CountDownLatch release = new CountDownLatch(1);
+            // far more blocked tasks than any bounded executor would accept
+            for (int i = 0; i < tasks; i++) {
+                executor.execute(() -> {
+                    started.countDown();
+                    awaitQuietly(release);
+                });
+            }
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            assertEquals(tasks, executor.getActiveThreadCount());
+            assertEquals(0, executor.getRejectedTaskCount());
+            release.countDown();
+            while (executor.getCompletedTaskCount() < tasks) {
+                TimeUnit.MILLISECONDS.sleep(10);
+            }
+        }
+    }
+
+    @Test
+    public void testVirtualUnsupported() {
+        Assume.assumeFalse(DispatchExecutor.isVirtualSupported());
+        try {
+            DispatchExecutor.virtual("test-virtual-");
+            fail("Virtual threads should not be available");
+        } catch (UnsupportedOperationException e) {
+            assertFalse(e.getMessage().isEmpty());
+        }
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -8,6 +8,11 @@
 package org.opendaylight.jsonrpc.bus.messagelib;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Collections;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 import org.junit.AfterClass;
 import org.junit.BeforeClass;
@@ -157,6 +162,36 @@ public class MessageLibraryTest {
         assertEquals(1, subscriberCount);
     }
 
+    @Test
+    public void testPubSubMethodTopics() throws Exception {
+        showFunctionName();
+        final String port = TestHelper.getFreeTcpPort();
+        final Session topicPublisher = messaging.publisher("tcp://*:" + port + "?" + MessageLibrary.METHOD_TOPICS);
+        final CountDownLatch latch = new CountDownLatch(1);
+        final TestMessageSubscriber topicHandler = new TestMessageSubscriber(null) {
+            @Override
+            public void publish(String msg) {
+                super.publish(msg);
+                latch.countDown();
+            }
+        };
+        final ThreadedSession topicSubscriber = messaging.threadedSubscriber(
+                "tcp://localhost:" + port + "?" + MessageLibrary.METHOD_TOPICS, Collections.singletonList("publish"),
+                topicHandler);
+        try {
+            // Let subscriber join
+            Thread.sleep(200);
+            topicPublisher.sendRequest("other", new String[] { "filtered" });
+            topicPublisher.sendRequest("publish", new String[] { "delivered" });
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+            assertEquals("delivered", topicHandler.noticeParam);
+        } finally {
+            topicSubscriber.stop();
+            topicSubscriber.joinAndClose();
+            topicPublisher.close();
+        }
+    }
+
     @AfterClass
     public static void teardown() {
         showFunctionName();
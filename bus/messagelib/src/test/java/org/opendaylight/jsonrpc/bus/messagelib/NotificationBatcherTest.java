@@ -0,0 +1,81 @@
+/*
+ * Copyright (c) 2017 Brocade Communications Systems, Inc. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.jsonrpc.bus.messagelib;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+import org.opendaylight.jsonrpc.bus.jsonrpc.JsonRpcBaseMessage;
+import org.opendaylight.jsonrpc.bus.jsonrpc.JsonRpcRequestMessage;
+
+/**
+ * Tests for {@link NotificationBatcher}.
+ */
+public class NotificationBatcherTest {
+    private final List<List<JsonRpcBaseMessage>> sent = new CopyOnWriteArrayList<>();
+
+    private static JsonRpcRequestMessage notification(String method) {
+        final JsonRpcRequestMessage msg = new JsonRpcRequestMessage();
+        msg.setDefaultJsonrpc();
+        msg.setMethod(method);
+        return msg;
+    }
+
+    @Test
+    public void testFlushOnSize() {
+        final NotificationBatcher batcher = new NotificationBatcher(sent::add, 3, TimeUnit.MINUTES.toMillis(1));
+        for (int i = 0; i < 7; i++) {
+            batcher.add(notification("n" + i));
+        }
+        assertEquals(2, sent.size());
+        assertEquals(3, sent.get(0).size());
+        assertEquals(2, batcher.getSizeFlushCount());
+        batcher.close();
+        assertEquals(3, sent.size());
+        assertEquals(1, sent.get(2).size());
+        assertEquals(7, batcher.getNotificationCount());
+        assertEquals(3, batcher.getBatchCount());
+    }
+
+    @Test
+    public void testLingerTimerCancelledBySizeFlush() throws InterruptedException {
+        final NotificationBatcher batcher = new NotificationBatcher(sent::add, 2, 200);
+        batcher.add(notification("a"));
+        batcher.add(notification("b"));
+        Thread.sleep(100);
+        batcher.add(notification("c"));
+        // timer of first batch must not flush second one early
+        Thread.sleep(150);
+        assertEquals(1, sent.size());
+        final long end = System.currentTimeMillis() + 1000;
+        while (sent.size() < 2 && System.currentTimeMillis() < end) {
+            Thread.sleep(10);
+        }
+        assertEquals(2, sent.size());
+        assertEquals(1, sent.get(1).size());
+    }
+
+    @Test
+    public void testFlushOnLinger() throws InterruptedException {
+        final NotificationBatcher batcher = new NotificationBatcher(sent::add, 100, 20);
+        batcher.add(notification("a"));
+        batcher.add(notification("b"));
+        final long end = System.currentTimeMillis() + 1000;
+        while (sent.isEmpty() && System.currentTimeMillis() < end) {
+            Thread.sleep(10);
+        }
+        assertEquals(1, sent.size());
+        assertEquals(2, sent.get(0).size());
+        assertTrue(batcher.getSizeFlushCount() == 0);
+    }
+}
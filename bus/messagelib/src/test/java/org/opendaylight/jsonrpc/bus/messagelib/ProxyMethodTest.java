@@ -0,0 +1,102 @@
+/*
+ * Copyright (c) 2017 Brocade Communications Systems, Inc. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.jsonrpc.bus.messagelib;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import javax.management.JMException;
+
+import org.junit.Test;
+import org.opendaylight.jsonrpc.bus.metrics.JmxMetricRegistry;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonParser;
+import com.google.gson.JsonPrimitive;
+
+/**
+ * Tests for {@link ProxyMethod}.
+ */
+public class ProxyMethodTest {
+    private interface TestInterface extends AutoCloseable {
+        List<String> list(String prefix, int count);
+
+        CompletableFuture<List<Integer>> numbers();
+
+        void notify(String msg);
+
+        JsonArray raw();
+    }
+
+    @Test
+    public void testKinds() throws NoSuchMethodException {
+        assertEquals(ProxyMethod.Kind.CLOSE, ProxyMethod.of(TestInterface.class.getMethod("close")).getKind());
+        assertEquals(ProxyMethod.Kind.TO_STRING, ProxyMethod.of(Object.class.getMethod("toString")).getKind());
+        assertEquals(ProxyMethod.Kind.COMPLETABLE,
+                ProxyMethod.of(TestInterface.class.getMethod("numbers")).getKind());
+        final ProxyMethod notify = ProxyMethod.of(TestInterface.class.getMethod("notify", String.class));
+        assertEquals(ProxyMethod.Kind.SYNC, notify.getKind());
+        assertTrue(notify.returnsVoid());
+        // computed just once
+        assertSame(notify, ProxyMethod.of(TestInterface.class.getMethod("notify", String.class)));
+    }
+
+    @Test
+    public void testEncodeParams() throws NoSuchMethodException {
+        final ProxyMethod list = ProxyMethod.of(TestInterface.class.getMethod("list", String.class, int.class));
+        assertNull(list.encodeParams(null));
+        assertEquals(new JsonPrimitive("abc"), list.encodeParams(new Object[] { "abc" }));
+        assertEquals(new JsonParser().parse("[\"a\",2]"), list.encodeParams(new Object[] { "a", 2 }));
+    }
+
+    @Test
+    public void testDecodeResult() throws NoSuchMethodException {
+        final ProxyMethod list = ProxyMethod.of(TestInterface.class.getMethod("list", String.class, int.class));
+        assertEquals(Arrays.asList("a", "b"), list.decodeResult(new JsonParser().parse("[\"a\",\"b\"]")));
+        assertNull(list.decodeResult(null));
+        final ProxyMethod numbers = ProxyMethod.of(TestInterface.class.getMethod("numbers"));
+        assertEquals(Arrays.asList(1, 2), numbers.decodeResult(new JsonParser().parse("[1,2]")));
+        final ProxyMethod raw = ProxyMethod.of(TestInterface.class.getMethod("raw"));
+        final JsonArray array = new JsonParser().parse("[1]").getAsJsonArray();
+        assertSame(array, raw.decodeResult(array));
+    }
+
+    @Test
+    public void testRecord() throws Exception {
+        final String prefix = "proxy." + TestInterface.class.getName() + ".notify";
+        final ProxyMethod notify = ProxyMethod.of(TestInterface.class.getMethod("notify", String.class));
+        notify.acquireMetrics();
+        try {
+            final long latencyBefore = metricValue("Timer", prefix + ".latency");
+            final long errorsBefore = metricValue("Counter", prefix + ".errors");
+            notify.record(System.nanoTime(), false);
+            notify.record(System.nanoTime(), true);
+            assertEquals(latencyBefore + 2, metricValue("Timer", prefix + ".latency"));
+            assertEquals(errorsBefore + 1, metricValue("Counter", prefix + ".errors"));
+        } finally {
+            notify.releaseMetrics();
+        }
+    }
+
+    private static long metricValue(String type, String name) throws JMException {
+        return (long) ManagementFactory.getPlatformMBeanServer()
+                .getAttribute(JmxMetricRegistry.objectName(type, name), "Count");
+    }
+
+    @Test(expected = ProxyServiceGenericException.class)
+    public void testDecodeMismatch() throws NoSuchMethodException {
+        ProxyMethod.of(TestInterface.class.getMethod("numbers")).decodeResult(new JsonPrimitive("abc"));
+    }
+}
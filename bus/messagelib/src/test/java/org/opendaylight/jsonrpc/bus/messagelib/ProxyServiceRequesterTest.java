@@ -11,6 +11,16 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
 import org.junit.AfterClass;
 import org.junit.BeforeClass;
 import org.junit.Test;
@@ -121,6 +131,120 @@ public class ProxyServiceRequesterTest {
         proxy.setTimeout(serverProxy, timeout);
     }
 
+    @Test(timeout = 600)
+    public void testDeadline() {
+        showFunctionName();
+        final long start = System.nanoTime();
+        try (Deadline.Scope scope = Deadline.after(100, TimeUnit.MILLISECONDS).enter()) {
+            // deadline is shorter than session timeout
+            serverProxy.delayedEcho("ABC", 300);
+            fail("Expected an ProxyServiceTimeoutException to be thrown");
+        } catch (ProxyServiceTimeoutException e) {
+            assertTrue(System.nanoTime() - start < TimeUnit.MILLISECONDS.toNanos(timeout));
+        }
+        assertEquals(null, Deadline.current());
+        assertEquals("Hello", serverProxy.echo("Hello"));
+    }
+
+    @Test(timeout = 5000)
+    public void testAsync() throws Exception {
+        showFunctionName();
+        final ServerAsyncInterface asyncProxy = proxy.createRequesterProxy("tcp://127.0.0.1:" + port,
+                ServerAsyncInterface.class, timeout);
+        final List<CompletableFuture<String>> replies = new ArrayList<>();
+        // all requests are in flight on single proxy at same time
+        for (int i = 0; i < 50; i++) {
+            replies.add(asyncProxy.echo("msg" + i));
+        }
+        final CompletableFuture<Integer> incremented = asyncProxy.increment(41);
+        for (int i = 0; i < 50; i++) {
+            assertEquals("msg" + i, replies.get(i).get());
+        }
+        assertEquals(Integer.valueOf(42), incremented.get());
+        assertEquals("firstsecond", asyncProxy.concat("first", "second").get());
+        assertEquals(null, asyncProxy.noReturn("a").get());
+        asyncProxy.close();
+    }
+
+    @Test(timeout = 5000)
+    public void testAsyncFromClientCallExecutor() throws Exception {
+        showFunctionName();
+        final AtomicInteger issued = new AtomicInteger();
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        messaging.setClientCallExecutor(task -> {
+            issued.incrementAndGet();
+            executor.execute(task);
+        });
+        try (ServerAsyncInterface asyncProxy = proxy.createRequesterProxy("tcp://127.0.0.1:" + port,
+                ServerAsyncInterface.class, timeout)) {
+            assertEquals("abc", asyncProxy.echo("abc").get());
+            assertEquals("firstsecond", asyncProxy.concat("first", "second").get());
+            assertEquals(2, issued.get());
+        } finally {
+            messaging.setClientCallExecutor(null);
+            executor.shutdownNow();
+        }
+    }
+
+    @Test(timeout = 5000)
+    public void testAsyncTimeout() throws Exception {
+        showFunctionName();
+        final ServerAsyncInterface asyncProxy = proxy.createRequesterProxy("tcp://127.0.0.1:" + port,
+                ServerAsyncInterface.class, 200);
+        final CompletableFuture<String> delayed = asyncProxy.delayedEcho("ABC", 300);
+        try {
+            delayed.get();
+            fail("Expected an ProxyServiceTimeoutException to be thrown");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof ProxyServiceTimeoutException);
+        }
+        // late reply to timed out request is discarded
+        assertEquals("Hello", asyncProxy.echo("Hello").get());
+        asyncProxy.close();
+    }
+
+    @Test(timeout = 10000)
+    public void testConcurrentProxies() throws Exception {
+        showFunctionName();
+        final ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            final List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < 32; i++) {
+                final String msg = "msg" + i;
+                results.add(executor.submit(() -> {
+                    try (ServerPartialInterface p = proxy.createRequesterProxy("tcp://127.0.0.1:" + port,
+                            ServerPartialInterface.class, timeout)) {
+                        return p.echo(msg);
+                    }
+                }));
+            }
+            for (int i = 0; i < 32; i++) {
+                assertEquals("msg" + i, results.get(i).get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testClosedProxy() throws Exception {
+        showFunctionName();
+        final ServerPartialInterface p = proxy.createRequesterProxy("tcp://127.0.0.1:" + port,
+                ServerPartialInterface.class, timeout);
+        assertEquals(timeout, proxy.getTimeout(p));
+        p.close();
+        // second close is no-op
+        p.close();
+        try {
+            p.echo("abc");
+            fail("Expected an ProxyServiceGenericException to be thrown");
+        } catch (ProxyServiceGenericException e) {
+            assertTrue(e.getMessage().contains("closed"));
+        }
+        // object which is not proxy is ignored
+        assertEquals(0, proxy.getTimeout(new Object()));
+    }
+
     @AfterClass
     public static void teardown() {
         showFunctionName();
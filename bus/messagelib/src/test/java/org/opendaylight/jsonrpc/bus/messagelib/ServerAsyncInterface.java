@@ -0,0 +1,25 @@
+/*
+ * Copyright (c) 2017 Brocade Communications Systems, Inc. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.jsonrpc.bus.messagelib;
+
+import java.util.concurrent.CompletableFuture;
+
+import com.google.common.util.concurrent.ListenableFuture;
+
+public interface ServerAsyncInterface extends AutoCloseable {
+
+    public CompletableFuture<String> echo(String msg);
+
+    public ListenableFuture<String> concat(String msg1, String msg2);
+
+    public CompletableFuture<String> delayedEcho(String msg, int time);
+
+    public CompletableFuture<Integer> increment(int count);
+
+    public CompletableFuture<Void> noReturn(String msg);
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright (c) 2017 Brocade Communications Systems, Inc. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.jsonrpc.bus.messagelib;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.opendaylight.jsonrpc.bus.BusSession;
+import org.opendaylight.jsonrpc.bus.BusSessionTimeoutException;
+import org.opendaylight.jsonrpc.bus.SessionType;
+
+/**
+ * Tests for retries of {@link Session#sendRequestAndReadReply(String, Object)}.
+ */
+public class SessionRetryTest {
+    private BusSession busSession;
+    private ExecutorService executor;
+
+    @Before
+    public void setUp() {
+        busSession = mock(BusSession.class);
+        when(busSession.getSessionType()).thenReturn(SessionType.REQUESTER);
+        when(busSession.getTimeout()).thenReturn(1000);
+        when(busSession.sendMessage(anyString())).thenReturn(true);
+        executor = Executors.newSingleThreadExecutor();
+    }
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    private Session newSession(RetryPolicy policy) {
+        return new Session(mock(MessageLibrary.class), busSession, policy, null);
+    }
+
+    @Test
+    public void testAttemptsAndBackoff() throws Exception {
+        when(busSession.readMessage()).thenThrow(new BusSessionTimeoutException("1"))
+                .thenThrow(new BusSessionTimeoutException("2")).thenReturn("reply");
+        final Session session = newSession(new BackoffRetryPolicy(3, 100, 1000));
+        final long start = System.nanoTime();
+        assertEquals("reply", session.sendRequestAndReadReply("read", null));
+        // backoff of 100ms after first attempt and 200ms after second one
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) >= 300);
+        verify(busSession, times(3)).sendMessage(anyString());
+        verify(busSession, times(3)).readMessage();
+    }
+
+    @Test
+    public void testAttemptsExhausted() throws Exception {
+        when(busSession.readMessage()).thenThrow(new BusSessionTimeoutException("timeout"));
+        final Session session = newSession(new BackoffRetryPolicy(2, 10, 10));
+        try {
+            session.sendRequestAndReadReply("read", null);
+            fail("Request should time out");
+        } catch (MessageLibraryTimeoutException e) {
+            verify(busSession, times(2)).sendMessage(anyString());
+        }
+    }
+
+    @Test
+    public void testNonIdempotentNotRetried() throws Exception {
+        when(busSession.readMessage()).thenThrow(new BusSessionTimeoutException("timeout"));
+        final Session session = newSession(new BackoffRetryPolicy(3, 10, 10));
+        try {
+            session.sendRequestAndReadReply("put", null);
+            fail("Request should time out");
+        } catch (MessageLibraryTimeoutException e) {
+            verify(busSession, times(1)).sendMessage(anyString());
+        }
+    }
+
+    @Test(timeout = 10000)
+    public void testSessionNotLockedDuringBackoff() throws Exception {
+        final CountDownLatch timedOut = new CountDownLatch(1);
+        when(busSession.readMessage()).thenAnswer(invocation -> {
+            if (timedOut.getCount() > 0) {
+                timedOut.countDown();
+                throw new BusSessionTimeoutException("timeout");
+            }
+            return "reply";
+        });
+        final Session session = newSession(new BackoffRetryPolicy(2, 2000, 2000));
+        final Future<String> retried = executor.submit(() -> session.sendRequestAndReadReply("read", null));
+        timedOut.await();
+        // other caller gets through while first one waits for next attempt
+        final long start = System.nanoTime();
+        session.sendMessage("{}");
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 1000);
+        assertEquals("reply", retried.get());
+    }
+}
@@ -0,0 +1,144 @@
+/*
+ * Copyright (c) 2017 Brocade Communications Systems, Inc. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.jsonrpc.bus.messagelib;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonPrimitive;
+
+/**
+ * Tests for {@link Tracing}, {@link Span} and {@link TraceContext}.
+ */
+public class TracingTest {
+    private InMemorySpanExporter exporter;
+
+    @Before
+    public void setUp() {
+        exporter = new InMemorySpanExporter();
+        Tracing.setExporter(exporter);
+    }
+
+    @After
+    public void tearDown() {
+        Tracing.setExporter(SpanExporter.NOOP);
+    }
+
+    @Test
+    public void testContextMetadata() {
+        final TraceContext ctx = TraceContext.newRoot();
+        final JsonObject metadata = new JsonObject();
+        ctx.writeTo(metadata);
+        assertEquals(ctx, TraceContext.readFrom(metadata));
+        assertNull(TraceContext.readFrom(null));
+        assertNull(TraceContext.readFrom(new JsonObject()));
+        metadata.add(TraceContext.METADATA_KEY, new JsonPrimitive("00-xyz-123-01"));
+        assertNull(TraceContext.readFrom(metadata));
+    }
+
+    @Test
+    public void testNesting() {
+        assertSame(Span.NOOP, Span.current());
+        final Span parent = Tracing.startSpan("parent", Span.Kind.INTERNAL);
+        assertNull(parent.getParentSpanId());
+        try (Span.Scope scope = parent.enter()) {
+            assertSame(parent, Span.current());
+            final Span child = Tracing.startSpan("child", Span.Kind.CLIENT);
+            assertEquals(parent.getContext().getTraceId(), child.getContext().getTraceId());
+            assertEquals(parent.getContext().getSpanId(), child.getParentSpanId());
+            child.event("sent").attribute("key", 1).end();
+            // no effect once ended
+            child.event("late");
+            assertEquals(1, child.getEvents().size());
+            assertEquals("1", child.getAttributes().get("key"));
+        }
+        assertSame(Span.NOOP, Span.current());
+        parent.end();
+        assertEquals(2, exporter.getSpans().size());
+        assertEquals("child", exporter.getSpans().get(0).getName());
+        assertTrue(exporter.getSpans().get(0).toJson().has("parent-id"));
+    }
+
+    @Test(timeout = 10000)
+    public void testFileExporter() throws Exception {
+        final Path file = Files.createTempFile("spans", ".json");
+        try {
+            final FileSpanExporter fileExporter = new FileSpanExporter(file, 16, 50);
+            Tracing.setExporter(fileExporter);
+            for (int i = 0; i < 3; i++) {
+                Tracing.startSpan("span" + i, Span.Kind.INTERNAL).end();
+            }
+            // written and flushed by background thread, without closing
+            while (Files.readAllLines(file).size() < 3) {
+                Thread.sleep(10);
+            }
+            assertTrue(Files.readAllLines(file).get(2).contains("span2"));
+            fileExporter.close();
+            Tracing.startSpan("late", Span.Kind.INTERNAL).end();
+            assertEquals(1, fileExporter.getDroppedCount());
+            assertEquals(3, Files.readAllLines(file).size());
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    public void testDisabled() {
+        Tracing.setExporter(SpanExporter.NOOP);
+        assertFalse(Tracing.isEnabled());
+        final Span span = Tracing.startSpan("noop", Span.Kind.INTERNAL);
+        assertFalse(span.isRecording());
+        assertNull(span.getContext());
+        span.end();
+        assertTrue(exporter.getSpans().isEmpty());
+    }
+
+    @Test(timeout = 10000)
+    public void testPropagation() throws Exception {
+        try (MessageLibrary messaging = new MessageLibrary("zmq")) {
+            final String port = TestHelper.getFreeTcpPort();
+            final ThreadedSession server = messaging.threadedResponder("tcp://*:" + port, new TestMessageServer());
+            final ProxyServiceImpl proxy = new ProxyServiceImpl(messaging);
+            try (ServerInterface client = proxy.createRequesterProxy("tcp://127.0.0.1:" + port,
+                    ServerInterface.class, 2000)) {
+                assertEquals("abc", client.echo("abc"));
+            }
+            server.stop();
+            server.joinAndClose();
+        }
+        // server span ends before reply is sent, client span after it arrives
+        final List<Span> spans = exporter.getSpans();
+        assertEquals(2, spans.size());
+        final Span serverSpan = spans.get(0);
+        final Span clientSpan = spans.get(1);
+        assertEquals(Span.Kind.SERVER, serverSpan.getKind());
+        assertEquals(Span.Kind.CLIENT, clientSpan.getKind());
+        assertEquals("echo", serverSpan.getName());
+        assertEquals(clientSpan.getContext().getTraceId(), serverSpan.getContext().getTraceId());
+        assertEquals(clientSpan.getContext().getSpanId(), serverSpan.getParentSpanId());
+        assertEquals(Arrays.asList("encoded", "sent", "received"),
+                clientSpan.getEvents().stream().map(Span.Event::getName).collect(Collectors.toList()));
+        assertTrue(serverSpan.getDurationNanos() <= clientSpan.getDurationNanos());
+        assertTrue(TimeUnit.NANOSECONDS.toSeconds(clientSpan.getDurationNanos()) < 10);
+    }
+}
@@ -0,0 +1,380 @@
+/*
+ * Copyright (c) 2017 Brocade Communications Systems, Inc. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.jsonrpc.bus.zmq;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.zeromq.ZContext;
+import org.zeromq.ZMQ;
+import org.zeromq.ZMQ.PollItem;
+import org.zeromq.ZMQ.Poller;
+import org.zeromq.ZMQ.Socket;
+import org.zeromq.ZMQException;
+
+/**
+ * Single I/O thread polling many sockets together. Sockets are not thread
+ * safe, so once registered, socket must only be touched from within this
+ * loop. Other threads hand work over to it using {@link #execute(Runnable)}.
+ *
+ * <p>
+ * Poller is rebuilt whenever set of registered sockets changes, as jeromq
+ * poller does not keep indexes of remaining sockets stable on unregistration.
+ * Socket which is only temporarily not interested in incoming messages should
+ * be {@link #suspend(Socket) suspended} instead, which just masks its poll
+ * item.
+ */
+public class ZMQEventLoop implements AutoCloseable {
+    private static final Logger LOG = LoggerFactory.getLogger(ZMQEventLoop.class);
+    private static final AtomicInteger INSTANCE_COUNTER = new AtomicInteger();
+    private static final long JOIN_TIMEOUT = 5000L;
+    private final ZContext zmqContext;
+    private final Queue<Runnable> commands = new ConcurrentLinkedQueue<>();
+    private final AtomicLong executedCommands = new AtomicLong();
+    // only accessed from I/O thread
+    private final Map<Socket, Reader> readers = new LinkedHashMap<>();
+    private final PriorityQueue<Timer> timers = new PriorityQueue<>();
+    private int cancelledTimers = 0;
+    private boolean dirty = true;
+    private final Socket wakeReceive;
+    private final Socket wakeTransmit;
+    private final Thread ioThread;
+    private volatile int registeredSockets = 0;
+    private volatile boolean closed = false;
+
+    public ZMQEventLoop(ZContext zmqContext) {
+        this.zmqContext = zmqContext;
+        final String name = "zmq-event-loop-" + INSTANCE_COUNTER.incrementAndGet();
+        final String wakeUri = "inproc://" + name;
+        // inproc endpoint must be bound before anyone connects to it
+        wakeReceive = zmqContext.createSocket(ZMQ.PAIR);
+        wakeReceive.bind(wakeUri);
+        wakeTransmit = zmqContext.createSocket(ZMQ.PAIR);
+        wakeTransmit.connect(wakeUri);
+        ioThread = new Thread(this::run, name);
+        ioThread.setDaemon(true);
+        ioThread.start();
+    }
+
+    /**
+     * Run command on I/O thread. Commands are executed in order they were
+     * submitted.
+     *
+     * @param command command to run
+     */
+    public void execute(Runnable command) {
+        commands.add(command);
+        synchronized (wakeTransmit) {
+            if (!closed) {
+                // if wakeup pipe is full, I/O thread is going to wake up anyway
+                wakeTransmit.send(new byte[] { 0 }, ZMQ.DONTWAIT);
+            }
+        }
+    }
+
+    /**
+     * Run command on I/O thread once given delay elapses.
+     *
+     * @param command command to run
+     * @param delay delay of execution
+     * @param unit time unit of delay
+     * @return {@link Timer} which can be used to cancel execution
+     */
+    public Timer schedule(Runnable command, long delay, TimeUnit unit) {
+        final Timer timer = new Timer(System.nanoTime() + unit.toNanos(delay), command);
+        execute(() -> timers.add(timer));
+        return timer;
+    }
+
+    /*
+     * Cancelled timers are removed lazily, once they make up half of the queue,
+     * so that cancellation does not need linear scan of queue every time.
+     */
+    private void onTimerCancelled() {
+        if (++cancelledTimers > timers.size() / 2) {
+            timers.removeIf(timer -> timer.cancelled);
+            cancelledTimers = 0;
+        }
+    }
+
+    /**
+     * Check if calling thread is I/O thread of this loop.
+     *
+     * @return true if and only if called from within loop
+     */
+    public boolean inEventLoop() {
+        return Thread.currentThread() == ioThread;
+    }
+
+    /**
+     * Start polling socket for incoming messages. Must be called from I/O
+     * thread.
+     *
+     * @param socket socket to poll
+     * @param onReadable callback invoked on I/O thread when socket is readable
+     */
+    public void register(Socket socket, Runnable onReadable) {
+        checkEventLoop();
+        readers.put(socket, new Reader(socket, onReadable));
+        registeredSockets = readers.size();
+        dirty = true;
+    }
+
+    /**
+     * Stop polling socket. Must be called from I/O thread.
+     *
+     * @param socket socket to stop polling
+     */
+    public void unregister(Socket socket) {
+        checkEventLoop();
+        if (readers.remove(socket) != null) {
+            registeredSockets = readers.size();
+            dirty = true;
+        }
+    }
+
+    /**
+     * Temporarily stop polling registered socket for incoming messages, while
+     * keeping it registered. Unlike {@link #unregister(Socket)}, this does not
+     * cause rebuild of poller. Must be called from I/O thread.
+     *
+     * @param socket socket to suspend
+     */
+    public void suspend(Socket socket) {
+        checkEventLoop();
+        final Reader reader = readers.get(socket);
+        if (reader != null) {
+            reader.setSuspended(true);
+        }
+    }
+
+    /**
+     * Resume polling of socket previously suspended by
+     * {@link #suspend(Socket)}. Must be called from I/O thread.
+     *
+     * @param socket socket to resume
+     */
+    public void resume(Socket socket) {
+        checkEventLoop();
+        final Reader reader = readers.get(socket);
+        if (reader != null) {
+            reader.setSuspended(false);
+        }
+    }
+
+    private void checkEventLoop() {
+        if (!inEventLoop()) {
+            throw new IllegalStateException("Not called from I/O thread of " + ioThread.getName());
+        }
+    }
+
+    private void run() {
+        Poller poller = null;
+        final List<Reader> polled = new ArrayList<>();
+        try {
+            while (!closed) {
+                if (dirty) {
+                    poller = new Poller(readers.size() + 1);
+                    poller.register(wakeReceive, Poller.POLLIN);
+                    polled.clear();
+                    for (final Reader reader : readers.values()) {
+                        poller.register(reader.newPollItem());
+                        polled.add(reader);
+                    }
+                    dirty = false;
+                }
+                poller.poll(nextTimeout());
+                if (poller.pollin(0)) {
+                    while (wakeReceive.recv(ZMQ.DONTWAIT) != null) {
+                        // drain wakeup signals
+                    }
+                }
+                Runnable command;
+                while ((command = commands.poll()) != null) {
+                    safeRun(command);
+                    executedCommands.incrementAndGet();
+                }
+                runExpiredTimers();
+                for (int i = 0; i < polled.size(); i++) {
+                    // socket might have been unregistered or suspended since poll
+                    final Reader reader = polled.get(i);
+                    if (!reader.suspended && readers.get(reader.socket) == reader && poller.pollin(i + 1)) {
+                        safeRun(reader.onReadable);
+                    }
+                }
+            }
+        } catch (ZMQException e) {
+            LOG.error("Event loop I/O thread terminated", e);
+        } finally {
+            readers.clear();
+            registeredSockets = 0;
+            zmqContext.destroySocket(wakeReceive);
+        }
+    }
+
+    private long nextTimeout() {
+        final Timer timer = timers.peek();
+        if (timer == null) {
+            return -1L;
+        }
+        return Math.max(0L, TimeUnit.NANOSECONDS.toMillis(timer.deadline - System.nanoTime()));
+    }
+
+    private void runExpiredTimers() {
+        final long now = System.nanoTime();
+        while (!timers.isEmpty() && timers.peek().deadline - now <= 0) {
+            final Timer timer = timers.poll();
+            if (!timer.cancelled) {
+                safeRun(timer.command);
+            } else if (cancelledTimers > 0) {
+                cancelledTimers--;
+            }
+        }
+    }
+
+    private static void safeRun(Runnable runnable) {
+        try {
+            runnable.run();
+        } catch (RuntimeException e) {
+            // must not kill I/O thread shared by many sessions
+            LOG.error("Task {} failed", runnable, e);
+        }
+    }
+
+    /**
+     * Get number of sockets currently polled by this loop.
+     *
+     * @return number of sockets
+     */
+    public int getRegisteredSocketCount() {
+        return registeredSockets;
+    }
+
+    /**
+     * Get number of commands waiting for execution.
+     *
+     * @return number of pending commands
+     */
+    public int getPendingCommandCount() {
+        return commands.size();
+    }
+
+    /**
+     * Get number of commands executed so far.
+     *
+     * @return number of executed commands
+     */
+    public long getExecutedCommandCount() {
+        return executedCommands.get();
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        synchronized (wakeTransmit) {
+            wakeTransmit.send(new byte[] { 0 }, ZMQ.DONTWAIT);
+        }
+        try {
+            ioThread.join(JOIN_TIMEOUT);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        synchronized (wakeTransmit) {
+            zmqContext.destroySocket(wakeTransmit);
+        }
+        commands.clear();
+    }
+
+    @Override
+    public String toString() {
+        return "ZMQEventLoop [name=" + ioThread.getName() + ", sockets=" + registeredSockets + ", pendingCommands="
+                + commands.size() + "]";
+    }
+
+    private static final class Reader {
+        private final Socket socket;
+        private final Runnable onReadable;
+        private boolean suspended = false;
+        private MaskablePollItem item;
+
+        private Reader(Socket socket, Runnable onReadable) {
+            this.socket = socket;
+            this.onReadable = onReadable;
+        }
+
+        private PollItem newPollItem() {
+            item = new MaskablePollItem(socket, suspended ? 0 : Poller.POLLIN);
+            return item;
+        }
+
+        private void setSuspended(boolean suspended) {
+            this.suspended = suspended;
+            if (item != null) {
+                item.setInterest(suspended ? 0 : Poller.POLLIN);
+            }
+        }
+    }
+
+    /**
+     * Poll item with mutable interest, so that socket can be masked in place.
+     */
+    private static final class MaskablePollItem extends PollItem {
+        private MaskablePollItem(Socket socket, int ops) {
+            super(socket, ops);
+        }
+
+        private void setInterest(int ops) {
+            base().interestOps(ops);
+        }
+    }
+
+    /**
+     * Command scheduled by {@link ZMQEventLoop#schedule(Runnable, long, TimeUnit)}.
+     */
+    public final class Timer implements Comparable<Timer> {
+        private final long deadline;
+        private final Runnable command;
+        private volatile boolean cancelled = false;
+
+        private Timer(long deadline, Runnable command) {
+            this.deadline = deadline;
+            this.command = command;
+        }
+
+        /**
+         * Cancel execution of command, if it did not run yet. Can be called
+         * from any thread.
+         */
+        public void cancel() {
+            if (cancelled) {
+                return;
+            }
+            cancelled = true;
+            if (inEventLoop()) {
+                onTimerCancelled();
+            } else {
+                execute(ZMQEventLoop.this::onTimerCancelled);
+            }
+        }
+
+        @Override
+        public int compareTo(Timer other) {
+            return Long.compare(deadline - other.deadline, 0L);
+        }
+    }
+}
@@ -7,6 +7,10 @@
  */
 package org.opendaylight.jsonrpc.bus.zmq;
 
+import java.util.Collection;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+
 import org.opendaylight.jsonrpc.bus.BusSessionFactory;
 import org.opendaylight.jsonrpc.bus.SessionType;
 import org.zeromq.ZContext;
@@ -21,9 +25,37 @@ import org.zeromq.ZContext;
  */
 public class ZMQFactory implements BusSessionFactory<ZMQSession> {
     private final ZContext zmqContext;
+    private final boolean multiplexRequesters;
+    private final Executor completionExecutor;
+    private ZMQEventLoop eventLoop;
+    private ZMQMultiplexer multiplexer;
 
     public ZMQFactory() {
+        this(true);
+    }
+
+    /**
+     * Create factory.
+     *
+     * @param multiplexRequesters when true, all requester sessions connected to
+     *            same endpoint share single connection. Otherwise every
+     *            requester session owns dedicated REQ socket.
+     */
+    public ZMQFactory(boolean multiplexRequesters) {
+        this(multiplexRequesters, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Create factory.
+     *
+     * @param multiplexRequesters see {@link #ZMQFactory(boolean)}
+     * @param completionExecutor executor used to complete futures of
+     *            asynchronous requests sent over shared connections
+     */
+    public ZMQFactory(boolean multiplexRequesters, Executor completionExecutor) {
         zmqContext = new ZContext();
+        this.multiplexRequesters = multiplexRequesters;
+        this.completionExecutor = completionExecutor;
     }
 
     public ZContext getZMQContext() {
@@ -32,12 +64,38 @@ public class ZMQFactory implements BusSessionFactory<ZMQSession> {
 
     @Override
     public ZMQSession responder(String uri) {
-        return new ZMQSession(zmqContext, uri, SessionType.RESPONDER);
+        return withEventLoop(new ZMQSession(zmqContext, uri, SessionType.RESPONDER));
+    }
+
+    private ZMQSession withEventLoop(ZMQSession session) {
+        session.setEventLoop(getEventLoop());
+        return session;
     }
 
     @Override
     public ZMQSession requester(String uri) {
-        return new ZMQSession(zmqContext, uri, SessionType.REQUESTER);
+        return new ZMQSession(zmqContext, multiplexRequesters ? getMultiplexer() : null, uri,
+                SessionType.REQUESTER, "");
+    }
+
+    /**
+     * Get {@link ZMQEventLoop} shared by all sessions created by this factory.
+     * Its I/O thread is started lazily, when first session needs it.
+     *
+     * @return {@link ZMQEventLoop}
+     */
+    public synchronized ZMQEventLoop getEventLoop() {
+        if (eventLoop == null) {
+            eventLoop = new ZMQEventLoop(zmqContext);
+        }
+        return eventLoop;
+    }
+
+    private synchronized ZMQMultiplexer getMultiplexer() {
+        if (multiplexer == null) {
+            multiplexer = new ZMQMultiplexer(zmqContext, getEventLoop(), completionExecutor);
+        }
+        return multiplexer;
     }
 
     @Override
@@ -47,11 +105,26 @@ public class ZMQFactory implements BusSessionFactory<ZMQSession> {
 
     @Override
     public ZMQSession subscriber(String uri, String topic) {
-        return new ZMQSession(zmqContext, uri, SessionType.SUBSCRIBER, topic);
+        return withEventLoop(new ZMQSession(zmqContext, uri, SessionType.SUBSCRIBER, topic));
+    }
+
+    @Override
+    public ZMQSession subscriber(String uri, Collection<String> topics) {
+        return withEventLoop(new ZMQSession(zmqContext, null, uri, SessionType.SUBSCRIBER, topics));
     }
 
     @Override
     public void close() {
+        synchronized (this) {
+            if (multiplexer != null) {
+                multiplexer.close();
+                multiplexer = null;
+            }
+            if (eventLoop != null) {
+                eventLoop.close();
+                eventLoop = null;
+            }
+        }
         zmqContext.destroy();
     }
 
@@ -0,0 +1,387 @@
+/*
+ * Copyright (c) 2017 Brocade Communications Systems, Inc. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.jsonrpc.bus.zmq;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.opendaylight.jsonrpc.bus.BusSessionTimeoutException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.zeromq.ZContext;
+import org.zeromq.ZMQ;
+import org.zeromq.ZMQ.Socket;
+
+/**
+ * Multiplexes logical requester sessions over single DEALER socket per remote
+ * endpoint. All DEALER sockets are owned by I/O thread of {@link ZMQEventLoop},
+ * sessions hand work over to it using command queue.
+ *
+ * <p>
+ * Every request is prefixed with correlation frame followed by empty delimiter
+ * frame. Responder (REP socket) treats these frames as message envelope and
+ * echoes them back with reply, so reply can be routed to originating session
+ * without looking into payload.
+ *
+ * <p>
+ * Futures of asynchronous requests are completed using completion executor,
+ * so that their dependent actions never run on I/O thread.
+ */
+public class ZMQMultiplexer implements AutoCloseable {
+    private static final Logger LOG = LoggerFactory.getLogger(ZMQMultiplexer.class);
+    private static final char SEPARATOR = '/';
+    private static final long CLOSE_TIMEOUT = 5000L;
+    // ZMQ reconnects in background, doubling interval after every failure
+    private static final long RECONNECT_INTERVAL = 100L;
+    private static final long RECONNECT_INTERVAL_MAX = 5000L;
+    private final ZContext zmqContext;
+    private final ZMQEventLoop eventLoop;
+    private final Executor completionExecutor;
+    private final Map<String, Channel> channels = new ConcurrentHashMap<>();
+    private final AtomicLong channelCounter = new AtomicLong();
+    // only accessed from I/O thread
+    private final Map<String, Endpoint> endpoints = new HashMap<>();
+
+    public ZMQMultiplexer(ZContext zmqContext, ZMQEventLoop eventLoop) {
+        this(zmqContext, eventLoop, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Create multiplexer.
+     *
+     * @param zmqContext ZMQ context used to create shared sockets
+     * @param eventLoop {@link ZMQEventLoop} which owns shared sockets
+     * @param completionExecutor executor used to complete futures of
+     *            asynchronous requests
+     */
+    public ZMQMultiplexer(ZContext zmqContext, ZMQEventLoop eventLoop, Executor completionExecutor) {
+        this.zmqContext = zmqContext;
+        this.eventLoop = eventLoop;
+        this.completionExecutor = completionExecutor;
+    }
+
+    private void complete(CompletableFuture<String> reply, String message, Throwable error) {
+        final Runnable completion = () -> {
+            if (error == null) {
+                reply.complete(message);
+            } else {
+                reply.completeExceptionally(error);
+            }
+        };
+        try {
+            completionExecutor.execute(completion);
+        } catch (RejectedExecutionException e) {
+            LOG.debug("Completion executor rejected task, completing in place", e);
+            completion.run();
+        }
+    }
+
+    /**
+     * Attach new logical session to endpoint. DEALER socket is created when
+     * first session attaches to endpoint.
+     *
+     * @param endpoint endpoint URI to connect to
+     * @return {@link Channel} used by session to exchange messages
+     */
+    public Channel attach(String endpoint) {
+        final Channel channel = new Channel(Long.toString(channelCounter.incrementAndGet()), endpoint);
+        channels.put(channel.id, channel);
+        eventLoop.execute(() -> acquire(endpoint));
+        return channel;
+    }
+
+    private void detach(Channel channel) {
+        if (channels.remove(channel.id) != null) {
+            eventLoop.execute(() -> release(channel.endpoint));
+        }
+    }
+
+    private void acquire(String endpoint) {
+        final Endpoint ep = endpoints.computeIfAbsent(endpoint, uri -> {
+            final Socket socket = zmqContext.createSocket(ZMQ.DEALER);
+            socket.setLinger(0);
+            socket.setReconnectIVL(RECONNECT_INTERVAL);
+            socket.setReconnectIVLMax(RECONNECT_INTERVAL_MAX);
+            socket.connect(uri);
+            LOG.debug("Connected shared socket to {}", uri);
+            final Endpoint created = new Endpoint(socket);
+            eventLoop.register(socket, () -> receive(created));
+            return created;
+        });
+        ep.refCount++;
+    }
+
+    private void release(String endpoint) {
+        final Endpoint ep = endpoints.get(endpoint);
+        if (ep != null && --ep.refCount == 0) {
+            destroy(ep);
+            endpoints.remove(endpoint);
+        }
+    }
+
+    private void destroy(Endpoint ep) {
+        eventLoop.unregister(ep.socket);
+        zmqContext.destroySocket(ep.socket);
+    }
+
+    private boolean transmit(String endpoint, String correlation, String message) {
+        final Endpoint ep = endpoints.get(endpoint);
+        if (ep == null) {
+            LOG.warn("Endpoint {} is not connected, dropping request {}", endpoint, correlation);
+            return false;
+        }
+        // envelope frame must not block I/O thread, rest of multipart message is
+        // accepted atomically once first frame is queued
+        if (!ep.socket.send(correlation.getBytes(StandardCharsets.UTF_8), ZMQ.SNDMORE | ZMQ.DONTWAIT)) {
+            LOG.warn("Outgoing queue to {} is full, dropping request {}", endpoint, correlation);
+            return false;
+        }
+        ep.socket.sendMore("");
+        ep.socket.send(message, 0);
+        return true;
+    }
+
+    private void receive(Endpoint ep) {
+        String correlation;
+        while ((correlation = ep.socket.recvStr(ZMQ.DONTWAIT)) != null) {
+            // remaining frames are empty delimiter and payload itself
+            final StringBuilder payload = new StringBuilder();
+            while (ep.socket.hasReceiveMore()) {
+                payload.append(ep.socket.recvStr());
+            }
+            dispatch(correlation, payload.toString());
+        }
+    }
+
+    private void dispatch(String correlation, String payload) {
+        final int idx = correlation.lastIndexOf(SEPARATOR);
+        final Channel channel = idx == -1 ? null : channels.get(correlation.substring(0, idx));
+        if (channel == null) {
+            LOG.debug("No session for reply {}, dropping it", correlation);
+            return;
+        }
+        try {
+            channel.deliver(Long.parseLong(correlation.substring(idx + 1)), payload);
+        } catch (NumberFormatException e) {
+            LOG.debug("Malformed correlation {}, dropping reply", correlation);
+        }
+    }
+
+    /**
+     * Close all shared sockets. {@link ZMQEventLoop} must still be running at
+     * this point, as sockets can only be destroyed from its I/O thread.
+     */
+    @Override
+    public void close() {
+        final CompletableFuture<Void> closed = new CompletableFuture<>();
+        eventLoop.execute(() -> {
+            endpoints.values().forEach(this::destroy);
+            endpoints.clear();
+            closed.complete(null);
+        });
+        try {
+            closed.get(CLOSE_TIMEOUT, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | TimeoutException e) {
+            LOG.warn("Unable to close shared sockets", e);
+        }
+        channels.clear();
+    }
+
+    /*
+     * Outcome of request sent by Channel#send(String), either reply or reason
+     * why it could not be sent.
+     */
+    private static final class Reply {
+        private final String message;
+        private final String error;
+
+        private Reply(String message, String error) {
+            this.message = message;
+            this.error = error;
+        }
+    }
+
+    private static final class Pending {
+        private final CompletableFuture<String> reply = new CompletableFuture<>();
+        private ZMQEventLoop.Timer timeout;
+    }
+
+    private static final class Endpoint {
+        private final Socket socket;
+        private int refCount = 0;
+
+        private Endpoint(Socket socket) {
+            this.socket = socket;
+        }
+    }
+
+    /**
+     * Logical requester session on top of shared socket. Just like REQ socket,
+     * only single request sent by {@link #send(String)} can be outstanding at
+     * any time. Requests sent by {@link #sendAsync(String, int)} are not
+     * subject to this restriction, replies are matched with them using
+     * sequence number carried in correlation frame.
+     */
+    public final class Channel implements AutoCloseable {
+        private final String id;
+        private final String endpoint;
+        private final BlockingQueue<Reply> replies = new LinkedBlockingQueue<>();
+        private final Map<Long, Pending> inflight = new ConcurrentHashMap<>();
+        private long sequence = 0;
+        private boolean pending = false;
+
+        private Channel(String id, String endpoint) {
+            this.id = id;
+            this.endpoint = endpoint;
+        }
+
+        /**
+         * Send request.
+         *
+         * @param message message to send
+         * @return false if there is already outstanding request, true
+         *         otherwise. Request which could not be sent later makes
+         *         {@link #receive(int)} fail immediately.
+         */
+        public synchronized boolean send(String message) {
+            if (pending) {
+                return false;
+            }
+            pending = true;
+            final long seq = ++sequence;
+            replies.clear();
+            final String correlation = id + SEPARATOR + seq;
+            eventLoop.execute(() -> {
+                if (!transmit(endpoint, correlation, message)) {
+                    offer(seq, new Reply(null, "Unable to send request " + correlation));
+                }
+            });
+            return true;
+        }
+
+        /**
+         * Send request without waiting for reply. Pending timeouts of all
+         * channels are tracked by timer of {@link ZMQEventLoop}, so no thread
+         * waits for reply. Timeout is cancelled once reply arrives.
+         *
+         * @param message message to send
+         * @param timeout time to wait for reply in milliseconds
+         * @return {@link CompletableFuture} of reply, which fails with
+         *         {@link BusSessionTimeoutException} if request could not be
+         *         sent or reply did not arrive within given time
+         */
+        public CompletableFuture<String> sendAsync(String message, int timeout) {
+            final Pending entry = new Pending();
+            final long seq;
+            synchronized (this) {
+                seq = ++sequence;
+                inflight.put(seq, entry);
+                entry.timeout = eventLoop.schedule(() -> fail(seq, String.format("Receive timed out: %d ms", timeout)),
+                        timeout, TimeUnit.MILLISECONDS);
+            }
+            final String correlation = id + SEPARATOR + seq;
+            eventLoop.execute(() -> {
+                if (!transmit(endpoint, correlation, message)) {
+                    fail(seq, "Unable to send request " + correlation);
+                }
+            });
+            return entry.reply;
+        }
+
+        private synchronized void fail(long seq, String reason) {
+            final Pending entry = inflight.remove(seq);
+            if (entry != null) {
+                entry.timeout.cancel();
+                complete(entry.reply, null, new BusSessionTimeoutException(reason));
+            }
+        }
+
+        /**
+         * Get number of requests sent by {@link #sendAsync(String, int)} which
+         * are waiting for reply.
+         *
+         * @return number of outstanding asynchronous requests
+         */
+        public int getInflightCount() {
+            return inflight.size();
+        }
+
+        /**
+         * Wait for reply to outstanding request.
+         *
+         * @param timeout time to wait in milliseconds
+         * @return reply or null if it did not arrive within given time
+         * @throws BusSessionTimeoutException if request could not be sent
+         */
+        public String receive(int timeout) throws BusSessionTimeoutException {
+            Reply reply = null;
+            try {
+                reply = replies.poll(timeout, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            // Either way, request is no longer outstanding. Reply arriving late
+            // is going to be discarded
+            reset();
+            if (reply != null && reply.error != null) {
+                throw new BusSessionTimeoutException(reply.error);
+            }
+            return reply != null ? reply.message : null;
+        }
+
+        /**
+         * Abandon outstanding request, if any.
+         */
+        public synchronized void reset() {
+            pending = false;
+            replies.clear();
+        }
+
+        private synchronized void deliver(long seq, String message) {
+            final Pending entry = inflight.remove(seq);
+            if (entry != null) {
+                entry.timeout.cancel();
+                complete(entry.reply, message, null);
+            } else if (!offer(seq, new Reply(message, null))) {
+                LOG.debug("Discarding stale reply #{} for session {}", seq, id);
+            }
+        }
+
+        private synchronized boolean offer(long seq, Reply reply) {
+            return pending && seq == sequence && replies.offer(reply);
+        }
+
+        @Override
+        public void close() {
+            reset();
+            for (final Long seq : inflight.keySet()) {
+                fail(seq, "Session closed");
+            }
+            detach(this);
+        }
+
+        @Override
+        public String toString() {
+            return "Channel [id=" + id + ", endpoint=" + endpoint + "]";
+        }
+    }
+}
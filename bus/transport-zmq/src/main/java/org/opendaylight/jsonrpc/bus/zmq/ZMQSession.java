@@ -9,11 +9,28 @@ package org.opendaylight.jsonrpc.bus.zmq;
 
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
 
 import org.opendaylight.jsonrpc.bus.BusSession;
 import org.opendaylight.jsonrpc.bus.BusSessionMsgHandler;
 import org.opendaylight.jsonrpc.bus.BusSessionTimeoutException;
+import org.opendaylight.jsonrpc.bus.PayloadTrace;
 import org.opendaylight.jsonrpc.bus.SessionType;
+import org.opendaylight.jsonrpc.bus.metrics.Counter;
+import org.opendaylight.jsonrpc.bus.metrics.MetricRegistry;
+import org.opendaylight.jsonrpc.bus.metrics.Metrics;
+import org.opendaylight.jsonrpc.bus.zmq.ZMQMultiplexer.Channel;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.zeromq.ZContext;
@@ -28,6 +45,19 @@ import org.zeromq.ZMQException;
  * This class implements the
  * {@link org.opendaylight.jsonrpc.bus.BusSession BusSession} interface
  * for the ZeroMQ bus service.
+ *
+ * <p>
+ * Socket options can be given as URI query parameters, they are stripped from
+ * URI before it is bound/connected:
+ * <ul>
+ * <li>{@value #SNDHWM} - high water mark of outbound messages</li>
+ * <li>{@value #RCVHWM} - high water mark of inbound messages</li>
+ * </ul>
+ *
+ * <p>
+ * Number of messages and bytes sent and received is recorded in
+ * {@link Metrics} as <code>bus.&lt;session type&gt;.&lt;endpoint&gt;.*</code>,
+ * aggregated over all sessions of same type connected to same endpoint.
  * 
  * @author Shaleen Saxena
  *
@@ -35,11 +65,31 @@ import org.zeromq.ZMQException;
 public class ZMQSession implements BusSession {
     private static final Logger logger = LoggerFactory.getLogger(ZMQSession.class);
     private static final int DEFAULT_TIMEOUT = 30 * 1000; // 30 seconds
+    public static final String SNDHWM = "sndhwm";
+    public static final String RCVHWM = "rcvhwm";
+    // same as ZMQ default, large enough to absorb bursts of notifications
+    private static final long DEFAULT_SUB_RCV_HWM = 1000;
+    // how long to wait before retrying dispatch rejected by saturated executor
+    private static final long DISPATCH_RETRY_DELAY = 10L;
+    private static final String METRIC_MESSAGES_SENT = "messages-sent";
+    private static final String METRIC_BYTES_SENT = "bytes-sent";
+    private static final String METRIC_MESSAGES_RECEIVED = "messages-received";
+    private static final String METRIC_BYTES_RECEIVED = "bytes-received";
 
     private final ZContext zmqContext;
+    private final ZMQMultiplexer multiplexer;
     private final URI uri;
+    private final String endpoint;
+    private final Map<String, String> options;
     private final int socketType;
     private final byte[] topic;
+    private final List<String> topics;
+    private final Counter messagesSent;
+    private final Counter bytesSent;
+    private final Counter messagesReceived;
+    private final Counter bytesReceived;
+    private final String metricPrefix;
+    private boolean metricsReleased = false;
 
     private Socket socket = null;
     private boolean opened = false;
@@ -48,16 +98,66 @@ public class ZMQSession implements BusSession {
     private Poller txPoller;
     private SessionType sessionType;
     private Socket loopTransmit = null;
+    private Channel channel = null;
+    private ZMQEventLoop eventLoop = null;
+    private volatile Dispatcher dispatcher = null;
 
     public ZMQSession(ZContext zmqContext, String uri, SessionType sessionType) {
         this(zmqContext, uri, sessionType, "");
     }
 
     public ZMQSession(ZContext zmqContext, String uri, SessionType sessionType, String topic) {
+        this(zmqContext, null, uri, sessionType, topic);
+    }
+
+    /**
+     * Create session. When multiplexer is given, requester session does not
+     * own any socket, but it rather shares connection to endpoint with other
+     * requester sessions.
+     *
+     * @param zmqContext ZeroMQ context
+     * @param multiplexer {@link ZMQMultiplexer} used by requester session, can
+     *            be null
+     * @param uri endpoint URI
+     * @param sessionType type of session
+     * @param topic topic used by publisher/subscriber
+     */
+    public ZMQSession(ZContext zmqContext, ZMQMultiplexer multiplexer, String uri, SessionType sessionType,
+            String topic) {
+        this(zmqContext, multiplexer, uri, sessionType, Collections.singletonList(topic));
+    }
+
+    /**
+     * Create session. Subscriber session is subscribed to all given topics,
+     * publisher uses first of them as default topic of outgoing messages.
+     *
+     * @param zmqContext ZeroMQ context
+     * @param multiplexer {@link ZMQMultiplexer} used by requester session, can
+     *            be null
+     * @param uri endpoint URI
+     * @param sessionType type of session
+     * @param topics topics used by publisher/subscriber, must not be empty
+     */
+    public ZMQSession(ZContext zmqContext, ZMQMultiplexer multiplexer, String uri, SessionType sessionType,
+            Collection<String> topics) {
+        if (topics.isEmpty()) {
+            throw new IllegalArgumentException("At least one topic is required");
+        }
         this.zmqContext = zmqContext;
+        this.multiplexer = multiplexer;
         this.sessionType = sessionType;
-        this.topic = topic.getBytes();
+        this.topics = Collections.unmodifiableList(new ArrayList<>(topics));
+        this.topic = this.topics.get(0).getBytes();
         this.uri = convertToUri(uri);
+        this.endpoint = stripQuery(this.uri);
+        this.options = parseOptions(this.uri.getRawQuery());
+
+        final MetricRegistry metrics = Metrics.getRegistry();
+        this.metricPrefix = Metrics.name("bus", sessionType.name().toLowerCase(Locale.ROOT), endpoint);
+        this.messagesSent = metrics.counter(Metrics.name(metricPrefix, METRIC_MESSAGES_SENT));
+        this.bytesSent = metrics.counter(Metrics.name(metricPrefix, METRIC_BYTES_SENT));
+        this.messagesReceived = metrics.counter(Metrics.name(metricPrefix, METRIC_MESSAGES_RECEIVED));
+        this.bytesReceived = metrics.counter(Metrics.name(metricPrefix, METRIC_BYTES_RECEIVED));
 
         // Set other fields.
         this.socketType = convertToSocketType(sessionType);
@@ -78,6 +178,54 @@ public class ZMQSession implements BusSession {
         }
     }
 
+    private static String stripQuery(URI uri) {
+        String str = uri.toString();
+        final int idx = str.indexOf('?');
+        if (idx != -1) {
+            str = str.substring(0, idx);
+        }
+        return str.endsWith("/") ? str.substring(0, str.length() - 1) : str;
+    }
+
+    private static Map<String, String> parseOptions(String query) {
+        if (query == null || query.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        final Map<String, String> ret = new LinkedHashMap<>();
+        for (final String param : query.split("&")) {
+            final String[] parts = param.split("=", 2);
+            if (!parts[0].isEmpty()) {
+                ret.put(parts[0], parts.length == 2 ? parts[1] : null);
+            }
+        }
+        return ret;
+    }
+
+    private Long getLongOption(String name) {
+        final String value = options.get(name);
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Long.valueOf(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(String.format("Invalid value of '%s' : %s", name, value), e);
+        }
+    }
+
+    private void applyOptions() {
+        final Long sndHwm = getLongOption(SNDHWM);
+        if (sndHwm != null) {
+            socket.setSndHWM(sndHwm);
+        }
+        final Long rcvHwm = getLongOption(RCVHWM);
+        if (rcvHwm != null) {
+            socket.setRcvHWM(rcvHwm);
+        } else if (socketType == ZMQ.SUB) {
+            socket.setRcvHWM(DEFAULT_SUB_RCV_HWM);
+        }
+    }
+
     private int convertToSocketType(SessionType type) {
         switch (type) {
         case REQUESTER:
@@ -94,21 +242,31 @@ public class ZMQSession implements BusSession {
     }
 
     private void open() {
+        if (!this.opened && this.socketType == ZMQ.REQ && multiplexer != null) {
+            channel = multiplexer.attach(endpoint);
+            this.opened = true;
+        }
         if (!this.opened) {
             this.socket = zmqContext.createSocket(this.socketType);
+            // HWM must be set before socket is connected/bound
+            applyOptions();
             if (this.socketType == ZMQ.REQ) {
-                this.socket.connect(this.uri.toString());
+                this.socket.connect(endpoint);
                 createReceivePoller();
                 createTransmitPoller();
             } else if (this.socketType == ZMQ.SUB) {
-                this.socket.setRcvHWM(4);
                 this.socket.setTCPKeepAlive(0);
-                this.socket.connect(this.uri.toString());
-                this.socket.subscribe(topic);
+                this.socket.connect(endpoint);
+                for (final String t : topics) {
+                    this.socket.subscribe(t.getBytes());
+                }
                 createReceivePoller();
-            } else if ((this.socketType == ZMQ.PUB)
-                    || (this.socketType == ZMQ.REP)) {
-                this.socket.bind(this.uri.toString());
+            } else if (this.socketType == ZMQ.PUB) {
+                // PUB never blocks on send, it drops messages when HWM is
+                // reached, so there is no point in polling it
+                this.socket.bind(endpoint);
+            } else if (this.socketType == ZMQ.REP) {
+                this.socket.bind(endpoint);
                 createTransmitPoller();
             } else {
                 throw new IllegalArgumentException("Unknown socket type");
@@ -119,6 +277,23 @@ public class ZMQSession implements BusSession {
 
     @Override
     public void close() {
+        closeSocket();
+        if (!metricsReleased) {
+            metricsReleased = true;
+            final MetricRegistry metrics = Metrics.getRegistry();
+            for (final String metric : new String[] { METRIC_MESSAGES_SENT, METRIC_BYTES_SENT,
+                    METRIC_MESSAGES_RECEIVED, METRIC_BYTES_RECEIVED }) {
+                metrics.release(Metrics.name(metricPrefix, metric));
+            }
+        }
+    }
+
+    private void closeSocket() {
+        if (channel != null) {
+            channel.close();
+            channel = null;
+            opened = false;
+        }
         if (socket != null) {
             socket.close();
             socket = null;
@@ -127,10 +302,25 @@ public class ZMQSession implements BusSession {
     }
 
     public void reopen() {
-        close();
+        if (channel != null) {
+            // abandon outstanding request, shared connection stays intact
+            channel.reset();
+            return;
+        }
+        closeSocket();
         open();
     }
     
+    /**
+     * Set {@link ZMQEventLoop} used by
+     * {@link #startLoop(BusSessionMsgHandler, Executor)}.
+     *
+     * @param eventLoop shared event loop
+     */
+    void setEventLoop(ZMQEventLoop eventLoop) {
+        this.eventLoop = eventLoop;
+    }
+
     private void createReceivePoller() {
         rxPoller = new Poller(1);
         rxPoller.register(socket, Poller.POLLIN | Poller.POLLERR);
@@ -146,7 +336,14 @@ public class ZMQSession implements BusSession {
     {
         String message = null;
         try {
-            if (rxPoller == null) {
+            if (channel != null) {
+                message = channel.receive(getTimeout());
+                if (message == null) {
+                    throw new BusSessionTimeoutException(
+                            String.format("Receive timed out: %d ms", getTimeout()));
+                }
+                recordReceived(message);
+            } else if (rxPoller == null) {
                 message = recvMessage();
             } else {
                 // poll socket for a reply, with timeout
@@ -162,35 +359,102 @@ public class ZMQSession implements BusSession {
                     message = recvMessage();
                 }
             }
-            logger.debug("Received: " + message);
+            PayloadTrace.trace(logger, "Received: {}", message);
         } catch (ZMQException e) {
             logger.error("Unable to read message", e);
         }
         return message;
     }
 
-	private String recvMessage() {
-        StringBuilder builder = new StringBuilder(socket.recvStr());
+    String recvMessage() {
+        final String message = receiveFrames();
+        recordReceived(message);
+        return message;
+    }
+
+    private void recordReceived(String message) {
+        messagesReceived.increment();
+        bytesReceived.add(Metrics.utf8Length(message));
+    }
+
+    private void recordSent(String message) {
+        messagesSent.increment();
+        bytesSent.add(Metrics.utf8Length(message));
+    }
+
+    private String receiveFrames() {
+        final String first = socket.recvStr();
+        if (socketType == ZMQ.SUB && socket.hasReceiveMore()) {
+            // first frame is topic envelope, no matter which of subscribed
+            // topics it matched
+            final StringBuilder builder = new StringBuilder();
+            while (socket.hasReceiveMore()) {
+                builder.append(socket.recvStr());
+            }
+            return builder.toString();
+        }
+        StringBuilder builder = new StringBuilder(first);
         while (socket.hasReceiveMore()) {
-             builder.append(socket.recvStr());
+            builder.append(socket.recvStr());
         }
         // Trim topic from start of message
-        builder.delete(0, topic.length);
+        builder.delete(0, socketType == ZMQ.SUB ? matchingTopicLength(first) : topic.length);
         return builder.toString();
-	}
+    }
 
-	private void transmitMessage(String message) {
-		if (socketType == ZMQ.PUB) {
-			socket.sendMore(topic);
-		}
-		socket.send(message, 0);
-	}
+    /**
+     * Publisher which does not use envelope frame prefixes message with topic
+     * directly, so strip longest subscribed topic it starts with.
+     */
+    private int matchingTopicLength(String message) {
+        int length = 0;
+        for (final String t : topics) {
+            if (t.length() > length && message.startsWith(t)) {
+                length = t.length();
+            }
+        }
+        return length;
+    }
+
+    private void transmitMessage(byte[] msgTopic, String message) {
+        if (socketType == ZMQ.PUB) {
+            socket.sendMore(msgTopic);
+        }
+        socket.send(message, 0);
+    }
 
     @Override
     public boolean sendMessage(String message) {
+        return sendMessage(topic, message);
+    }
+
+    @Override
+    public boolean sendMessage(String msgTopic, String message) {
+        return sendMessage(msgTopic.getBytes(), message);
+    }
+
+    private boolean sendMessage(byte[] msgTopic, String message) {
+        final boolean sent = doSendMessage(msgTopic, message);
+        if (sent) {
+            recordSent(message);
+        }
+        return sent;
+    }
+
+    private boolean doSendMessage(byte[] msgTopic, String message) {
+        final Dispatcher current = dispatcher;
+        if (current != null && !eventLoop.inEventLoop()) {
+            // socket is owned by event loop while dispatcher is running
+            PayloadTrace.trace(logger, "Sending: {}", message);
+            eventLoop.execute(() -> transmitMessage(msgTopic, message));
+            return true;
+        }
         try {
-            if (txPoller == null) {
-                transmitMessage(message);
+            if (channel != null) {
+                PayloadTrace.trace(logger, "Sending: {}", message);
+                return channel.send(message);
+            } else if (txPoller == null) {
+                transmitMessage(msgTopic, message);
                 return true;
             } else {
                 // poll socket to be empty, with timeout
@@ -202,8 +466,8 @@ public class ZMQSession implements BusSession {
                     logger.debug("Send errored");
                     return false;
                 } else if (txPoller.pollout(0)) {
-                    logger.debug("Sending: " + message);
-                    transmitMessage(message);
+                    PayloadTrace.trace(logger, "Sending: {}", message);
+                    transmitMessage(msgTopic, message);
                     return true;
                 }
             }
@@ -213,6 +477,25 @@ public class ZMQSession implements BusSession {
         return false;
     }
 
+    /**
+     * Requester session which shares connection using {@link ZMQMultiplexer}
+     * can have many requests outstanding, other sessions fall back to blocking
+     * exchange.
+     */
+    @Override
+    public CompletableFuture<String> sendRequestAsync(String message) {
+        if (channel == null) {
+            return BusSession.super.sendRequestAsync(message);
+        }
+        PayloadTrace.trace(logger, "Sending: {}", message);
+        recordSent(message);
+        return channel.sendAsync(message, getTimeout()).whenComplete((reply, error) -> {
+            if (reply != null) {
+                recordReceived(reply);
+            }
+        });
+    }
+
     @Override
     public void startLoop(final BusSessionMsgHandler handler) {
         Socket loopReceive;
@@ -246,7 +529,7 @@ public class ZMQSession implements BusSession {
         loop.addPoller(item1,
                 (ZLoop zloop, PollItem item, Object arg) -> {
                     String msg = recvMessage();
-                    logger.debug("Received: {}", msg);
+                    PayloadTrace.trace(logger, "Received: {}", msg);
                     return (msg.length()>0)?handler.handleIncomingMsg(msg):0;
                 },
                 null);
@@ -267,8 +550,36 @@ public class ZMQSession implements BusSession {
         loopTransmit = null;
     }
 
+    /**
+     * Start loop using shared {@link ZMQEventLoop}, if this session was
+     * created by {@link ZMQFactory}. Socket is polled by I/O thread of event
+     * loop, which stops polling it while message is being handled, so
+     * messages of this session are handled one at a time, in order.
+     */
+    @Override
+    public Future<?> startLoop(BusSessionMsgHandler handler, Executor executor) {
+        if (eventLoop == null) {
+            return BusSession.super.startLoop(handler, executor);
+        }
+        if (handler == null) {
+            throw new IllegalArgumentException("Null handler");
+        }
+        if ((socketType != ZMQ.SUB) && (socketType != ZMQ.REP)) {
+            throw new UnsupportedOperationException("This socket type not supported");
+        }
+        final Dispatcher created = new Dispatcher(handler, executor);
+        dispatcher = created;
+        eventLoop.execute(created::start);
+        return created.future;
+    }
+
     @Override
     public void stopLoop() {
+        final Dispatcher current = dispatcher;
+        if (current != null) {
+            eventLoop.execute(current::stop);
+            return;
+        }
         // Tell loop to stop. Any message would do.
         if (loopTransmit != null) {
             loopTransmit.send("Stop".getBytes());
@@ -303,4 +614,92 @@ public class ZMQSession implements BusSession {
     public String toString() {
         return "ZMQSession [sessionType=" + sessionType + ", uri=" + uri + "]";
     }
+
+    /**
+     * Hands messages received by event loop over to executor. All methods but
+     * {@link #process(String)} are invoked from I/O thread of event loop.
+     */
+    private final class Dispatcher {
+        private final BusSessionMsgHandler handler;
+        private final Executor executor;
+        private final CompletableFuture<Void> future = new CompletableFuture<>();
+        private boolean busy = false;
+        private boolean stopping = false;
+
+        private Dispatcher(BusSessionMsgHandler handler, Executor executor) {
+            this.handler = handler;
+            this.executor = executor;
+        }
+
+        private void start() {
+            if (!stopping) {
+                eventLoop.register(socket, this::onReadable);
+            }
+        }
+
+        private void onReadable() {
+            final String msg = recvMessage();
+            PayloadTrace.trace(logger, "Received: {}", msg);
+            if (msg.length() > 0) {
+                // stop polling socket until message is handled
+                eventLoop.suspend(socket);
+                busy = true;
+                dispatch(msg);
+            }
+        }
+
+        private void dispatch(String msg) {
+            if (stopping) {
+                finish();
+                return;
+            }
+            try {
+                executor.execute(() -> process(msg));
+            } catch (RejectedExecutionException e) {
+                logger.debug("Executor saturated, retrying dispatch in {} ms", DISPATCH_RETRY_DELAY, e);
+                eventLoop.schedule(() -> dispatch(msg), DISPATCH_RETRY_DELAY, TimeUnit.MILLISECONDS);
+            }
+        }
+
+        private void process(String msg) {
+            int result = 0;
+            try {
+                result = handler.handleIncomingMsg(msg);
+            } catch (RuntimeException e) {
+                logger.error("Failed to handle message", e);
+            } finally {
+                // don't leak interrupt to other sessions sharing this thread
+                if (Thread.interrupted()) {
+                    result = -1;
+                }
+                final int rc = result;
+                // replies sent by handler are already queued before this
+                eventLoop.execute(() -> done(rc));
+            }
+        }
+
+        private void done(int result) {
+            busy = false;
+            if (result < 0 || stopping) {
+                finish();
+            } else {
+                eventLoop.resume(socket);
+            }
+        }
+
+        private void stop() {
+            stopping = true;
+            if (!busy) {
+                finish();
+            }
+        }
+
+        private void finish() {
+            if (dispatcher == this) {
+                eventLoop.unregister(socket);
+                dispatcher = null;
+            }
+            future.complete(null);
+        }
+    }
 }
@@ -0,0 +1,172 @@
+/*
+ * Copyright (c) 2017 Brocade Communications Systems, Inc. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.jsonrpc.bus.zmq;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.opendaylight.jsonrpc.bus.BusSessionTimeoutException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Tests for sessions sharing single {@link ZMQEventLoop}.
+ */
+public class ZMQEventLoopTest {
+    private static final Logger logger = LoggerFactory.getLogger(ZMQEventLoopTest.class);
+    private static final int SESSIONS = 10;
+    private static int timeout = 2000;
+    private ZMQFactory factory;
+    private ExecutorService executor;
+
+    private static void showFunctionName() {
+        logger.info(Thread.currentThread().getStackTrace()[2].getMethodName());
+    }
+
+    @Before
+    public void setup() {
+        factory = new ZMQFactory();
+        // fewer threads than sessions
+        executor = Executors.newFixedThreadPool(2);
+    }
+
+    @After
+    public void teardown() {
+        executor.shutdownNow();
+        factory.close();
+    }
+
+    @Test
+    public void manyRespondersShareLoop() throws Exception {
+        showFunctionName();
+        final List<ZMQSession> responders = new ArrayList<>();
+        final List<ZMQSession> requesters = new ArrayList<>();
+        final List<Future<?>> loops = new ArrayList<>();
+        for (int i = 0; i < SESSIONS; i++) {
+            final String port = TestHelper.getFreeTcpPort();
+            final ZMQSession rep = factory.responder("tcp://*:" + port);
+            final String prefix = "rep" + i + ":";
+            loops.add(rep.startLoop(msg -> {
+                rep.sendMessage(prefix + msg);
+                return 0;
+            }, executor));
+            responders.add(rep);
+            final ZMQSession req = factory.requester("tcp://127.0.0.1:" + port);
+            req.setTimeout(timeout);
+            requesters.add(req);
+        }
+
+        for (int round = 0; round < 3; round++) {
+            for (int i = 0; i < SESSIONS; i++) {
+                assertTrue(requesters.get(i).sendMessage("msg" + round));
+            }
+            for (int i = 0; i < SESSIONS; i++) {
+                assertEquals("rep" + i + ":msg" + round, requesters.get(i).readMessage());
+            }
+        }
+
+        for (int i = 0; i < SESSIONS; i++) {
+            responders.get(i).stopLoop();
+            loops.get(i).get(timeout, TimeUnit.MILLISECONDS);
+        }
+        // only shared requester connections are left polled
+        assertEquals(SESSIONS, factory.getEventLoop().getRegisteredSocketCount());
+        for (int i = 0; i < SESSIONS; i++) {
+            responders.get(i).close();
+            requesters.get(i).close();
+        }
+    }
+
+    @Test(timeout = 5000)
+    public void handlerStopsLoop() throws Exception {
+        showFunctionName();
+        final String port = TestHelper.getFreeTcpPort();
+        final ZMQSession rep = factory.responder("tcp://*:" + port);
+        final Future<?> loop = rep.startLoop(msg -> {
+            rep.sendMessage(msg);
+            return -1;
+        }, executor);
+        final ZMQSession req = factory.requester("tcp://127.0.0.1:" + port);
+        req.setTimeout(timeout);
+        assertTrue(req.sendMessage("last"));
+        assertEquals("last", req.readMessage());
+        loop.get();
+
+        // socket is not polled anymore
+        assertTrue(req.sendMessage("ignored"));
+        req.setTimeout(200);
+        try {
+            req.readMessage();
+            fail("Stopped loop replied");
+        } catch (BusSessionTimeoutException e) {
+            logger.debug("Expected timeout", e);
+        }
+        req.close();
+        rep.close();
+    }
+
+    @Test(timeout = 5000)
+    public void busySocketStaysRegistered() throws Exception {
+        showFunctionName();
+        final String port = TestHelper.getFreeTcpPort();
+        final ZMQSession rep = factory.responder("tcp://*:" + port);
+        final CountDownLatch handling = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final Future<?> loop = rep.startLoop(msg -> {
+            handling.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            rep.sendMessage(msg);
+            return 0;
+        }, executor);
+        final ZMQSession req = factory.requester("tcp://127.0.0.1:" + port);
+        req.setTimeout(timeout);
+        assertTrue(req.sendMessage("first"));
+        handling.await();
+        // responder is only masked while message is handled, not unregistered
+        assertEquals(2, factory.getEventLoop().getRegisteredSocketCount());
+        release.countDown();
+        assertEquals("first", req.readMessage());
+        assertTrue(req.sendMessage("second"));
+        assertEquals("second", req.readMessage());
+        rep.stopLoop();
+        loop.get();
+        assertEquals(1, factory.getEventLoop().getRegisteredSocketCount());
+        req.close();
+        rep.close();
+    }
+
+    @Test(timeout = 5000)
+    public void cancelledTimerNotRun() throws Exception {
+        showFunctionName();
+        final ZMQEventLoop eventLoop = factory.getEventLoop();
+        final AtomicBoolean cancelledRun = new AtomicBoolean();
+        final CountDownLatch fired = new CountDownLatch(1);
+        eventLoop.schedule(() -> cancelledRun.set(true), 100, TimeUnit.MILLISECONDS).cancel();
+        eventLoop.schedule(fired::countDown, 300, TimeUnit.MILLISECONDS);
+        fired.await();
+        assertFalse(cancelledRun.get());
+    }
+}
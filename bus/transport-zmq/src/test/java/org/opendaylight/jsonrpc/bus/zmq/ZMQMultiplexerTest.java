@@ -0,0 +1,138 @@
+/*
+ * Copyright (c) 2017 Brocade Communications Systems, Inc. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.jsonrpc.bus.zmq;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.opendaylight.jsonrpc.bus.BusSessionTimeoutException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.zeromq.ZContext;
+
+/**
+ * Tests for requester sessions sharing single connection.
+ */
+public class ZMQMultiplexerTest {
+    private static ZMQFactory factory;
+    private static ZMQSession rep;
+    private static ZMQSession req1;
+    private static ZMQSession req2;
+
+    static Logger logger;
+    static int timeout = 500; // 0.5 second wait
+
+    private static void showFunctionName() {
+        logger.info(Thread.currentThread().getStackTrace()[2].getMethodName());
+    }
+
+    @BeforeClass
+    public static void setup() {
+        logger = LoggerFactory.getLogger(ZMQMultiplexerTest.class);
+        showFunctionName();
+
+        factory = new ZMQFactory();
+        assertNotNull(factory);
+
+        String port = TestHelper.getFreeTcpPort();
+        rep = factory.responder("tcp://*:" + port);
+        rep.setTimeout(timeout);
+
+        req1 = factory.requester("tcp://127.0.0.1:" + port);
+        req1.setTimeout(timeout);
+        req2 = factory.requester("tcp://127.0.0.1:" + port);
+        req2.setTimeout(timeout);
+    }
+
+    @Test
+    public void repliesRoutedToOriginator() throws BusSessionTimeoutException {
+        showFunctionName();
+        assertTrue(req1.sendMessage("A"));
+        assertTrue(req2.sendMessage("B"));
+
+        // responder sees requests in order they were sent
+        String rxMsg = rep.readMessage();
+        assertEquals("A", rxMsg);
+        rep.sendMessage("reply-A");
+        rxMsg = rep.readMessage();
+        assertEquals("B", rxMsg);
+        rep.sendMessage("reply-B");
+
+        // read replies in reverse order
+        assertEquals("reply-B", req2.readMessage());
+        assertEquals("reply-A", req1.readMessage());
+    }
+
+    @Test(timeout = 2000)
+    public void staleReplyDiscarded() throws BusSessionTimeoutException {
+        showFunctionName();
+        assertTrue(req1.sendMessage("slow"));
+        assertEquals("slow", rep.readMessage());
+        try {
+            req1.readMessage();
+        } catch (BusSessionTimeoutException e) {
+            logger.debug("Expected timeout", e);
+        }
+        // late reply to abandoned request
+        rep.sendMessage("late");
+
+        assertTrue(req1.sendMessage("fast"));
+        assertEquals("fast", rep.readMessage());
+        rep.sendMessage("on-time");
+        assertEquals("on-time", req1.readMessage());
+    }
+
+    @Test(timeout = 2000)
+    public void asyncReplyCompletedOutsideEventLoop() throws Exception {
+        showFunctionName();
+        final CompletableFuture<Boolean> completedInLoop = req1.sendRequestAsync("async")
+                .thenApply(reply -> factory.getEventLoop().inEventLoop());
+        assertEquals("async", rep.readMessage());
+        rep.sendMessage("async-reply");
+        assertFalse(completedInLoop.get());
+    }
+
+    @Test(timeout = 2000)
+    public void unsentRequestFailsReceive() throws Exception {
+        showFunctionName();
+        final ZContext context = new ZContext();
+        final ZMQMultiplexer multiplexer = new ZMQMultiplexer(context, factory.getEventLoop());
+        try {
+            final ZMQMultiplexer.Channel channel = multiplexer.attach("tcp://127.0.0.1:" + TestHelper.getFreeTcpPort());
+            // shared socket is gone, so request can't be sent
+            channel.close();
+            assertTrue(channel.send("lost"));
+            try {
+                channel.receive(5000);
+                fail("Receive should fail without waiting for timeout");
+            } catch (BusSessionTimeoutException e) {
+                logger.debug("Expected failure", e);
+            }
+        } finally {
+            multiplexer.close();
+            context.close();
+        }
+    }
+
+    @AfterClass
+    public static void teardown() {
+        showFunctionName();
+        req1.close();
+        req2.close();
+        rep.close();
+        factory.close();
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright (c) 2017 Brocade Communications Systems, Inc. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.jsonrpc.bus.zmq;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.fail;
+
+import java.util.Arrays;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.opendaylight.jsonrpc.bus.BusSessionTimeoutException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Tests for subscriber session subscribed to multiple topics.
+ */
+public class ZMQSessionPubSubMultiTopicTest {
+    private static final Logger logger = LoggerFactory.getLogger(ZMQSessionPubSubMultiTopicTest.class);
+    private static final String topic1 = "notification-a";
+    private static final String topic2 = "notification-b";
+    private static final String topic3 = "notification-c";
+
+    private static ZMQFactory factory;
+    private static ZMQSession pub;
+    private static ZMQSession sub;
+
+    static int timeout = 500; // 0.5 second wait
+
+    static void showFunctionName() {
+        logger.info(Thread.currentThread().getStackTrace()[2].getMethodName());
+    }
+
+    @BeforeClass
+    public static void setup() throws InterruptedException {
+        showFunctionName();
+
+        factory = new ZMQFactory();
+        assertNotNull(factory);
+
+        String port = TestHelper.getFreeTcpPort();
+        pub = factory.publisher("tcp://*:" + port);
+        pub.setTimeout(timeout);
+
+        // single socket subscribed to two of three topics
+        sub = factory.subscriber("tcp://127.0.0.1:" + port, Arrays.asList(topic1, topic2));
+        sub.setTimeout(timeout);
+
+        // Wait for sub to actually join
+        Thread.sleep(200);
+    }
+
+    @Test
+    public void multiTopicSendReceive() throws BusSessionTimeoutException {
+        showFunctionName();
+
+        pub.sendMessage(topic3, "filtered");
+        pub.sendMessage(topic2, "second");
+        pub.sendMessage(topic1, "first");
+
+        // topic frame is stripped, whichever subscription it matched
+        assertEquals("second", sub.readMessage());
+        assertEquals("first", sub.readMessage());
+
+        try {
+            String rxMsg = sub.readMessage();
+            fail("Received a message : " + rxMsg);
+        } catch (BusSessionTimeoutException e) {
+            logger.debug("Expected timeout", e);
+        }
+    }
+
+    @AfterClass
+    public static void teardown() {
+        showFunctionName();
+        pub.close();
+        sub.close();
+        factory.close();
+    }
+}
@@ -15,10 +15,16 @@ import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.assertTrue;
 
+import java.lang.management.ManagementFactory;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+
 import org.junit.AfterClass;
 import org.junit.BeforeClass;
 import org.junit.Test;
 import org.opendaylight.jsonrpc.bus.BusSessionTimeoutException;
+import org.opendaylight.jsonrpc.bus.metrics.JmxMetricRegistry;
 import org.opendaylight.jsonrpc.bus.zmq.ZMQFactory;
 import org.opendaylight.jsonrpc.bus.zmq.ZMQSession;
 import org.slf4j.Logger;
@@ -101,6 +107,44 @@ public class ZMQSessionTest {
         assertEquals(msg2, rxMsg);
     }
 
+    @Test
+    public void reqRepMetrics() throws BusSessionTimeoutException {
+        showFunctionName();
+        final String port = TestHelper.getFreeTcpPort();
+        final ZMQSession rep2 = factory.responder("tcp://*:" + port);
+        final ZMQSession req2 = factory.requester("tcp://127.0.0.1:" + port);
+        rep2.setTimeout(timeout);
+        req2.setTimeout(timeout);
+        req2.sendMessage(msg1);
+        assertEquals(msg1, rep2.readMessage());
+        rep2.sendMessage(msg3);
+        assertEquals(msg3, req2.readMessage());
+
+        final String reqPrefix = "bus.requester.tcp://127.0.0.1:" + port;
+        assertEquals(1L, counterValue(reqPrefix + ".messages-sent"));
+        assertEquals((long) msg1.length(), counterValue(reqPrefix + ".bytes-sent"));
+        assertEquals(1L, counterValue(reqPrefix + ".messages-received"));
+        assertEquals((long) msg3.length(), counterValue(reqPrefix + ".bytes-received"));
+        final String repPrefix = "bus.responder.tcp://*:" + port;
+        assertEquals(1L, counterValue(repPrefix + ".messages-received"));
+        assertEquals(1L, counterValue(repPrefix + ".messages-sent"));
+        req2.close();
+        rep2.close();
+        // metrics are unregistered once last session of endpoint is closed
+        final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        assertFalse(server.isRegistered(JmxMetricRegistry.objectName("Counter", reqPrefix + ".messages-sent")));
+        assertFalse(server.isRegistered(JmxMetricRegistry.objectName("Counter", repPrefix + ".messages-sent")));
+    }
+
+    private static Object counterValue(String name) {
+        try {
+            return ManagementFactory.getPlatformMBeanServer()
+                    .getAttribute(JmxMetricRegistry.objectName("Counter", name), "Count");
+        } catch (JMException e) {
+            throw new AssertionError("Metric " + name + " is not registered", e);
+        }
+    }
+
     @Test
     public void pubSubSendReceive() throws InterruptedException, BusSessionTimeoutException 
     {
@@ -11,45 +11,90 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
-import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
+import java.util.function.Consumer;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 
-import org.opendaylight.controller.md.sal.common.api.data.TransactionCommitFailedException;
 import org.opendaylight.controller.md.sal.dom.api.DOMDataWriteTransaction;
 import org.opendaylight.controller.md.sal.dom.api.DOMTransactionChain;
 import org.opendaylight.jsonrpc.model.TransactionFactory;
 
 import com.google.common.collect.ImmutableList;
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.SettableFuture;
 
+/**
+ * State of single remote transaction. Modifications are applied using
+ * {@link #modify(Consumer)} while holding lock of context, same lock is held
+ * when transaction is submitted or cancelled, so modifications can't race with
+ * submission. Modification of transaction which was already submitted,
+ * cancelled or expired is rejected with {@link IllegalStateException}.
+ * Different transactions are independent of each other. Transaction is
+ * committed using {@link #submitAsync()}, which does not wait for datastore,
+ * errors are recorded once commit completes.
+ *
+ * <p>
+ * Transaction allocated from {@link DOMTransactionChain} must be submitted or
+ * cancelled before next transaction can be allocated from same chain.
+ */
 public class DataModificationContext implements AutoCloseable {
-    private DOMTransactionChain chain;
-    private List<Throwable> errors = Collections.emptyList();
+    private final DOMTransactionChain chain;
+    private volatile List<Throwable> errors = Collections.emptyList();
     private List<DOMDataWriteTransaction> txs = new ArrayList<>();
     private final AtomicLong completed = new AtomicLong(-1);
+    // null until transaction is submitted
+    private volatile ListenableFuture<Boolean> result;
+    // why transaction no longer accepts modifications, null while it is open
+    private String closedReason;
 
     public DataModificationContext(@Nonnull final TransactionFactory transactionFactory) {
+        this(transactionFactory, null);
+    }
+
+    /**
+     * Create context of transaction which belongs to transaction chain.
+     *
+     * @param transactionFactory factory which allocates transactions from
+     *            chain
+     * @param chain {@link DOMTransactionChain} this transaction belongs to,
+     *            can be null
+     */
+    public DataModificationContext(@Nonnull final TransactionFactory transactionFactory,
+            @Nullable final DOMTransactionChain chain) {
         Objects.requireNonNull(transactionFactory);
+        this.chain = chain;
         txs.add(transactionFactory.get());
     }
 
     /**
-     * Allocates new transaction
+     * Apply modification to transaction.
      *
-     * @return {@link DOMDataWriteTransaction}
+     * @param modification modification to apply, invoked with lock of this
+     *            context held
+     * @throws IllegalStateException if transaction was already submitted,
+     *             cancelled or expired
      */
-    public DOMDataWriteTransaction newWriteTransaction() {
-        return txs.get(0);
+    public synchronized void modify(@Nonnull Consumer<DOMDataWriteTransaction> modification) {
+        if (closedReason != null) {
+            throw new IllegalStateException("Transaction was already " + closedReason);
+        }
+        modification.accept(txs.get(0));
     }
 
     /**
      * Cancel all chained transactions.
      * @return true if no transaction has been allocated.
      */
-    public boolean cancel() {
+    public synchronized boolean cancel() {
+        if (closedReason == null) {
+            closedReason = "cancelled";
+        }
         try {
             if (txs.isEmpty()) {
                 // there is nothing no cancel
@@ -62,23 +107,111 @@ public class DataModificationContext implements AutoCloseable {
     }
 
     /**
-     * Commits all chained transactions and collect any potential errors.
+     * Commits all chained transactions and collect any potential errors,
+     * waiting until datastore completes commit.
      *
      * @return true if and only if all transactions in chain succeeded
      * @see #isSuccess()
+     * @see #submitAsync()
      */
     public boolean submit() {
         try {
-            // there is nothing to submit
-            if (txs.isEmpty()) {
-                return false;
-            }
-            errors = txs.stream().map(DataModificationContext::extractError)
-                    .flatMap(o -> o.isPresent() ? Stream.of(o.get()) : Stream.empty()).collect(Collectors.toList());
-            return errors.isEmpty();
-        } finally {
+            return submitAsync().get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (ExecutionException e) {
+            // not expected, failures are recorded as errors
+            return false;
+        }
+    }
+
+    /**
+     * Commits all chained transactions without waiting for datastore. Errors
+     * are collected and completion timestamp is set once all transactions
+     * complete. Repeated invocation returns same future.
+     *
+     * @return future which completes with true if and only if all transactions
+     *         in chain succeeded
+     */
+    public synchronized ListenableFuture<Boolean> submitAsync() {
+        if (result != null) {
+            return result;
+        }
+        if (closedReason == null) {
+            closedReason = "submitted";
+        }
+        // there is nothing to submit
+        if (txs.isEmpty()) {
             completed.set(System.currentTimeMillis());
+            result = Futures.immediateFuture(false);
+            return result;
         }
+        final SettableFuture<Boolean> future = SettableFuture.create();
+        result = future;
+        final List<Throwable> collected = Collections.synchronizedList(new ArrayList<>());
+        final AtomicInteger remaining = new AtomicInteger(txs.size());
+        final Runnable onComplete = () -> {
+            if (remaining.decrementAndGet() == 0) {
+                errors = ImmutableList.copyOf(collected);
+                completed.set(System.currentTimeMillis());
+                future.set(errors.isEmpty());
+            }
+        };
+        for (final DOMDataWriteTransaction tx : txs) {
+            final ListenableFuture<Void> submitted;
+            try {
+                submitted = tx.submit();
+            } catch (RuntimeException e) {
+                // such as transaction which was already cancelled
+                collected.add(e);
+                onComplete.run();
+                continue;
+            }
+            Futures.addCallback(submitted, new FutureCallback<Void>() {
+                @Override
+                public void onSuccess(Void value) {
+                    onComplete.run();
+                }
+
+                @Override
+                public void onFailure(Throwable t) {
+                    collected.add(t);
+                    onComplete.run();
+                }
+            });
+        }
+        return future;
+    }
+
+    /**
+     * Check if transaction was neither submitted nor cancelled yet.
+     *
+     * @return true if transaction still accepts modifications
+     */
+    public synchronized boolean isOpen() {
+        return result == null && completed.get() == -1L;
+    }
+
+    /**
+     * Get transaction chain this transaction belongs to.
+     *
+     * @return {@link DOMTransactionChain} or null if transaction is standalone
+     */
+    @Nullable
+    public DOMTransactionChain getChain() {
+        return chain;
+    }
+
+    /**
+     * Check if transaction was submitted, but datastore did not complete
+     * commit yet.
+     *
+     * @return true if commit is in progress
+     */
+    public boolean isPending() {
+        final ListenableFuture<Boolean> current = result;
+        return current != null && !current.isDone();
     }
 
     /**
@@ -105,8 +238,8 @@ public class DataModificationContext implements AutoCloseable {
      *
      * @param e {@link Throwable} instance to add
      */
-    public void addError(Throwable e) {
-        errors.add(e);
+    public synchronized void addError(Throwable e) {
+        errors = ImmutableList.<Throwable>builder().addAll(errors).add(e).build();
     }
 
     /**
@@ -118,23 +251,26 @@ public class DataModificationContext implements AutoCloseable {
         return ImmutableList.copyOf(errors);
     }
 
-    /*
-     * Helper method which perform transaction submission and extract Exception
+    /**
+     * Cancel transaction unless it was already submitted or cancelled. Chain
+     * is owned by its session, so it is left open.
      */
-    private static Optional<Throwable> extractError(DOMDataWriteTransaction tx) {
-        try {
-            tx.submit().checkedGet();
-            return Optional.empty();
-        } catch (TransactionCommitFailedException e) {
-            return Optional.of(e);
+    @Override
+    public synchronized void close() {
+        if (isOpen()) {
+            cancel();
         }
     }
 
-    @Override
-    public void close() throws Exception {
-        if (chain != null) {
-            chain.close();
+    /**
+     * Close transaction which expired, so that later modifications are
+     * rejected as such.
+     */
+    public synchronized void expire() {
+        if (closedReason == null) {
+            closedReason = "expired";
         }
+        close();
     }
 
     @Override
@@ -7,9 +7,12 @@
  */
 package org.opendaylight.jsonrpc.impl;
 
-import java.util.ArrayList;
-import java.util.Iterator;
-import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
 
 import org.opendaylight.controller.md.sal.binding.impl.AbstractWriteTransaction;
 import org.opendaylight.controller.md.sal.binding.impl.BindingToNormalizedNodeCodec;
@@ -18,15 +21,29 @@ import org.opendaylight.controller.md.sal.common.impl.util.compat.DataNormalizat
 import org.opendaylight.controller.md.sal.common.impl.util.compat.DataNormalizationOperation;
 import org.opendaylight.controller.md.sal.dom.api.DOMDataBroker;
 import org.opendaylight.controller.md.sal.dom.api.DOMDataWriteTransaction;
+import org.opendaylight.controller.md.sal.dom.api.DOMTransactionChain;
 import org.opendaylight.jsonrpc.model.ForwardingDOMDataWriteTransaction;
 import org.opendaylight.jsonrpc.model.TransactionFactory;
 import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifierWithPredicates;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeWithValue;
 import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.PathArgument;
 import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNode;
 
+import com.google.common.annotations.VisibleForTesting;
+
 /**
  * Implementation of {@link TransactionFactory} which follows semantics of
- * {@link AbstractWriteTransaction}
+ * {@link AbstractWriteTransaction}. Transactions are allocated either from
+ * {@link DOMDataBroker} or from {@link DOMTransactionChain}.
+ *
+ * <p>
+ * Normalization operations are resolved once per schema path, that is path
+ * without list keys and leaf-list values, and are shared by all transactions
+ * of factory and of factories derived from it using
+ * {@link #forChain(DOMTransactionChain)}. They are resolved again once data
+ * normalizer of codec changes.
  * 
  * @author <a href="mailto:rkosegi@brocade.com">Richard Kosegi</a>
  *
@@ -34,42 +51,153 @@ import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNode;
 @SuppressWarnings("deprecation")
 class EnsureParentTransactionFactory implements TransactionFactory {
     private final BindingToNormalizedNodeCodec codec;
-    protected final DOMDataBroker domDataBroker;
+    private final Supplier<DOMDataWriteTransaction> source;
+    private final AtomicReference<OperationCache> operations;
 
     public EnsureParentTransactionFactory(final DOMDataBroker domDataBroker, final BindingToNormalizedNodeCodec codec) {
-        this.domDataBroker = domDataBroker;
+        this(domDataBroker::newWriteOnlyTransaction, codec, new AtomicReference<>());
+    }
+
+    public EnsureParentTransactionFactory(final DOMTransactionChain chain, final BindingToNormalizedNodeCodec codec) {
+        this(chain::newWriteOnlyTransaction, codec, new AtomicReference<>());
+    }
+
+    private EnsureParentTransactionFactory(final Supplier<DOMDataWriteTransaction> source,
+            final BindingToNormalizedNodeCodec codec, final AtomicReference<OperationCache> operations) {
+        this.source = Objects.requireNonNull(source);
         this.codec = codec;
+        this.operations = operations;
+    }
+
+    /**
+     * Create factory which allocates transactions from given chain and
+     * shares resolved normalization operations with this factory.
+     *
+     * @param chain {@link DOMTransactionChain} to allocate transactions from
+     * @return new {@link EnsureParentTransactionFactory}
+     */
+    EnsureParentTransactionFactory forChain(final DOMTransactionChain chain) {
+        return new EnsureParentTransactionFactory(chain::newWriteOnlyTransaction, codec, operations);
     }
 
     @Override
     public DOMDataWriteTransaction get() {
-        return new ForwardingDOMDataWriteTransaction(domDataBroker.newWriteOnlyTransaction()) {
-            @Override
-            public void merge(LogicalDatastoreType store, YangInstanceIdentifier path, NormalizedNode<?, ?> data) {
-                ensureParentsByMerge(store, path);
-                super.merge(store, path, data);
-            }
+        return new EnsureParentTransaction(source.get());
+    }
+
+    @VisibleForTesting
+    int cachedOperationCount() {
+        final OperationCache current = operations.get();
+        return current != null ? current.operations.size() : 0;
+    }
+
+    private OperationCache operations(final DataNormalizationOperation<?> rootOp) {
+        final OperationCache current = operations.get();
+        if (current != null && current.rootOp == rootOp) {
+            return current;
+        }
+        final OperationCache fresh = new OperationCache(rootOp);
+        operations.compareAndSet(current, fresh);
+        return fresh;
+    }
+
+    /*
+     * List entries and leaf-list entries share normalization operation, so
+     * their keys and values are left out of cache key.
+     */
+    private static PathArgument withoutPredicates(final PathArgument arg) {
+        if (arg instanceof NodeIdentifierWithPredicates || arg instanceof NodeWithValue) {
+            return new NodeIdentifier(arg.getNodeType());
+        }
+        return arg;
+    }
+
+    /*
+     * Operations resolved from given root operation, keyed by schema path.
+     */
+    private static class OperationCache {
+        private final DataNormalizationOperation<?> rootOp;
+        private final Map<YangInstanceIdentifier, DataNormalizationOperation<?>> operations =
+                new ConcurrentHashMap<>();
+
+        private OperationCache(final DataNormalizationOperation<?> rootOp) {
+            this.rootOp = rootOp;
+        }
+    }
+
+    /*
+     * Each ancestor is merged at most once per transaction, unless it is
+     * removed or replaced by later operation.
+     */
+    private class EnsureParentTransaction extends ForwardingDOMDataWriteTransaction {
+        private final Map<LogicalDatastoreType, Set<YangInstanceIdentifier>> ensured = new ConcurrentHashMap<>();
+
+        EnsureParentTransaction(DOMDataWriteTransaction delegate) {
+            super(delegate);
+        }
+
+        @Override
+        public void merge(LogicalDatastoreType store, YangInstanceIdentifier path, NormalizedNode<?, ?> data) {
+            ensureParentsByMerge(store, path);
+            super.merge(store, path, data);
+        }
+
+        @Override
+        public void put(LogicalDatastoreType store, YangInstanceIdentifier path, NormalizedNode<?, ?> data) {
+            invalidate(store, path);
+            super.put(store, path, data);
+        }
 
-            private void ensureParentsByMerge(final LogicalDatastoreType store,
-                    final YangInstanceIdentifier normalizedPath) {
-                List<PathArgument> currentArguments = new ArrayList<>();
-                DataNormalizationOperation<?> currentOp = codec.getDataNormalizer().getRootOperation();
-                Iterator<PathArgument> iterator = normalizedPath.getPathArguments().iterator();
-                while (iterator.hasNext()) {
-                    PathArgument currentArg = iterator.next();
-                    try {
-                        currentOp = currentOp.getChild(currentArg);
-                    } catch (DataNormalizationException e) {
-                        throw new IllegalArgumentException(
-                                String.format("Invalid child encountered in path %s", normalizedPath), e);
-                    }
-                    currentArguments.add(currentArg);
-                    YangInstanceIdentifier currentPath = YangInstanceIdentifier.create(currentArguments);
+        @Override
+        public void delete(LogicalDatastoreType store, YangInstanceIdentifier path) {
+            invalidate(store, path);
+            super.delete(store, path);
+        }
 
+        private void invalidate(final LogicalDatastoreType store, final YangInstanceIdentifier path) {
+            final Set<YangInstanceIdentifier> paths = ensured.get(store);
+            if (paths != null) {
+                paths.removeIf(path::contains);
+            }
+        }
+
+        private void ensureParentsByMerge(final LogicalDatastoreType store,
+                final YangInstanceIdentifier normalizedPath) {
+            final Set<YangInstanceIdentifier> paths = ensured.computeIfAbsent(store,
+                k -> ConcurrentHashMap.newKeySet());
+            DataNormalizationOperation<?> currentOp = codec.getDataNormalizer().getRootOperation();
+            final OperationCache cache = operations(currentOp);
+            YangInstanceIdentifier currentPath = YangInstanceIdentifier.EMPTY;
+            YangInstanceIdentifier schemaPath = YangInstanceIdentifier.EMPTY;
+            for (final PathArgument currentArg : normalizedPath.getPathArguments()) {
+                currentPath = currentPath.node(currentArg);
+                schemaPath = schemaPath.node(withoutPredicates(currentArg));
+                currentOp = resolve(cache, currentOp, schemaPath, currentArg, normalizedPath);
+                if (!paths.contains(currentPath)) {
                     delegate.merge(store, currentPath, currentOp.createDefault(currentArg));
+                    paths.add(currentPath);
                 }
             }
-        };
-    }
+        }
 
+        private DataNormalizationOperation<?> resolve(final OperationCache cache,
+                final DataNormalizationOperation<?> parentOp, final YangInstanceIdentifier schemaPath,
+                final PathArgument currentArg, final YangInstanceIdentifier normalizedPath) {
+            final DataNormalizationOperation<?> cached = cache.operations.get(schemaPath);
+            if (cached != null) {
+                return cached;
+            }
+            final DataNormalizationOperation<?> op;
+            try {
+                op = parentOp.getChild(currentArg);
+            } catch (DataNormalizationException e) {
+                throw new IllegalArgumentException(
+                        String.format("Invalid child encountered in path %s", normalizedPath), e);
+            }
+            if (op != null) {
+                cache.operations.put(schemaPath, op);
+            }
+            return op;
+        }
+    }
 }
@@ -15,6 +15,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 
+import org.opendaylight.jsonrpc.bus.PayloadTrace;
 import org.opendaylight.jsonrpc.model.JSONRPCArg;
 import org.opendaylight.yangtools.yang.common.QName;
 import org.opendaylight.yangtools.yang.common.QNameModule;
@@ -114,7 +115,7 @@ public class JsonConverter {
      * @return data argument converted to JsonObject as expected by RPC calls
      */
     public JsonObject rpcConvert(SchemaPath path, ContainerNode data) {
-        LOG.info("Converting node {} at path {}", data, path);
+        PayloadTrace.trace(LOG, "Converting node at path {} : {}", path, data);
         final StringWriter writer = new StringWriter();
         final JsonWriter jsonWriter = JsonWriterFactory.createJsonWriter(writer);
         final NormalizedNodeStreamWriter streamWriter = Util.wrapWithAnyXmlNullValueCallBack(JSONNormalizedNodeStreamWriter.createNestedWriter(
@@ -429,7 +430,7 @@ public class JsonConverter {
         if (result instanceof MapNode) {
             result = Iterables.getOnlyElement(((MapNode) result).getValue());
         }
-        LOG.debug("Parsed result : {}", result);
+        PayloadTrace.trace(LOG, "Parsed result : {}", result);
         return result;
     }
 
@@ -21,6 +21,7 @@ import java.util.concurrent.TimeoutException;
 import org.opendaylight.controller.md.sal.dom.api.DOMRpcException;
 import org.opendaylight.controller.md.sal.dom.spi.DefaultDOMRpcResult;
 import org.opendaylight.controller.md.sal.dom.api.DOMRpcResult;
+import org.opendaylight.jsonrpc.bus.messagelib.Deadline;
 import org.opendaylight.jsonrpc.model.RpcExceptionImpl;
 
 import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNode;
@@ -53,11 +54,24 @@ final class JsonRPCDOMRpcResultFuture implements CheckedFuture<DOMRpcResult, DOM
     private final NormalizedNode<?, ?> input;
     private final SchemaPath type;
     private boolean pollingForResult;
+    private volatile Deadline deadline;
 
     public JsonRPCDOMRpcResultFuture(
             SettableFuture<DOMRpcResult> jsonRPCFuture, SettableFuture<String> uuidFuture, JsonRPCtoRPCBridge bridge,
             final SchemaPath type, final NormalizedNode<?, ?> input
         ) {
+        this(jsonRPCFuture, uuidFuture, bridge, type, input, null);
+    }
+
+    /**
+     * Create future of RPC invoked within given {@link Deadline}, which is
+     * sent along with request.
+     */
+    public JsonRPCDOMRpcResultFuture(
+            SettableFuture<DOMRpcResult> jsonRPCFuture, SettableFuture<String> uuidFuture, JsonRPCtoRPCBridge bridge,
+            final SchemaPath type, final NormalizedNode<?, ?> input, final Deadline deadline
+        ) {
+        this.deadline = deadline;
         this.jsonRPCFuture = jsonRPCFuture;
         this.uuidFuture = uuidFuture;
         this.bridge = bridge;
@@ -88,6 +102,21 @@ final class JsonRPCDOMRpcResultFuture implements CheckedFuture<DOMRpcResult, DOM
     boolean isPollingForResult() {
         return this.pollingForResult;
     }
+    /**
+     * Deadline bound to thread which invoked RPC, narrowed by caller waiting
+     * for result with timeout before request was sent, if any. Request which
+     * was not yet sent is not going to be sent once deadline expires.
+     */
+    Deadline getDeadline() {
+        return deadline;
+    }
+
+    private void updateDeadline(long timeout, TimeUnit unit) {
+        final Deadline requested = Deadline.after(timeout, unit);
+        final Deadline current = deadline;
+        deadline = current == null ? requested : current.earliest(requested);
+    }
+
     void startPollingForResult() {
         this.pollingForResult = true;
     }
@@ -150,6 +179,7 @@ final class JsonRPCDOMRpcResultFuture implements CheckedFuture<DOMRpcResult, DOM
     @Override
     public DOMRpcResult get(final long timeout, final TimeUnit unit) throws InterruptedException,
             TimeoutException, ExecutionException {
+        updateDeadline(timeout, unit);
         this.uuid = this.uuidFuture.get(timeout, unit);
         if (uuid != null) {
             this.bridge.kick(this);
@@ -183,6 +213,7 @@ final class JsonRPCDOMRpcResultFuture implements CheckedFuture<DOMRpcResult, DOM
     @Override
     public DOMRpcResult checkedGet(final long timeout, final TimeUnit unit) throws TimeoutException, DOMRpcException {
         try {
+            updateDeadline(timeout, unit);
             this.uuid = this.uuidFuture.get(timeout, unit);
             if (uuid != null) {
                 this.bridge.kick(this);
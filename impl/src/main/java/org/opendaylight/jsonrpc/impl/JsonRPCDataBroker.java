@@ -12,6 +12,8 @@ import static org.opendaylight.jsonrpc.impl.Util.store2str;
 
 import java.util.Collections;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import javax.annotation.Nonnull;
 
@@ -49,6 +51,8 @@ public class JsonRPCDataBroker implements DOMDataBroker, AutoCloseable {
     private final TransportFactory transportFactory;
     private final HierarchicalEnumMap<JsonElement, DataType, String> pathMap;
     private static final JsonObject TOP = new JsonObject();
+    /* Concurrent reads of all transactions to same endpoint are coalesced */
+    private final ConcurrentMap<String, ReadBatcher> readBatchers = new ConcurrentHashMap<>();
 
     /**
      * Instantiates a new JSON-RPC data broker.
@@ -89,17 +93,17 @@ public class JsonRPCDataBroker implements DOMDataBroker, AutoCloseable {
 
     @Override
     public DOMDataReadOnlyTransaction newReadOnlyTransaction() {
-        return new JsonRPCTx(transportFactory, peer.getName(), pathMap, jsonConverter, schemaContext);
+        return new JsonRPCTx(transportFactory, peer.getName(), pathMap, jsonConverter, schemaContext, readBatchers);
     }
 
     @Override
     public DOMDataWriteTransaction newWriteOnlyTransaction() {
-        return new JsonRPCTx(transportFactory, peer.getName(), pathMap, jsonConverter, schemaContext);
+        return new JsonRPCTx(transportFactory, peer.getName(), pathMap, jsonConverter, schemaContext, readBatchers);
     }
 
     @Override
     public DOMDataReadWriteTransaction newReadWriteTransaction() {
-        return new JsonRPCTx(transportFactory, peer.getName(), pathMap, jsonConverter, schemaContext);
+        return new JsonRPCTx(transportFactory, peer.getName(), pathMap, jsonConverter, schemaContext, readBatchers);
     }
 
     @Override
@@ -109,7 +113,8 @@ public class JsonRPCDataBroker implements DOMDataBroker, AutoCloseable {
 
     @Override
     public void close() {
-        // no-op
+        readBatchers.values().forEach(ReadBatcher::close);
+        readBatchers.clear();
     }
 
     @Override
@@ -11,19 +11,25 @@ import java.io.IOException;
 import java.io.StringReader;
 import java.net.URISyntaxException;
 import java.util.Collection;
+import java.util.ArrayList;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.stream.Collectors;
 
 import javax.annotation.Nonnull;
 
 import org.opendaylight.controller.md.sal.dom.api.DOMNotification;
 import org.opendaylight.controller.md.sal.dom.api.DOMNotificationListener;
 import org.opendaylight.controller.md.sal.dom.api.DOMNotificationService;
+import org.opendaylight.jsonrpc.bus.PayloadTrace;
 import org.opendaylight.jsonrpc.bus.jsonrpc.JsonRpcException;
 import org.opendaylight.jsonrpc.bus.jsonrpc.JsonRpcRequestMessage;
 import org.opendaylight.jsonrpc.bus.messagelib.NotificationMessageHandler;
+import org.opendaylight.jsonrpc.bus.messagelib.ThreadedSession;
 import org.opendaylight.jsonrpc.bus.messagelib.TransportFactory;
+import org.opendaylight.jsonrpc.bus.metrics.Metrics;
 import org.opendaylight.jsonrpc.hmap.DataType;
 import org.opendaylight.jsonrpc.hmap.HierarchicalEnumMap;
 import org.opendaylight.jsonrpc.model.JsonRpcNotification;
@@ -49,6 +55,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.google.common.base.Preconditions;
+import com.google.common.collect.ArrayListMultimap;
 import com.google.common.collect.HashMultimap;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Multimap;
@@ -62,6 +69,10 @@ public class JsonRPCNotificationService implements DOMNotificationService, Notif
     private final Multimap<SchemaPath, DOMNotificationListener> listeners = HashMultimap.create();
     private final SchemaContext schemaContext;
     private final Map<String, NotificationState> mappedNotifications = new HashMap<>();
+    // one subscriber per endpoint, routing is done by method name
+    private final List<ThreadedSession> subscribers = new ArrayList<>();
+    // notifications dispatched per type
+    private final List<String> metricNames = new ArrayList<>();
 
     public JsonRPCNotificationService(@Nonnull Peer peer, @Nonnull SchemaContext schemaContext,
             @Nonnull HierarchicalEnumMap<JsonElement, DataType, String> pathMap,
@@ -76,6 +87,7 @@ public class JsonRPCNotificationService implements DOMNotificationService, Notif
             Util.populateFromEndpointList(pathMap, peer.getNotificationEndpoints(), DataType.NOTIFICATION);
         }
 
+        final Multimap<String, NotificationDefinition> byEndpoint = ArrayListMultimap.create();
         for (final NotificationDefinition def : schemaContext.getNotifications()) {
             final QNameModule qm = def.getQName().getModule();
             final Module module = schemaContext.findModuleByNamespaceAndRevision(qm.getNamespace(), qm.getRevision());
@@ -93,12 +105,24 @@ public class JsonRPCNotificationService implements DOMNotificationService, Notif
             final String notificationEndpoint = getEndpoint(peer, pathMap, governance, path);
             if (notificationEndpoint != null) {
                 LOG.info("Notification {} mapped to {}", topLevel, notificationEndpoint);
-                mappedNotifications.put(def.getQName().getLocalName(),
-                        new NotificationState(def, notificationEndpoint, this, transportFactory));
+                byEndpoint.put(notificationEndpoint, def);
             } else {
                 LOG.error("Notifications {} cannot be mapped, no known endpoint", topLevel);
             }
         }
+        for (final Map.Entry<String, Collection<NotificationDefinition>> entry : byEndpoint.asMap().entrySet()) {
+            final List<String> methods = entry.getValue().stream().map(def -> def.getQName().getLocalName())
+                    .collect(Collectors.toList());
+            final ThreadedSession client = transportFactory.createSubscriber(entry.getKey(), methods, this);
+            subscribers.add(client);
+            entry.getValue().forEach(def -> {
+                final String metric = Metrics.name("notification", peer.getName(), def.getQName().getLocalName(),
+                        "dispatched");
+                metricNames.add(metric);
+                mappedNotifications.put(def.getQName().getLocalName(),
+                        new NotificationState(def, client, Metrics.getRegistry().counter(metric)));
+            });
+        }
     }
 
     private String getEndpoint(Peer peer, HierarchicalEnumMap<JsonElement, DataType, String> pathMap,
@@ -121,11 +145,14 @@ public class JsonRPCNotificationService implements DOMNotificationService, Notif
     @Override
     public void close() {
         // Close all notification listeners
-        mappedNotifications.values().forEach(ns -> {
-            ns.client().stop();
-            ns.client().joinAndClose();
+        subscribers.forEach(client -> {
+            client.stop();
+            client.joinAndClose();
         });
+        subscribers.clear();
         mappedNotifications.clear();
+        metricNames.forEach(Metrics.getRegistry()::remove);
+        metricNames.clear();
         listeners.clear();
     }
 
@@ -136,7 +163,7 @@ public class JsonRPCNotificationService implements DOMNotificationService, Notif
      */
     public synchronized void publishNotification(final DOMNotification notification) {
         listeners.get(notification.getType()).forEach(l -> {
-            LOG.debug("Invoking listener {} with notification {}", l, notification);
+            PayloadTrace.trace(LOG, "Invoking listener {} with notification {}", l, notification);
             l.onNotification(notification);
         });
     }
@@ -199,7 +226,7 @@ public class JsonRPCNotificationService implements DOMNotificationService, Notif
         NotificationState ns;
         Date eventTime = new Date();
 
-        LOG.debug("Got notification {}", notification);
+        PayloadTrace.trace(LOG, "Got notification {}", notification);
         try {
             parsed = notification.getParamsAsObject(JsonElement.class);
             method = notification.getMethod();
@@ -234,9 +261,10 @@ public class JsonRPCNotificationService implements DOMNotificationService, Notif
 
         final DOMNotification deserialized = extractNotification(ns, digested, notificationBuilder, eventTime);
 
-        LOG.debug("Deserialized {}", deserialized);
+        PayloadTrace.trace(LOG, "Deserialized {}", deserialized);
 
         // Publish notification
         publishNotification(deserialized);
+        ns.dispatched().increment();
     }
 }
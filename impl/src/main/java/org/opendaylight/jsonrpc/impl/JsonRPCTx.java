@@ -12,10 +12,14 @@ import static org.opendaylight.jsonrpc.impl.Util.*;
 import java.io.IOException;
 import java.io.StringReader;
 import java.net.URISyntaxException;
+import java.util.AbstractMap;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
-import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.RejectedExecutionException;
 
 import javax.annotation.Nonnull;
 
@@ -25,11 +29,16 @@ import org.opendaylight.controller.md.sal.common.api.data.ReadFailedException;
 import org.opendaylight.controller.md.sal.common.api.data.TransactionCommitFailedException;
 import org.opendaylight.controller.md.sal.dom.api.DOMDataReadOnlyTransaction;
 import org.opendaylight.controller.md.sal.dom.api.DOMDataReadWriteTransaction;
+import org.opendaylight.jsonrpc.bus.messagelib.Deadline;
+import org.opendaylight.jsonrpc.bus.messagelib.DispatchExecutor;
 import org.opendaylight.jsonrpc.bus.messagelib.EndpointRole;
+import org.opendaylight.jsonrpc.bus.messagelib.Span;
 import org.opendaylight.jsonrpc.bus.messagelib.TransportFactory;
 import org.opendaylight.jsonrpc.hmap.DataType;
 import org.opendaylight.jsonrpc.hmap.HierarchicalEnumMap;
+import org.opendaylight.jsonrpc.model.ChunkedRead;
 import org.opendaylight.jsonrpc.model.JSONRPCArg;
+import org.opendaylight.jsonrpc.model.ReadOptions;
 import org.opendaylight.jsonrpc.model.RemoteOmShard;
 import org.opendaylight.mdsal.common.api.MappingCheckedFuture;
 import org.opendaylight.yangtools.yang.common.RpcError.ErrorType;
@@ -37,11 +46,15 @@ import org.opendaylight.yangtools.yang.common.RpcResult;
 import org.opendaylight.yangtools.yang.common.RpcResultBuilder;
 import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
 import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.PathArgument;
+import org.opendaylight.yangtools.yang.data.api.schema.MapEntryNode;
+import org.opendaylight.yangtools.yang.data.api.schema.MapNode;
 import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNode;
 import org.opendaylight.yangtools.yang.data.api.schema.stream.NormalizedNodeStreamWriter;
 import org.opendaylight.yangtools.yang.data.codec.gson.JsonParserStream;
+import org.opendaylight.yangtools.yang.data.impl.schema.ImmutableNodes;
 import org.opendaylight.yangtools.yang.data.impl.schema.ImmutableNormalizedNodeStreamWriter;
 import org.opendaylight.yangtools.yang.data.impl.schema.NormalizedNodeResult;
+import org.opendaylight.yangtools.yang.data.impl.schema.builder.api.CollectionNodeBuilder;
 import org.opendaylight.yangtools.yang.model.api.DataNodeContainer;
 import org.opendaylight.yangtools.yang.model.api.DataSchemaNode;
 import org.opendaylight.yangtools.yang.model.api.ListSchemaNode;
@@ -50,13 +63,16 @@ import org.opendaylight.yangtools.yang.model.api.SchemaNode;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Function;
 import com.google.common.base.Optional;
 import com.google.common.base.Preconditions;
 import com.google.common.base.Strings;
 import com.google.common.util.concurrent.CheckedFuture;
+import com.google.common.util.concurrent.FutureCallback;
 import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.SettableFuture;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 import com.google.gson.stream.JsonReader;
@@ -64,6 +80,12 @@ import com.google.gson.stream.JsonReader;
 @SuppressWarnings("deprecation")
 public class JsonRPCTx implements DOMDataReadWriteTransaction, DOMDataReadOnlyTransaction {
     private static final Logger LOG = LoggerFactory.getLogger(JsonRPCTx.class);
+    /**
+     * System property with maximum number of list entries in single reply of
+     * read, reads are chunked only when it is set and peers must then
+     * implement {@link RemoteOmShard#readChunked(String, String, JsonElement, int)}.
+     */
+    public static final String READ_CHUNK_SIZE = "org.opendaylight.jsonrpc.read-chunk-size";
     private final SchemaContext schemaContext;
     private final String deviceName;
     private final JsonConverter jsonConverter;
@@ -73,6 +95,12 @@ public class JsonRPCTx implements DOMDataReadWriteTransaction, DOMDataReadOnlyTr
     /* Transaction ID */
     private Map<String, RemoteOmShard> endPointMap;
     private Map<String, String> txIdMap;
+    /* Concurrent reads to same endpoint are coalesced */
+    private final Map<String, ReadBatcher> readBatchers = new HashMap<>();
+    /* Batchers shared with other transactions of same mount, if any */
+    private final ConcurrentMap<String, ReadBatcher> sharedReadBatchers;
+    /* Plain reads are chunked when positive */
+    private int readChunkSize = Integer.getInteger(READ_CHUNK_SIZE, 0);
 
     /**
      * Instantiates a new ZMQ Bus Transaction.
@@ -86,6 +114,25 @@ public class JsonRPCTx implements DOMDataReadWriteTransaction, DOMDataReadOnlyTr
     public JsonRPCTx(@Nonnull TransportFactory transportFactory, @Nonnull String deviceName,
             @Nonnull HierarchicalEnumMap<JsonElement, DataType, String> pathMap, @Nonnull JsonConverter jsonConverter,
             @Nonnull SchemaContext schemaContext) {
+        this(transportFactory, deviceName, pathMap, jsonConverter, schemaContext, null);
+    }
+
+    /**
+     * Instantiates a new ZMQ Bus Transaction, which coalesces its reads with
+     * reads of other transactions using given batchers. Batchers are created
+     * on demand and they are owned by caller, which must close them.
+     *
+     * @param transportFactory used to create underlying transport connections
+     * @param deviceName the bus om interface to use
+     * @param pathMap shared instance of {@link HierarchicalEnumMap}
+     * @param jsonConverter the conversion janitor instance
+     * @param schemaContext the schema context
+     * @param sharedReadBatchers {@link ReadBatcher}s keyed by endpoint, null
+     *            to coalesce reads only within this transaction
+     */
+    JsonRPCTx(@Nonnull TransportFactory transportFactory, @Nonnull String deviceName,
+            @Nonnull HierarchicalEnumMap<JsonElement, DataType, String> pathMap, @Nonnull JsonConverter jsonConverter,
+            @Nonnull SchemaContext schemaContext, ConcurrentMap<String, ReadBatcher> sharedReadBatchers) {
         this.transportFactory = Preconditions.checkNotNull(transportFactory);
         Preconditions.checkArgument(!Strings.isNullOrEmpty(deviceName), "Peer name is missing");
         this.deviceName = deviceName;
@@ -94,6 +141,7 @@ public class JsonRPCTx implements DOMDataReadWriteTransaction, DOMDataReadOnlyTr
         this.jsonConverter = Preconditions.checkNotNull(jsonConverter);
         this.endPointMap = new HashMap<>();
         this.txIdMap = new HashMap<>();
+        this.sharedReadBatchers = sharedReadBatchers;
         /*
          * Instantiate our "for real" bus interface. This is a simplification -
          * it assumes that the "ownership" of a device does not change across
@@ -108,16 +156,30 @@ public class JsonRPCTx implements DOMDataReadWriteTransaction, DOMDataReadOnlyTr
         return pathMap.lookup(path, DataType.forDatastore(store)).orElse(null);
     }
 
-    private RemoteOmShard getOmShard(final LogicalDatastoreType store, JsonElement path) {
+    @VisibleForTesting
+    ReadBatcher getReadBatcher(final LogicalDatastoreType store, JsonElement path) {
         final String endpoint = lookupEndPoint(store, path);
-        return endPointMap.computeIfAbsent(endpoint, ep -> {
-            try {
-                final String fixedEndpoint = Util.ensureRole(endpoint, EndpointRole.REQ);
-                return transportFactory.createProxy(RemoteOmShard.class, fixedEndpoint);
-            } catch (URISyntaxException e) {
-                throw new IllegalStateException("Provided URI is invalid", e);
-            }
-        });
+        if (sharedReadBatchers != null) {
+            // shared batcher outlives this transaction, so it has its own proxy
+            return sharedReadBatchers.computeIfAbsent(endpoint, ep -> new ReadBatcher(createOmShard(ep)));
+        }
+        synchronized (this) {
+            final RemoteOmShard omshard = getOmShard(store, path);
+            return readBatchers.computeIfAbsent(endpoint, ep -> new ReadBatcher(omshard));
+        }
+    }
+
+    private synchronized RemoteOmShard getOmShard(final LogicalDatastoreType store, JsonElement path) {
+        return endPointMap.computeIfAbsent(lookupEndPoint(store, path), this::createOmShard);
+    }
+
+    private RemoteOmShard createOmShard(String endpoint) {
+        try {
+            final String fixedEndpoint = Util.ensureRole(endpoint, EndpointRole.REQ);
+            return transportFactory.createProxy(RemoteOmShard.class, fixedEndpoint);
+        } catch (URISyntaxException e) {
+            throw new IllegalStateException("Provided URI is invalid", e);
+        }
     }
 
     private String getTxId(String endpoint) {
@@ -127,15 +189,59 @@ public class JsonRPCTx implements DOMDataReadWriteTransaction, DOMDataReadOnlyTr
     @Override
     public CheckedFuture<Optional<NormalizedNode<?, ?>>, ReadFailedException> read(final LogicalDatastoreType store,
             final YangInstanceIdentifier path) {
+        return read(store, path, ReadOptions.NONE);
+    }
+
+    /**
+     * Read data at path, letting remote peer limit returned data by given
+     * {@link ReadOptions}. When fields are selected, keys of lists must be
+     * selected too, so data can be parsed.
+     *
+     * @param store datastore to read from
+     * @param path path to read
+     * @param options {@link ReadOptions} to send along with request
+     * @return future with data at path
+     * @see DispatchExecutor#clientCalls()
+     */
+    public CheckedFuture<Optional<NormalizedNode<?, ?>>, ReadFailedException> read(final LogicalDatastoreType store,
+            final YangInstanceIdentifier path, final ReadOptions options) {
+        final DispatchExecutor clientCalls = DispatchExecutor.clientCalls();
+        if (clientCalls == null) {
+            return readNow(store, path, options);
+        }
+        // caller gets future right away, read waits for reply on virtual thread
+        final SettableFuture<Optional<NormalizedNode<?, ?>>> future = SettableFuture.create();
+        final Deadline deadline = Deadline.current();
+        final Span span = Span.current();
+        try {
+            clientCalls.execute(() -> {
+                try (Span.Scope scope = span.enter(); Deadline.Scope deadlineScope = Deadline.enter(deadline)) {
+                    future.set(readNow(store, path, options).checkedGet());
+                } catch (ReadFailedException | RuntimeException e) {
+                    future.setException(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            return readNow(store, path, options);
+        }
+        return MappingCheckedFuture.create(future, ReadFailedException.MAPPER);
+    }
+
+    private CheckedFuture<Optional<NormalizedNode<?, ?>>, ReadFailedException> readNow(
+            final LogicalDatastoreType store, final YangInstanceIdentifier path, final ReadOptions options) {
+        if (readChunkSize > 0 && options.isEmpty()) {
+            return readChunked(store, path, readChunkSize);
+        }
         final JSONRPCArg arg = jsonConverter.convert(path, null);
         if (path.getPathArguments().isEmpty()) {
             return readFailure();
         }
-        final RemoteOmShard omshard = getOmShard(store, arg.path);
+        final ReadBatcher batcher = getReadBatcher(store, arg.path);
         /* Read from the bus and adjust for BUS to ODL differences */
         JsonObject rootJson = null;
         try {
-            rootJson = jsonConverter.busToODL(path, omshard.read(store2str(store2int(store)), deviceName, arg.path));
+            rootJson = jsonConverter.busToODL(path,
+                    batcher.read(store2str(store2int(store)), deviceName, arg.path, options));
         } catch (Exception e) {
             return readFailure(e);
         }
@@ -143,6 +249,92 @@ public class JsonRPCTx implements DOMDataReadWriteTransaction, DOMDataReadOnlyTr
         if (rootJson == null) {
             return readFailure();
         }
+        final NormalizedNode<?, ?> data;
+        try {
+            data = parse(path, rootJson);
+        } catch (IllegalArgumentException e) {
+            LOG.error("Failed to parse read data {}", rootJson.toString());
+            return readFailure(e);
+        }
+        if (data == null) {
+            return readFailure();
+        }
+        return readSuccess(store, path, data);
+    }
+
+    /**
+     * Read list at path in chunks of at most given number of entries. Each
+     * chunk is requested, converted and parsed separately, so size of single
+     * message does not depend on size of list. Entries are then merged into
+     * single {@link MapNode}. Data at paths other than list are read at once.
+     * Plain reads use this method when {@link #READ_CHUNK_SIZE} is set.
+     *
+     * @param store datastore to read from
+     * @param path path to read
+     * @param chunkSize maximum number of list entries in single chunk
+     * @return future with data at path
+     */
+    public CheckedFuture<Optional<NormalizedNode<?, ?>>, ReadFailedException> readChunked(
+            final LogicalDatastoreType store, final YangInstanceIdentifier path, final int chunkSize) {
+        final JSONRPCArg arg = jsonConverter.convert(path, null);
+        if (path.getPathArguments().isEmpty()) {
+            return readFailure();
+        }
+        final RemoteOmShard omshard = getOmShard(store, arg.path);
+        CollectionNodeBuilder<MapEntryNode, MapNode> entries = null;
+        String cursor = null;
+        try {
+            JsonObject chunk = omshard.readChunked(store2str(store2int(store)), deviceName, arg.path, chunkSize)
+                    .getAsJsonObject();
+            while (true) {
+                cursor = chunk.has(ChunkedRead.CURSOR) ? chunk.get(ChunkedRead.CURSOR).getAsString() : null;
+                if (!chunk.has(ChunkedRead.DATA)) {
+                    return readFailure();
+                }
+                final NormalizedNode<?, ?> data = parse(path,
+                        jsonConverter.busToODL(path, chunk.get(ChunkedRead.DATA)));
+                if (data == null) {
+                    return readFailure();
+                }
+                if (!(data instanceof MapNode)) {
+                    return readSuccess(store, path, data);
+                }
+                if (entries == null) {
+                    entries = ImmutableNodes.mapNodeBuilder().withNodeIdentifier(((MapNode) data).getIdentifier());
+                }
+                ((MapNode) data).getValue().forEach(entries::withChild);
+                if (cursor == null) {
+                    return readSuccess(store, path, entries.build());
+                }
+                chunk = omshard.nextChunk(cursor).getAsJsonObject();
+            }
+        } catch (Exception e) {
+            return readFailure(e);
+        } finally {
+            if (cursor != null) {
+                closeCursor(omshard, cursor);
+            }
+        }
+    }
+
+    @VisibleForTesting
+    void setReadChunkSize(int readChunkSize) {
+        this.readChunkSize = readChunkSize;
+    }
+
+    private static void closeCursor(RemoteOmShard omshard, String cursor) {
+        try {
+            omshard.closeCursor(cursor);
+        } catch (Exception e) {
+            LOG.warn("Failed to close read cursor {}", cursor, e);
+        }
+    }
+
+    /*
+     * Parse data read from bus into NormalizedNode, null is returned if schema
+     * of path can't be located.
+     */
+    private NormalizedNode<?, ?> parse(final YangInstanceIdentifier path, final JsonObject rootJson) {
         final NormalizedNodeResult result = new NormalizedNodeResult();
         JsonParserStream jsonParser = null;
         DataNodeContainer tracker = schemaContext;
@@ -154,12 +346,12 @@ public class JsonRPCTx implements DOMDataReadWriteTransaction, DOMDataReadOnlyTr
                     final DataSchemaNode nextNode = tracker.getDataChildByName(step.getNodeType());
                     if (nextNode == null) {
                         LOG.error("cannot locate corresponding schema node {}", step.getNodeType().getLocalName());
-                        return readFailure();
+                        return null;
                     }
                     if (!DataNodeContainer.class.isInstance(nextNode)) {
                         LOG.error("corresponding schema node {} is neither list nor container",
                                 step.getNodeType().getLocalName());
-                        return readFailure();
+                        return null;
                     }
                     /*
                      * List looks like a two path entry sequentially, so we need
@@ -177,22 +369,8 @@ public class JsonRPCTx implements DOMDataReadWriteTransaction, DOMDataReadOnlyTr
              * consume it, we need to replace this with a native translator into
              * NormalizedNode
              */
-            try {
-                jsonParser.parse(new JsonReader(new StringReader(rootJson.toString())));
-            } catch (IllegalArgumentException e) {
-                LOG.error("Failed to parse read data {}", rootJson.toString());
-                return readFailure(e);
-            }
-            final ListenableFuture<Optional<NormalizedNode<?, ?>>> future = Futures
-                    .immediateFuture(Optional.<NormalizedNode<?, ?>>of(result.getResult()));
-            switch (store) {
-            case CONFIGURATION:
-            case OPERATIONAL:
-                return MappingCheckedFuture.create(future, ReadFailedException.MAPPER);
-            default:
-                throw new IllegalArgumentException(String.format(
-                        "%s, Cannot read data %s for %s datastore, unknown datastore type", deviceName, path, store));
-            }
+            jsonParser.parse(new JsonReader(new StringReader(rootJson.toString())));
+            return result.getResult();
         } catch (IOException e) {
             throw new IllegalStateException("Failed to close NormalizedNodeStreamWriter", e);
         } finally {
@@ -200,6 +378,20 @@ public class JsonRPCTx implements DOMDataReadWriteTransaction, DOMDataReadOnlyTr
         }
     }
 
+    private CheckedFuture<Optional<NormalizedNode<?, ?>>, ReadFailedException> readSuccess(
+            final LogicalDatastoreType store, final YangInstanceIdentifier path, final NormalizedNode<?, ?> data) {
+        final ListenableFuture<Optional<NormalizedNode<?, ?>>> future = Futures
+                .immediateFuture(Optional.<NormalizedNode<?, ?>>of(data));
+        switch (store) {
+        case CONFIGURATION:
+        case OPERATIONAL:
+            return MappingCheckedFuture.create(future, ReadFailedException.MAPPER);
+        default:
+            throw new IllegalArgumentException(String.format(
+                    "%s, Cannot read data %s for %s datastore, unknown datastore type", deviceName, path, store));
+        }
+    }
+
     private CheckedFuture<Optional<NormalizedNode<?, ?>>, ReadFailedException> readFailure(Exception e) {
         return MappingCheckedFuture.create(Futures.immediateFailedFuture(e), ReadFailedException.MAPPER);
     }
@@ -284,18 +476,63 @@ public class JsonRPCTx implements DOMDataReadWriteTransaction, DOMDataReadOnlyTr
                         input));
     }
 
+    /*
+     * Caller is not blocked while datastores of peers commit, endpoints are
+     * committed one after another and first failure skips remaining ones.
+     * Transaction IDs are resolved on caller's thread, since that may need
+     * remote call and maps of this transaction are not thread-safe, pollers
+     * then work only with this snapshot.
+     */
     @Override
     public ListenableFuture<RpcResult<TransactionStatus>> commit() {
-        final AtomicBoolean result = new AtomicBoolean(true);
-        endPointMap.keySet().forEach(k -> {
-            result.set(result.get() && endPointMap.get(k).commit(getTxId(k)));
-        });
-        if (result.get()) {
-            return Futures.immediateFuture(RpcResultBuilder.success(TransactionStatus.COMMITED).build());
-        } else {
-            final RpcResultBuilder<TransactionStatus> failed = RpcResultBuilder.failed();
-            failed.withError(ErrorType.APPLICATION, "error committing transaction");
-            return Futures.immediateFuture(failed.build());
+        final List<Map.Entry<RemoteOmShard, String>> pending = new ArrayList<>(endPointMap.size());
+        for (Map.Entry<String, RemoteOmShard> entry : endPointMap.entrySet()) {
+            pending.add(new AbstractMap.SimpleImmutableEntry<>(entry.getValue(), getTxId(entry.getKey())));
+        }
+        final SettableFuture<RpcResult<TransactionStatus>> future = SettableFuture.create();
+        commitNext(pending.iterator(), future);
+        return future;
+    }
+
+    private void commitNext(Iterator<Map.Entry<RemoteOmShard, String>> pending,
+            SettableFuture<RpcResult<TransactionStatus>> future) {
+        if (!pending.hasNext()) {
+            future.set(RpcResultBuilder.success(TransactionStatus.COMMITED).build());
+            return;
         }
+        final Map.Entry<RemoteOmShard, String> next = pending.next();
+        Futures.addCallback(RemoteCommit.commit(next.getKey(), next.getValue()), new FutureCallback<Boolean>() {
+            @Override
+            public void onSuccess(Boolean succeed) {
+                if (succeed) {
+                    commitNext(pending, future);
+                } else {
+                    cancelRemaining(pending);
+                    final RpcResultBuilder<TransactionStatus> failed = RpcResultBuilder.failed();
+                    failed.withError(ErrorType.APPLICATION, "error committing transaction");
+                    future.set(failed.build());
+                }
+            }
+
+            @Override
+            public void onFailure(Throwable t) {
+                cancelRemaining(pending);
+                future.setException(t);
+            }
+        });
+    }
+
+    /*
+     * Transactions of endpoints which were not committed would otherwise stay
+     * open on peers until they expire.
+     */
+    private static void cancelRemaining(Iterator<Map.Entry<RemoteOmShard, String>> pending) {
+        pending.forEachRemaining(e -> {
+            try {
+                e.getKey().cancel(e.getValue());
+            } catch (RuntimeException ex) {
+                LOG.warn("Failed to cancel transaction {}", e.getValue(), ex);
+            }
+        });
     }
 }
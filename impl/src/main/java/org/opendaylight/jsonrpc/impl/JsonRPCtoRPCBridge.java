@@ -16,6 +16,8 @@ import java.util.HashMap;
 import java.util.Map;
 import java.util.Objects;
 import java.util.UUID;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
@@ -26,7 +28,12 @@ import org.opendaylight.controller.md.sal.dom.api.DOMRpcIdentifier;
 import org.opendaylight.controller.md.sal.dom.api.DOMRpcResult;
 import org.opendaylight.controller.md.sal.dom.api.DOMRpcService;
 import org.opendaylight.controller.md.sal.dom.spi.DefaultDOMRpcResult;
+import org.opendaylight.jsonrpc.bus.messagelib.Deadline;
+import org.opendaylight.jsonrpc.bus.messagelib.DispatchExecutor;
+import org.opendaylight.jsonrpc.bus.messagelib.Span;
 import org.opendaylight.jsonrpc.bus.messagelib.TransportFactory;
+import org.opendaylight.jsonrpc.bus.messagelib.Tracing;
+import org.opendaylight.jsonrpc.bus.metrics.Metrics;
 import org.opendaylight.jsonrpc.hmap.DataType;
 import org.opendaylight.jsonrpc.hmap.HierarchicalEnumMap;
 import org.opendaylight.jsonrpc.model.RemoteGovernance;
@@ -73,7 +80,13 @@ public class JsonRPCtoRPCBridge implements DOMRpcService, AutoCloseable {
     private final Map<String, RpcState> mappedRpcs = new HashMap<>();
     private ArrayBlockingQueue<JsonRPCDOMRpcResultFuture> requestQueue;
     private Thread requestProcessorThread;
+    // when enabled, every request waits for reply on own virtual thread
+    private final DispatchExecutor clientCalls = DispatchExecutor.clientCalls();
+    // limits number of requests in flight when they are not sent one by one
+    private final Semaphore inFlight = new Semaphore(maxQueueDepth);
     private boolean shuttingDown = false;
+    // depth of requestQueue, exposed as gauge
+    private final String queueDepthMetric;
 
     /**
      * Instantiates a new RPC Bridge
@@ -102,6 +115,8 @@ public class JsonRPCtoRPCBridge implements DOMRpcService, AutoCloseable {
             LOG.warn("No RPCs to map for " + peer.getName());
         }
         requestQueue = new ArrayBlockingQueue(maxQueueDepth);
+        queueDepthMetric = Metrics.name("bridge", peer.getName(), "rpc-queue-depth");
+        Metrics.getRegistry().gauge(queueDepthMetric, requestQueue::size);
         requestProcessorThread = new Thread(new RPCRequestProcessor(this));
         requestProcessorThread.start();
         LOG.info("RPC bridge instantiated for {}", peer.getName());
@@ -175,7 +190,9 @@ public class JsonRPCtoRPCBridge implements DOMRpcService, AutoCloseable {
 
         SettableFuture<DOMRpcResult> futureResult = SettableFuture.create();
         SettableFuture<String> asyncUUID = SettableFuture.create();
-        JsonRPCDOMRpcResultFuture postponedResult = new JsonRPCDOMRpcResultFuture(futureResult, asyncUUID, this, type, input);
+        // deadline of invoking thread is captured now, request is sent by worker thread
+        JsonRPCDOMRpcResultFuture postponedResult = new JsonRPCDOMRpcResultFuture(futureResult, asyncUUID, this, type,
+                input, Deadline.current());
         try {
             requestQueue.put(
                     postponedResult
@@ -211,18 +228,36 @@ public class JsonRPCtoRPCBridge implements DOMRpcService, AutoCloseable {
     public void doInvokeRpc(JsonRPCDOMRpcResultFuture request) {
         final QName rpcQName = request.getType().getLastComponent();
         JsonObject jsonForm = null;
-        try {
-            RpcState rpcState = Preconditions.checkNotNull(mappedRpcs.get(rpcQName.getLocalName()),
+        if (request.isCancelled()) {
+            LOG.debug("RPC {} was cancelled, not sending it", rpcQName);
+            return;
+        }
+        final Deadline deadline = request.getDeadline();
+        if (deadline != null && deadline.isExpired()) {
+            request.setException(new RpcExceptionImpl("Deadline exceeded"));
+            return;
+        }
+        // covers conversion of input and output, child span covers exchange
+        final Span span = Tracing.startSpan(rpcQName.getLocalName(), Span.Kind.INTERNAL);
+        RpcState rpcState = null;
+        try (Span.Scope spanScope = span.enter()) {
+            rpcState = Preconditions.checkNotNull(mappedRpcs.get(rpcQName.getLocalName()),
                     "Unknown rpc %s, available rpcs: %s", rpcQName, mappedRpcs.keySet());
+            // calls of other RPCs may run concurrently, but reply is kept in state of RPC
+            rpcState.lock();
             if (!request.isPollingForResult()) {
                 if (isNotEmpty(rpcState.rpc().getInput())) {
                     Preconditions.checkArgument(request.getInput() instanceof ContainerNode,
                             "Transforming an rpc with input: %s, payload has to be a container, but was: %s", rpcQName, request.getInput());
                     jsonForm = jsonConverter.rpcConvert(rpcState.rpc().getInput().getPath(), (ContainerNode) request.getInput());
+                    span.event("encoded");
                 }
             } 
             JsonElement jsonResult;
-            jsonResult = rpcState.sendRequest(jsonForm, request.formMetadata());
+            // deadline is carried to responder in request metadata
+            try (Deadline.Scope scope = Deadline.enter(deadline)) {
+                jsonResult = rpcState.sendRequest(jsonForm, request.formMetadata());
+            }
             if (rpcState.lastError() == null) {
                 if (!request.isPollingForResult()) {
                     if (rpcState.lastMetadata() == null) {
@@ -250,16 +285,24 @@ public class JsonRPCtoRPCBridge implements DOMRpcService, AutoCloseable {
                     final DataContainerNodeAttrBuilder<NodeIdentifier, ContainerNode> resultBuilder = ImmutableContainerNodeBuilder
                         .create().withNodeIdentifier(NodeIdentifier.create(rpcState.rpc().getOutput().getQName()));
                     toODL = extractResult(rpcState, jsonResult, resultBuilder);
+                    span.event("decoded");
                 } else {
                     toODL = new DefaultDOMRpcResult((NormalizedNode<?, ?>) null);
                 }
                 request.set(toODL);
             } else {
+                span.error(rpcState.lastError().getMessage());
                 request.setException(new RpcExceptionImpl(rpcState.lastError().getMessage()));
             }
         } catch (Exception e) {
+            span.error(e.getMessage());
             request.setException(e);
             return;
+        } finally {
+            if (rpcState != null) {
+                rpcState.unlock();
+            }
+            span.end();
         }
     }
 
@@ -333,7 +376,9 @@ public class JsonRPCtoRPCBridge implements DOMRpcService, AutoCloseable {
         } catch (java.lang.InterruptedException e) {
             // Do nothing - this gets us out of the loop
         }
+        mappedRpcs.values().forEach(RpcState::close);
         mappedRpcs.clear();
+        Metrics.getRegistry().remove(queueDepthMetric);
     }
 
     private class RPCRequestProcessor implements Runnable {
@@ -345,12 +390,43 @@ public class JsonRPCtoRPCBridge implements DOMRpcService, AutoCloseable {
         public void run() {
             try {
                 while (bridge.opStatus()) { 
-                    bridge.doInvokeRpc(bridge.deQueue());
+                    if (clientCalls == null) {
+                        bridge.doInvokeRpc(bridge.deQueue());
+                    } else {
+                        dispatch();
+                    }
                 }
             } catch (java.lang.InterruptedException e) {
                 bridge.flushQueue();
             }
         }
+
+        /*
+         * Slot is taken before request is dequeued, so request is not lost
+         * when waiting for slot is interrupted.
+         */
+        private void dispatch() throws InterruptedException {
+            inFlight.acquire();
+            final JsonRPCDOMRpcResultFuture request;
+            try {
+                request = bridge.deQueue();
+            } catch (InterruptedException e) {
+                inFlight.release();
+                throw e;
+            }
+            try {
+                clientCalls.execute(() -> {
+                    try {
+                        bridge.doInvokeRpc(request);
+                    } finally {
+                        inFlight.release();
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                inFlight.release();
+                bridge.doInvokeRpc(request);
+            }
+        }
     }
     public boolean opStatus() {
         return (! this.shuttingDown);
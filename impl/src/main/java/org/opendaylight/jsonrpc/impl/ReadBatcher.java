@@ -0,0 +1,178 @@
+/*
+ * Copyright (c) 2017 Brocade Communications Systems, Inc. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.jsonrpc.impl;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.opendaylight.jsonrpc.model.BulkRead;
+import org.opendaylight.jsonrpc.model.ReadOptions;
+import org.opendaylight.jsonrpc.model.RemoteOmShard;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+
+/**
+ * Coalesces concurrent reads against single {@link RemoteOmShard}. Reads which
+ * arrive while other request to same endpoint is in flight are queued, and
+ * next caller sends whole queue at once using
+ * {@link RemoteOmShard#readMany(JsonElement)}. Lone read is sent using plain
+ * {@link RemoteOmShard#read(String, String, JsonElement)}, so latency of
+ * uncontended reads is not affected and peers which does not implement bulk
+ * read still work. Data at path which does not exist is null in both cases.
+ *
+ * <p>
+ * Batcher is either private to single {@link JsonRPCTx} and uses its proxy,
+ * or it is shared by all transactions of mount (see {@link JsonRPCDataBroker})
+ * and owns proxy, which is closed along with batcher.
+ */
+class ReadBatcher implements AutoCloseable {
+    private static final Logger LOG = LoggerFactory.getLogger(ReadBatcher.class);
+    private final RemoteOmShard shard;
+    // not a monitor, so that virtual threads waiting for batch are not pinned
+    private final Lock lock = new ReentrantLock();
+    private final Condition completed = lock.newCondition();
+    private List<PendingRead> queue = new ArrayList<>();
+    private boolean inFlight;
+
+    ReadBatcher(final RemoteOmShard shard) {
+        this.shard = shard;
+    }
+
+    /**
+     * Read data at path, possibly along with reads of other threads.
+     *
+     * @param store datastore
+     * @param entity entity
+     * @param path path to read
+     * @param options {@link ReadOptions} to apply
+     * @return data at path, can be null
+     * @throws Exception if read failed
+     */
+    JsonElement read(String store, String entity, JsonElement path, ReadOptions options) throws Exception {
+        final PendingRead current = new PendingRead(store, entity, path, options);
+        final List<PendingRead> batch;
+        lock.lock();
+        try {
+            queue.add(current);
+            while (inFlight && !current.done) {
+                completed.await();
+            }
+            if (current.done) {
+                return current.get();
+            }
+            inFlight = true;
+            batch = queue;
+            queue = new ArrayList<>();
+        } finally {
+            lock.unlock();
+        }
+        try {
+            execute(batch);
+        } finally {
+            lock.lock();
+            try {
+                inFlight = false;
+                batch.forEach(PendingRead::complete);
+                completed.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+        return current.get();
+    }
+
+    /**
+     * Get number of reads waiting for next batch.
+     *
+     * @return number of queued reads
+     */
+    @VisibleForTesting
+    int queuedReads() {
+        lock.lock();
+        try {
+            return queue.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void execute(List<PendingRead> batch) {
+        if (batch.size() > 1) {
+            try {
+                final JsonArray requests = new JsonArray();
+                batch.forEach(r -> requests.add(BulkRead.request(r.store, r.entity, r.path, r.options)));
+                final JsonArray results = shard.readMany(requests).getAsJsonArray();
+                for (int i = 0; i < batch.size(); i++) {
+                    batch.get(i).setResult(results.get(i).getAsJsonObject());
+                }
+                return;
+            } catch (Exception e) {
+                LOG.debug("Bulk read of {} paths failed, reading them one by one", batch.size(), e);
+            }
+        }
+        for (final PendingRead r : batch) {
+            try {
+                r.data = r.options.isEmpty() ? shard.read(r.store, r.entity, r.path)
+                        : shard.read(r.store, r.entity, r.path, r.options.toJson());
+            } catch (Exception e) {
+                r.error = e;
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        Util.closeNullableWithExceptionCallback(shard, e -> LOG.warn("Failed to close RemoteOmShard proxy", e));
+    }
+
+    private static class PendingRead {
+        private final String store;
+        private final String entity;
+        private final JsonElement path;
+        private final ReadOptions options;
+        // guarded by lock of batcher
+        private boolean done;
+        private JsonElement data;
+        private Exception error;
+
+        private PendingRead(String store, String entity, JsonElement path, ReadOptions options) {
+            this.store = store;
+            this.entity = entity;
+            this.path = path;
+            this.options = options;
+        }
+
+        private void setResult(JsonObject result) {
+            if (result.has(BulkRead.ERROR)) {
+                error = new IllegalStateException(result.get(BulkRead.ERROR).getAsString());
+            } else {
+                // missing data is same as null returned by plain read
+                data = result.get(BulkRead.DATA);
+            }
+        }
+
+        private void complete() {
+            done = true;
+        }
+
+        private JsonElement get() throws Exception {
+            if (error != null) {
+                throw error;
+            }
+            return data;
+        }
+    }
+}
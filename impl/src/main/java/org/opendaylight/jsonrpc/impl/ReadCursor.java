@@ -0,0 +1,64 @@
+/*
+ * Copyright (c) 2017 Brocade Communications Systems, Inc. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.jsonrpc.impl;
+
+import java.util.List;
+
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifier;
+import org.opendaylight.yangtools.yang.data.api.schema.MapEntryNode;
+import org.opendaylight.yangtools.yang.data.api.schema.MapNode;
+import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNode;
+import org.opendaylight.yangtools.yang.data.impl.schema.ImmutableNodes;
+import org.opendaylight.yangtools.yang.data.impl.schema.builder.api.CollectionNodeBuilder;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
+
+/**
+ * Position within snapshot of list being read in chunks. Only entries of
+ * current chunk are converted to JSON, so memory needed for conversion does
+ * not depend on size of list.
+ */
+class ReadCursor {
+    private final YangInstanceIdentifier path;
+    private final NodeIdentifier identifier;
+    private final List<MapEntryNode> entries;
+    private final int chunkSize;
+    private int position;
+
+    ReadCursor(final YangInstanceIdentifier path, final MapNode snapshot, final int chunkSize) {
+        Preconditions.checkArgument(chunkSize > 0, "Chunk size must be positive : %s", chunkSize);
+        this.path = path;
+        this.identifier = snapshot.getIdentifier();
+        this.entries = ImmutableList.copyOf(snapshot.getValue());
+        this.chunkSize = chunkSize;
+    }
+
+    YangInstanceIdentifier getPath() {
+        return path;
+    }
+
+    /**
+     * Take next chunk of entries.
+     *
+     * @return list containing next entries
+     */
+    synchronized NormalizedNode<?, ?> next() {
+        final int end = Math.min(entries.size(), position + chunkSize);
+        final CollectionNodeBuilder<MapEntryNode, MapNode> builder = ImmutableNodes.mapNodeBuilder()
+                .withNodeIdentifier(identifier);
+        entries.subList(position, end).forEach(builder::withChild);
+        position = end;
+        return builder.build();
+    }
+
+    synchronized boolean hasNext() {
+        return position < entries.size();
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright (c) 2017 Brocade Communications Systems, Inc. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.jsonrpc.impl;
+
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.opendaylight.jsonrpc.bus.messagelib.ProxyServiceGenericException;
+import org.opendaylight.jsonrpc.model.RemoteOmShard;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.SettableFuture;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * Commit of remote transaction which does not block caller. Commit is started
+ * using {@link RemoteOmShard#commitAsync(String)} and its completion is then
+ * polled using {@link RemoteOmShard#pending(String)} with growing interval.
+ * Once commit is no longer pending, it succeeded if
+ * {@link RemoteOmShard#error(String)} reports no errors. Peers which does not
+ * implement asynchronous commit are committed using blocking
+ * {@link RemoteOmShard#commit(String)}, but still on poller thread.
+ */
+final class RemoteCommit {
+    private static final Logger LOG = LoggerFactory.getLogger(RemoteCommit.class);
+    // remote calls are blocking, so slow peer should not hold back polls of others
+    private static final int POLLER_THREADS = 4;
+    private static final ScheduledExecutorService POLLER = Executors.newScheduledThreadPool(POLLER_THREADS,
+            new ThreadFactoryBuilder().setNameFormat("jsonrpc-commit-poller-%d").setDaemon(true).build());
+    private static final long INITIAL_POLL_DELAY_MILLIS = 5;
+    private static final long MAX_POLL_DELAY_MILLIS = 500;
+    private static final long COMMIT_TIMEOUT_MILLIS = TimeUnit.MINUTES.toMillis(2);
+    // JSON-RPC error code of unknown method
+    private static final String METHOD_NOT_FOUND = "[code=-32601]";
+    private final RemoteOmShard omshard;
+    private final String txId;
+    private final SettableFuture<Boolean> result = SettableFuture.create();
+    private long deadline;
+
+    private RemoteCommit(RemoteOmShard omshard, String txId) {
+        this.omshard = omshard;
+        this.txId = txId;
+    }
+
+    /**
+     * Commit remote transaction.
+     *
+     * @param omshard peer owning transaction
+     * @param txId ID of transaction
+     * @return future which completes with true once transaction is committed,
+     *         with false if commit failed or timed out
+     */
+    static ListenableFuture<Boolean> commit(RemoteOmShard omshard, String txId) {
+        final RemoteCommit commit = new RemoteCommit(omshard, txId);
+        POLLER.execute(commit::start);
+        return commit.result;
+    }
+
+    private void start() {
+        try {
+            final boolean started;
+            try {
+                started = omshard.commitAsync(txId);
+            } catch (ProxyServiceGenericException e) {
+                if (e.getMessage() == null || !e.getMessage().startsWith(METHOD_NOT_FOUND)) {
+                    throw e;
+                }
+                LOG.debug("Peer does not support asynchronous commit of {}, committing synchronously", txId);
+                result.set(omshard.commit(txId));
+                return;
+            }
+            if (!started) {
+                result.set(false);
+                return;
+            }
+            deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(COMMIT_TIMEOUT_MILLIS);
+            POLLER.schedule(() -> poll(INITIAL_POLL_DELAY_MILLIS), INITIAL_POLL_DELAY_MILLIS, TimeUnit.MILLISECONDS);
+        } catch (RuntimeException e) {
+            result.setException(e);
+        }
+    }
+
+    private void poll(long delay) {
+        try {
+            if (!omshard.pending(txId)) {
+                final List<String> errors = omshard.error(txId);
+                if (!errors.isEmpty()) {
+                    LOG.debug("Commit of {} failed : {}", txId, errors);
+                }
+                result.set(errors.isEmpty());
+            } else if (System.nanoTime() - deadline >= 0) {
+                LOG.warn("Commit of {} did not complete within {} ms", txId, COMMIT_TIMEOUT_MILLIS);
+                result.set(false);
+            } else {
+                final long next = Math.min(delay * 2, MAX_POLL_DELAY_MILLIS);
+                POLLER.schedule(() -> poll(next), next, TimeUnit.MILLISECONDS);
+            }
+        } catch (RuntimeException e) {
+            result.setException(e);
+        }
+    }
+}
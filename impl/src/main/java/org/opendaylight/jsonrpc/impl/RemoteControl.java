@@ -10,6 +10,7 @@ package org.opendaylight.jsonrpc.impl;
 import static org.opendaylight.jsonrpc.impl.Util.int2store;
 
 import java.util.AbstractMap;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map.Entry;
@@ -17,34 +18,49 @@ import java.util.Objects;
 import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReadWriteLock;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 import javax.annotation.Nonnull;
-import javax.annotation.concurrent.GuardedBy;
 
 import org.opendaylight.controller.md.sal.binding.impl.BindingToNormalizedNodeCodec;
 import org.opendaylight.controller.md.sal.dom.api.DOMDataBroker;
 import org.opendaylight.controller.md.sal.dom.api.DOMDataReadOnlyTransaction;
 import org.opendaylight.controller.md.sal.dom.api.DOMDataReadWriteTransaction;
-import org.opendaylight.controller.md.sal.dom.api.DOMDataWriteTransaction;
+import org.opendaylight.jsonrpc.bus.PayloadTrace;
+import org.opendaylight.jsonrpc.bus.messagelib.Span;
+import org.opendaylight.jsonrpc.bus.metrics.Counter;
+import org.opendaylight.jsonrpc.bus.metrics.Metrics;
+import org.opendaylight.jsonrpc.model.BulkRead;
+import org.opendaylight.jsonrpc.model.ChunkedRead;
+import org.opendaylight.jsonrpc.model.ReadOptions;
 import org.opendaylight.jsonrpc.model.RemoteOmShard;
-import org.opendaylight.jsonrpc.model.TransactionFactory;
 import org.opendaylight.yangtools.yang.common.QName;
 import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
+import org.opendaylight.yangtools.yang.data.api.schema.MapNode;
 import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNode;
 import org.opendaylight.yangtools.yang.model.api.SchemaContext;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Optional;
+import com.google.common.base.Preconditions;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalListener;
+import com.google.common.cache.RemovalNotification;
 import com.google.common.collect.Maps;
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 
@@ -53,13 +69,40 @@ public class RemoteControl implements RemoteOmShard, AutoCloseable {
     private final DOMDataBroker domDataBroker;
     private final SchemaContext schemaContext;
     private final JsonConverter jsonConverter;
-    private final ConcurrentMap<String, DataModificationContext> txmap = Maps.newConcurrentMap();
-    private final ReadWriteLock trxGuard = new ReentrantReadWriteLock();
+    // transactions expire once client does not access them for configured time
+    private final Cache<UUID, DataModificationContext> transactions;
+    private final ConcurrentMap<UUID, DataModificationContext> txmap;
+    // committed transactions are remembered for same time, so that polling client can tell them from unknown ones
+    private final Cache<UUID, Boolean> committed;
+    // sessions expire once no transaction was allocated for same time as transactions and all of them are gone
+    private final ConcurrentMap<String, TransactionChainSession> sessions = Maps.newConcurrentMap();
+    private final long sessionTtlNanos;
+    // cursors of chunked reads, abandoned ones expire
+    private final Cache<String, ReadCursor> cursors = CacheBuilder.newBuilder()
+            .expireAfterAccess(CURSOR_TTL_MILLIS, TimeUnit.MILLISECONDS)
+            .build();
     private final ScheduledExecutorService exec = Executors.newScheduledThreadPool(1);
     private Future<?> cleanerFuture;
-    private TransactionFactory transactionFactory;
-    // Time-to-live for failed transactions
+    private EnsureParentTransactionFactory transactionFactory;
+    // Default time-to-live of idle transactions
     private static final long TRX_TTL_MILLIS = 900000; // 15 minutes
+    // Time-to-live of idle cursors
+    private static final long CURSOR_TTL_MILLIS = 300000; // 5 minutes
+    // distinguishes metrics of instances living at same time
+    private static final AtomicInteger INSTANCE_COUNTER = new AtomicInteger();
+    // number of entries in txmap, exposed as gauge
+    private final String openTrxMetric;
+    // number of transactions removed from txmap due to expiration
+    private final String expiredTrxMetric;
+    private final Counter expiredTransactions;
+    // operations annotate span of request being handled, if any
+    private static final String TX_ATTRIBUTE = "tx";
+    private static final String STORE_ATTRIBUTE = "store";
+    private static final String RESOLVED_EVENT = "resolved";
+    private static final String CONVERTED_EVENT = "converted";
+    // reported by error() for transaction which is neither open nor recently committed
+    @VisibleForTesting
+    static final String UNKNOWN_TRANSACTION = "unknown transaction";
 
     public RemoteControl(@Nonnull final DOMDataBroker domDataBroker, @Nonnull final SchemaContext schemaContext,
             @Nonnull final BindingToNormalizedNodeCodec codec) {
@@ -68,25 +111,79 @@ public class RemoteControl implements RemoteOmShard, AutoCloseable {
 
     public RemoteControl(@Nonnull final DOMDataBroker domDataBroker, @Nonnull final SchemaContext schemaContext,
             @Nonnull final BindingToNormalizedNodeCodec codec, long cleanupIntervalMilliseconds) {
+        this(domDataBroker, schemaContext, codec, cleanupIntervalMilliseconds, TRX_TTL_MILLIS);
+    }
+
+    /**
+     * Create instance which expires transactions not accessed by client for
+     * given time. Transaction which is still open when it expires is
+     * cancelled, failed transaction is kept until then, so that its errors
+     * can be queried. Session expires once no transaction was allocated
+     * within it for given time and all its transactions are gone, its
+     * transaction chain is closed then.
+     *
+     * @param domDataBroker {@link DOMDataBroker} to operate on
+     * @param schemaContext {@link SchemaContext} used to convert data
+     * @param codec {@link BindingToNormalizedNodeCodec} used to ensure parent
+     *            nodes
+     * @param cleanupIntervalMilliseconds how often expired transactions are
+     *            removed
+     * @param transactionTtlMilliseconds idle time after which transaction
+     *            or session expires
+     */
+    public RemoteControl(@Nonnull final DOMDataBroker domDataBroker, @Nonnull final SchemaContext schemaContext,
+            @Nonnull final BindingToNormalizedNodeCodec codec, long cleanupIntervalMilliseconds,
+            long transactionTtlMilliseconds) {
         this.domDataBroker = Objects.requireNonNull(domDataBroker);
         this.schemaContext = Objects.requireNonNull(schemaContext);
         this.jsonConverter = new JsonConverter(schemaContext);
-        cleanerFuture = exec.scheduleAtFixedRate(this::cleanupStaleTransactions, cleanupIntervalMilliseconds,
+        final RemovalListener<UUID, DataModificationContext> listener = this::onTransactionRemoved;
+        this.transactions = CacheBuilder.newBuilder()
+                .expireAfterAccess(transactionTtlMilliseconds, TimeUnit.MILLISECONDS)
+                .removalListener(listener)
+                .build();
+        this.txmap = transactions.asMap();
+        this.committed = CacheBuilder.newBuilder()
+                .expireAfterWrite(transactionTtlMilliseconds, TimeUnit.MILLISECONDS)
+                .build();
+        this.sessionTtlNanos = TimeUnit.MILLISECONDS.toNanos(transactionTtlMilliseconds);
+        cleanerFuture = exec.scheduleAtFixedRate(this::cleanup, cleanupIntervalMilliseconds,
                 cleanupIntervalMilliseconds, TimeUnit.MILLISECONDS);
         this.transactionFactory = new EnsureParentTransactionFactory(domDataBroker, Objects.requireNonNull(codec));
+        final String prefix = Metrics.name("remote-control", Integer.toString(INSTANCE_COUNTER.incrementAndGet()));
+        this.openTrxMetric = Metrics.name(prefix, "open-transactions");
+        this.expiredTrxMetric = Metrics.name(prefix, "expired-transactions");
+        Metrics.getRegistry().gauge(openTrxMetric, transactions::size);
+        this.expiredTransactions = Metrics.getRegistry().counter(expiredTrxMetric);
     }
 
-    /**
-     * Remove stale transactions.To be eligible for removal, transaction must
-     * <ol>
-     * <li>encountered error(s)</li>
-     * <li>exists for at least TXR_TTL_MILLIS in map of transactions</li>
-     * </ol>
+    /*
+     * Without this, expired entries are removed only along with other
+     * operations on caches, so idle instance would hold them forever.
      */
-    private void cleanupStaleTransactions() {
-        final long now = System.currentTimeMillis();
-        txmap.entrySet().removeIf(e -> !e.getValue().isSuccess() && e.getValue().getCompletionTimestamp() != -1L
-                && ((e.getValue().getCompletionTimestamp() + TRX_TTL_MILLIS) > now));
+    private void cleanup() {
+        transactions.cleanUp();
+        committed.cleanUp();
+        cursors.cleanUp();
+        sessions.forEach((id, session) -> {
+            if (session.isIdle(sessionTtlNanos, txmap::containsKey) && sessions.remove(id, session)) {
+                LOG.debug("Session {} expired", id);
+                closeSession(session);
+            }
+        });
+    }
+
+    /*
+     * Transaction which expired while it was still open is cancelled, so that
+     * abandoned transactions don't hold resources of datastore. Transactions
+     * removed explicitly are handled by caller.
+     */
+    private void onTransactionRemoved(RemovalNotification<UUID, DataModificationContext> notification) {
+        if (notification.wasEvicted()) {
+            LOG.debug("Transaction {} expired", notification.getKey());
+            expiredTransactions.increment();
+            notification.getValue().expire();
+        }
     }
 
     @VisibleForTesting
@@ -94,6 +191,11 @@ public class RemoteControl implements RemoteOmShard, AutoCloseable {
         return txmap.entrySet().isEmpty();
     }
 
+    @VisibleForTesting
+    boolean isSessionsEmpty() {
+        return sessions.isEmpty();
+    }
+
     @VisibleForTesting
     YangInstanceIdentifier path2II(JsonElement path) {
         return YangInstanceIdentifierDeserializer.toYangInstanceIdentifier(path, schemaContext);
@@ -101,27 +203,149 @@ public class RemoteControl implements RemoteOmShard, AutoCloseable {
 
     @Override
     public JsonElement read(int store, String entity, JsonElement path) throws Exception {
+        return read(store, entity, path, null);
+    }
+
+    @Override
+    public JsonElement read(int store, String entity, JsonElement path, JsonElement options) throws Exception {
+        final ReadOptions readOptions = ReadOptions.fromJson(options);
+        final Span span = Span.current().attribute(STORE_ATTRIBUTE, store);
         final YangInstanceIdentifier pathAsIId = path2II(path);
+        span.event(RESOLVED_EVENT);
         LOG.debug("READ : YII :{}", pathAsIId);
         final DOMDataReadWriteTransaction rTrx = domDataBroker.newReadWriteTransaction();
-        final NormalizedNode<?, ?> result = rTrx.read(int2store(store), pathAsIId).checkedGet().get();
-        LOG.info("Result is {}", result);
-        return jsonConverter.convert(pathAsIId, result).data;
+        final Optional<NormalizedNode<?, ?>> result = rTrx.read(int2store(store), pathAsIId).checkedGet();
+        span.event("read");
+        PayloadTrace.trace(LOG, "READ result : {}", result);
+        if (!result.isPresent()) {
+            // same as result of readMany for missing path
+            return null;
+        }
+        final JsonElement ret = readOptions.apply(jsonConverter.convert(pathAsIId, result.get()).data);
+        span.event(CONVERTED_EVENT);
+        return ret;
+    }
+
+    /*
+     * All reads are issued before waiting for any of them, so datastore can
+     * process them concurrently.
+     */
+    @Override
+    public JsonElement readMany(JsonElement requests) throws Exception {
+        Preconditions.checkArgument(requests instanceof JsonArray, "Requests must be JSON array : %s", requests);
+        final JsonArray array = requests.getAsJsonArray();
+        final Span span = Span.current().attribute("paths", array.size());
+        LOG.debug("READ-MANY : {} paths", array.size());
+        final List<YangInstanceIdentifier> paths = new ArrayList<>(array.size());
+        final List<ReadOptions> options = new ArrayList<>(array.size());
+        final List<ListenableFuture<Optional<NormalizedNode<?, ?>>>> futures = new ArrayList<>(array.size());
+        final DOMDataReadOnlyTransaction trx = domDataBroker.newReadOnlyTransaction();
+        try {
+            for (final JsonElement request : array) {
+                YangInstanceIdentifier pathAsIId = null;
+                ReadOptions readOptions = null;
+                ListenableFuture<Optional<NormalizedNode<?, ?>>> future;
+                try {
+                    final JsonObject obj = request.getAsJsonObject();
+                    pathAsIId = path2II(obj.get(BulkRead.PATH));
+                    readOptions = ReadOptions.fromJson(obj.get(BulkRead.OPTIONS));
+                    future = trx.read(int2store(Util.store2int(obj.get(BulkRead.STORE).getAsString())), pathAsIId);
+                } catch (RuntimeException e) {
+                    future = Futures.immediateFailedFuture(e);
+                }
+                paths.add(pathAsIId);
+                options.add(readOptions);
+                futures.add(future);
+            }
+            span.event(RESOLVED_EVENT);
+            final JsonArray results = new JsonArray();
+            for (int i = 0; i < futures.size(); i++) {
+                try {
+                    final Optional<NormalizedNode<?, ?>> result = futures.get(i).get();
+                    PayloadTrace.trace(LOG, "READ-MANY result : {}", result);
+                    results.add(BulkRead.success(result.isPresent()
+                            ? options.get(i).apply(jsonConverter.convert(paths.get(i), result.get()).data)
+                            : null));
+                } catch (ExecutionException e) {
+                    results.add(BulkRead.failure(serializeError(e.getCause())));
+                } catch (RuntimeException e) {
+                    results.add(BulkRead.failure(serializeError(e)));
+                }
+            }
+            span.event(CONVERTED_EVENT);
+            return results;
+        } finally {
+            trx.close();
+        }
+    }
+
+    @Override
+    public JsonElement readChunked(String store, String entity, JsonElement path, int chunkSize) throws Exception {
+        final Span span = Span.current().attribute(STORE_ATTRIBUTE, store);
+        final YangInstanceIdentifier pathAsIId = path2II(path);
+        span.event(RESOLVED_EVENT);
+        LOG.debug("READ-CHUNKED : store={}, entity={}, YII={}, chunk={}", store, entity, pathAsIId, chunkSize);
+        final Optional<NormalizedNode<?, ?>> result;
+        try (DOMDataReadOnlyTransaction trx = domDataBroker.newReadOnlyTransaction()) {
+            result = trx.read(int2store(Util.store2int(store)), pathAsIId).checkedGet();
+        }
+        span.event("read");
+        if (!result.isPresent()) {
+            return ChunkedRead.chunk(null, null);
+        }
+        if (!(result.get() instanceof MapNode)) {
+            return ChunkedRead.chunk(jsonConverter.convert(pathAsIId, result.get()).data, null);
+        }
+        final ReadCursor cursor = new ReadCursor(pathAsIId, (MapNode) result.get(), chunkSize);
+        final String id = UUID.randomUUID().toString();
+        cursors.put(id, cursor);
+        return nextChunk(id, cursor);
+    }
+
+    @Override
+    public JsonElement nextChunk(String cursorId) {
+        final ReadCursor cursor = cursors.getIfPresent(cursorId);
+        Preconditions.checkArgument(cursor != null, "Unknown or expired cursor %s", cursorId);
+        return nextChunk(cursorId, cursor);
+    }
+
+    private JsonElement nextChunk(String cursorId, ReadCursor cursor) {
+        final JsonElement data = jsonConverter.convert(cursor.getPath(), cursor.next()).data;
+        Span.current().event(CONVERTED_EVENT);
+        if (cursor.hasNext()) {
+            return ChunkedRead.chunk(data, cursorId);
+        }
+        cursors.invalidate(cursorId);
+        return ChunkedRead.chunk(data, null);
+    }
+
+    @Override
+    public boolean closeCursor(String cursorId) {
+        LOG.debug("CLOSE-CURSOR : {}", cursorId);
+        final boolean present = cursors.getIfPresent(cursorId) != null;
+        cursors.invalidate(cursorId);
+        return present;
     }
 
     @Override
     public void put(String txId, int store, String entity, JsonElement path, JsonElement data) {
+        final Span span = Span.current().attribute(TX_ATTRIBUTE, txId).attribute(STORE_ATTRIBUTE, store);
         final YangInstanceIdentifier pathAsIId = path2II(path);
-        LOG.info("PUT txId : {}, store : {}, entity : {}, path : {}, YII :{}, data : {}", txId, int2store(store),
-                entity, path, pathAsIId, data);
-        final DOMDataWriteTransaction wtx = allocateTrx(txId).getValue().newWriteTransaction();
-        wtx.put(int2store(store), pathAsIId,
-                jsonConverter.jsonElementToNormalizedNode(injectQName(pathAsIId, data), pathAsIId));
+        span.event(RESOLVED_EVENT);
+        LOG.debug("PUT : tx={}, store={}, entity={}, path={}, YII={}", txId, int2store(store), entity, path,
+                pathAsIId);
+        PayloadTrace.trace(LOG, "PUT data of {} : {}", txId, data);
+        final NormalizedNode<?, ?> node = jsonConverter.jsonElementToNormalizedNode(injectQName(pathAsIId, data),
+                pathAsIId);
+        span.event(CONVERTED_EVENT);
+        allocateTrx(txId).getValue().modify(tx -> tx.put(int2store(store), pathAsIId, node));
     }
 
     @Override
     public boolean exists(int store, String entity, JsonElement path) throws Exception {
+        final Span span = Span.current().attribute(STORE_ATTRIBUTE, store);
         final YangInstanceIdentifier pathAsIId = path2II(path);
+        span.event(RESOLVED_EVENT);
         LOG.debug("EXISTS store={}, entity={}, path={}, YII={}", int2store(store), entity, path, pathAsIId);
         final DOMDataReadOnlyTransaction trx = domDataBroker.newReadOnlyTransaction();
         try {
@@ -133,63 +357,175 @@ public class RemoteControl implements RemoteOmShard, AutoCloseable {
 
     @Override
     public void merge(String txId, int store, String entity, JsonElement path, JsonElement data) {
-        final DOMDataWriteTransaction trx = allocateTrx(txId).getValue().newWriteTransaction();
+        final Span span = Span.current().attribute(TX_ATTRIBUTE, txId).attribute(STORE_ATTRIBUTE, store);
         final YangInstanceIdentifier pathAsIId = path2II(path);
-        LOG.debug("MERGE : tx={}, store={}, entity={}, path={}, YII={}, data={}", txId, int2store(store), entity, path,
-                pathAsIId, data);
-        trx.merge(int2store(store), pathAsIId, jsonConverter.jsonElementToNormalizedNode(data, pathAsIId, true));
+        span.event(RESOLVED_EVENT);
+        LOG.debug("MERGE : tx={}, store={}, entity={}, path={}, YII={}", txId, int2store(store), entity, path,
+                pathAsIId);
+        PayloadTrace.trace(LOG, "MERGE data of {} : {}", txId, data);
+        final NormalizedNode<?, ?> node = jsonConverter.jsonElementToNormalizedNode(data, pathAsIId, true);
+        span.event(CONVERTED_EVENT);
+        allocateTrx(txId).getValue().modify(tx -> tx.merge(int2store(store), pathAsIId, node));
     }
 
     @Override
     public void delete(String txId, int store, String entity, JsonElement path) {
+        Span.current().attribute(TX_ATTRIBUTE, txId).attribute(STORE_ATTRIBUTE, store);
         final YangInstanceIdentifier pathAsIId = path2II(path);
         LOG.debug("DELETE : tx={}, store={}, entity={}, path={}, YII={}", txId, int2store(store), entity, path,
                 pathAsIId);
-        final DOMDataWriteTransaction trx = allocateTrx(txId).getValue().newWriteTransaction();
-        trx.delete(int2store(store), pathAsIId);
+        allocateTrx(txId).getValue().modify(tx -> tx.delete(int2store(store), pathAsIId));
     }
 
-    @GuardedBy("trxGuard")
+    /*
+     * Only given transaction is locked while it is being submitted, so commits
+     * of other transactions (and operations on them) are not blocked by it.
+     * Responder thread waits for datastore here, which is what existing
+     * clients expect from this method; mounts of peers use commitAsync and
+     * poll for completion instead (see RemoteCommit).
+     */
     @Override
     public boolean commit(String txId) {
         LOG.debug("COMMIT : {}", txId);
-        final Lock lock = trxGuard.writeLock();
-        try {
-            lock.lock();
-            if (!txmap.containsKey(txId)) {
-                return false;
+        final Span span = Span.current().attribute(TX_ATTRIBUTE, txId);
+        final UUID key = TransactionIds.tryParse(txId);
+        final DataModificationContext ctx = key != null ? txmap.get(key) : null;
+        if (ctx == null) {
+            return false;
+        }
+        final boolean succeed = ctx.submit();
+        span.event("submitted");
+        if (succeed) {
+            // failed transaction is kept so that its errors can be queried
+            markCommitted(key, ctx);
+        }
+        return succeed;
+    }
+
+    /*
+     * Responder thread is released as soon as transaction is handed to
+     * datastore, transaction is replaced by tombstone once commit succeeds.
+     */
+    @Override
+    public boolean commitAsync(String txId) {
+        LOG.debug("COMMIT-ASYNC : {}", txId);
+        Span.current().attribute(TX_ATTRIBUTE, txId);
+        final UUID key = TransactionIds.tryParse(txId);
+        final DataModificationContext ctx = key != null ? txmap.get(key) : null;
+        if (ctx == null) {
+            return false;
+        }
+        Futures.addCallback(ctx.submitAsync(), new FutureCallback<Boolean>() {
+            @Override
+            public void onSuccess(Boolean succeed) {
+                if (succeed) {
+                    markCommitted(key, ctx);
+                } else {
+                    LOG.debug("Transaction {} failed : {}", txId, ctx.getErrors());
+                }
             }
-            boolean succeed = txmap.get(txId).submit();
-            if (succeed) {
-                txmap.remove(txId);
+
+            @Override
+            public void onFailure(Throwable t) {
+                LOG.warn("Transaction {} failed", txId, t);
             }
-            return succeed;
-        } finally {
-            lock.unlock();
-        }
+        });
+        return true;
+    }
+
+    /*
+     * Tombstone is written before transaction is removed, so poller never
+     * sees committed transaction as unknown.
+     */
+    private void markCommitted(UUID key, DataModificationContext ctx) {
+        committed.put(key, Boolean.TRUE);
+        txmap.remove(key, ctx);
+    }
+
+    @Override
+    public boolean pending(String txId) {
+        final DataModificationContext ctx = lookupTrx(txId);
+        return ctx != null && ctx.isPending();
     }
 
     @Override
     public boolean cancel(String txId) {
         LOG.debug("CANCEL : {}", txId);
-        final DataModificationContext rwTx = txmap.remove(txId);
+        final UUID key = TransactionIds.tryParse(txId);
+        return key != null && cancel(key);
+    }
+
+    private boolean cancel(UUID key) {
+        final DataModificationContext rwTx = txmap.remove(key);
         return rwTx != null ? rwTx.cancel() : false;
     }
 
     @Override
     public String txid() {
-        final String ret = allocateTrx(null).getKey();
+        final String ret = allocateTrx(null).getKey().toString();
         LOG.debug("TXID : {}", ret);
         return ret;
     }
 
+    @Override
+    public String openSession() {
+        for (;;) {
+            final String key = UUID.randomUUID().toString();
+            final TransactionChainSession session = new TransactionChainSession(key, domDataBroker,
+                    transactionFactory);
+            if (sessions.putIfAbsent(key, session) == null) {
+                LOG.debug("OPEN-SESSION : {}", key);
+                return key;
+            }
+            session.close();
+        }
+    }
+
+    @Override
+    public String txid(String sessionId) {
+        final TransactionChainSession session = sessions.get(sessionId);
+        Preconditions.checkArgument(session != null, "Unknown session %s", sessionId);
+        final UUID key = registerTrx(session::newTransaction).getKey();
+        session.addTransaction(key);
+        LOG.debug("TXID : {} (session {})", key, sessionId);
+        return key.toString();
+    }
+
+    @Override
+    public boolean closeSession(String sessionId) {
+        LOG.debug("CLOSE-SESSION : {}", sessionId);
+        final TransactionChainSession session = sessions.remove(sessionId);
+        if (session == null) {
+            return false;
+        }
+        closeSession(session);
+        return true;
+    }
+
+    private void closeSession(TransactionChainSession session) {
+        // chain can't be closed while its transaction is open
+        session.getTransactions().forEach(txId -> {
+            final DataModificationContext ctx = txmap.get(txId);
+            if (ctx != null && ctx.isOpen()) {
+                cancel(txId);
+            }
+        });
+        session.close();
+    }
+
     @Override
     public List<String> error(String txId) {
         LOG.debug("ERROR : {}", txId);
-        if (txmap.containsKey(txId) && !txmap.get(txId).isSuccess()) {
-            return txmap.get(txId).getErrors().stream().map(RemoteControl::serializeError).collect(Collectors.toList());
+        final UUID key = TransactionIds.tryParse(txId);
+        final DataModificationContext ctx = key != null ? txmap.get(key) : null;
+        if (ctx != null) {
+            return ctx.isSuccess() ? Collections.emptyList()
+                    : ctx.getErrors().stream().map(RemoteControl::serializeError).collect(Collectors.toList());
+        }
+        if (key != null && committed.getIfPresent(key) != null) {
+            return Collections.emptyList();
         }
-        return Collections.emptyList();
+        return Collections.singletonList(UNKNOWN_TRANSACTION);
     }
 
     /**
@@ -232,7 +568,7 @@ public class RemoteControl implements RemoteOmShard, AutoCloseable {
      */
     @VisibleForTesting
     JsonElement injectQName(YangInstanceIdentifier yii, JsonElement inJson) {
-        LOG.debug("Injecting QName from {} into JSON '{}'", yii, inJson);
+        PayloadTrace.trace(LOG, "Injecting QName from {} into JSON '{}'", yii, inJson);
         final Set<Entry<String, JsonElement>> fields = ((JsonObject) inJson).entrySet();
         // nothing to wrap
         if (fields.isEmpty()) {
@@ -246,7 +582,7 @@ public class RemoteControl implements RemoteOmShard, AutoCloseable {
         final QName qn = yii.getLastPathArgument().getNodeType();
         final JsonObject wrapper = new JsonObject();
         wrapper.add(qn.getLocalName(), inJson);
-        LOG.info("Wrapped data : {}", wrapper);
+        PayloadTrace.trace(LOG, "Wrapped data : {}", wrapper);
         return wrapper;
     }
 
@@ -269,54 +605,58 @@ public class RemoteControl implements RemoteOmShard, AutoCloseable {
         return sb.toString();
     }
 
+    /*
+     * Lookup transaction by its id, invalid id can't refer to any transaction.
+     */
+    private DataModificationContext lookupTrx(String txId) {
+        final UUID key = TransactionIds.tryParse(txId);
+        return key != null ? txmap.get(key) : null;
+    }
+
     /*
      * Allocates new transaction and associate it to given UUID. If UUID is
-     * NULL, then it's attempted to create random UUID few times. If it fails,
-     * exception is thrown. By fact that UUID#randomUUID() uses
-     * cryptographically strong PRNG, such situation is almost hypothetical only
+     * NULL, random UUID is used. No lock is needed: existing transaction is
+     * found using plain lookup, and new one is inserted atomically, so
+     * concurrent requests for same UUID end up with same transaction.
      */
-    @GuardedBy("trxGuard")
-    private Entry<String, DataModificationContext> allocateTrx(String txId) {
-        final Entry<String, DataModificationContext> ret;
-        UUID uuid;
-        // ConcurrentMap is thread-safe, but 2 operations on it are not atomic
-        // as a whole, so use explicit lock
-        final Lock lock = trxGuard.writeLock();
-        try {
-            lock.lock();
-            // create new TX id and check if such ID exists
-            if (txId == null) {
-                uuid = UUID.randomUUID();
-                ret = allocateTransactionInternal(uuid);
-            } else {
-                uuid = UUID.fromString(txId);
-                if (txmap.containsKey(uuid.toString())) {
-                    // given UUID already exists, return it
-                    ret = new AbstractMap.SimpleEntry<>(txId, txmap.get(txId));
-                } else {
-                    // Create new transaction and put it into map
-                    ret = allocateTransactionInternal(uuid);
-                }
-            }
-            return ret;
-        } finally {
-            lock.unlock();
+    private Entry<UUID, DataModificationContext> allocateTrx(String txId) {
+        if (txId == null) {
+            return registerTrx(() -> new DataModificationContext(transactionFactory));
         }
+        final UUID key = TransactionIds.parse(txId);
+        // fast path, which does not lock bin of map
+        final DataModificationContext existing = txmap.get(key);
+        if (existing != null) {
+            return new AbstractMap.SimpleEntry<>(key, existing);
+        }
+        return new AbstractMap.SimpleEntry<>(key,
+                txmap.computeIfAbsent(key, k -> new DataModificationContext(transactionFactory)));
     }
 
-    private Entry<String, DataModificationContext> allocateTransactionInternal(UUID uuid) {
-        final Entry<String, DataModificationContext> ret;
-        final DataModificationContext ctx = new DataModificationContext(transactionFactory);
-        ret = new AbstractMap.SimpleEntry<>(uuid.toString(), ctx);
-        txmap.put(uuid.toString(), ctx);
-        return ret;
+    /*
+     * Associate transaction with random UUID, see TransactionIds#next().
+     */
+    private Entry<UUID, DataModificationContext> registerTrx(Supplier<DataModificationContext> allocator) {
+        for (;;) {
+            final UUID key = TransactionIds.next();
+            final DataModificationContext ctx = allocator.get();
+            if (txmap.putIfAbsent(key, ctx) == null) {
+                return new AbstractMap.SimpleEntry<>(key, ctx);
+            }
+            ctx.cancel();
+        }
     }
 
     @Override
     public void close() throws Exception {
         cleanerFuture.cancel(true);
         exec.shutdown();
-        txmap.clear();
+        sessions.keySet().forEach(this::closeSession);
+        cursors.invalidateAll();
+        txmap.values().forEach(DataModificationContext::close);
+        transactions.invalidateAll();
+        Metrics.getRegistry().remove(openTrxMetric);
+        Metrics.getRegistry().release(expiredTrxMetric);
     }
 
     /**
@@ -327,6 +667,15 @@ public class RemoteControl implements RemoteOmShard, AutoCloseable {
         return read(Util.store2int(store), entity, path);
     }
 
+    /**
+     * Overloaded version of
+     * {@link #read(int, String, JsonElement, JsonElement)}
+     */
+    @Override
+    public JsonElement read(String store, String entity, JsonElement path, JsonElement options) throws Exception {
+        return read(Util.store2int(store), entity, path, options);
+    }
+
     /**
      * Overloaded version of
      * {@link #put(String, int, String, JsonElement, JsonElement)}
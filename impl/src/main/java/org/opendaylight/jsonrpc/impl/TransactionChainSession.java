@@ -0,0 +1,127 @@
+/*
+ * Copyright (c) 2017 Brocade Communications Systems, Inc. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.jsonrpc.impl;
+
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+import org.opendaylight.controller.md.sal.common.api.data.AsyncTransaction;
+import org.opendaylight.controller.md.sal.common.api.data.TransactionChain;
+import org.opendaylight.controller.md.sal.common.api.data.TransactionChainListener;
+import org.opendaylight.controller.md.sal.dom.api.DOMDataBroker;
+import org.opendaylight.controller.md.sal.dom.api.DOMTransactionChain;
+import org.opendaylight.jsonrpc.model.TransactionFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Session of remote client backed by {@link DOMTransactionChain}. Successive
+ * transactions of session are pipelined by datastore, so next transaction can
+ * be allocated as soon as previous one is submitted, without waiting for its
+ * commit to complete. Once any transaction of chain fails, session can't be
+ * used anymore and client must open new one.
+ *
+ * <p>
+ * Session keeps IDs of its transactions, so that they can be found without
+ * scanning all transactions, and time of last allocation, so that abandoned
+ * session can be expired.
+ */
+class TransactionChainSession implements TransactionChainListener, AutoCloseable {
+    private static final Logger LOG = LoggerFactory.getLogger(TransactionChainSession.class);
+    private final String id;
+    private final DOMTransactionChain chain;
+    private final TransactionFactory transactionFactory;
+    private final Set<UUID> transactions = ConcurrentHashMap.newKeySet();
+    private volatile long lastAccess = System.nanoTime();
+    private volatile Throwable failure;
+
+    TransactionChainSession(final String id, final DOMDataBroker domDataBroker,
+            final EnsureParentTransactionFactory parentFactory) {
+        this.id = id;
+        this.chain = domDataBroker.createTransactionChain(this);
+        this.transactionFactory = parentFactory.forChain(chain);
+    }
+
+    /**
+     * Allocate next transaction of this session.
+     *
+     * @return {@link DataModificationContext}
+     * @throws IllegalStateException if chain failed or previous transaction
+     *             was neither submitted nor cancelled
+     */
+    DataModificationContext newTransaction() {
+        lastAccess = System.nanoTime();
+        final Throwable cause = failure;
+        if (cause != null) {
+            throw new IllegalStateException("Transaction chain of session " + id + " failed", cause);
+        }
+        return new DataModificationContext(transactionFactory, chain);
+    }
+
+    /**
+     * Record transaction allocated using {@link #newTransaction()}.
+     *
+     * @param txId ID of transaction
+     */
+    void addTransaction(UUID txId) {
+        transactions.add(txId);
+    }
+
+    /**
+     * Get IDs of transactions of this session, some of them may be already
+     * gone.
+     *
+     * @return live view of transaction IDs
+     */
+    Set<UUID> getTransactions() {
+        return transactions;
+    }
+
+    /**
+     * Check if session can be expired, that is no transaction was allocated
+     * for given time and none of its transactions is still alive. IDs of gone
+     * transactions are forgotten.
+     *
+     * @param ttlNanos idle time after which session expires
+     * @param alive tells whether transaction is still alive
+     * @return true if session is idle
+     */
+    boolean isIdle(long ttlNanos, Predicate<UUID> alive) {
+        transactions.removeIf(alive.negate());
+        return transactions.isEmpty() && System.nanoTime() - lastAccess >= ttlNanos;
+    }
+
+    DOMTransactionChain getChain() {
+        return chain;
+    }
+
+    @Override
+    public void onTransactionChainFailed(TransactionChain<?, ?> failedChain, AsyncTransaction<?, ?> transaction,
+            Throwable cause) {
+        LOG.warn("Transaction chain of session {} failed on {}", id, transaction.getIdentifier(), cause);
+        failure = cause;
+    }
+
+    @Override
+    public void onTransactionChainSuccessful(TransactionChain<?, ?> successfulChain) {
+        LOG.debug("Transaction chain of session {} closed", id);
+    }
+
+    @Override
+    public void close() {
+        chain.close();
+    }
+
+    @Override
+    public String toString() {
+        return "TransactionChainSession [id=" + id + ", chain=" + chain + ", transactions=" + transactions.size()
+                + ", failure=" + failure + "]";
+    }
+}
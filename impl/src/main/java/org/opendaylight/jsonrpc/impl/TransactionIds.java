@@ -0,0 +1,112 @@
+/*
+ * Copyright (c) 2017 Brocade Communications Systems, Inc. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.jsonrpc.impl;
+
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Transaction ids. On wire, id is UUID as required by data API model, but it
+ * is kept as {@link UUID} (pair of longs) rather than string. Accepted forms
+ * are
+ * <ol>
+ * <li>canonical form, such as
+ * <code>123e4567-e89b-42d3-a456-426655440000</code></li>
+ * <li>same 32 hex digits without dashes</li>
+ * <li>any other form accepted by {@link UUID#fromString(String)}</li>
+ * </ol>
+ */
+final class TransactionIds {
+    private static final int CANONICAL_LENGTH = 36;
+    private static final int COMPACT_LENGTH = 32;
+
+    private TransactionIds() {
+        // no instantiation here
+    }
+
+    /**
+     * Generate random version 4 UUID. Unlike {@link UUID#randomUUID()}, which
+     * shares single {@link java.security.SecureRandom}, this does not contend
+     * between threads. Collisions are still almost hypothetical only, and
+     * caller must handle them anyway.
+     *
+     * @return new transaction id
+     */
+    static UUID next() {
+        final ThreadLocalRandom random = ThreadLocalRandom.current();
+        final long msb = random.nextLong() & ~0xF000L | 0x4000L;
+        final long lsb = random.nextLong() & ~(0xC000L << 48) | (0x8000L << 48);
+        return new UUID(msb, lsb);
+    }
+
+    /**
+     * Parse transaction id.
+     *
+     * @param txId transaction id in any of accepted forms
+     * @return {@link UUID}
+     * @throws IllegalArgumentException if txId is not valid UUID
+     */
+    static UUID parse(String txId) {
+        final UUID parsed = parseFast(txId);
+        return parsed != null ? parsed : UUID.fromString(txId);
+    }
+
+    /**
+     * Parse transaction id, if it is valid.
+     *
+     * @param txId transaction id in any of accepted forms, can be null
+     * @return {@link UUID} or null if txId is not valid UUID
+     */
+    static UUID tryParse(String txId) {
+        if (txId == null) {
+            return null;
+        }
+        try {
+            return parse(txId);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /*
+     * Parse canonical and compact form without allocation, null is returned
+     * for anything else.
+     */
+    private static UUID parseFast(String txId) {
+        final boolean dashed;
+        if (txId.length() == CANONICAL_LENGTH) {
+            if (txId.charAt(8) != '-' || txId.charAt(13) != '-' || txId.charAt(18) != '-'
+                    || txId.charAt(23) != '-') {
+                return null;
+            }
+            dashed = true;
+        } else if (txId.length() == COMPACT_LENGTH) {
+            dashed = false;
+        } else {
+            return null;
+        }
+        long msb = 0;
+        long lsb = 0;
+        int digits = 0;
+        for (int i = 0; i < txId.length(); i++) {
+            if (dashed && (i == 8 || i == 13 || i == 18 || i == 23)) {
+                continue;
+            }
+            final int digit = Character.digit(txId.charAt(i), 16);
+            if (digit == -1) {
+                return null;
+            }
+            if (digits++ < 16) {
+                msb = msb << 4 | digit;
+            } else {
+                lsb = lsb << 4 | digit;
+            }
+        }
+        return new UUID(msb, lsb);
+    }
+}
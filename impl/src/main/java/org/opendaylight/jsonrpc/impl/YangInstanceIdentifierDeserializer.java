@@ -9,8 +9,11 @@ package org.opendaylight.jsonrpc.impl;
 
 import java.util.Iterator;
 import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.opendaylight.yangtools.yang.common.QName;
+import org.opendaylight.yangtools.yang.common.QNameModule;
 import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
 import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.InstanceIdentifierBuilder;
 import org.opendaylight.yangtools.yang.model.api.Module;
@@ -19,6 +22,10 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.google.common.base.Preconditions;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
 import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
@@ -27,33 +34,103 @@ import com.google.gson.JsonPrimitive;
 /**
  * Parses {@link YangInstanceIdentifier} from JSON-RPC 2.0 path specification,
  * using provided {@link SchemaContext}.
+ *
+ * <p>
+ * Module and child {@link QName} lookups are memoized per
+ * {@link SchemaContext}, along with bounded cache of recently parsed paths, so
+ * recurring paths are resolved without touching schema at all.
  * 
  * @author <a href="mailto:rkosegi@brocade.com">Richard Kosegi</a>
  *
  */
 public class YangInstanceIdentifierDeserializer {
     private static final Logger LOG = LoggerFactory.getLogger(YangInstanceIdentifierDeserializer.class);
+    private static final int PATH_CACHE_SIZE = 1024;
+    private static final int QNAME_CACHE_SIZE = 1024;
+    // resolvers are discarded along with schema context they belong to
+    private static final LoadingCache<SchemaContext, Resolver> RESOLVERS = CacheBuilder.newBuilder().weakKeys()
+            .build(new CacheLoader<SchemaContext, Resolver>() {
+                @Override
+                public Resolver load(SchemaContext key) throws Exception {
+                    return new Resolver(key);
+                }
+            });
 
     private YangInstanceIdentifierDeserializer() {
         // not allowed to instantiate directly
     }
 
     public static YangInstanceIdentifier toYangInstanceIdentifier(JsonElement path, SchemaContext schemaContext) {
-        final ParsingContext pc = new ParsingContext(schemaContext);
-        return pc.parse(path);
+        return RESOLVERS.getUnchecked(schemaContext).resolve(path);
     }
 
-    private static class ParsingContext {
+    /*
+     * Lookups against single schema context. Paths are keyed by their
+     * serialized form, because JsonElement is mutable.
+     */
+    private static class Resolver {
         private final SchemaContext schemaContext;
+        private final ConcurrentMap<String, QNameModule> modules = new ConcurrentHashMap<>();
+        private final ConcurrentMap<QNameModule, Cache<String, QName>> children = new ConcurrentHashMap<>();
+        private final Cache<String, YangInstanceIdentifier> paths = CacheBuilder.newBuilder()
+                .maximumSize(PATH_CACHE_SIZE)
+                .build();
+
+        private Resolver(final SchemaContext schemaContext) {
+            this.schemaContext = schemaContext;
+        }
+
+        private YangInstanceIdentifier resolve(JsonElement path) {
+            Preconditions.checkArgument(path instanceof JsonObject,
+                    "Root element must be instance of JsonObject, actual type is %s", path.getClass().getSimpleName());
+            final String key = path.toString();
+            final YangInstanceIdentifier cached = paths.getIfPresent(key);
+            if (cached != null) {
+                return cached;
+            }
+            final YangInstanceIdentifier parsed = new ParsingContext(this).parse(path);
+            paths.put(key, parsed);
+            return parsed;
+        }
+
+        private QNameModule module(String moduleName) {
+            final QNameModule cached = modules.get(moduleName);
+            if (cached != null) {
+                return cached;
+            }
+            // unknown modules are not cached, so garbage can't fill the map
+            final Module mod = schemaContext.findModuleByName(moduleName, null);
+            if (mod == null) {
+                return null;
+            }
+            modules.putIfAbsent(moduleName, mod.getQNameModule());
+            return mod.getQNameModule();
+        }
+
+        private QName child(QNameModule module, String localName) {
+            final Cache<String, QName> names = children.computeIfAbsent(module,
+                k -> CacheBuilder.newBuilder().maximumSize(QNAME_CACHE_SIZE).build());
+            final QName cached = names.getIfPresent(localName);
+            if (cached != null) {
+                return cached;
+            }
+            final QName qname = QName.create(module, localName);
+            names.put(localName, qname);
+            return qname;
+        }
+    }
+
+    private static class ParsingContext {
+        private final Resolver resolver;
         private final InstanceIdentifierBuilder builder = YangInstanceIdentifier.builder();
         private QName nodeNs;
         private QName localNs;
 
-        private ParsingContext(final SchemaContext schemaContext) {
-            this.schemaContext = schemaContext;
+        private ParsingContext(final Resolver resolver) {
+            this.resolver = resolver;
         }
 
-        private static void assertNamespace(QName ns) {
+        private static void assertNamespace(Object ns) {
             Preconditions.checkNotNull(ns, "Missing/unresolvable namespace");
         }
 
@@ -63,19 +140,17 @@ public class YangInstanceIdentifierDeserializer {
         }
 
         private QName lookupByLocalName(String localName) {
-            final Module mod = schemaContext.findModuleByName(localName, null);
-            return mod != null ? QName.create(mod.getQNameModule(), localName) : null;
+            final QNameModule module = resolver.module(localName);
+            return module != null ? resolver.child(module, localName) : null;
         }
 
         private YangInstanceIdentifier parse(JsonElement path) {
-            Preconditions.checkArgument(path instanceof JsonObject,
-                    "Root element must be instance of JsonObject, actual type is %s", path.getClass().getSimpleName());
             processObject(path);
             return builder.build();
         }
 
         private void processArray(JsonElement path) {
-            LOG.debug("Current node [ARRAY ]: {}", path);
+            LOG.trace("Current node [ARRAY ]: {}", path);
             final JsonArray arr = (JsonArray) path;
             for (final JsonElement je : arr) {
                 if (je instanceof JsonObject) {
@@ -87,22 +162,22 @@ public class YangInstanceIdentifierDeserializer {
             }
         }
 
-        private YangInstanceIdentifier processObject(JsonElement path) {
-            LOG.debug("Current node [OBJECT]: {}", path);
+        private void processObject(JsonElement path) {
+            LOG.trace("Current node [OBJECT]: {}", path);
             final Iterator<Entry<String, JsonElement>> it = path.getAsJsonObject().entrySet().iterator();
             while (it.hasNext()) {
                 final Entry<String, JsonElement> e = it.next();
                 final String currentNode = e.getKey();
                 final JsonElement el = e.getValue();
+                final int colon = currentNode.indexOf(':');
                 // No namespace prefix
-                if (currentNode.indexOf(':') == -1) {
-                    localNs = QName.create(nodeNs, currentNode);
-                    assertNamespace(localNs);
+                if (colon == -1) {
+                    assertNamespace(nodeNs);
+                    localNs = resolver.child(nodeNs.getModule(), currentNode);
                 } else {
-                    final String[] localParts = currentNode.split(":");
-                    nodeNs = lookupByLocalName(localParts[0]);
+                    nodeNs = lookupByLocalName(currentNode.substring(0, colon));
                     assertNamespace(nodeNs);
-                    updateNodeNamespace(el, localParts[1]);
+                    updateNodeNamespace(el, currentNode.substring(colon + 1));
                 }
                 if (el instanceof JsonObject) {
                     builder.node(localNs);
@@ -121,18 +196,17 @@ public class YangInstanceIdentifierDeserializer {
                 }
                 throwJsonPathError(e.getValue());
             }
-            return builder.build();
         }
 
-        private void updateNodeNamespace(JsonElement el, String namespace) {
+        private void updateNodeNamespace(JsonElement el, String localName) {
             if (el instanceof JsonArray || el instanceof JsonObject) {
-                localNs = QName.create(nodeNs, namespace);
+                localNs = resolver.child(nodeNs.getModule(), localName);
                 nodeNs = localNs;
             }
         }
 
         private void processLeaf(final JsonElement path) {
-            LOG.debug("Current node [LEAF  ]: {}", path);
+            LOG.trace("Current node [LEAF  ]: {}", path);
             builder.nodeWithKey(nodeNs, localNs, path.getAsJsonPrimitive().getAsString());
         }
     }
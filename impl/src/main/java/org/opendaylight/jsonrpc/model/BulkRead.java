@@ -0,0 +1,73 @@
+/*
+ * Copyright (c) 2017 Brocade Communications Systems, Inc. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.jsonrpc.model;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonPrimitive;
+
+/**
+ * Format of requests and results of {@link RemoteOmShard#readMany(JsonElement)}.
+ * Each request is JSON object
+ *
+ * <pre>
+ * {"store" : "config", "entity" : "device-1", "path" : {...}, "options" : {...}}
+ * </pre>
+ *
+ * where optional <code>options</code> are {@link ReadOptions}. Result at same
+ * position is either <code>{"data" : {...}}</code>, <code>{}</code> when
+ * there is no data at path, or <code>{"error" : "message"}</code> when read of
+ * this path failed.
+ */
+public final class BulkRead {
+    public static final String STORE = "store";
+    public static final String ENTITY = "entity";
+    public static final String PATH = "path";
+    public static final String OPTIONS = "options";
+    public static final String DATA = "data";
+    public static final String ERROR = "error";
+
+    private BulkRead() {
+        // no instantiation here
+    }
+
+    public static JsonObject request(String store, String entity, JsonElement path) {
+        return request(store, entity, path, ReadOptions.NONE);
+    }
+
+    public static JsonObject request(String store, String entity, JsonElement path, ReadOptions options) {
+        final JsonObject obj = new JsonObject();
+        obj.add(STORE, new JsonPrimitive(store));
+        obj.add(ENTITY, new JsonPrimitive(entity));
+        obj.add(PATH, path);
+        if (!options.isEmpty()) {
+            obj.add(OPTIONS, options.toJson());
+        }
+        return obj;
+    }
+
+    /**
+     * Create successful result.
+     *
+     * @param data data at path, can be null
+     * @return {@link JsonObject}
+     */
+    public static JsonObject success(JsonElement data) {
+        final JsonObject obj = new JsonObject();
+        if (data != null) {
+            obj.add(DATA, data);
+        }
+        return obj;
+    }
+
+    public static JsonObject failure(String message) {
+        final JsonObject obj = new JsonObject();
+        obj.add(ERROR, new JsonPrimitive(String.valueOf(message)));
+        return obj;
+    }
+}
@@ -0,0 +1,52 @@
+/*
+ * Copyright (c) 2017 Brocade Communications Systems, Inc. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.jsonrpc.model;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonPrimitive;
+
+/**
+ * Format of chunks returned by
+ * {@link RemoteOmShard#readChunked(String, String, JsonElement, int)} and
+ * {@link RemoteOmShard#nextChunk(String)}. Each chunk is JSON object
+ *
+ * <pre>
+ * {"data" : {...}, "cursor" : "..."}
+ * </pre>
+ *
+ * where <code>data</code> holds next entries of list (it is missing if there
+ * is no data at path) and <code>cursor</code> is present as long as there are
+ * more entries to fetch.
+ */
+public final class ChunkedRead {
+    public static final String DATA = "data";
+    public static final String CURSOR = "cursor";
+
+    private ChunkedRead() {
+        // no instantiation here
+    }
+
+    /**
+     * Create chunk.
+     *
+     * @param data data of chunk, can be null
+     * @param cursor cursor to fetch next chunk with, null if this is last one
+     * @return {@link JsonObject}
+     */
+    public static JsonObject chunk(JsonElement data, String cursor) {
+        final JsonObject obj = new JsonObject();
+        if (data != null) {
+            obj.add(DATA, data);
+        }
+        if (cursor != null) {
+            obj.add(CURSOR, new JsonPrimitive(cursor));
+        }
+        return obj;
+    }
+}
@@ -7,11 +7,8 @@
  */
 package org.opendaylight.jsonrpc.model;
 
-import java.net.URISyntaxException;
-
-import org.opendaylight.jsonrpc.bus.messagelib.NotificationMessageHandler;
 import org.opendaylight.jsonrpc.bus.messagelib.ThreadedSession;
-import org.opendaylight.jsonrpc.bus.messagelib.TransportFactory;
+import org.opendaylight.jsonrpc.bus.metrics.Counter;
 import org.opendaylight.yangtools.yang.model.api.NotificationDefinition;
 
 import com.google.common.base.Preconditions;
@@ -19,11 +16,21 @@ import com.google.common.base.Preconditions;
 public class NotificationState {
     private final NotificationDefinition notification;
     private final ThreadedSession client;
+    private final Counter dispatched;
 
-    public NotificationState(NotificationDefinition notification, String endpoint, NotificationMessageHandler handler,
-            final TransportFactory transportFactory) throws URISyntaxException {
+    /**
+     * Create state of notification.
+     *
+     * @param notification notification definition
+     * @param client subscriber session of endpoint, shared by all
+     *            notifications mapped to that endpoint
+     * @param dispatched {@link Counter} of notifications dispatched to
+     *            listeners
+     */
+    public NotificationState(NotificationDefinition notification, ThreadedSession client, Counter dispatched) {
         this.notification = Preconditions.checkNotNull(notification);
-        this.client = transportFactory.createSubscriber(endpoint, handler);
+        this.client = Preconditions.checkNotNull(client);
+        this.dispatched = Preconditions.checkNotNull(dispatched);
     }
 
     public NotificationDefinition notification() {
@@ -33,4 +40,8 @@ public class NotificationState {
     public ThreadedSession client() {
         return this.client;
     }
+
+    public Counter dispatched() {
+        return this.dispatched;
+    }
 }
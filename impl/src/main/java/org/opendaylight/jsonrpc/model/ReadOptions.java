@@ -0,0 +1,277 @@
+/*
+ * Copyright (c) 2017 Brocade Communications Systems, Inc. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.jsonrpc.model;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import com.google.common.base.Preconditions;
+import com.google.common.base.Splitter;
+import com.google.common.collect.ImmutableList;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonPrimitive;
+
+/**
+ * Options of remote read, which limit data returned by responder. Options are
+ * sent as JSON object
+ *
+ * <pre>
+ * {"fields" : ["name", "config/mtu"], "depth" : 2, "offset" : 100, "limit" : 50}
+ * </pre>
+ *
+ * All members are optional:
+ * <ul>
+ * <li><strong>offset</strong>, <strong>limit</strong> - page of list entries.
+ * Applies to list being read, or to lists which are immediate children of
+ * container being read.</li>
+ * <li><strong>fields</strong> - child nodes to return, <code>/</code>
+ * separates nested nodes. Module prefix of node name is optional. Fields are
+ * selected within each list entry, so keys of list must be selected as well
+ * if data is to be parsed back into list.</li>
+ * <li><strong>depth</strong> - number of levels of nested containers and
+ * lists to return, leaves and leaf-lists of returned level are always
+ * included.</li>
+ * </ul>
+ */
+public final class ReadOptions {
+    private static final String FIELDS = "fields";
+    private static final String DEPTH = "depth";
+    private static final String OFFSET = "offset";
+    private static final String LIMIT = "limit";
+    private static final Splitter FIELD_SPLITTER = Splitter.on('/').omitEmptyStrings().trimResults();
+    /**
+     * Options which return whole subtree.
+     */
+    public static final ReadOptions NONE = new ReadOptions(Collections.emptyList(), 0, 0, 0);
+    private final List<String> fields;
+    // zero means unlimited
+    private final int depth;
+    private final int offset;
+    private final int limit;
+    private final Map<String, Object> fieldTree;
+
+    /**
+     * Create read options.
+     *
+     * @param fields fields to select, empty to select all
+     * @param depth maximum depth, 0 for unlimited
+     * @param offset number of list entries to skip
+     * @param limit maximum number of list entries, 0 for unlimited
+     */
+    public ReadOptions(List<String> fields, int depth, int offset, int limit) {
+        Preconditions.checkArgument(depth >= 0 && offset >= 0 && limit >= 0,
+                "Depth, offset and limit can't be negative");
+        this.fields = ImmutableList.copyOf(fields);
+        this.depth = depth;
+        this.offset = offset;
+        this.limit = limit;
+        this.fieldTree = parseFields(this.fields);
+    }
+
+    public List<String> getFields() {
+        return fields;
+    }
+
+    public int getDepth() {
+        return depth;
+    }
+
+    public int getOffset() {
+        return offset;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public boolean isEmpty() {
+        return fields.isEmpty() && depth == 0 && offset == 0 && limit == 0;
+    }
+
+    public JsonObject toJson() {
+        final JsonObject obj = new JsonObject();
+        if (!fields.isEmpty()) {
+            final JsonArray arr = new JsonArray();
+            fields.forEach(f -> arr.add(new JsonPrimitive(f)));
+            obj.add(FIELDS, arr);
+        }
+        if (depth != 0) {
+            obj.add(DEPTH, new JsonPrimitive(depth));
+        }
+        if (offset != 0) {
+            obj.add(OFFSET, new JsonPrimitive(offset));
+        }
+        if (limit != 0) {
+            obj.add(LIMIT, new JsonPrimitive(limit));
+        }
+        return obj;
+    }
+
+    /**
+     * Parse read options.
+     *
+     * @param json options as sent by requester, can be null
+     * @return {@link ReadOptions}
+     */
+    public static ReadOptions fromJson(JsonElement json) {
+        if (json == null || json.isJsonNull()) {
+            return NONE;
+        }
+        Preconditions.checkArgument(json.isJsonObject(), "Read options must be JSON object : %s", json);
+        final JsonObject obj = json.getAsJsonObject();
+        final ImmutableList.Builder<String> fields = ImmutableList.builder();
+        if (obj.has(FIELDS)) {
+            obj.getAsJsonArray(FIELDS).forEach(f -> fields.add(f.getAsString()));
+        }
+        return new ReadOptions(fields.build(), getInt(obj, DEPTH), getInt(obj, OFFSET), getInt(obj, LIMIT));
+    }
+
+    private static int getInt(JsonObject obj, String name) {
+        return obj.has(name) ? obj.get(name).getAsInt() : 0;
+    }
+
+    /*
+     * Tree of selected fields, keyed by local name. Empty map selects whole
+     * subtree.
+     */
+    private static Map<String, Object> parseFields(List<String> fields) {
+        final Map<String, Object> root = new LinkedHashMap<>();
+        for (final String field : fields) {
+            Map<String, Object> current = root;
+            for (final String name : FIELD_SPLITTER.split(field)) {
+                @SuppressWarnings("unchecked")
+                final Map<String, Object> next = (Map<String, Object>) current.computeIfAbsent(localName(name),
+                    k -> new LinkedHashMap<>());
+                current = next;
+            }
+        }
+        return root;
+    }
+
+    private static String localName(String name) {
+        return name.substring(name.indexOf(':') + 1);
+    }
+
+    /**
+     * Apply options to data read from datastore.
+     *
+     * @param data data as returned by read, can be null
+     * @return data limited by this options
+     */
+    public JsonElement apply(JsonElement data) {
+        if (data == null || isEmpty()) {
+            return data;
+        }
+        JsonElement result = page(data);
+        if (!fieldTree.isEmpty()) {
+            result = select(result, fieldTree);
+        }
+        if (depth != 0) {
+            result = prune(result, depth);
+        }
+        return result;
+    }
+
+    private JsonElement page(JsonElement data) {
+        if (offset == 0 && limit == 0) {
+            return data;
+        }
+        if (isList(data)) {
+            return slice(data.getAsJsonArray());
+        }
+        if (data.isJsonObject()) {
+            final JsonObject ret = new JsonObject();
+            for (final Entry<String, JsonElement> e : data.getAsJsonObject().entrySet()) {
+                ret.add(e.getKey(), isList(e.getValue()) ? slice(e.getValue().getAsJsonArray()) : e.getValue());
+            }
+            return ret;
+        }
+        return data;
+    }
+
+    private JsonArray slice(JsonArray arr) {
+        final JsonArray ret = new JsonArray();
+        final int end = limit == 0 ? arr.size() : (int) Math.min(arr.size(), (long) offset + limit);
+        for (int i = offset; i < end; i++) {
+            ret.add(arr.get(i));
+        }
+        return ret;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static JsonElement select(JsonElement data, Map<String, Object> tree) {
+        if (tree.isEmpty()) {
+            return data;
+        }
+        if (data.isJsonArray()) {
+            final JsonArray ret = new JsonArray();
+            data.getAsJsonArray().forEach(e -> ret.add(select(e, tree)));
+            return ret;
+        }
+        if (!data.isJsonObject()) {
+            return data;
+        }
+        final JsonObject ret = new JsonObject();
+        for (final Entry<String, JsonElement> e : data.getAsJsonObject().entrySet()) {
+            final Map<String, Object> subtree = (Map<String, Object>) tree.get(localName(e.getKey()));
+            if (subtree != null) {
+                ret.add(e.getKey(), select(e.getValue(), subtree));
+            }
+        }
+        return ret;
+    }
+
+    /*
+     * List (JSON array) and its entries count as single level, leaf-lists
+     * (arrays of primitives) are treated as leaves.
+     */
+    private static JsonElement prune(JsonElement data, int remaining) {
+        if (data.isJsonArray()) {
+            final JsonArray ret = new JsonArray();
+            data.getAsJsonArray().forEach(e -> ret.add(e.isJsonObject() ? prune(e, remaining) : e));
+            return ret;
+        }
+        if (!data.isJsonObject()) {
+            return data;
+        }
+        final JsonObject ret = new JsonObject();
+        for (final Entry<String, JsonElement> e : data.getAsJsonObject().entrySet()) {
+            if (isLeaf(e.getValue())) {
+                ret.add(e.getKey(), e.getValue());
+            } else if (remaining > 1) {
+                ret.add(e.getKey(), prune(e.getValue(), remaining - 1));
+            }
+        }
+        return ret;
+    }
+
+    private static boolean isList(JsonElement element) {
+        return element.isJsonArray() && element.getAsJsonArray().size() > 0
+                && element.getAsJsonArray().get(0).isJsonObject();
+    }
+
+    private static boolean isLeaf(JsonElement element) {
+        if (element.isJsonObject()) {
+            return false;
+        }
+        if (element.isJsonArray()) {
+            return !isList(element);
+        }
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        return "ReadOptions [fields=" + fields + ", depth=" + depth + ", offset=" + offset + ", limit=" + limit + "]";
+    }
+}
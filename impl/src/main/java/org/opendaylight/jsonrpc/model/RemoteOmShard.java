@@ -18,6 +18,65 @@ public interface RemoteOmShard extends AutoCloseable {
 
     JsonElement read(String store, String entity, JsonElement path) throws Exception;
 
+    /**
+     * Read data at path, limited by options such as selected fields, depth or
+     * page of list entries, see {@link ReadOptions}.
+     *
+     * @param store datastore
+     * @param entity entity
+     * @param path path to read
+     * @param options read options, null to read whole subtree
+     * @return data at path
+     * @throws Exception if read failed
+     */
+    JsonElement read(int store, String entity, JsonElement path, JsonElement options) throws Exception;
+
+    JsonElement read(String store, String entity, JsonElement path, JsonElement options) throws Exception;
+
+    /**
+     * Read many paths, possibly from different datastores, in single request.
+     * All paths are read using same transaction. Failure of one read does not
+     * affect others, see {@link BulkRead} for format of requests and results.
+     *
+     * @param requests JSON array of read requests
+     * @return JSON array of results, in same order as requests
+     * @throws Exception if requests are malformed
+     */
+    JsonElement readMany(JsonElement requests) throws Exception;
+
+    /**
+     * Start reading list in chunks. Snapshot of list is taken and its entries
+     * are returned in chunks of given size, so neither side has to hold whole
+     * list in single message. Data which is not a list is returned in single
+     * chunk. See {@link ChunkedRead} for format of chunks.
+     *
+     * @param store datastore
+     * @param entity entity
+     * @param path path of list
+     * @param chunkSize maximum number of list entries in chunk
+     * @return first chunk
+     * @throws Exception if read failed
+     */
+    JsonElement readChunked(String store, String entity, JsonElement path, int chunkSize) throws Exception;
+
+    /**
+     * Get next chunk of list read by
+     * {@link #readChunked(String, String, JsonElement, int)}. Cursor is
+     * released once last chunk is returned.
+     *
+     * @param cursor cursor returned with previous chunk
+     * @return next chunk
+     */
+    JsonElement nextChunk(String cursor);
+
+    /**
+     * Release cursor before all chunks were fetched.
+     *
+     * @param cursor cursor returned with previous chunk
+     * @return true if cursor was released, false if there is no such cursor
+     */
+    boolean closeCursor(String cursor);
+
     void put(String txId, int store, String entity, JsonElement path, JsonElement data);
 
     void put(String txId, String store, String entity, JsonElement path, JsonElement data);
@@ -36,9 +95,66 @@ public interface RemoteOmShard extends AutoCloseable {
 
     boolean commit(String txId);
 
+    /**
+     * Start commit of transaction without waiting for datastore to complete
+     * it. Use {@link #pending(String)} to find out when commit completes and
+     * {@link #error(String)} to get its errors, if any.
+     *
+     * @param txId transaction ID
+     * @return true if commit was started, false if there is no such
+     *         transaction
+     */
+    boolean commitAsync(String txId);
+
+    /**
+     * Check if commit of transaction started by {@link #commitAsync(String)}
+     * is still in progress.
+     *
+     * @param txId transaction ID
+     * @return true if commit is in progress
+     */
+    boolean pending(String txId);
+
     boolean cancel(String txId);
 
     String txid();
 
+    /**
+     * Open session backed by transaction chain. Transactions allocated within
+     * session using {@link #txid(String)} are pipelined, so next transaction
+     * can be allocated as soon as previous one was committed (see
+     * {@link #commitAsync(String)}) or cancelled, while datastore is still
+     * processing it.
+     *
+     * @return session ID
+     */
+    String openSession();
+
+    /**
+     * Allocate next transaction of session opened by {@link #openSession()}.
+     *
+     * @param sessionId session ID
+     * @return transaction ID
+     */
+    String txid(String sessionId);
+
+    /**
+     * Close session opened by {@link #openSession()}. Transaction of session
+     * which was not committed yet is cancelled.
+     *
+     * @param sessionId session ID
+     * @return true if session was closed, false if there is no such session
+     */
+    boolean closeSession(String sessionId);
+
+    /**
+     * Get errors of transaction. Committed transaction is remembered for
+     * some time, so that its outcome can be queried after
+     * {@link #pending(String)} returns false.
+     *
+     * @param txId transaction ID
+     * @return errors of failed transaction, empty list if transaction is open
+     *         or was committed, single error if transaction is unknown
+     */
     List<String> error(String txId);
 }
@@ -8,11 +8,19 @@
 package org.opendaylight.jsonrpc.model;
 
 import java.net.URISyntaxException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
 
 import org.opendaylight.jsonrpc.bus.jsonrpc.JsonRpcErrorObject;
 import org.opendaylight.jsonrpc.bus.messagelib.EndpointRole;
 import org.opendaylight.jsonrpc.bus.messagelib.Session;
+import org.opendaylight.jsonrpc.bus.messagelib.Span;
+import org.opendaylight.jsonrpc.bus.messagelib.Tracing;
 import org.opendaylight.jsonrpc.bus.messagelib.TransportFactory;
+import org.opendaylight.jsonrpc.bus.metrics.Counter;
+import org.opendaylight.jsonrpc.bus.metrics.MetricRegistry;
+import org.opendaylight.jsonrpc.bus.metrics.Metrics;
+import org.opendaylight.jsonrpc.bus.metrics.Timer;
 import org.opendaylight.jsonrpc.impl.JsonRPCHandler;
 import org.opendaylight.jsonrpc.impl.Util;
 import org.opendaylight.yangtools.yang.model.api.RpcDefinition;
@@ -21,20 +29,43 @@ import com.google.common.base.Preconditions;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 
-public class RpcState {
+/**
+ * State of RPC mapped to remote endpoint. Latency and failures of calls are
+ * recorded in {@link Metrics} as <code>rpc.&lt;endpoint&gt;.&lt;name&gt;.latency</code>
+ * and <code>.errors</code>. Every call is also recorded as client {@link Span}
+ * when {@link Tracing} is enabled. Metrics are released once state is closed.
+ *
+ * <p>
+ * Reply of last call is kept in state, so callers which may call same RPC
+ * concurrently must hold {@link #lock()} from request until reply was read.
+ */
+public class RpcState implements AutoCloseable {
     private String name;
     private RpcDefinition rpc;
     private Session client;
     private JsonRPCHandler handler;
+    private final String endpoint;
+    private final String latencyMetric;
+    private final String errorsMetric;
+    private final Timer latency;
+    private final Counter errors;
+    // not a monitor, so that virtual thread waiting for reply is not pinned
+    private final ReentrantLock lock = new ReentrantLock();
 
     public RpcState(String qname, RpcDefinition rpc, String endpoint, TransportFactory transportFactory)
             throws URISyntaxException {
         this.name = Preconditions.checkNotNull(qname);
-        Preconditions.checkNotNull(endpoint);
+        this.endpoint = Preconditions.checkNotNull(endpoint);
         this.rpc = Preconditions.checkNotNull(rpc);
         this.client = transportFactory.createSession(Util.ensureRole(endpoint, EndpointRole.REQ));
         this.handler = new JsonRPCHandler();
         this.client.setReplyMessageHandler(handler);
+        final MetricRegistry metrics = Metrics.getRegistry();
+        final String prefix = Metrics.name("rpc", endpoint, qname);
+        this.latencyMetric = Metrics.name(prefix, "latency");
+        this.errorsMetric = Metrics.name(prefix, "errors");
+        this.latency = metrics.timer(latencyMetric);
+        this.errors = metrics.counter(errorsMetric);
     }
 
     public RpcDefinition rpc() {
@@ -57,9 +88,26 @@ public class RpcState {
         return this.handler.getError();
     }
 
+    /**
+     * Acquire exclusive use of this RPC, see {@link #unlock()}.
+     */
+    public void lock() {
+        lock.lock();
+    }
+
+    /**
+     * Release exclusive use of this RPC acquired by {@link #lock()}.
+     */
+    public void unlock() {
+        lock.unlock();
+    }
+
     public JsonElement sendRequest(JsonElement argument, JsonObject metadata) {
         /* we will refine the handling here later */
-        try {
+        final long start = System.nanoTime();
+        final Span span = Tracing.startSpan(name, Span.Kind.CLIENT).attribute("endpoint", endpoint);
+        boolean failed = true;
+        try (Span.Scope scope = span.enter()) {
             if (metadata == null) {
                 this.client.sendRequest(this.name, argument);
             } else {
@@ -67,12 +115,28 @@ public class RpcState {
             }
             int replyCount = this.client.handleIncomingMessage();
             if (replyCount > 0) {
+                failed = this.lastError() != null;
                 return this.lastMessage();
             } else {
                 return null;
             }
         } catch (Exception e) {
+            span.error(e.getMessage());
             return null;
+        } finally {
+            latency.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            if (failed) {
+                errors.increment();
+            }
+            span.end();
         }
     }
+
+    @Override
+    public void close() {
+        client.close();
+        final MetricRegistry metrics = Metrics.getRegistry();
+        metrics.release(latencyMetric);
+        metrics.release(errorsMetric);
+    }
 }
@@ -0,0 +1,74 @@
+/*
+ * Copyright (c) 2017 Brocade Communications Systems, Inc. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.jsonrpc.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.opendaylight.controller.md.sal.common.api.data.LogicalDatastoreType;
+import org.opendaylight.controller.md.sal.dom.api.DOMDataWriteTransaction;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
+
+import com.google.common.util.concurrent.Futures;
+
+/**
+ * Tests for {@link DataModificationContext}.
+ */
+public class DataModificationContextTest {
+    private DOMDataWriteTransaction tx;
+    private DataModificationContext ctx;
+
+    @Before
+    public void setUp() {
+        tx = mock(DOMDataWriteTransaction.class);
+        doReturn(Futures.immediateCheckedFuture(null)).when(tx).submit();
+        doReturn(true).when(tx).cancel();
+        ctx = new DataModificationContext(() -> tx);
+    }
+
+    @Test
+    public void testModify() throws Exception {
+        ctx.modify(t -> t.delete(LogicalDatastoreType.CONFIGURATION, YangInstanceIdentifier.EMPTY));
+        assertTrue(ctx.submitAsync().get());
+        assertModifyRejected("submitted");
+        // rejected modification is not applied
+        verify(tx, times(1)).delete(LogicalDatastoreType.CONFIGURATION, YangInstanceIdentifier.EMPTY);
+    }
+
+    @Test
+    public void testModifyCancelled() {
+        ctx.cancel();
+        assertModifyRejected("cancelled");
+        verify(tx, never()).delete(LogicalDatastoreType.CONFIGURATION, YangInstanceIdentifier.EMPTY);
+    }
+
+    @Test
+    public void testModifyExpired() {
+        ctx.expire();
+        verify(tx, times(1)).cancel();
+        assertModifyRejected("expired");
+        verify(tx, never()).delete(LogicalDatastoreType.CONFIGURATION, YangInstanceIdentifier.EMPTY);
+    }
+
+    private void assertModifyRejected(String reason) {
+        try {
+            ctx.modify(t -> t.delete(LogicalDatastoreType.CONFIGURATION, YangInstanceIdentifier.EMPTY));
+            fail("Modification should be rejected");
+        } catch (IllegalStateException e) {
+            assertEquals("Transaction was already " + reason, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) 2017 Brocade Communications Systems, Inc. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.jsonrpc.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.opendaylight.controller.md.sal.common.api.data.LogicalDatastoreType;
+import org.opendaylight.controller.md.sal.dom.api.DOMDataBroker;
+import org.opendaylight.controller.md.sal.dom.api.DOMDataWriteTransaction;
+import org.opendaylight.yang.gen.v1.urn.tbd.params.xml.ns.yang.network.topology.rev131021.NetworkTopology;
+import org.opendaylight.yang.gen.v1.urn.tbd.params.xml.ns.yang.network.topology.rev131021.network.topology.Topology;
+import org.opendaylight.yang.gen.v1.urn.tbd.params.xml.ns.yang.network.topology.rev131021.network.topology.topology.Node;
+import org.opendaylight.yangtools.yang.common.QName;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
+import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNode;
+
+/**
+ * Tests for {@link EnsureParentTransactionFactory}.
+ */
+public class EnsureParentTransactionFactoryTest extends AbstractJsonRpcTest {
+    private static final LogicalDatastoreType STORE = LogicalDatastoreType.CONFIGURATION;
+    private DOMDataWriteTransaction delegate;
+    private EnsureParentTransactionFactory factory;
+    private DOMDataWriteTransaction trx;
+
+    @Before
+    public void setUp() {
+        NormalizedNodesHelper.init(schemaContext);
+        delegate = mock(DOMDataWriteTransaction.class);
+        final DOMDataBroker broker = mock(DOMDataBroker.class);
+        doReturn(delegate).when(broker).newWriteOnlyTransaction();
+        factory = new EnsureParentTransactionFactory(broker, NormalizedNodesHelper.getBindingToNormalizedNodeCodec());
+        trx = factory.get();
+    }
+
+    private static YangInstanceIdentifier topology() {
+        return YangInstanceIdentifier.builder().node(NetworkTopology.QNAME).node(Topology.QNAME)
+                .nodeWithKey(Topology.QNAME, QName.create(Topology.QNAME, "topology-id"), "topology1").build();
+    }
+
+    private static YangInstanceIdentifier node(String name) {
+        return YangInstanceIdentifier.builder(topology()).node(Node.QNAME)
+                .nodeWithKey(Node.QNAME, QName.create(Node.QNAME, "node-id"), name).build();
+    }
+
+    @Test
+    public void testParentsMergedOnce() {
+        final NormalizedNode<?, ?> data = mock(NormalizedNode.class);
+        // 5 path arguments ensured + data
+        trx.merge(STORE, node("node1"), data);
+        verify(delegate, times(6)).merge(eq(STORE), any(YangInstanceIdentifier.class), any());
+        // only new list entry is ensured
+        trx.merge(STORE, node("node2"), data);
+        verify(delegate, times(8)).merge(eq(STORE), any(YangInstanceIdentifier.class), any());
+        verify(delegate, times(1)).merge(eq(STORE), eq(topology()), any());
+        // removed parent is ensured again
+        trx.delete(STORE, topology());
+        trx.merge(STORE, node("node3"), data);
+        verify(delegate, times(12)).merge(eq(STORE), any(YangInstanceIdentifier.class), any());
+        verify(delegate, times(2)).merge(eq(STORE), eq(topology()), any());
+        // other datastore is tracked separately
+        trx.merge(LogicalDatastoreType.OPERATIONAL, node("node1"), data);
+        verify(delegate, times(6)).merge(eq(LogicalDatastoreType.OPERATIONAL), any(YangInstanceIdentifier.class),
+                any());
+    }
+
+    @Test
+    public void testOperationsSharedBySchemaPath() {
+        final NormalizedNode<?, ?> data = mock(NormalizedNode.class);
+        trx.merge(STORE, node("node1"), data);
+        // one operation per path argument
+        assertEquals(5, factory.cachedOperationCount());
+        // other list entries and other transactions reuse them
+        trx.merge(STORE, node("node2"), data);
+        factory.get().merge(STORE, node("node3"), data);
+        assertEquals(5, factory.cachedOperationCount());
+    }
+}
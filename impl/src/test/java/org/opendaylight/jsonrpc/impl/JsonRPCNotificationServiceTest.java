@@ -9,6 +9,7 @@ package org.opendaylight.jsonrpc.impl;
 
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyCollectionOf;
 import static org.mockito.Matchers.anyInt;
 import static org.mockito.Matchers.anyString;
 import static org.mockito.Mockito.mock;
@@ -16,6 +17,7 @@ import static org.mockito.Mockito.when;
 
 import java.net.URISyntaxException;
 import java.text.ParseException;
+import java.util.Collection;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
 
@@ -84,6 +86,16 @@ public class JsonRPCNotificationServiceTest extends AbstractJsonRpcTest {
                         (AutoCloseable) invocation.getArguments()[1]);
             }
         });
+        when(transportFactory.createSubscriber(anyString(), anyCollectionOf(String.class), any()))
+                .thenAnswer(new Answer<ThreadedSession>() {
+                    @SuppressWarnings("unchecked")
+                    @Override
+                    public ThreadedSession answer(InvocationOnMock invocation) throws Throwable {
+                        return Util.createThreadedSubscriberSession((String) invocation.getArguments()[0],
+                                (Collection<String>) invocation.getArguments()[1],
+                                (AutoCloseable) invocation.getArguments()[2]);
+                    }
+                });
         svc = new JsonRPCNotificationService(getPeer(),
                 new BuiltinSchemaContextProvider(schemaContext).createSchemaContext(getPeer()), pathMap,
                 transportFactory, governance);
@@ -8,20 +8,37 @@
 package org.opendaylight.jsonrpc.impl;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.anyInt;
 import static org.mockito.Matchers.anyString;
 import static org.mockito.Matchers.eq;
+import static org.mockito.Matchers.startsWith;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.reset;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
 import java.net.URISyntaxException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.junit.After;
 import org.junit.Before;
@@ -29,20 +46,26 @@ import org.junit.Test;
 import org.opendaylight.controller.md.sal.common.api.data.LogicalDatastoreType;
 import org.opendaylight.controller.md.sal.common.api.data.ReadFailedException;
 import org.opendaylight.controller.md.sal.common.api.data.TransactionCommitFailedException;
+import org.opendaylight.jsonrpc.bus.messagelib.ProxyServiceGenericException;
 import org.opendaylight.jsonrpc.bus.messagelib.TransportFactory;
 import org.opendaylight.jsonrpc.hmap.DataType;
 import org.opendaylight.jsonrpc.hmap.HierarchicalEnumHashMap;
 import org.opendaylight.jsonrpc.hmap.HierarchicalEnumMap;
 import org.opendaylight.jsonrpc.hmap.JsonPathCodec;
+import org.opendaylight.jsonrpc.model.BulkRead;
+import org.opendaylight.jsonrpc.model.ChunkedRead;
 import org.opendaylight.jsonrpc.model.RemoteOmShard;
 import org.opendaylight.yang.gen.v1.urn.tbd.params.xml.ns.yang.network.topology.rev130712.NetworkTopology;
+import org.opendaylight.yangtools.yang.common.QName;
 import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
+import org.opendaylight.yangtools.yang.data.api.schema.MapNode;
 import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNode;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.google.common.base.Optional;
 import com.google.common.util.concurrent.CheckedFuture;
+import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 
@@ -56,6 +79,8 @@ public class JsonRPCTxTest extends AbstractJsonRpcTest {
     private static final Logger LOG = LoggerFactory.getLogger(JsonRPCTxTest.class);
     private static final String ENDPOINT = "zmq://localhost:1234";
     private static final String DEVICE_NAME = "dev-1";
+    private static final YangInstanceIdentifier TOPOLOGY_PATH = YangInstanceIdentifier.of(NetworkTopology.QNAME)
+            .node(QName.create(NetworkTopology.QNAME, "topology"));
     private JsonRPCTx trx;
     private JsonConverter conv;
     private RemoteOmShard om;
@@ -108,6 +133,121 @@ public class JsonRPCTxTest extends AbstractJsonRpcTest {
         final NormalizedNode<?, ?> nn = fopt.checkedGet().get();
         LOG.info("Read output : {}", nn);
     }
+
+    @Test(timeout = 15000)
+    public void test_read_coalesced() throws Exception {
+        readConcurrently(new JsonObject(), trx, trx, trx);
+        verify(om, times(1)).read(anyString(), anyString(), any(JsonElement.class));
+        verify(om, times(1)).readMany(any(JsonElement.class));
+    }
+
+    @Test(timeout = 15000)
+    public void test_read_coalesced_across_transactions() throws Exception {
+        final ConcurrentMap<String, ReadBatcher> batchers = new ConcurrentHashMap<>();
+        final JsonRPCTx[] transactions = new JsonRPCTx[3];
+        for (int i = 0; i < transactions.length; i++) {
+            transactions[i] = new JsonRPCTx(transportFactory, DEVICE_NAME, pathMap, conv, schemaContext, batchers);
+        }
+        readConcurrently(new JsonObject(), transactions);
+        verify(om, times(1)).read(anyString(), anyString(), any(JsonElement.class));
+        verify(om, times(1)).readMany(any(JsonElement.class));
+        assertEquals(1, batchers.size());
+    }
+
+    @Test(timeout = 15000)
+    public void test_read_missing() throws Exception {
+        // first read is sent alone, other two are batched
+        final List<Optional<NormalizedNode<?, ?>>> results = readConcurrently(null, trx, trx, trx);
+        verify(om, times(1)).readMany(any(JsonElement.class));
+        assertEquals(results.get(0), results.get(1));
+        assertEquals(results.get(0), results.get(2));
+    }
+
+    @Test
+    public void test_read_chunked() throws Exception {
+        doReturn(chunk("[{\"topology-id\":\"t1\"},{\"topology-id\":\"t2\"}]", "c1")).when(om)
+                .readChunked(anyString(), anyString(), any(JsonElement.class), anyInt());
+        doReturn(chunk("[{\"topology-id\":\"t3\"}]", null)).when(om).nextChunk("c1");
+        trx.setReadChunkSize(2);
+        final NormalizedNode<?, ?> nn = trx.read(LogicalDatastoreType.OPERATIONAL, TOPOLOGY_PATH).checkedGet().get();
+        // entries of all chunks are merged into single list
+        assertEquals(3, ((MapNode) nn).getValue().size());
+        verify(om, times(1)).readChunked(anyString(), anyString(), any(JsonElement.class), eq(2));
+        verify(om, never()).read(anyString(), anyString(), any(JsonElement.class));
+        // last chunk released cursor on peer
+        verify(om, never()).closeCursor(anyString());
+    }
+
+    @Test
+    public void test_read_chunked_stopped() throws Exception {
+        doReturn(chunk("[{\"topology-id\":\"t1\"}]", "c1")).when(om).readChunked(anyString(), anyString(),
+                any(JsonElement.class), anyInt());
+        doThrow(new IllegalStateException("Connection lost")).when(om).nextChunk("c1");
+        trx.setReadChunkSize(1);
+        try {
+            trx.read(LogicalDatastoreType.OPERATIONAL, TOPOLOGY_PATH).checkedGet();
+            fail("Read should fail");
+        } catch (ReadFailedException e) {
+            LOG.debug("Expected failure", e);
+        }
+        // cursor of abandoned read is released
+        verify(om, times(1)).closeCursor("c1");
+    }
+
+    private JsonObject chunk(String data, String cursor) {
+        final JsonObject chunk = new JsonObject();
+        chunk.add(ChunkedRead.DATA, jsonParser.parse(data));
+        if (cursor != null) {
+            chunk.addProperty(ChunkedRead.CURSOR, cursor);
+        }
+        return chunk;
+    }
+
+    /*
+     * First read blocks until other reads are queued behind it.
+     */
+    private List<Optional<NormalizedNode<?, ?>>> readConcurrently(JsonElement data, JsonRPCTx... transactions)
+            throws Exception {
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch latch = new CountDownLatch(1);
+        doAnswer(inv -> {
+            started.countDown();
+            latch.await();
+            return data;
+        }).when(om).read(anyString(), anyString(), any(JsonElement.class));
+        doAnswer(inv -> {
+            final JsonArray results = new JsonArray();
+            ((JsonArray) inv.getArguments()[0]).forEach(r -> results.add(BulkRead.success(data)));
+            return results;
+        }).when(om).readMany(any(JsonElement.class));
+        final ExecutorService es = Executors.newFixedThreadPool(transactions.length);
+        try {
+            final YangInstanceIdentifier path = YangInstanceIdentifier.of(NetworkTopology.QNAME);
+            final List<Future<Optional<NormalizedNode<?, ?>>>> futures = new ArrayList<>();
+            for (int i = 0; i < transactions.length; i++) {
+                final JsonRPCTx tx = transactions[i];
+                futures.add(es.submit(() -> tx.read(LogicalDatastoreType.OPERATIONAL, path).checkedGet()));
+                if (i == 0) {
+                    started.await();
+                } else {
+                    // wait until read is queued behind one in flight
+                    final int queued = i;
+                    final ReadBatcher batcher = tx.getReadBatcher(LogicalDatastoreType.OPERATIONAL,
+                            new JsonObject());
+                    retryAction(TimeUnit.SECONDS, 5, () -> batcher.queuedReads() == queued);
+                }
+            }
+            latch.countDown();
+            final List<Optional<NormalizedNode<?, ?>>> results = new ArrayList<>();
+            for (final Future<Optional<NormalizedNode<?, ?>>> future : futures) {
+                results.add(future.get(5, TimeUnit.SECONDS));
+            }
+            return results;
+        } finally {
+            es.shutdownNow();
+        }
+    }
+
     @Test
     public void test_exists() throws Exception {
         doReturn(true).when(om).exists(anyString(), anyString(), any(JsonElement.class));
@@ -121,7 +261,7 @@ public class JsonRPCTxTest extends AbstractJsonRpcTest {
     public void test_put() throws TransactionCommitFailedException {
         final Entry<YangInstanceIdentifier, NormalizedNode<?, ?>> data = JsonConverterTest.createContainerNodeData();
         trx.put(LogicalDatastoreType.CONFIGURATION, data.getKey(), data.getValue());
-        doReturn(true).when(om).commit(anyString());
+        doReturn(true).when(om).commitAsync(anyString());
         CheckedFuture<Void, TransactionCommitFailedException> rf = trx.submit();
         rf.checkedGet();
         assertTrue(rf.isDone());
@@ -132,7 +272,9 @@ public class JsonRPCTxTest extends AbstractJsonRpcTest {
     @Test
     public void delete() throws TransactionCommitFailedException {
         trx.delete(LogicalDatastoreType.CONFIGURATION, YangInstanceIdentifier.of(NetworkTopology.QNAME));
+        doReturn(true).when(om).commitAsync(anyString());
         CheckedFuture<Void, TransactionCommitFailedException> rf = trx.submit();
+        rf.checkedGet();
         assertTrue(rf.isDone());
         verify(om, times(1)).delete(anyString(), eq("config"), anyString(),
                 any(JsonElement.class));
@@ -151,7 +293,7 @@ public class JsonRPCTxTest extends AbstractJsonRpcTest {
     @Test
     public void test_merge() throws TransactionCommitFailedException {
         final Entry<YangInstanceIdentifier, NormalizedNode<?, ?>> data = JsonConverterTest.createContainerNodeData();
-        doReturn(true).when(om).commit(anyString());
+        doReturn(true).when(om).commitAsync(anyString());
         trx.merge(LogicalDatastoreType.CONFIGURATION, data.getKey(), data.getValue());
         CheckedFuture<Void, TransactionCommitFailedException> rf = trx.submit();
         rf.checkedGet();
@@ -159,4 +301,61 @@ public class JsonRPCTxTest extends AbstractJsonRpcTest {
         verify(om, times(1)).merge(anyString(), eq("config"), anyString(),
                 any(JsonElement.class), any(JsonElement.class));
     }
+
+    @Test
+    public void testCommitPolling() throws Exception {
+        trx.delete(LogicalDatastoreType.CONFIGURATION, YangInstanceIdentifier.of(NetworkTopology.QNAME));
+        doReturn(true).when(om).commitAsync(anyString());
+        doReturn(true).doReturn(true).doReturn(false).when(om).pending(anyString());
+        doReturn(Collections.emptyList()).when(om).error(anyString());
+        assertTrue(trx.commit().get(10, TimeUnit.SECONDS).isSuccessful());
+        verify(om, times(3)).pending(anyString());
+        verify(om, never()).commit(anyString());
+    }
+
+    @Test
+    public void testCommitPollingFailed() throws Exception {
+        trx.delete(LogicalDatastoreType.CONFIGURATION, YangInstanceIdentifier.of(NetworkTopology.QNAME));
+        doReturn(true).when(om).commitAsync(anyString());
+        doReturn(Collections.singletonList("error")).when(om).error(anyString());
+        assertFalse(trx.commit().get(10, TimeUnit.SECONDS).isSuccessful());
+    }
+
+    @Test
+    public void testCommitFailureCancelsRemaining() throws Exception {
+        final String otherEndpoint = "zmq://localhost:1235";
+        pathMap.put(new JsonObject(), DataType.OPERATIONAL_DATA, otherEndpoint);
+        final RemoteOmShard otherOm = mock(RemoteOmShard.class);
+        doReturn(otherOm).when(transportFactory).createProxy(any(), startsWith(otherEndpoint));
+        final AtomicInteger commits = new AtomicInteger();
+        final AtomicInteger cancels = new AtomicInteger();
+        for (RemoteOmShard shard : new RemoteOmShard[] { om, otherOm }) {
+            doReturn("tx").when(shard).txid();
+            doAnswer(inv -> {
+                commits.incrementAndGet();
+                return false;
+            }).when(shard).commitAsync(anyString());
+            doAnswer(inv -> {
+                cancels.incrementAndGet();
+                return true;
+            }).when(shard).cancel(anyString());
+        }
+        final JsonRPCTx tx = new JsonRPCTx(transportFactory, DEVICE_NAME, pathMap, conv, schemaContext);
+        tx.delete(LogicalDatastoreType.CONFIGURATION, YangInstanceIdentifier.of(NetworkTopology.QNAME));
+        tx.delete(LogicalDatastoreType.OPERATIONAL, YangInstanceIdentifier.of(NetworkTopology.QNAME));
+        assertFalse(tx.commit().get(10, TimeUnit.SECONDS).isSuccessful());
+        // first endpoint failed, so second one is cancelled rather than committed
+        assertEquals(1, commits.get());
+        assertEquals(1, cancels.get());
+        tx.close();
+    }
+
+    @Test
+    public void testCommitWithoutAsyncSupport() throws Exception {
+        trx.delete(LogicalDatastoreType.CONFIGURATION, YangInstanceIdentifier.of(NetworkTopology.QNAME));
+        doThrow(new ProxyServiceGenericException("Method not found", -32601)).when(om).commitAsync(anyString());
+        doReturn(true).when(om).commit(anyString());
+        assertTrue(trx.commit().get(10, TimeUnit.SECONDS).isSuccessful());
+        verify(om, times(1)).commit(anyString());
+    }
 }
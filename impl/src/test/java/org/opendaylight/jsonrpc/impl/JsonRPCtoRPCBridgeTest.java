@@ -12,6 +12,7 @@ import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 import static org.mockito.Matchers.anyString;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
@@ -21,6 +22,7 @@ import java.io.StringReader;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
 
 import org.junit.After;
 import org.junit.Before;
@@ -31,6 +33,7 @@ import org.mockito.stubbing.Answer;
 import org.opendaylight.controller.md.sal.binding.impl.BindingToNormalizedNodeCodec;
 import org.opendaylight.controller.md.sal.dom.api.DOMRpcException;
 import org.opendaylight.controller.md.sal.dom.api.DOMRpcResult;
+import org.opendaylight.jsonrpc.bus.messagelib.Deadline;
 import org.opendaylight.jsonrpc.bus.messagelib.MessageLibrary;
 import org.opendaylight.jsonrpc.bus.messagelib.Session;
 import org.opendaylight.jsonrpc.bus.messagelib.ThreadedSession;
@@ -73,7 +76,9 @@ import org.opendaylight.yangtools.yang.model.api.SchemaPath;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.google.common.base.Throwables;
 import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.CheckedFuture;
 import com.google.gson.JsonElement;
 import com.google.gson.stream.JsonReader;
 
@@ -132,6 +137,29 @@ public class JsonRPCtoRPCBridgeTest extends AbstractJsonRpcTest {
         bridge.invokeRpc(path, rpcDef).checkedGet();
     }
 
+    /**
+     * Test case : Invoke RPC within deadline which already expired. <br />
+     * Expected result : request is not sent, result fails
+     *
+     * @throws Exception
+     */
+    @Test
+    public void testRpcExpiredDeadline() throws Exception {
+        NormalizedNode<?, ?> rpcDef = ImmutableNodes.containerNode(constructRpcQname(mod, "simple-method"));
+        SchemaPath path = rpcPath(mod, "simple-method");
+        final CheckedFuture<DOMRpcResult, DOMRpcException> future;
+        try (Deadline.Scope scope = Deadline.enter(Deadline.after(0, TimeUnit.MILLISECONDS))) {
+            future = bridge.invokeRpc(path, rpcDef);
+        }
+        assertNotNull(((JsonRPCDOMRpcResultFuture) future).getDeadline());
+        try {
+            future.checkedGet();
+            fail("Expired RPC should fail");
+        } catch (Exception e) {
+            assertEquals("Deadline exceeded", Throwables.getRootCause(e).getMessage());
+        }
+    }
+
     /**
      * Test case : Invoke simple method, no input and no output. <br />
      * Expected result : {@link DOMRpcResult} with no errors and no inner result
@@ -10,12 +10,19 @@ package org.opendaylight.jsonrpc.impl;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
+import java.util.Collections;
 import java.util.List;
 import java.util.Map.Entry;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 
 import org.junit.After;
@@ -25,6 +32,8 @@ import org.junit.Test;
 import org.opendaylight.controller.md.sal.binding.impl.BindingToNormalizedNodeCodec;
 import org.opendaylight.controller.md.sal.common.api.data.LogicalDatastoreType;
 import org.opendaylight.controller.md.sal.dom.api.DOMDataWriteTransaction;
+import org.opendaylight.jsonrpc.model.BulkRead;
+import org.opendaylight.jsonrpc.model.ChunkedRead;
 import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.inet.types.rev130715.Uri;
 import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.yang.types.rev130715.YangIdentifier;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.jsonrpc.rev161201.Config;
@@ -47,7 +56,10 @@ import org.slf4j.LoggerFactory;
 
 import com.google.common.base.Strings;
 import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
 import com.google.gson.JsonParser;
 
 public class RemoteControlTest extends AbstractJsonRpcTest {
@@ -101,11 +113,121 @@ public class RemoteControlTest extends AbstractJsonRpcTest {
         assertTrue(ctrl.exists(1, ENTITY, path));
     }
 
+    @Test
+    public void testReadMany() throws Exception {
+        JsonElement path = parser.parse(TEST_MODEL_PATH);
+        String tx_id = ctrl.txid();
+        ctrl.put(tx_id, 1, ENTITY, path, parser.parse("{ \"test-model:top-element\" : { \"level2a\" : {}}}"));
+        assertTrue(ctrl.commit(tx_id));
+        final JsonArray requests = new JsonArray();
+        requests.add(BulkRead.request("operational", ENTITY, path));
+        requests.add(BulkRead.request("config", ENTITY, path));
+        requests.add(BulkRead.request("operational", ENTITY, parser.parse("{\"non-existent-module:data1\":{}}")));
+        final JsonArray results = ctrl.readMany(requests).getAsJsonArray();
+        assertEquals(3, results.size());
+        assertTrue(results.get(0).getAsJsonObject().has(BulkRead.DATA));
+        assertEquals(0, results.get(1).getAsJsonObject().entrySet().size());
+        assertTrue(results.get(2).getAsJsonObject().has(BulkRead.ERROR));
+        // nested containers are cut off by depth
+        assertEquals(new JsonObject(), ctrl.read(1, ENTITY, path, parser.parse("{\"depth\" : 1}")));
+    }
+
+    @Test
+    public void testReadMissing() throws Exception {
+        final JsonElement path = parser.parse(TEST_MODEL_PATH);
+        assertNull(ctrl.read("config", ENTITY, path));
+        final JsonArray requests = new JsonArray();
+        requests.add(BulkRead.request("config", ENTITY, path));
+        assertEquals(new JsonObject(), ctrl.readMany(requests).getAsJsonArray().get(0));
+    }
+
+    @Test
+    public void testReadChunked() throws Exception {
+        final BindingToNormalizedNodeCodec codec = NormalizedNodesHelper.getBindingToNormalizedNodeCodec();
+        final Config config = new ConfigBuilder().setWhoAmI(new Uri("urn:bla"))
+                .setConfiguredEndpoints(Lists.newArrayList(new ConfiguredEndpointsBuilder().setName("name-1").build(),
+                        new ConfiguredEndpointsBuilder().setName("name-2").build(),
+                        new ConfiguredEndpointsBuilder().setName("name-3").build()))
+                .build();
+        final Entry<YangInstanceIdentifier, NormalizedNode<?, ?>> e = codec
+                .toNormalizedNode(InstanceIdentifier.create(Config.class), config);
+        final DOMDataWriteTransaction wtx = getDomBroker().newWriteOnlyTransaction();
+        wtx.put(LogicalDatastoreType.CONFIGURATION, e.getKey(), e.getValue());
+        wtx.submit().checkedGet();
+
+        final JsonElement path = conv.convert(e.getKey().node(ConfiguredEndpoints.QNAME), null).path;
+        JsonObject chunk = ctrl.readChunked("config", ENTITY, path, 2).getAsJsonObject();
+        assertTrue(chunk.has(ChunkedRead.DATA));
+        assertTrue(chunk.has(ChunkedRead.CURSOR));
+        final String cursor = chunk.get(ChunkedRead.CURSOR).getAsString();
+        chunk = ctrl.nextChunk(cursor).getAsJsonObject();
+        assertTrue(chunk.has(ChunkedRead.DATA));
+        assertFalse(chunk.has(ChunkedRead.CURSOR));
+        // last chunk released cursor
+        assertFalse(ctrl.closeCursor(cursor));
+
+        // container is read at once
+        chunk = ctrl.readChunked("config", ENTITY, conv.convert(e.getKey(), null).path, 2).getAsJsonObject();
+        assertTrue(chunk.has(ChunkedRead.DATA));
+        assertFalse(chunk.has(ChunkedRead.CURSOR));
+        // no data at path
+        assertEquals(new JsonObject(), ctrl.readChunked("operational", ENTITY, path, 2));
+    }
+
     @Test
     public void testCommitNonExistentTX() throws Exception {
         assertFalse(ctrl.commit(UUID.randomUUID().toString()));
     }
 
+    @Test
+    public void testCommitAsync() throws Exception {
+        JsonElement path = parser.parse(TEST_MODEL_PATH);
+        String tx_id = ctrl.txid();
+        ctrl.put(tx_id, 1, ENTITY, path, parser.parse("{ \"test-model:top-element\" : { \"level2a\" : {}}}"));
+        assertTrue(ctrl.commitAsync(tx_id));
+        retryAction(TimeUnit.SECONDS, 5, () -> !ctrl.pending(tx_id) && ctrl.isTxMapEmpty());
+        assertTrue(ctrl.error(tx_id).isEmpty());
+        assertTrue(ctrl.exists(1, ENTITY, path));
+        assertFalse(ctrl.commitAsync(UUID.randomUUID().toString()));
+    }
+
+    @Test
+    public void testUnknownTransaction() throws Exception {
+        // poller must not mistake transaction it never allocated for committed one
+        String tx_id = UUID.randomUUID().toString();
+        assertFalse(ctrl.pending(tx_id));
+        assertEquals(Collections.singletonList(RemoteControl.UNKNOWN_TRANSACTION), ctrl.error(tx_id));
+        assertFalse(ctrl.pending("not-a-uuid"));
+        assertEquals(Collections.singletonList(RemoteControl.UNKNOWN_TRANSACTION), ctrl.error("not-a-uuid"));
+    }
+
+    @Test
+    public void testSession() throws Exception {
+        JsonElement path = parser.parse(TEST_MODEL_PATH);
+        String session = ctrl.openSession();
+        String tx1 = ctrl.txid(session);
+        ctrl.put(tx1, 1, ENTITY, path, parser.parse("{ \"test-model:top-element\" : { \"level2a\" : {}}}"));
+        assertTrue(ctrl.commitAsync(tx1));
+        // next transaction does not wait for commit of previous one
+        String tx2 = ctrl.txid(session);
+        ctrl.merge(tx2, 1, ENTITY, path,
+                parser.parse("{ \"test-model:top-element\" : { \"level2a\" : { \"abc\" : \"123\"}}}"));
+        assertTrue(ctrl.commit(tx2));
+        retryAction(TimeUnit.SECONDS, 5, () -> ctrl.isTxMapEmpty());
+        assertTrue(ctrl.exists(1, ENTITY, path));
+        // open transaction is cancelled along with session
+        String tx3 = ctrl.txid(session);
+        assertTrue(ctrl.closeSession(session));
+        assertFalse(ctrl.commit(tx3));
+        assertFalse(ctrl.closeSession(session));
+        try {
+            ctrl.txid(session);
+            fail("Session should be closed");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+    }
+
     @Test
     public void testCancelNonExistentTX() throws Exception {
         assertFalse(ctrl.cancel(UUID.randomUUID().toString()));
@@ -168,6 +290,8 @@ public class RemoteControlTest extends AbstractJsonRpcTest {
         LOG.info("YII : {}", yii);
         final YangInstanceIdentifier ii = ctrl.path2II(parser.parse(TOPO_TP_DATA));
         assertEquals(yii, ii);
+        // recurring path is served from cache
+        assertSame(ii, ctrl.path2II(parser.parse(TOPO_TP_DATA)));
     }
 
     @Test
@@ -252,14 +376,43 @@ public class RemoteControlTest extends AbstractJsonRpcTest {
     }
 
     @Test
-    public void testFailedTransactionsVanished() throws InterruptedException {
-        String tx_id = ctrl.txid();
-        ctrl.delete(tx_id, Util.store2int(LogicalDatastoreType.CONFIGURATION), "test-model", parser.parse("{}"));
-        assertFalse(ctrl.commit(tx_id));
-        List<String> err = ctrl.error(tx_id);
-        assertFalse(err.isEmpty());
-        LOG.info("Collected errors : {}", err);
-        retryAction(TimeUnit.SECONDS, 5, () -> ctrl.isTxMapEmpty() );
+    public void testFailedTransactionsVanished() throws Exception {
+        try (RemoteControl expiring = newExpiringControl()) {
+            String tx_id = expiring.txid();
+            expiring.delete(tx_id, Util.store2int(LogicalDatastoreType.CONFIGURATION), "test-model",
+                    parser.parse("{}"));
+            assertFalse(expiring.commit(tx_id));
+            List<String> err = expiring.error(tx_id);
+            assertFalse(err.isEmpty());
+            LOG.info("Collected errors : {}", err);
+            retryAction(TimeUnit.SECONDS, 5, () -> expiring.isTxMapEmpty());
+        }
+    }
+
+    @Test
+    public void testAbandonedTransactionsExpire() throws Exception {
+        try (RemoteControl expiring = newExpiringControl()) {
+            String tx_id = expiring.txid();
+            expiring.put(tx_id, 1, ENTITY, parser.parse(TEST_MODEL_PATH),
+                    parser.parse("{ \"test-model:top-element\" : { \"level2a\" : {}}}"));
+            retryAction(TimeUnit.SECONDS, 5, () -> expiring.isTxMapEmpty());
+            // expired transaction was cancelled, so it can't be committed
+            assertFalse(expiring.commit(tx_id));
+            assertFalse(expiring.exists(1, ENTITY, parser.parse(TEST_MODEL_PATH)));
+        }
+    }
+
+    @Test
+    public void testAbandonedSessionExpires() throws Exception {
+        try (RemoteControl expiring = newExpiringControl()) {
+            String session = expiring.openSession();
+            String tx_id = expiring.txid(session);
+            // session is kept while its transaction is alive
+            retryAction(TimeUnit.SECONDS, 5, () -> expiring.isTxMapEmpty());
+            retryAction(TimeUnit.SECONDS, 5, () -> expiring.isSessionsEmpty());
+            assertFalse(expiring.commit(tx_id));
+            assertFalse(expiring.closeSession(session));
+        }
     }
 
     @Ignore @Test
@@ -328,10 +481,44 @@ public class RemoteControlTest extends AbstractJsonRpcTest {
                 parser.parse("{\"test-model:grillconf\":{}}"), parser.parse("{\"gasKnob\":10}"));
         assertTrue(ctrl.commit(uuid));
     }
+
+    @Test(timeout = 30000)
+    public void testConcurrentTxAllocation() throws Exception {
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            final List<Future<List<String>>> futures = Lists.newArrayList();
+            for (int i = 0; i < 4; i++) {
+                futures.add(executor.submit(() -> {
+                    final List<String> ids = Lists.newArrayList();
+                    for (int j = 0; j < 50; j++) {
+                        ids.add(ctrl.txid());
+                    }
+                    return ids;
+                }));
+            }
+            final Set<String> all = Sets.newHashSet();
+            for (final Future<List<String>> f : futures) {
+                all.addAll(f.get());
+            }
+            assertEquals(200, all.size());
+            for (final String txId : all) {
+                assertTrue(ctrl.cancel(txId));
+            }
+            assertTrue(ctrl.isTxMapEmpty());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
     /*
      * Helpers and utilities
      */
 
+    private RemoteControl newExpiringControl() {
+        return new RemoteControl(getDomBroker(), schemaContext, NormalizedNodesHelper.getBindingToNormalizedNodeCodec(),
+                200, 1000);
+    }
+
     private static void dumpYii(YangInstanceIdentifier yii) {
         final List<PathArgument> path = yii.getPathArguments();
         int i = 0;
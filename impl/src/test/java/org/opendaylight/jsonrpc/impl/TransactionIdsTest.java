@@ -0,0 +1,54 @@
+/*
+ * Copyright (c) 2017 Brocade Communications Systems, Inc. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.jsonrpc.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.UUID;
+
+import org.junit.Test;
+
+/**
+ * Tests for {@link TransactionIds}.
+ */
+public class TransactionIdsTest {
+    @Test
+    public void testNext() {
+        final UUID id = TransactionIds.next();
+        assertEquals(4, id.version());
+        assertEquals(2, id.variant());
+        assertNotEquals(id, TransactionIds.next());
+        assertEquals(id, UUID.fromString(id.toString()));
+    }
+
+    @Test
+    public void testParse() {
+        final UUID id = UUID.randomUUID();
+        assertEquals(id, TransactionIds.parse(id.toString()));
+        assertEquals(id, TransactionIds.parse(id.toString().toUpperCase()));
+        assertEquals(id, TransactionIds.parse(id.toString().replace("-", "")));
+        // non-canonical form accepted by UUID#fromString
+        assertEquals(new UUID(0x0000000100020003L, 0x0004000000000005L), TransactionIds.parse("1-2-3-4-5"));
+    }
+
+    @Test
+    public void testInvalid() {
+        assertNull(TransactionIds.tryParse(null));
+        assertNull(TransactionIds.tryParse(""));
+        assertNull(TransactionIds.tryParse("not-a-transaction-id"));
+        assertNull(TransactionIds.tryParse("123e4567-e89b-42d3-a456-42665544000g"));
+        assertNull(TransactionIds.tryParse("123e4567e89b42d3a45642665544000g"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testParseInvalid() {
+        TransactionIds.parse("123e4567+e89b+42d3+a456+426655440000");
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright (c) 2017 Brocade Communications Systems, Inc. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.jsonrpc.model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.Test;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParser;
+
+/**
+ * Tests for {@link ReadOptions}.
+ */
+public class ReadOptionsTest {
+    private static final String DATA = "{\"topology\":[" + "{\"topology-id\":\"t1\",\"node\":[{\"node-id\":\"n1\"}],"
+            + "\"topology-types\":{\"other\":{}}},"
+            + "{\"topology-id\":\"t2\",\"node\":[{\"node-id\":\"n2\"}]},"
+            + "{\"topology-id\":\"t3\",\"server-provided\":true}]}";
+    private final JsonParser parser = new JsonParser();
+
+    @Test
+    public void testJson() {
+        final ReadOptions options = new ReadOptions(Arrays.asList("a", "b/c"), 2, 10, 5);
+        final ReadOptions parsed = ReadOptions.fromJson(options.toJson());
+        assertEquals(options.getFields(), parsed.getFields());
+        assertEquals(2, parsed.getDepth());
+        assertEquals(10, parsed.getOffset());
+        assertEquals(5, parsed.getLimit());
+        assertSame(ReadOptions.NONE, ReadOptions.fromJson(null));
+        assertTrue(ReadOptions.fromJson(parser.parse("{}")).isEmpty());
+    }
+
+    @Test
+    public void testPaging() {
+        final JsonElement data = parser.parse(DATA);
+        assertEquals(parser.parse("{\"topology\":[{\"topology-id\":\"t2\",\"node\":[{\"node-id\":\"n2\"}]}]}"),
+                new ReadOptions(Collections.emptyList(), 0, 1, 1).apply(data));
+        assertEquals(0, new ReadOptions(Collections.emptyList(), 0, 10, 0).apply(data).getAsJsonObject()
+                .getAsJsonArray("topology").size());
+    }
+
+    @Test
+    public void testFields() {
+        final JsonElement data = parser.parse(DATA);
+        assertEquals(
+                parser.parse("{\"topology\":[{\"topology-id\":\"t1\",\"node\":[{\"node-id\":\"n1\"}]},"
+                        + "{\"topology-id\":\"t2\",\"node\":[{\"node-id\":\"n2\"}]},{\"topology-id\":\"t3\"}]}"),
+                new ReadOptions(Arrays.asList("network-topology:topology/topology-id", "topology/node/node-id"), 0,
+                        0, 0).apply(data));
+    }
+
+    @Test
+    public void testDepth() {
+        final JsonElement data = parser.parse(DATA);
+        assertEquals(parser.parse("{}"), new ReadOptions(Collections.emptyList(), 1, 0, 0).apply(data));
+        assertEquals(
+                parser.parse("{\"topology\":[{\"topology-id\":\"t1\"},{\"topology-id\":\"t2\"},"
+                        + "{\"topology-id\":\"t3\",\"server-provided\":true}]}"),
+                new ReadOptions(Collections.emptyList(), 2, 0, 0).apply(data));
+    }
+}